@@ -57,6 +57,14 @@ public class WebConfig implements WebMvcConfigurer {
                  */
                 .allowedHeaders("*")
 
+                /**
+                 * Headers de resposta que o navegador pode ler.
+                 *
+                 * - ETag: GET condicional no catálogo/disponibilidade públicos
+                 *   (front reenvia em If-None-Match e recebe 304 se nada mudou)
+                 */
+                .exposedHeaders("ETag")
+
                 /**
                  * Permite o envio de credenciais na requisição.
                  *
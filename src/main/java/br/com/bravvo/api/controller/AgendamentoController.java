@@ -2,9 +2,11 @@ package br.com.bravvo.api.controller;
 
 import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
 import br.com.bravvo.api.dto.agendamento.ClienteAgendamentoCreateRequestDTO;
+import br.com.bravvo.api.dto.common.CursorPagedResponseDTO;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.repository.UserRepository;
 import br.com.bravvo.api.service.AgendamentoService;
+import br.com.bravvo.api.service.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.media.*;
@@ -15,7 +17,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,10 +28,13 @@ public class AgendamentoController {
 
 	private final AgendamentoService agendamentoService;
 	private final UserRepository userRepository;
+	private final IdempotenciaService idempotenciaService;
 
-	public AgendamentoController(AgendamentoService agendamentoService, UserRepository userRepository) {
+	public AgendamentoController(AgendamentoService agendamentoService, UserRepository userRepository,
+			IdempotenciaService idempotenciaService) {
 		this.agendamentoService = agendamentoService;
 		this.userRepository = userRepository;
+		this.idempotenciaService = idempotenciaService;
 	}
 
 	@Operation(summary = "Cria agendamento (cliente logado)", description = """
@@ -39,6 +43,10 @@ public class AgendamentoController {
 			Regras:
 			- clienteId é derivado do JWT (subject=email -> busca no banco)
 			- validações finais + gera protocolo
+
+			Idempotência:
+			- header opcional Idempotency-Key: retries com a mesma key devolvem o
+			  agendamento original (mesma key com outro corpo = 409)
 			""", security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Agendamento criado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class))),
@@ -48,7 +56,8 @@ public class AgendamentoController {
 			@ApiResponse(responseCode = "409", description = "Conflito de horário") })
 	@PreAuthorize("hasRole('CLIENTE')")
 	@PostMapping
-	public ResponseEntity<?> create(@Valid @RequestBody ClienteAgendamentoCreateRequestDTO request) {
+	public ResponseEntity<?> create(@Valid @RequestBody ClienteAgendamentoCreateRequestDTO request,
+			@RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
 
 		// No seu projeto: auth.getName() == email (subject do JWT)
 		String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -56,19 +65,26 @@ public class AgendamentoController {
 		Long clienteId = userRepository.findByEmail(email)
 				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
 
-		var data = agendamentoService.createClienteLogado(clienteId, request);
+		var data = idempotenciaService.executar("cliente:" + clienteId, idempotencyKey, request,
+				chave -> agendamentoService.createClienteLogado(clienteId, request, chave));
 
 		// Padrão do projeto: { success, data }
 		return ResponseEntity.ok(Map.of("success", true, "data", data));
 	}
 
 	@Operation(summary = "Lista meus agendamentos (cliente logado)", description = """
-			Retorna os agendamentos do CLIENTE autenticado.
+			Retorna os agendamentos do CLIENTE autenticado, paginados por cursor
+			(ordem: inicio, id).
 
 			Query params (opcionais):
-			- from=yyyy-MM-dd
-			- to=yyyy-MM-dd
+			- from=yyyy-MM-dd (padrão: hoje - 30 dias)
+			- to=yyyy-MM-dd (padrão: from + 90 dias; período máximo de 366 dias)
 			- status=pendente,confirmado,em_atendimento,concluido,cancelado
+			- cursor=nextCursor da página anterior (mesmos from/to/status)
+			- limit=1..100 (padrão 20)
+
+			Resposta:
+			{ "success": true, "data": { limit, nextCursor, items } } (nextCursor null = última página)
 			""", security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Lista retornada com sucesso"),
 			@ApiResponse(responseCode = "401", description = "Não autenticado"),
@@ -76,13 +92,40 @@ public class AgendamentoController {
 	@PreAuthorize("hasRole('CLIENTE')")
 	@GetMapping("/me")
 	public ResponseEntity<?> listMe(@RequestParam(required = false) String from,
-			@RequestParam(required = false) String to, @RequestParam(required = false) String status) {
+			@RequestParam(required = false) String to, @RequestParam(required = false) String status,
+			@RequestParam(required = false) String cursor, @RequestParam(defaultValue = "20") int limit) {
+		String email = SecurityContextHolder.getContext().getAuthentication().getName();
+
+		Long clienteId = userRepository.findByEmail(email)
+				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
+
+		CursorPagedResponseDTO<AgendamentoItemResponseDTO> data = agendamentoService.listCliente(clienteId, from, to,
+				status, cursor, limit);
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Cancela meu agendamento (cliente logado)", description = """
+			Cancela um agendamento do CLIENTE autenticado.
+
+			Regras:
+			- só o próprio cliente (403 para agendamento de outro)
+			- só pendente/confirmado
+			- o horário volta a ficar livre na disponibilidade
+			""", security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Agendamento cancelado"),
+			@ApiResponse(responseCode = "401", description = "Não autenticado"),
+			@ApiResponse(responseCode = "403", description = "Agendamento de outro cliente"),
+			@ApiResponse(responseCode = "404", description = "Agendamento não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Status não permite cancelamento") })
+	@PreAuthorize("hasRole('CLIENTE')")
+	@PutMapping("/{id}/cancelar")
+	public ResponseEntity<?> cancelar(@PathVariable Long id) {
 		String email = SecurityContextHolder.getContext().getAuthentication().getName();
 
 		Long clienteId = userRepository.findByEmail(email)
 				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
 
-		List<AgendamentoItemResponseDTO> data = agendamentoService.listCliente(clienteId, from, to, status);
+		AgendamentoItemResponseDTO data = agendamentoService.cancelarCliente(clienteId, id);
 		return ResponseEntity.ok(Map.of("success", true, "data", data));
 	}
 }
@@ -2,9 +2,12 @@ package br.com.bravvo.api.controller;
 
 import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
 import br.com.bravvo.api.dto.agendamento.FuncionarioAgendamentoCreateRequestDTO;
+import br.com.bravvo.api.dto.agendamento.FuncionarioAgendamentoLoteRequestDTO;
+import br.com.bravvo.api.dto.common.CursorPagedResponseDTO;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.repository.UserRepository;
 import br.com.bravvo.api.service.AgendamentoService;
+import br.com.bravvo.api.service.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.media.*;
@@ -15,7 +18,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,10 +29,13 @@ public class FuncionarioAgendamentoController {
 
 	private final AgendamentoService agendamentoService;
 	private final UserRepository userRepository;
+	private final IdempotenciaService idempotenciaService;
 
-	public FuncionarioAgendamentoController(AgendamentoService agendamentoService, UserRepository userRepository) {
+	public FuncionarioAgendamentoController(AgendamentoService agendamentoService, UserRepository userRepository,
+			IdempotenciaService idempotenciaService) {
 		this.agendamentoService = agendamentoService;
 		this.userRepository = userRepository;
+		this.idempotenciaService = idempotenciaService;
 	}
 
 	@Operation(summary = "Cria agendamento (funcionário logado)", description = """
@@ -41,6 +46,10 @@ public class FuncionarioAgendamentoController {
 			Regras:
 			- funcionarioId é derivado do JWT (subject=email -> busca no banco)
 			- valida conflito final + gera protocolo
+
+			Idempotência:
+			- header opcional Idempotency-Key: retries com a mesma key devolvem o
+			  agendamento original (mesma key com outro corpo = 409)
 			""", security = @SecurityRequirement(name = "bearerAuth"))
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Agendamento criado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class))),
@@ -50,7 +59,8 @@ public class FuncionarioAgendamentoController {
 			@ApiResponse(responseCode = "409", description = "Conflito de horário") })
 	@PreAuthorize("hasRole('FUNCIONARIO')")
 	@PostMapping
-	public ResponseEntity<?> create(@Valid @RequestBody FuncionarioAgendamentoCreateRequestDTO request) {
+	public ResponseEntity<?> create(@Valid @RequestBody FuncionarioAgendamentoCreateRequestDTO request,
+			@RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
 
 		// No seu projeto: auth.getName() == email (subject do JWT)
 		String email = SecurityContextHolder.getContext().getAuthentication().getName();
@@ -58,7 +68,42 @@ public class FuncionarioAgendamentoController {
 		Long funcionarioId = userRepository.findByEmail(email)
 				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
 
-		var data = agendamentoService.createFuncionario(funcionarioId, request);
+		var data = idempotenciaService.executar("funcionario:" + funcionarioId, idempotencyKey, request,
+				chave -> agendamentoService.createFuncionario(funcionarioId, request, chave));
+
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Cria agendamentos em lote (recorrência ou pacote)", description = """
+			Funcionário cria vários agendamentos do mesmo cliente/serviço de uma vez:
+			- recorrencia: { data, hora, ocorrencias, intervaloSemanas } (ex.: toda
+			  terça 10:00 por 8 semanas)
+			- OU horarios: [ { data, hora } ] (pacote com horários avulsos)
+
+			Regras:
+			- mesmas validações do agendamento único, feitas uma vez para o lote
+			- até 52 ocorrências
+			- ocorrência em conflito não impede as demais: volta com
+			  resultado "conflito"
+
+			Retorno:
+			- { success: true, data: { criados, conflitos, itens[ { inicio, fim, resultado, id, protocolo, status } ] } }
+			""", security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Lote processado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class))),
+			@ApiResponse(responseCode = "400", description = "Dados inválidos / regras violadas"),
+			@ApiResponse(responseCode = "401", description = "Não autenticado"),
+			@ApiResponse(responseCode = "403", description = "Acesso negado (somente FUNCIONARIO)") })
+	@PreAuthorize("hasRole('FUNCIONARIO')")
+	@PostMapping("/lote")
+	public ResponseEntity<?> createLote(@Valid @RequestBody FuncionarioAgendamentoLoteRequestDTO request) {
+
+		String email = SecurityContextHolder.getContext().getAuthentication().getName();
+
+		Long funcionarioId = userRepository.findByEmail(email)
+				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
+
+		var data = agendamentoService.createFuncionarioLote(funcionarioId, request);
 
 		return ResponseEntity.ok(Map.of("success", true, "data", data));
 	}
@@ -66,12 +111,18 @@ public class FuncionarioAgendamentoController {
 	@Operation(
 		    summary = "Lista minha agenda (funcionário logado)",
 		    description = """
-		        Retorna os agendamentos do FUNCIONÁRIO autenticado.
+		        Retorna os agendamentos do FUNCIONÁRIO autenticado, paginados por
+		        cursor (ordem: inicio, id).
 
 		        Query params (opcionais):
-		        - from=yyyy-MM-dd
-		        - to=yyyy-MM-dd
+		        - from=yyyy-MM-dd (padrão: hoje - 30 dias)
+		        - to=yyyy-MM-dd (padrão: from + 90 dias; período máximo de 366 dias)
 		        - status=pendente,confirmado,em_atendimento,concluido,cancelado
+		        - cursor=nextCursor da página anterior (mesmos from/to/status)
+		        - limit=1..100 (padrão 20)
+
+		        Resposta:
+		        { "success": true, "data": { limit, nextCursor, items } } (nextCursor null = última página)
 		        """,
 		    security = @SecurityRequirement(name = "bearerAuth")
 		)
@@ -85,7 +136,9 @@ public class FuncionarioAgendamentoController {
 		public ResponseEntity<?> listMe(
 		        @RequestParam(required = false) String from,
 		        @RequestParam(required = false) String to,
-		        @RequestParam(required = false) String status
+		        @RequestParam(required = false) String status,
+		        @RequestParam(required = false) String cursor,
+		        @RequestParam(defaultValue = "20") int limit
 		) {
 		    String email = SecurityContextHolder.getContext().getAuthentication().getName();
 
@@ -93,7 +146,33 @@ public class FuncionarioAgendamentoController {
 		            .orElseThrow(() -> new NotFoundException("Usuário não encontrado."))
 		            .getId();
 
-		    List<AgendamentoItemResponseDTO> data = agendamentoService.listFuncionario(funcionarioId, from, to, status);
+		    CursorPagedResponseDTO<AgendamentoItemResponseDTO> data =
+		            agendamentoService.listFuncionario(funcionarioId, from, to, status, cursor, limit);
 		    return ResponseEntity.ok(Map.of("success", true, "data", data));
 		}
+
+	@Operation(summary = "Cancela agendamento da minha agenda (funcionário logado)", description = """
+			Cancela um agendamento da agenda do FUNCIONÁRIO autenticado.
+
+			Regras:
+			- só agendamentos do próprio funcionário (403 para os de outro)
+			- só pendente/confirmado
+			- o horário volta a ficar livre na disponibilidade
+			""", security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Agendamento cancelado"),
+			@ApiResponse(responseCode = "401", description = "Não autenticado"),
+			@ApiResponse(responseCode = "403", description = "Agendamento de outro funcionário"),
+			@ApiResponse(responseCode = "404", description = "Agendamento não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Status não permite cancelamento") })
+	@PreAuthorize("hasRole('FUNCIONARIO')")
+	@PutMapping("/{id}/cancelar")
+	public ResponseEntity<?> cancelar(@PathVariable Long id) {
+		String email = SecurityContextHolder.getContext().getAuthentication().getName();
+
+		Long funcionarioId = userRepository.findByEmail(email)
+				.orElseThrow(() -> new NotFoundException("Usuário não encontrado.")).getId();
+
+		AgendamentoItemResponseDTO data = agendamentoService.cancelarFuncionario(funcionarioId, id);
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
 }
@@ -0,0 +1,75 @@
+package br.com.bravvo.api.controller;
+
+import br.com.bravvo.api.dto.funcionario.FuncionarioFilaChamadaResponseDTO;
+import br.com.bravvo.api.exception.NotFoundException;
+import br.com.bravvo.api.repository.UserRepository;
+import br.com.bravvo.api.service.FilaEsperaService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.*;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * Endpoints autenticados para FUNCIONARIO atender a fila de espera.
+ */
+@RestController
+@RequestMapping("/api/funcionarios/fila")
+public class FuncionarioFilaController {
+
+	private final FilaEsperaService filaEsperaService;
+	private final UserRepository userRepository;
+
+	public FuncionarioFilaController(FilaEsperaService filaEsperaService, UserRepository userRepository) {
+		this.filaEsperaService = filaEsperaService;
+		this.userRepository = userRepository;
+	}
+
+	@Operation(summary = "Chama o próximo da fila (funcionário logado)", description = """
+			Chama a ficha mais antiga entre:
+			- a fila do funcionário
+			- as filas dos serviços habilitados para ele
+
+			Regras:
+			- funcionarioId é derivado do JWT (subject=email -> busca no banco)
+			- a ficha passa para em_atendimento com o funcionário logado
+			""", security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Ficha chamada"),
+			@ApiResponse(responseCode = "401", description = "Não autenticado"),
+			@ApiResponse(responseCode = "403", description = "Acesso negado (somente FUNCIONARIO)"),
+			@ApiResponse(responseCode = "404", description = "Ninguém aguardando") })
+	@PreAuthorize("hasRole('FUNCIONARIO')")
+	@PostMapping("/chamar")
+	public ResponseEntity<?> chamar() {
+		FuncionarioFilaChamadaResponseDTO data = filaEsperaService.chamarProximo(funcionarioLogado());
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Conclui atendimento da fila (funcionário logado)", description = """
+			Regras:
+			- só quem chamou a ficha conclui
+			- a ficha sai da fila (concluido)
+			""", security = @SecurityRequirement(name = "bearerAuth"))
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Atendimento concluído"),
+			@ApiResponse(responseCode = "401", description = "Não autenticado"),
+			@ApiResponse(responseCode = "403", description = "Atendimento de outro funcionário"),
+			@ApiResponse(responseCode = "404", description = "Atendimento não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Ficha não está em atendimento") })
+	@PreAuthorize("hasRole('FUNCIONARIO')")
+	@PutMapping("/{id}/concluir")
+	public ResponseEntity<?> concluir(@PathVariable Long id) {
+		FuncionarioFilaChamadaResponseDTO data = filaEsperaService.concluir(funcionarioLogado(), id);
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	private Long funcionarioLogado() {
+		String email = SecurityContextHolder.getContext().getAuthentication().getName();
+
+		return userRepository.findByEmail(email).orElseThrow(() -> new NotFoundException("Usuário não encontrado."))
+				.getId();
+	}
+}
@@ -2,7 +2,9 @@ package br.com.bravvo.api.controller;
 
 import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
 import br.com.bravvo.api.dto.agendamento.PublicAgendamentoCreateRequestDTO;
+import br.com.bravvo.api.dto.agendamento.PublicComboAgendamentoCreateRequestDTO;
 import br.com.bravvo.api.service.AgendamentoService;
+import br.com.bravvo.api.service.IdempotenciaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.media.*;
@@ -20,9 +22,12 @@ import java.util.Map;
 public class PublicAgendamentoController {
 
 	private final AgendamentoService agendamentoService;
+	private final IdempotenciaService idempotenciaService;
 
-	public PublicAgendamentoController(AgendamentoService agendamentoService) {
+	public PublicAgendamentoController(AgendamentoService agendamentoService,
+			IdempotenciaService idempotenciaService) {
 		this.agendamentoService = agendamentoService;
+		this.idempotenciaService = idempotenciaService;
 	}
 
 	@Operation(summary = "Cria agendamento público (visitante)", description = """
@@ -34,6 +39,10 @@ public class PublicAgendamentoController {
 			- resolve duração (prefs_json -> fallback)
 			- valida conflito final
 			- gera protocolo
+
+			Idempotência:
+			- header opcional Idempotency-Key: retries com a mesma key devolvem o
+			  agendamento original (mesma key com outro corpo = 409)
 			""")
 	@ApiResponses({
 			@ApiResponse(responseCode = "200", description = "Agendamento criado", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class))),
@@ -41,8 +50,34 @@ public class PublicAgendamentoController {
 			@ApiResponse(responseCode = "404", description = "Serviço/Funcionário não encontrado"),
 			@ApiResponse(responseCode = "409", description = "Conflito de horário") })
 	@PostMapping
-	public ResponseEntity<?> create(@Valid @RequestBody PublicAgendamentoCreateRequestDTO request) {
-		var data = agendamentoService.createPublic(request);
+	public ResponseEntity<?> create(@Valid @RequestBody PublicAgendamentoCreateRequestDTO request,
+			@RequestHeader(value = IdempotenciaService.HEADER, required = false) String idempotencyKey) {
+		var data = idempotenciaService.executar("publico", idempotencyKey, request,
+				chave -> agendamentoService.createPublic(request, chave));
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Cria agendamento de combo (visitante)", description = """
+			Agenda vários serviços em sequência (ex.: corte + barba +
+			sobrancelha), cada item com seu funcionário.
+
+			Regras:
+			- o primeiro item começa em data/hora; cada item seguinte começa
+			  quando o anterior termina (duração resolvida por funcionário)
+			- mesmas validações do agendamento único, para cada item
+			- tudo ou nada: se um item conflitar, nenhum é criado
+
+			Retorno:
+			- { success: true, data: [ { id, protocolo, inicio, fim, status }, ... ] } (um por item)
+			""")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Agendamentos criados", content = @Content(mediaType = "application/json", schema = @Schema(implementation = Object.class))),
+			@ApiResponse(responseCode = "400", description = "Dados inválidos / regras violadas"),
+			@ApiResponse(responseCode = "404", description = "Serviço/Funcionário não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Conflito de horário") })
+	@PostMapping("/combo")
+	public ResponseEntity<?> createCombo(@Valid @RequestBody PublicComboAgendamentoCreateRequestDTO request) {
+		var data = agendamentoService.createPublicCombo(request);
 		return ResponseEntity.ok(Map.of("success", true, "data", data));
 	}
 	
@@ -2,12 +2,14 @@ package br.com.bravvo.api.controller;
 
 import br.com.bravvo.api.dto.publico.PublicFuncionarioServicoResponseDTO;
 import br.com.bravvo.api.dto.publico.PublicServicoResponseDTO;
+import br.com.bravvo.api.service.DisponibilidadeVersoes;
 import br.com.bravvo.api.service.PublicCatalogService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.*;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -19,6 +21,7 @@ import java.util.List;
  * Regras:
  * - Não exige JWT
  * - Retorna dados mínimos e seguros
+ * - Responde com ETag; If-None-Match igual -> 304 sem consultar o banco
  */
 @RestController
 @RequestMapping("/api/public")
@@ -29,9 +32,11 @@ import java.util.List;
 public class PublicCatalogController {
 
     private final PublicCatalogService publicCatalogService;
+    private final DisponibilidadeVersoes versoes;
 
-    public PublicCatalogController(PublicCatalogService publicCatalogService) {
+    public PublicCatalogController(PublicCatalogService publicCatalogService, DisponibilidadeVersoes versoes) {
         this.publicCatalogService = publicCatalogService;
+        this.versoes = versoes;
     }
 
     @GetMapping("/servicos")
@@ -40,9 +45,13 @@ public class PublicCatalogController {
         description = "Retorna somente serviços ATIVOS com dados mínimos (id, nome, valor)."
     )
     @ApiResponses({
-        @ApiResponse(responseCode = "200", description = "Serviços retornados com sucesso")
+        @ApiResponse(responseCode = "200", description = "Serviços retornados com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Catálogo não mudou desde a ETag informada")
     })
-    public ResponseEntity<List<PublicServicoResponseDTO>> listServicosPublicos() {
+    public ResponseEntity<List<PublicServicoResponseDTO>> listServicosPublicos(WebRequest webRequest) {
+        if (webRequest.checkNotModified(versoes.etagCatalogo())) {
+            return null; // 304
+        }
         return ResponseEntity.ok(publicCatalogService.listServicosPublicos());
     }
 
@@ -58,11 +67,16 @@ public class PublicCatalogController {
     )
     @ApiResponses({
         @ApiResponse(responseCode = "200", description = "Funcionários retornados com sucesso"),
+        @ApiResponse(responseCode = "304", description = "Catálogo não mudou desde a ETag informada"),
         @ApiResponse(responseCode = "404", description = "Serviço não encontrado ou indisponível")
     })
     public ResponseEntity<List<PublicFuncionarioServicoResponseDTO>> listFuncionariosPorServico(
-            @PathVariable Long servicoId
+            @PathVariable Long servicoId,
+            WebRequest webRequest
     ) {
+        if (webRequest.checkNotModified(versoes.etagCatalogo())) {
+            return null; // 304
+        }
         return ResponseEntity.ok(publicCatalogService.listFuncionariosPorServico(servicoId));
     }
 }
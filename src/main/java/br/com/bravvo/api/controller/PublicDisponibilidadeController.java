@@ -1,15 +1,31 @@
 package br.com.bravvo.api.controller;
 
+import br.com.bravvo.api.dto.publico.PublicComboDisponibilidadeResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeMesResponseDTO;
 import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeServicoResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicProximosHorariosResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicReservaCreateRequestDTO;
+import br.com.bravvo.api.dto.publico.PublicReservaResponseDTO;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.service.DisponibilidadeStreamHub;
+import br.com.bravvo.api.service.DisponibilidadeVersoes;
 import br.com.bravvo.api.service.PublicDisponibilidadeService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.*;
 import io.swagger.v3.oas.annotations.media.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -20,6 +36,43 @@ import java.util.Map;
  * - escolhe a data
  * - chama este endpoint para receber os horários disponíveis
  *
+ * Modo período (calendário):
+ * - em vez de "data", enviar "from" e "to" (yyyy-MM-dd)
+ * - retorna uma lista com um item por dia, calculada com carga em lote
+ *
+ * Qualquer profissional:
+ * - GET /api/public/servicos/{servicoId}/disponibilidade?data=yyyy-MM-dd
+ * - união dos horários de todos os funcionários do serviço (uma chamada só,
+ *   em vez de uma por funcionário)
+ *
+ * Próximo horário livre:
+ * - GET /api/public/disponibilidade/proxima?servicoId=...[&funcionarioId=...]
+ * - sem funcionarioId: qualquer profissional do serviço
+ *
+ * Mapa do mês (calendário):
+ * - GET /api/public/disponibilidade/mes?servicoId=...&funcionarioId=...&mes=yyyy-MM
+ * - só a quantidade de horários livres por dia
+ *
+ * Combo (serviços em sequência):
+ * - GET /api/public/disponibilidade/combo?servicoIds=1,2,3&data=yyyy-MM-dd[&funcionarioId=...]
+ * - inícios em que todos os serviços cabem um após o outro
+ *
+ * GET condicional:
+ * - respostas trazem ETag (versões em memória, ver DisponibilidadeVersoes)
+ * - If-None-Match igual -> 304 sem consultar o banco
+ * - exceção: /disponibilidade/proxima depende do horário atual (sem ETag)
+ * - /disponibilidade/combo envolve vários funcionários (sem ETag)
+ *
+ * Tempo real (SSE):
+ * - GET /api/public/disponibilidade/stream?servicoId=...&funcionarioId=...&data=yyyy-MM-dd
+ * - envia os horários na conexão e a cada alteração do dia (agendamento,
+ *   bloqueio, agenda), com rajadas agrupadas em um único envio
+ *
+ * Reserva no checkout:
+ * - POST /api/public/disponibilidade/holds -> token válido por alguns minutos
+ * - enquanto vale, o horário some para os outros clientes
+ * - o agendamento público envia o token em "holdToken"
+ *
  * Observação:
  * - Se não houver horários disponíveis, retorna "horarios": [] (não é erro).
  */
@@ -28,9 +81,14 @@ import java.util.Map;
 public class PublicDisponibilidadeController {
 
     private final PublicDisponibilidadeService service;
+    private final DisponibilidadeVersoes versoes;
+    private final DisponibilidadeStreamHub streamHub;
 
-    public PublicDisponibilidadeController(PublicDisponibilidadeService service) {
+    public PublicDisponibilidadeController(PublicDisponibilidadeService service, DisponibilidadeVersoes versoes,
+            DisponibilidadeStreamHub streamHub) {
         this.service = service;
+        this.versoes = versoes;
+        this.streamHub = streamHub;
     }
 
     @Operation(
@@ -47,8 +105,14 @@ public class PublicDisponibilidadeController {
                 - funcionário deve estar ATIVO e perfil FUNCIONARIO
                 - serviço deve estar habilitado para o funcionário
                 
+                Modos:
+                - por data: informe "data"
+                - por período: informe "from" e "to" (máx. 62 dias), para montar
+                  o calendário em uma única chamada
+                
                 Retorno:
-                - { success: true, data: { data, duracaoMin, horarios[] } }
+                - por data: { success: true, data: { data, duracaoMin, horarios[] } }
+                - por período: { success: true, data: [ { data, duracaoMin, horarios[] }, ... ] }
                 - horários vazios não representam erro.
             """
     )
@@ -59,6 +123,16 @@ public class PublicDisponibilidadeController {
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Object.class))
             ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Não mudou desde a ETag informada (If-None-Match)"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Parâmetros de data/período inválidos",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
             @ApiResponse(
                     responseCode = "404",
                     description = "Serviço ou funcionário não encontrado",
@@ -70,11 +144,344 @@ public class PublicDisponibilidadeController {
     public ResponseEntity<?> getDisponibilidade(
             @RequestParam Long servicoId,
             @RequestParam Long funcionarioId,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            WebRequest webRequest
     ) {
+        if (from != null || to != null) {
+            if (from == null || to == null) {
+                throw new BusinessException("Informe 'from' e 'to' para consultar um período.");
+            }
+
+            if (webRequest.checkNotModified(versoes.etagPeriodo(funcionarioId, from, to))) {
+                return null; // 304
+            }
+
+            List<PublicDisponibilidadeResponseDTO> dias =
+                    service.getDisponibilidadePeriodo(servicoId, funcionarioId, from, to);
+
+            return ResponseEntity.ok(Map.of("success", true, "data", dias));
+        }
+
+        if (data == null) {
+            throw new BusinessException("Informe 'data' ou o período 'from'/'to'.");
+        }
+
+        if (webRequest.checkNotModified(versoes.etagDia(funcionarioId, data))) {
+            return null; // 304
+        }
+
         PublicDisponibilidadeResponseDTO dto = service.getDisponibilidade(servicoId, funcionarioId, data);
 
         // Mantendo padrão simples: { success, data }
         return ResponseEntity.ok(Map.of("success", true, "data", dto));
     }
+
+    @Operation(
+            summary = "Disponibilidade pública do serviço (qualquer profissional)",
+            description = """
+                Retorna a união dos horários livres de todos os funcionários
+                ativos que executam o serviço, em uma data.
+                
+                Cada horário traz os IDs dos funcionários livres nele; a lista
+                "funcionarios" traz nome e duração resolvida de cada um.
+                
+                Mesmas regras da disponibilidade por funcionário (agenda,
+                bloqueios, agendamentos bloqueantes, duração por funcionário).
+                
+                Retorno:
+                - { success: true, data: { data, servicoId, funcionarios[], horarios[ { horario, funcionarioIds[] } ] } }
+                - horários vazios não representam erro.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Disponibilidade retornada (pode vir vazia)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Não mudou desde a ETag informada (If-None-Match)"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @GetMapping("/servicos/{servicoId}/disponibilidade")
+    public ResponseEntity<?> getDisponibilidadeServico(
+            @PathVariable Long servicoId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data,
+            WebRequest webRequest
+    ) {
+        // depende de todos os funcionários do serviço: versão global (sem banco)
+        if (webRequest.checkNotModified(versoes.etagGlobal())) {
+            return null; // 304
+        }
+
+        PublicDisponibilidadeServicoResponseDTO dto = service.getDisponibilidadeServico(servicoId, data);
+
+        return ResponseEntity.ok(Map.of("success", true, "data", dto));
+    }
+
+    @Operation(
+            summary = "Próximos horários livres (um funcionário ou qualquer profissional)",
+            description = """
+                Procura, a partir de agora, os primeiros horários livres do serviço.
+                
+                Modos:
+                - com funcionarioId: só aquele funcionário
+                - sem funcionarioId: qualquer profissional ativo do serviço
+                
+                Regras:
+                - mesmas regras da disponibilidade por data
+                - horários de hoje que já passaram não entram
+                - retorna no máximo "limit" horários (padrão 5, máx. 50 — ajustável em configuracoes)
+                - procura no máximo 60 dias à frente
+                
+                Retorno:
+                - { success: true, data: { servicoId, funcionarios[], horarios[ { data, horario, funcionarioIds[] } ] } }
+                - horários vazios não representam erro.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Horários retornados (pode vir vazio)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Parâmetro 'limit' inválido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço ou funcionário não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @GetMapping("/disponibilidade/proxima")
+    public ResponseEntity<?> getProximosHorarios(
+            @RequestParam Long servicoId,
+            @RequestParam(required = false) Long funcionarioId,
+            @RequestParam(required = false) Integer limit
+    ) {
+        PublicProximosHorariosResponseDTO dto = service.getProximosHorarios(servicoId, funcionarioId, limit);
+
+        return ResponseEntity.ok(Map.of("success", true, "data", dto));
+    }
+
+    @Operation(
+            summary = "Mapa de disponibilidade do mês (livres por dia)",
+            description = """
+                Retorna, para cada dia do mês, a quantidade de horários livres
+                do funcionário para o serviço. Serve para sombrear o calendário
+                sem montar as listas de horários.
+                
+                Mesmas regras da disponibilidade por data. Se o serviço/funcionário
+                estiver indisponível, todos os dias vêm com 0.
+                
+                Retorno:
+                - { success: true, data: { mes, duracaoMin, dias[ { data, livres } ] } }
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Mapa retornado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "304",
+                    description = "Não mudou desde a ETag informada (If-None-Match)"
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço ou funcionário não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @GetMapping("/disponibilidade/mes")
+    public ResponseEntity<?> getDisponibilidadeMes(
+            @RequestParam Long servicoId,
+            @RequestParam Long funcionarioId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM") YearMonth mes,
+            WebRequest webRequest
+    ) {
+        if (webRequest.checkNotModified(versoes.etagPeriodo(funcionarioId, mes.atDay(1), mes.atEndOfMonth()))) {
+            return null; // 304
+        }
+
+        PublicDisponibilidadeMesResponseDTO dto = service.getDisponibilidadeMes(servicoId, funcionarioId, mes);
+
+        return ResponseEntity.ok(Map.of("success", true, "data", dto));
+    }
+
+    @Operation(
+            summary = "Disponibilidade de combo (serviços em sequência)",
+            description = """
+                Retorna os inícios em que todos os serviços informados cabem um
+                logo após o outro, na ordem (ex.: corte + barba + sobrancelha).
+                
+                Profissional:
+                - funcionarioId informado: todas as etapas com ele
+                - sem funcionarioId: cada etapa com qualquer profissional
+                  habilitado (pode trocar entre etapas)
+                
+                Para agendar, enviar o horário e as etapas para
+                POST /api/public/agendamentos/combo.
+                
+                Retorno:
+                - { success: true, data: { data, servicoIds[], horarios[ { horario, fim, etapas[ { servicoId, funcionarioId, inicio, fim } ] } ] } }
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Combos retornados (pode vir vazio)",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Quantidade de serviços inválida",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço ou funcionário não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @GetMapping("/disponibilidade/combo")
+    public ResponseEntity<?> getDisponibilidadeCombo(
+            @RequestParam List<Long> servicoIds,
+            @RequestParam(required = false) Long funcionarioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data
+    ) {
+        PublicComboDisponibilidadeResponseDTO dto = service.getDisponibilidadeCombo(servicoIds, funcionarioId, data);
+
+        return ResponseEntity.ok(Map.of("success", true, "data", dto));
+    }
+
+    @Operation(
+            summary = "Disponibilidade em tempo real (SSE)",
+            description = """
+                Abre um stream Server-Sent Events com os horários livres do
+                funcionário no dia, para o serviço informado.
+                
+                Eventos:
+                - "disponibilidade": { data, duracaoMin, horarios[] }
+                  - enviado ao conectar e sempre que o dia mudar (agendamento,
+                    bloqueio, agenda semanal, serviços/durações)
+                  - várias alterações seguidas geram um único envio
+                - comentário ":ping" periódico (mantém a conexão viva)
+                
+                A conexão expira após alguns minutos; o EventSource do navegador
+                reconecta sozinho.
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Stream aberto (text/event-stream)"
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Limite de conexões em tempo real atingido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço ou funcionário não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @GetMapping(value = "/disponibilidade/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamDisponibilidade(
+            @RequestParam Long servicoId,
+            @RequestParam Long funcionarioId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate data
+    ) {
+        return streamHub.assinar(servicoId, funcionarioId, data);
+    }
+
+    @Operation(
+            summary = "Reservar horário temporariamente (checkout)",
+            description = """
+                Segura o horário escolhido por alguns minutos enquanto o cliente
+                preenche os dados. Nesse período o horário não aparece para
+                outros clientes e só quem tem o token consegue agendá-lo.
+                
+                Uso:
+                - enviar o token em "holdToken" no POST /api/public/agendamentos
+                - sem agendamento, a reserva expira sozinha
+                - uma reserva ativa por cliente (IP) e poucas por profissional/dia
+                
+                Retorno:
+                - { success: true, data: { token, servicoId, funcionarioId, inicio, fim, expiraEm } }
+            """
+    )
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Horário reservado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "409",
+                    description = "Horário indisponível, reservado por outro cliente ou limite de reservas atingido",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            ),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Serviço ou funcionário não encontrado",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @PostMapping("/disponibilidade/holds")
+    public ResponseEntity<?> reservar(@Valid @RequestBody PublicReservaCreateRequestDTO request,
+                                      HttpServletRequest httpRequest) {
+        PublicReservaResponseDTO dto = service.reservar(request, httpRequest.getRemoteAddr());
+
+        return ResponseEntity.ok(Map.of("success", true, "data", dto));
+    }
+
+    @Operation(
+            summary = "Cancelar reserva temporária",
+            description = "Devolve o horário reservado (cliente desistiu do checkout)."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reserva cancelada"),
+            @ApiResponse(
+                    responseCode = "404",
+                    description = "Reserva não encontrada ou expirada",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = Object.class))
+            )
+    })
+    @DeleteMapping("/disponibilidade/holds/{token}")
+    public ResponseEntity<?> liberarReserva(@PathVariable String token) {
+        service.liberarReserva(token);
+
+        return ResponseEntity.ok(Map.of("success", true));
+    }
 }
@@ -0,0 +1,111 @@
+package br.com.bravvo.api.controller;
+
+import br.com.bravvo.api.dto.publico.PublicFilaEntradaRequestDTO;
+import br.com.bravvo.api.dto.publico.PublicFilaPosicaoResponseDTO;
+import br.com.bravvo.api.service.FilaEsperaService;
+import br.com.bravvo.api.service.FilaStreamHub;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.*;
+import io.swagger.v3.oas.annotations.media.*;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Endpoints públicos (sem login) da fila de espera (walk-in).
+ */
+@RestController
+@RequestMapping("/api/public/fila")
+public class PublicFilaController {
+
+	private final FilaEsperaService filaEsperaService;
+	private final FilaStreamHub filaStreamHub;
+
+	public PublicFilaController(FilaEsperaService filaEsperaService, FilaStreamHub filaStreamHub) {
+		this.filaEsperaService = filaEsperaService;
+		this.filaStreamHub = filaStreamHub;
+	}
+
+	@Operation(summary = "Entra na fila de espera", description = """
+			Coloca o cliente na fila sem horário marcado.
+
+			Regras:
+			- informe servicoId e/ou funcionarioId
+			- com funcionarioId: fila do funcionário (valida ativo e habilitado)
+			- só servicoId: fila do serviço (qualquer funcionário habilitado chama)
+			- gera protocolo
+			- limites: fichas aguardando por fila, fichas ativas por telefone e por
+			  IP de origem (409 acima deles)
+
+			Retorno:
+			- { protocolo, status, posicao, esperaEstimadaMin }
+			""")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Entrou na fila", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PublicFilaPosicaoResponseDTO.class))),
+			@ApiResponse(responseCode = "400", description = "Dados inválidos"),
+			@ApiResponse(responseCode = "404", description = "Serviço/Funcionário não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Regras violadas ou limite de entrada atingido") })
+	@PostMapping
+	public ResponseEntity<?> entrar(@Valid @RequestBody PublicFilaEntradaRequestDTO request,
+			HttpServletRequest httpRequest) {
+		PublicFilaPosicaoResponseDTO data = filaEsperaService.entrar(request, httpRequest.getRemoteAddr());
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Consulta posição na fila", description = """
+			Posição e espera estimada (em minutos) pelo protocolo.
+
+			Regras:
+			- respondida da memória, sem ir ao banco (pode ser consultada em polling)
+			- posicao/esperaEstimadaMin = null quando a ficha não está mais aguardando
+			""")
+	@ApiResponses({
+			@ApiResponse(responseCode = "200", description = "Posição", content = @Content(mediaType = "application/json", schema = @Schema(implementation = PublicFilaPosicaoResponseDTO.class))),
+			@ApiResponse(responseCode = "404", description = "Protocolo não encontrado") })
+	@GetMapping("/{protocolo}")
+	public ResponseEntity<?> consultar(@PathVariable String protocolo) {
+		PublicFilaPosicaoResponseDTO data = filaEsperaService.consultar(protocolo);
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+
+	@Operation(summary = "Posição na fila em tempo real (SSE)", description = """
+			Abre um stream Server-Sent Events com a posição do protocolo.
+
+			Eventos:
+			- "fila": { protocolo, status, posicao, esperaEstimadaMin }
+			  - enviado ao conectar e sempre que a fila avançar (chamada,
+			    desistência, atendimento concluído)
+			  - vários avanços seguidos geram um único envio
+			- quando a ficha sai da fila (cancelado/concluido) o último evento traz
+			  o status e o servidor encerra o stream
+			- comentário ":ping" periódico (mantém a conexão viva)
+
+			Regras:
+			- a conexão expira após alguns minutos; o EventSource reconecta sozinho
+			- substitui o polling de GET /api/public/fila/{protocolo}
+			""")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Stream aberto (text/event-stream)"),
+			@ApiResponse(responseCode = "404", description = "Protocolo não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Limite de conexões atingido") })
+	@GetMapping(value = "/{protocolo}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+	public SseEmitter stream(@PathVariable String protocolo) {
+		return filaStreamHub.assinar(protocolo);
+	}
+
+	@Operation(summary = "Sai da fila", description = """
+			Cliente desiste enquanto aguarda. Quem estava atrás anda uma posição.
+			""")
+	@ApiResponses({ @ApiResponse(responseCode = "200", description = "Ficha cancelada"),
+			@ApiResponse(responseCode = "404", description = "Protocolo não encontrado"),
+			@ApiResponse(responseCode = "409", description = "Ficha já chamada") })
+	@DeleteMapping("/{protocolo}")
+	public ResponseEntity<?> cancelar(@PathVariable String protocolo) {
+		PublicFilaPosicaoResponseDTO data = filaEsperaService.cancelar(protocolo);
+		return ResponseEntity.ok(Map.of("success", true, "data", data));
+	}
+}
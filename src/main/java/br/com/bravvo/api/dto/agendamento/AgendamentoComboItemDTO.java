@@ -0,0 +1,39 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Item de um combo: serviço e funcionário da etapa.
+ */
+public class AgendamentoComboItemDTO {
+
+	@NotNull
+	private Long servicoId;
+
+	@NotNull
+	private Long funcionarioId;
+
+	public AgendamentoComboItemDTO() {
+	}
+
+	public AgendamentoComboItemDTO(Long servicoId, Long funcionarioId) {
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+}
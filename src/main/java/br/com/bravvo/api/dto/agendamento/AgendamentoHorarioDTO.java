@@ -0,0 +1,39 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Um horário de um lote de agendamentos (pacote com vários horários).
+ */
+public class AgendamentoHorarioDTO {
+
+	@NotBlank
+	private String data; // yyyy-MM-dd
+
+	@NotBlank
+	private String hora; // HH:mm
+
+	public AgendamentoHorarioDTO() {
+	}
+
+	public AgendamentoHorarioDTO(String data, String hora) {
+		this.data = data;
+		this.hora = hora;
+	}
+
+	public String getData() {
+		return data;
+	}
+
+	public void setData(String data) {
+		this.data = data;
+	}
+
+	public String getHora() {
+		return hora;
+	}
+
+	public void setHora(String hora) {
+		this.hora = hora;
+	}
+}
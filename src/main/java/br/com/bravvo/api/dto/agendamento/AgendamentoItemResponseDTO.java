@@ -1,5 +1,7 @@
 package br.com.bravvo.api.dto.agendamento;
 
+import br.com.bravvo.api.enums.StatusAgendamento;
+
 import java.time.LocalDateTime;
 
 /**
@@ -7,6 +9,9 @@ import java.time.LocalDateTime;
  *
  * Regras: - Sem dados sensíveis extras. - Serve para: cliente / funcionário /
  * público (com o que já existe na tabela).
+ *
+ * servicoNome/funcionarioNome: preenchidos nas listagens (projeção com join);
+ * null quando o item vem da entidade ({@code AgendamentoMapper}).
  */
 public class AgendamentoItemResponseDTO {
 
@@ -16,6 +21,9 @@ public class AgendamentoItemResponseDTO {
 	private Long servicoId;
 	private Long funcionarioId;
 
+	private String servicoNome;
+	private String funcionarioNome;
+
 	private Long clienteId;
 	private String clienteNome;
 	private String clienteTelefone;
@@ -47,6 +55,19 @@ public class AgendamentoItemResponseDTO {
 		this.observacoes = observacoes;
 	}
 
+	/**
+	 * Construtor da projeção JPQL (select new) das listagens.
+	 */
+	public AgendamentoItemResponseDTO(Long id, String protocolo, Long servicoId, String servicoNome,
+			Long funcionarioId, String funcionarioNome, Long clienteId, String clienteNome, String clienteTelefone,
+			String clienteEmail, LocalDateTime inicio, LocalDateTime fim, StatusAgendamento status,
+			String observacoes) {
+		this(id, protocolo, servicoId, funcionarioId, clienteId, clienteNome, clienteTelefone, clienteEmail, inicio,
+				fim, status == null ? null : status.getValor(), observacoes);
+		this.servicoNome = servicoNome;
+		this.funcionarioNome = funcionarioNome;
+	}
+
 	public Long getId() {
 		return id;
 	}
@@ -79,6 +100,22 @@ public class AgendamentoItemResponseDTO {
 		this.funcionarioId = funcionarioId;
 	}
 
+	public String getServicoNome() {
+		return servicoNome;
+	}
+
+	public void setServicoNome(String servicoNome) {
+		this.servicoNome = servicoNome;
+	}
+
+	public String getFuncionarioNome() {
+		return funcionarioNome;
+	}
+
+	public void setFuncionarioNome(String funcionarioNome) {
+		this.funcionarioNome = funcionarioNome;
+	}
+
 	public Long getClienteId() {
 		return clienteId;
 	}
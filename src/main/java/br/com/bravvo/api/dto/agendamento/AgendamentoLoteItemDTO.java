@@ -0,0 +1,80 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de uma ocorrência do lote.
+ *
+ * resultado: - "criado": id/protocolo preenchidos - "conflito": horário ocupado
+ * (agendamento, bloqueio, reserva ou outra ocorrência do próprio lote)
+ */
+public class AgendamentoLoteItemDTO {
+
+	private LocalDateTime inicio;
+	private LocalDateTime fim;
+	private String resultado;
+	private Long id;
+	private String protocolo;
+	private String status;
+
+	public AgendamentoLoteItemDTO() {
+	}
+
+	public AgendamentoLoteItemDTO(LocalDateTime inicio, LocalDateTime fim, String resultado, Long id, String protocolo,
+			String status) {
+		this.inicio = inicio;
+		this.fim = fim;
+		this.resultado = resultado;
+		this.id = id;
+		this.protocolo = protocolo;
+		this.status = status;
+	}
+
+	public LocalDateTime getInicio() {
+		return inicio;
+	}
+
+	public void setInicio(LocalDateTime inicio) {
+		this.inicio = inicio;
+	}
+
+	public LocalDateTime getFim() {
+		return fim;
+	}
+
+	public void setFim(LocalDateTime fim) {
+		this.fim = fim;
+	}
+
+	public String getResultado() {
+		return resultado;
+	}
+
+	public void setResultado(String resultado) {
+		this.resultado = resultado;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public void setProtocolo(String protocolo) {
+		this.protocolo = protocolo;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+}
@@ -0,0 +1,46 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import java.util.List;
+
+/**
+ * Response DTO do lote: uma linha por ocorrência, na ordem cronológica.
+ */
+public class AgendamentoLoteResponseDTO {
+
+	private int criados;
+	private int conflitos;
+	private List<AgendamentoLoteItemDTO> itens;
+
+	public AgendamentoLoteResponseDTO() {
+	}
+
+	public AgendamentoLoteResponseDTO(int criados, int conflitos, List<AgendamentoLoteItemDTO> itens) {
+		this.criados = criados;
+		this.conflitos = conflitos;
+		this.itens = itens;
+	}
+
+	public int getCriados() {
+		return criados;
+	}
+
+	public void setCriados(int criados) {
+		this.criados = criados;
+	}
+
+	public int getConflitos() {
+		return conflitos;
+	}
+
+	public void setConflitos(int conflitos) {
+		this.conflitos = conflitos;
+	}
+
+	public List<AgendamentoLoteItemDTO> getItens() {
+		return itens;
+	}
+
+	public void setItens(List<AgendamentoLoteItemDTO> itens) {
+		this.itens = itens;
+	}
+}
@@ -0,0 +1,65 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import jakarta.validation.constraints.*;
+
+/**
+ * Recorrência semanal de um lote de agendamentos.
+ *
+ * Ex.: toda terça 10:00 por 8 semanas -> data = primeira terça, hora = "10:00",
+ * ocorrencias = 8 (intervaloSemanas = 1).
+ */
+public class AgendamentoRecorrenciaDTO {
+
+	/**
+	 * Primeira ocorrência (yyyy-MM-dd); as demais caem no mesmo dia da semana.
+	 */
+	@NotBlank
+	private String data;
+
+	@NotBlank
+	private String hora; // HH:mm
+
+	@NotNull
+	@Min(1)
+	@Max(52)
+	private Integer ocorrencias;
+
+	/**
+	 * De quantas em quantas semanas (padrão 1 = toda semana).
+	 */
+	@Min(1)
+	@Max(4)
+	private Integer intervaloSemanas;
+
+	public String getData() {
+		return data;
+	}
+
+	public void setData(String data) {
+		this.data = data;
+	}
+
+	public String getHora() {
+		return hora;
+	}
+
+	public void setHora(String hora) {
+		this.hora = hora;
+	}
+
+	public Integer getOcorrencias() {
+		return ocorrencias;
+	}
+
+	public void setOcorrencias(Integer ocorrencias) {
+		this.ocorrencias = ocorrencias;
+	}
+
+	public Integer getIntervaloSemanas() {
+		return intervaloSemanas;
+	}
+
+	public void setIntervaloSemanas(Integer intervaloSemanas) {
+		this.intervaloSemanas = intervaloSemanas;
+	}
+}
@@ -0,0 +1,111 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Request DTO para FUNCIONARIO criar vários agendamentos de uma vez (mesmo
+ * cliente e serviço).
+ *
+ * Horários: - recorrencia (ex.: toda terça 10:00 por 8 semanas) OU - horarios
+ * (pacote com datas/horas avulsas). Exatamente um dos dois.
+ *
+ * Cliente: mesmas regras do agendamento único (clienteId OU visitante).
+ *
+ * Endpoint: POST /api/funcionarios/agendamentos/lote
+ */
+public class FuncionarioAgendamentoLoteRequestDTO {
+
+	@NotNull
+	private Long servicoId;
+
+	@Valid
+	private AgendamentoRecorrenciaDTO recorrencia;
+
+	@Valid
+	@Size(max = 52)
+	private List<AgendamentoHorarioDTO> horarios;
+
+	// ===== Cliente cadastrado =====
+	private Long clienteId;
+
+	// ===== Visitante =====
+	@Size(max = 120)
+	private String clienteNome;
+
+	@Size(max = 30)
+	private String clienteTelefone;
+
+	@Email
+	@Size(max = 180)
+	private String clienteEmail;
+
+	@Size(max = 500)
+	private String observacoes;
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public AgendamentoRecorrenciaDTO getRecorrencia() {
+		return recorrencia;
+	}
+
+	public void setRecorrencia(AgendamentoRecorrenciaDTO recorrencia) {
+		this.recorrencia = recorrencia;
+	}
+
+	public List<AgendamentoHorarioDTO> getHorarios() {
+		return horarios;
+	}
+
+	public void setHorarios(List<AgendamentoHorarioDTO> horarios) {
+		this.horarios = horarios;
+	}
+
+	public Long getClienteId() {
+		return clienteId;
+	}
+
+	public void setClienteId(Long clienteId) {
+		this.clienteId = clienteId;
+	}
+
+	public String getClienteNome() {
+		return clienteNome;
+	}
+
+	public void setClienteNome(String clienteNome) {
+		this.clienteNome = clienteNome;
+	}
+
+	public String getClienteTelefone() {
+		return clienteTelefone;
+	}
+
+	public void setClienteTelefone(String clienteTelefone) {
+		this.clienteTelefone = clienteTelefone;
+	}
+
+	public String getClienteEmail() {
+		return clienteEmail;
+	}
+
+	public void setClienteEmail(String clienteEmail) {
+		this.clienteEmail = clienteEmail;
+	}
+
+	public String getObservacoes() {
+		return observacoes;
+	}
+
+	public void setObservacoes(String observacoes) {
+		this.observacoes = observacoes;
+	}
+}
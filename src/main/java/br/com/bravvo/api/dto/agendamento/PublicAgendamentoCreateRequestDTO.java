@@ -42,6 +42,13 @@ public class PublicAgendamentoCreateRequestDTO {
 	@Size(max = 500)
 	private String observacoes;
 
+	/**
+	 * Token da reserva temporária do horário (POST
+	 * /api/public/disponibilidade/holds). Opcional.
+	 */
+	@Size(max = 64)
+	private String holdToken;
+
 	public Long getServicoId() {
 		return servicoId;
 	}
@@ -105,4 +112,12 @@ public class PublicAgendamentoCreateRequestDTO {
 	public void setObservacoes(String observacoes) {
 		this.observacoes = observacoes;
 	}
+
+	public String getHoldToken() {
+		return holdToken;
+	}
+
+	public void setHoldToken(String holdToken) {
+		this.holdToken = holdToken;
+	}
 }
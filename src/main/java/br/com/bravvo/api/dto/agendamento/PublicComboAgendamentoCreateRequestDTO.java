@@ -0,0 +1,106 @@
+package br.com.bravvo.api.dto.agendamento;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+
+import java.util.List;
+
+/**
+ * Request DTO para visitante agendar um combo (vários serviços em sequência).
+ *
+ * Os itens são atendidos na ordem: o primeiro começa em data/hora e cada um
+ * começa quando o anterior termina (como devolvido por GET
+ * /api/public/disponibilidade/combo).
+ *
+ * Endpoint: POST /api/public/agendamentos/combo
+ */
+public class PublicComboAgendamentoCreateRequestDTO {
+
+	/**
+	 * Data do combo (yyyy-MM-dd).
+	 */
+	@NotBlank
+	private String data;
+
+	/**
+	 * Início da primeira etapa (HH:mm).
+	 */
+	@NotBlank
+	private String hora;
+
+	@NotEmpty
+	@Size(max = 5)
+	@Valid
+	private List<AgendamentoComboItemDTO> itens;
+
+	@NotBlank
+	@Size(max = 120)
+	private String clienteNome;
+
+	@NotBlank
+	@Size(max = 30)
+	private String clienteTelefone;
+
+	@Email
+	@Size(max = 180)
+	private String clienteEmail;
+
+	@Size(max = 500)
+	private String observacoes;
+
+	public String getData() {
+		return data;
+	}
+
+	public void setData(String data) {
+		this.data = data;
+	}
+
+	public String getHora() {
+		return hora;
+	}
+
+	public void setHora(String hora) {
+		this.hora = hora;
+	}
+
+	public List<AgendamentoComboItemDTO> getItens() {
+		return itens;
+	}
+
+	public void setItens(List<AgendamentoComboItemDTO> itens) {
+		this.itens = itens;
+	}
+
+	public String getClienteNome() {
+		return clienteNome;
+	}
+
+	public void setClienteNome(String clienteNome) {
+		this.clienteNome = clienteNome;
+	}
+
+	public String getClienteTelefone() {
+		return clienteTelefone;
+	}
+
+	public void setClienteTelefone(String clienteTelefone) {
+		this.clienteTelefone = clienteTelefone;
+	}
+
+	public String getClienteEmail() {
+		return clienteEmail;
+	}
+
+	public void setClienteEmail(String clienteEmail) {
+		this.clienteEmail = clienteEmail;
+	}
+
+	public String getObservacoes() {
+		return observacoes;
+	}
+
+	public void setObservacoes(String observacoes) {
+		this.observacoes = observacoes;
+	}
+}
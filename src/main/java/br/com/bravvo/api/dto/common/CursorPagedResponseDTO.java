@@ -0,0 +1,50 @@
+package br.com.bravvo.api.dto.common;
+
+import java.util.List;
+
+/**
+ * DTO padrão para respostas paginadas por cursor (keyset).
+ *
+ * Mesmo formato de {@link PagedResponseDTO}, sem page/total/pages (não há
+ * count): limit = quantidade máxima por página nextCursor = cursor da próxima
+ * página (null = acabou) items = lista de itens da página atual
+ */
+public class CursorPagedResponseDTO<T> {
+
+	private int limit;
+	private String nextCursor;
+	private List<T> items;
+
+	public CursorPagedResponseDTO() {
+	}
+
+	public CursorPagedResponseDTO(int limit, String nextCursor, List<T> items) {
+		this.limit = limit;
+		this.nextCursor = nextCursor;
+		this.items = items;
+	}
+
+	public int getLimit() {
+		return limit;
+	}
+
+	public void setLimit(int limit) {
+		this.limit = limit;
+	}
+
+	public String getNextCursor() {
+		return nextCursor;
+	}
+
+	public void setNextCursor(String nextCursor) {
+		this.nextCursor = nextCursor;
+	}
+
+	public List<T> getItems() {
+		return items;
+	}
+
+	public void setItems(List<T> items) {
+		this.items = items;
+	}
+}
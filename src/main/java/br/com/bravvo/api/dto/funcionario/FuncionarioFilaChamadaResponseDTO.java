@@ -0,0 +1,104 @@
+package br.com.bravvo.api.dto.funcionario;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ficha chamada (ou concluída) pelo funcionário na fila de espera.
+ */
+public class FuncionarioFilaChamadaResponseDTO {
+
+	private Long id;
+
+	private String protocolo;
+
+	private Long servicoId;
+
+	private String clienteNome;
+
+	private String clienteTelefone;
+
+	private String status;
+
+	private LocalDateTime chamadoEm;
+
+	private LocalDateTime concluidoEm;
+
+	public FuncionarioFilaChamadaResponseDTO() {
+	}
+
+	public FuncionarioFilaChamadaResponseDTO(Long id, String protocolo, Long servicoId, String clienteNome,
+			String clienteTelefone, String status, LocalDateTime chamadoEm, LocalDateTime concluidoEm) {
+		this.id = id;
+		this.protocolo = protocolo;
+		this.servicoId = servicoId;
+		this.clienteNome = clienteNome;
+		this.clienteTelefone = clienteTelefone;
+		this.status = status;
+		this.chamadoEm = chamadoEm;
+		this.concluidoEm = concluidoEm;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public void setProtocolo(String protocolo) {
+		this.protocolo = protocolo;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public String getClienteNome() {
+		return clienteNome;
+	}
+
+	public void setClienteNome(String clienteNome) {
+		this.clienteNome = clienteNome;
+	}
+
+	public String getClienteTelefone() {
+		return clienteTelefone;
+	}
+
+	public void setClienteTelefone(String clienteTelefone) {
+		this.clienteTelefone = clienteTelefone;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getChamadoEm() {
+		return chamadoEm;
+	}
+
+	public void setChamadoEm(LocalDateTime chamadoEm) {
+		this.chamadoEm = chamadoEm;
+	}
+
+	public LocalDateTime getConcluidoEm() {
+		return concluidoEm;
+	}
+
+	public void setConcluidoEm(LocalDateTime concluidoEm) {
+		this.concluidoEm = concluidoEm;
+	}
+}
@@ -0,0 +1,56 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Disponibilidade de um combo (serviços em sequência) em uma data.
+ */
+@Schema(description = "Inícios possíveis de um combo de serviços em uma data")
+public class PublicComboDisponibilidadeResponseDTO {
+
+	@Schema(example = "2026-01-05", description = "Data consultada")
+	private LocalDate data;
+
+	@Schema(example = "[1, 2, 5]", description = "Serviços do combo, na ordem")
+	private List<Long> servicoIds;
+
+	@Schema(description = "Inícios possíveis (pode ser vazio)")
+	private List<PublicComboHorarioDTO> horarios;
+
+	public PublicComboDisponibilidadeResponseDTO() {
+	}
+
+	public PublicComboDisponibilidadeResponseDTO(LocalDate data, List<Long> servicoIds,
+			List<PublicComboHorarioDTO> horarios) {
+		this.data = data;
+		this.servicoIds = servicoIds;
+		this.horarios = horarios;
+	}
+
+	public LocalDate getData() {
+		return data;
+	}
+
+	public void setData(LocalDate data) {
+		this.data = data;
+	}
+
+	public List<Long> getServicoIds() {
+		return servicoIds;
+	}
+
+	public void setServicoIds(List<Long> servicoIds) {
+		this.servicoIds = servicoIds;
+	}
+
+	public List<PublicComboHorarioDTO> getHorarios() {
+		return horarios;
+	}
+
+	public void setHorarios(List<PublicComboHorarioDTO> horarios) {
+		this.horarios = horarios;
+	}
+}
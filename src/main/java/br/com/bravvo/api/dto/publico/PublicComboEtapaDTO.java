@@ -0,0 +1,64 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Uma etapa de um combo: qual serviço, com quem e em que horário.
+ */
+@Schema(description = "Etapa de um combo (serviço, funcionário e horário)")
+public class PublicComboEtapaDTO {
+
+	@Schema(example = "1", description = "ID do serviço")
+	private Long servicoId;
+
+	@Schema(example = "3", description = "ID do funcionário que atende a etapa")
+	private Long funcionarioId;
+
+	@Schema(example = "09:00", description = "Início da etapa (HH:mm)")
+	private String inicio;
+
+	@Schema(example = "09:30", description = "Fim da etapa (HH:mm)")
+	private String fim;
+
+	public PublicComboEtapaDTO() {
+	}
+
+	public PublicComboEtapaDTO(Long servicoId, Long funcionarioId, String inicio, String fim) {
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+		this.inicio = inicio;
+		this.fim = fim;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public String getInicio() {
+		return inicio;
+	}
+
+	public void setInicio(String inicio) {
+		this.inicio = inicio;
+	}
+
+	public String getFim() {
+		return fim;
+	}
+
+	public void setFim(String fim) {
+		this.fim = fim;
+	}
+}
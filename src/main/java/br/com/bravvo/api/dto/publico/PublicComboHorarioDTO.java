@@ -0,0 +1,54 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Um início possível para o combo, com a escala de cada etapa.
+ */
+@Schema(description = "Horário de início do combo e suas etapas")
+public class PublicComboHorarioDTO {
+
+	@Schema(example = "09:00", description = "Início do combo (HH:mm)")
+	private String horario;
+
+	@Schema(example = "10:15", description = "Fim da última etapa (HH:mm)")
+	private String fim;
+
+	@Schema(description = "Etapas em sequência, na ordem dos serviços")
+	private List<PublicComboEtapaDTO> etapas;
+
+	public PublicComboHorarioDTO() {
+	}
+
+	public PublicComboHorarioDTO(String horario, String fim, List<PublicComboEtapaDTO> etapas) {
+		this.horario = horario;
+		this.fim = fim;
+		this.etapas = etapas;
+	}
+
+	public String getHorario() {
+		return horario;
+	}
+
+	public void setHorario(String horario) {
+		this.horario = horario;
+	}
+
+	public String getFim() {
+		return fim;
+	}
+
+	public void setFim(String fim) {
+		this.fim = fim;
+	}
+
+	public List<PublicComboEtapaDTO> getEtapas() {
+		return etapas;
+	}
+
+	public void setEtapas(List<PublicComboEtapaDTO> etapas) {
+		this.etapas = etapas;
+	}
+}
@@ -0,0 +1,42 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+
+/**
+ * Quantidade de horários livres de um dia (mapa do mês).
+ */
+@Schema(description = "Dia do mês e quantidade de horários livres")
+public class PublicDiaLivresDTO {
+
+	@Schema(example = "2026-01-05", description = "Data")
+	private LocalDate data;
+
+	@Schema(example = "7", description = "Quantidade de horários livres (0 = sem horários)")
+	private Integer livres;
+
+	public PublicDiaLivresDTO() {
+	}
+
+	public PublicDiaLivresDTO(LocalDate data, Integer livres) {
+		this.data = data;
+		this.livres = livres;
+	}
+
+	public LocalDate getData() {
+		return data;
+	}
+
+	public void setData(LocalDate data) {
+		this.data = data;
+	}
+
+	public Integer getLivres() {
+		return livres;
+	}
+
+	public void setLivres(Integer livres) {
+		this.livres = livres;
+	}
+}
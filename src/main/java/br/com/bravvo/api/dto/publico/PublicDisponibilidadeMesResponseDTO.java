@@ -0,0 +1,61 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * DTO de resposta do mapa de disponibilidade do mês.
+ *
+ * Endpoint: GET
+ * /api/public/disponibilidade/mes?servicoId=...&funcionarioId=...&mes=yyyy-MM
+ *
+ * Front: - sombreia os dias do calendário pela quantidade de horários livres -
+ * ao clicar no dia, busca os horários em /api/public/disponibilidade
+ */
+@Schema(description = "Quantidade de horários livres por dia do mês")
+public class PublicDisponibilidadeMesResponseDTO {
+
+	@Schema(example = "2026-01", type = "string", description = "Mês consultado")
+	private YearMonth mes;
+
+	@Schema(example = "60", description = "Duração resolvida do serviço (prefs do funcionário ou fallback do serviço)")
+	private Integer duracaoMin;
+
+	@Schema(description = "Um item por dia do mês, em ordem")
+	private List<PublicDiaLivresDTO> dias;
+
+	public PublicDisponibilidadeMesResponseDTO() {
+	}
+
+	public PublicDisponibilidadeMesResponseDTO(YearMonth mes, Integer duracaoMin, List<PublicDiaLivresDTO> dias) {
+		this.mes = mes;
+		this.duracaoMin = duracaoMin;
+		this.dias = dias;
+	}
+
+	public YearMonth getMes() {
+		return mes;
+	}
+
+	public void setMes(YearMonth mes) {
+		this.mes = mes;
+	}
+
+	public Integer getDuracaoMin() {
+		return duracaoMin;
+	}
+
+	public void setDuracaoMin(Integer duracaoMin) {
+		this.duracaoMin = duracaoMin;
+	}
+
+	public List<PublicDiaLivresDTO> getDias() {
+		return dias;
+	}
+
+	public void setDias(List<PublicDiaLivresDTO> dias) {
+		this.dias = dias;
+	}
+}
@@ -0,0 +1,74 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * DTO de resposta da disponibilidade "qualquer profissional".
+ *
+ * Endpoint: GET /api/public/servicos/{servicoId}/disponibilidade?data=yyyy-MM-dd
+ *
+ * Front: - mostra a união dos horários livres de todos os funcionários do
+ * serviço - cada horário traz os IDs de quem pode atender - "funcionarios"
+ * traz nome/duração de cada um (uma vez só, sem repetir por horário)
+ */
+@Schema(description = "Disponibilidade pública de um serviço em uma data, considerando todos os funcionários")
+public class PublicDisponibilidadeServicoResponseDTO {
+
+	@Schema(example = "2026-01-05", description = "Data consultada")
+	private LocalDate data;
+
+	@Schema(example = "16", description = "Serviço consultado")
+	private Long servicoId;
+
+	@Schema(description = "Funcionários que executam o serviço (duração resolvida por funcionário)")
+	private List<PublicFuncionarioServicoResponseDTO> funcionarios;
+
+	@Schema(description = "União dos horários livres, em ordem, com os funcionários disponíveis em cada um")
+	private List<PublicHorarioFuncionariosDTO> horarios;
+
+	public PublicDisponibilidadeServicoResponseDTO() {
+	}
+
+	public PublicDisponibilidadeServicoResponseDTO(LocalDate data, Long servicoId,
+			List<PublicFuncionarioServicoResponseDTO> funcionarios, List<PublicHorarioFuncionariosDTO> horarios) {
+		this.data = data;
+		this.servicoId = servicoId;
+		this.funcionarios = funcionarios;
+		this.horarios = horarios;
+	}
+
+	public LocalDate getData() {
+		return data;
+	}
+
+	public void setData(LocalDate data) {
+		this.data = data;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public List<PublicFuncionarioServicoResponseDTO> getFuncionarios() {
+		return funcionarios;
+	}
+
+	public void setFuncionarios(List<PublicFuncionarioServicoResponseDTO> funcionarios) {
+		this.funcionarios = funcionarios;
+	}
+
+	public List<PublicHorarioFuncionariosDTO> getHorarios() {
+		return horarios;
+	}
+
+	public void setHorarios(List<PublicHorarioFuncionariosDTO> horarios) {
+		this.horarios = horarios;
+	}
+}
@@ -0,0 +1,89 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+/**
+ * Request DTO para entrar na fila de espera (walk-in, recepção).
+ *
+ * Endpoint: POST /api/public/fila
+ *
+ * Fila de um funcionário (funcionarioId) ou de um serviço (só servicoId,
+ * "qualquer profissional"). Informe pelo menos um dos dois.
+ */
+@Schema(description = "Entrada na fila de espera (walk-in)")
+public class PublicFilaEntradaRequestDTO {
+
+	@Schema(example = "1", description = "ID do serviço (opcional se funcionarioId)")
+	private Long servicoId;
+
+	@Schema(example = "3", description = "ID do funcionário (opcional se servicoId)")
+	private Long funcionarioId;
+
+	@NotBlank
+	@Size(max = 120)
+	@Schema(example = "Maria Silva", description = "Nome do cliente")
+	private String clienteNome;
+
+	@NotBlank
+	@Size(max = 30)
+	@Schema(example = "11999999999", description = "Telefone do cliente")
+	private String clienteTelefone;
+
+	@Email
+	@Size(max = 180)
+	@Schema(example = "maria@email.com", description = "E-mail do cliente (opcional)")
+	private String clienteEmail;
+
+	public PublicFilaEntradaRequestDTO() {
+	}
+
+	public PublicFilaEntradaRequestDTO(Long servicoId, Long funcionarioId, String clienteNome, String clienteTelefone,
+			String clienteEmail) {
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+		this.clienteNome = clienteNome;
+		this.clienteTelefone = clienteTelefone;
+		this.clienteEmail = clienteEmail;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public String getClienteNome() {
+		return clienteNome;
+	}
+
+	public void setClienteNome(String clienteNome) {
+		this.clienteNome = clienteNome;
+	}
+
+	public String getClienteTelefone() {
+		return clienteTelefone;
+	}
+
+	public void setClienteTelefone(String clienteTelefone) {
+		this.clienteTelefone = clienteTelefone;
+	}
+
+	public String getClienteEmail() {
+		return clienteEmail;
+	}
+
+	public void setClienteEmail(String clienteEmail) {
+		this.clienteEmail = clienteEmail;
+	}
+}
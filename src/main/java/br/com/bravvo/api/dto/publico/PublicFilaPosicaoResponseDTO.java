@@ -0,0 +1,93 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Situação de uma ficha na fila de espera (consultada em polling pela
+ * recepção/cliente).
+ *
+ * posicao/esperaEstimadaMin só fazem sentido em "aguardando"; nos demais
+ * status vêm null.
+ */
+@Schema(description = "Posição na fila de espera")
+public class PublicFilaPosicaoResponseDTO {
+
+	@Schema(example = "20260310-0001A2B3", description = "Protocolo da ficha")
+	private String protocolo;
+
+	@Schema(example = "aguardando", description = "aguardando | em_atendimento | concluido | cancelado")
+	private String status;
+
+	@Schema(example = "1", description = "ID do serviço")
+	private Long servicoId;
+
+	@Schema(example = "3", description = "ID do funcionário (da fila ou de quem chamou)")
+	private Long funcionarioId;
+
+	@Schema(example = "2", description = "Posição (1 = próxima a ser chamada)")
+	private Integer posicao;
+
+	@Schema(example = "25", description = "Espera estimada em minutos (durações dos serviços à frente)")
+	private Integer esperaEstimadaMin;
+
+	public PublicFilaPosicaoResponseDTO() {
+	}
+
+	public PublicFilaPosicaoResponseDTO(String protocolo, String status, Long servicoId, Long funcionarioId,
+			Integer posicao, Integer esperaEstimadaMin) {
+		this.protocolo = protocolo;
+		this.status = status;
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+		this.posicao = posicao;
+		this.esperaEstimadaMin = esperaEstimadaMin;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public void setProtocolo(String protocolo) {
+		this.protocolo = protocolo;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public Integer getPosicao() {
+		return posicao;
+	}
+
+	public void setPosicao(Integer posicao) {
+		this.posicao = posicao;
+	}
+
+	public Integer getEsperaEstimadaMin() {
+		return esperaEstimadaMin;
+	}
+
+	public void setEsperaEstimadaMin(Integer esperaEstimadaMin) {
+		this.esperaEstimadaMin = esperaEstimadaMin;
+	}
+}
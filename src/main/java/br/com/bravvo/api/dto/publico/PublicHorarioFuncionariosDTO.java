@@ -0,0 +1,43 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Um horário livre na disponibilidade "qualquer profissional", com os
+ * funcionários que podem atender naquele início.
+ */
+@Schema(description = "Horário livre e funcionários disponíveis nele")
+public class PublicHorarioFuncionariosDTO {
+
+	@Schema(example = "09:00", description = "Início do horário (HH:mm)")
+	private String horario;
+
+	@Schema(example = "[3, 7]", description = "IDs dos funcionários livres neste horário")
+	private List<Long> funcionarioIds;
+
+	public PublicHorarioFuncionariosDTO() {
+	}
+
+	public PublicHorarioFuncionariosDTO(String horario, List<Long> funcionarioIds) {
+		this.horario = horario;
+		this.funcionarioIds = funcionarioIds;
+	}
+
+	public String getHorario() {
+		return horario;
+	}
+
+	public void setHorario(String horario) {
+		this.horario = horario;
+	}
+
+	public List<Long> getFuncionarioIds() {
+		return funcionarioIds;
+	}
+
+	public void setFuncionarioIds(List<Long> funcionarioIds) {
+		this.funcionarioIds = funcionarioIds;
+	}
+}
@@ -0,0 +1,55 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Um horário livre encontrado pela busca do próximo horário disponível.
+ */
+@Schema(description = "Próximo horário livre (data + início) e funcionários disponíveis nele")
+public class PublicProximoHorarioDTO {
+
+	@Schema(example = "2026-01-05", description = "Data do horário")
+	private LocalDate data;
+
+	@Schema(example = "09:00", description = "Início do horário (HH:mm)")
+	private String horario;
+
+	@Schema(example = "[3, 7]", description = "IDs dos funcionários livres neste horário")
+	private List<Long> funcionarioIds;
+
+	public PublicProximoHorarioDTO() {
+	}
+
+	public PublicProximoHorarioDTO(LocalDate data, String horario, List<Long> funcionarioIds) {
+		this.data = data;
+		this.horario = horario;
+		this.funcionarioIds = funcionarioIds;
+	}
+
+	public LocalDate getData() {
+		return data;
+	}
+
+	public void setData(LocalDate data) {
+		this.data = data;
+	}
+
+	public String getHorario() {
+		return horario;
+	}
+
+	public void setHorario(String horario) {
+		this.horario = horario;
+	}
+
+	public List<Long> getFuncionarioIds() {
+		return funcionarioIds;
+	}
+
+	public void setFuncionarioIds(List<Long> funcionarioIds) {
+		this.funcionarioIds = funcionarioIds;
+	}
+}
@@ -0,0 +1,62 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO de resposta da busca do próximo horário disponível.
+ *
+ * Endpoint: GET
+ * /api/public/disponibilidade/proxima?servicoId=...&funcionarioId=...&limit=...
+ *
+ * Front: - botão "primeiro horário livre" sem sondar dia a dia -
+ * "funcionarios" traz nome/duração de quem foi considerado (um só quando
+ * funcionarioId é informado)
+ */
+@Schema(description = "Próximos horários livres de um serviço (um funcionário ou qualquer profissional)")
+public class PublicProximosHorariosResponseDTO {
+
+	@Schema(example = "16", description = "Serviço consultado")
+	private Long servicoId;
+
+	@Schema(description = "Funcionários considerados (duração resolvida por funcionário)")
+	private List<PublicFuncionarioServicoResponseDTO> funcionarios;
+
+	@Schema(description = "Horários livres em ordem cronológica (no máximo 'limit')")
+	private List<PublicProximoHorarioDTO> horarios;
+
+	public PublicProximosHorariosResponseDTO() {
+	}
+
+	public PublicProximosHorariosResponseDTO(Long servicoId, List<PublicFuncionarioServicoResponseDTO> funcionarios,
+			List<PublicProximoHorarioDTO> horarios) {
+		this.servicoId = servicoId;
+		this.funcionarios = funcionarios;
+		this.horarios = horarios;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public List<PublicFuncionarioServicoResponseDTO> getFuncionarios() {
+		return funcionarios;
+	}
+
+	public void setFuncionarios(List<PublicFuncionarioServicoResponseDTO> funcionarios) {
+		this.funcionarios = funcionarios;
+	}
+
+	public List<PublicProximoHorarioDTO> getHorarios() {
+		return horarios;
+	}
+
+	public void setHorarios(List<PublicProximoHorarioDTO> horarios) {
+		this.horarios = horarios;
+	}
+}
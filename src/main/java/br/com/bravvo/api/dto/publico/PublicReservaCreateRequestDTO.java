@@ -0,0 +1,74 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+/**
+ * Request DTO para reservar temporariamente um horário (checkout público).
+ *
+ * Endpoint: POST /api/public/disponibilidade/holds
+ *
+ * Mesmos campos de data/hora do agendamento público: o front reserva com o
+ * horário escolhido e depois agenda com o token.
+ */
+@Schema(description = "Reserva temporária de um horário (hold)")
+public class PublicReservaCreateRequestDTO {
+
+	@NotNull
+	@Schema(example = "1", description = "ID do serviço")
+	private Long servicoId;
+
+	@NotNull
+	@Schema(example = "3", description = "ID do funcionário")
+	private Long funcionarioId;
+
+	@NotBlank
+	@Schema(example = "2026-01-05", description = "Data (yyyy-MM-dd)")
+	private String data;
+
+	@NotBlank
+	@Schema(example = "09:00", description = "Início (HH:mm)")
+	private String hora;
+
+	public PublicReservaCreateRequestDTO() {
+	}
+
+	public PublicReservaCreateRequestDTO(Long servicoId, Long funcionarioId, String data, String hora) {
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+		this.data = data;
+		this.hora = hora;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public String getData() {
+		return data;
+	}
+
+	public void setData(String data) {
+		this.data = data;
+	}
+
+	public String getHora() {
+		return hora;
+	}
+
+	public void setHora(String hora) {
+		this.hora = hora;
+	}
+}
@@ -0,0 +1,92 @@
+package br.com.bravvo.api.dto.publico;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Reserva temporária criada: o token vai no agendamento público (holdToken).
+ */
+@Schema(description = "Reserva temporária (hold) de um horário")
+public class PublicReservaResponseDTO {
+
+	@Schema(example = "0f6c1d2e-8a9b-4c3d-9e8f-1a2b3c4d5e6f", description = "Token da reserva")
+	private String token;
+
+	@Schema(example = "1", description = "ID do serviço")
+	private Long servicoId;
+
+	@Schema(example = "3", description = "ID do funcionário")
+	private Long funcionarioId;
+
+	@Schema(example = "2026-01-05T09:00:00", description = "Início reservado")
+	private LocalDateTime inicio;
+
+	@Schema(example = "2026-01-05T09:30:00", description = "Fim reservado (início + duração)")
+	private LocalDateTime fim;
+
+	@Schema(example = "2026-01-05T11:55:00Z", description = "Quando a reserva expira (UTC)")
+	private Instant expiraEm;
+
+	public PublicReservaResponseDTO() {
+	}
+
+	public PublicReservaResponseDTO(String token, Long servicoId, Long funcionarioId, LocalDateTime inicio,
+			LocalDateTime fim, Instant expiraEm) {
+		this.token = token;
+		this.servicoId = servicoId;
+		this.funcionarioId = funcionarioId;
+		this.inicio = inicio;
+		this.fim = fim;
+		this.expiraEm = expiraEm;
+	}
+
+	public String getToken() {
+		return token;
+	}
+
+	public void setToken(String token) {
+		this.token = token;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public LocalDateTime getInicio() {
+		return inicio;
+	}
+
+	public void setInicio(LocalDateTime inicio) {
+		this.inicio = inicio;
+	}
+
+	public LocalDateTime getFim() {
+		return fim;
+	}
+
+	public void setFim(LocalDateTime fim) {
+		this.fim = fim;
+	}
+
+	public Instant getExpiraEm() {
+		return expiraEm;
+	}
+
+	public void setExpiraEm(Instant expiraEm) {
+		this.expiraEm = expiraEm;
+	}
+}
@@ -1,5 +1,6 @@
 package br.com.bravvo.api.entity;
 
+import br.com.bravvo.api.enums.StatusAgendamento;
 import jakarta.persistence.*;
 
 import java.time.LocalDateTime;
@@ -10,7 +11,7 @@ import java.time.LocalDateTime;
  * Tabela: agendamentos
  *
  * MVP (decisões): - Sem relacionamentos JPA (evita cascade/fetch). - status
- * como String (sem enum/converter), valores no DB:
+ * como {@link StatusAgendamento} (converter), valores no DB:
  * 'pendente','confirmado','em_atendimento','concluido','cancelado' - cliente
  * pode ser: - cadastrado (cliente_id != null) - visitante
  * (cliente_nome/telefone/email)
@@ -59,12 +60,16 @@ public class Agendamento {
 	@Column(name = "fim", nullable = false)
 	private LocalDateTime fim;
 
+	@Convert(converter = StatusAgendamentoConverter.class)
+	@Column(name = "status", nullable = false, length = 30)
+	private StatusAgendamento status = StatusAgendamento.PENDENTE;
+
 	/**
-	 * MVP: String para não mexer em enum/converter agora. Valores:
-	 * 'pendente','confirmado','em_atendimento','concluido','cancelado'
+	 * Coluna gerada pelo banco (status bloqueante). Só leitura: usada nas
+	 * consultas de conflito (índice idx_ag_funcionario_blocking).
 	 */
-	@Column(name = "status", nullable = false, length = 30)
-	private String status = "pendente";
+	@Column(name = "is_blocking", insertable = false, updatable = false)
+	private Boolean bloqueante;
 
 	@Column(name = "observacoes", length = 500)
 	private String observacoes;
@@ -84,7 +89,7 @@ public class Agendamento {
 		if (this.tipo == null)
 			this.tipo = "hora_marcada";
 		if (this.status == null)
-			this.status = "pendente";
+			this.status = StatusAgendamento.PENDENTE;
 	}
 
 	@PreUpdate
@@ -176,14 +181,18 @@ public class Agendamento {
 		this.fim = fim;
 	}
 
-	public String getStatus() {
+	public StatusAgendamento getStatus() {
 		return status;
 	}
 
-	public void setStatus(String status) {
+	public void setStatus(StatusAgendamento status) {
 		this.status = status;
 	}
 
+	public Boolean getBloqueante() {
+		return bloqueante;
+	}
+
 	public String getObservacoes() {
 		return observacoes;
 	}
@@ -0,0 +1,125 @@
+package br.com.bravvo.api.entity;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Resultado de uma criação de agendamento feita com Idempotency-Key.
+ *
+ * Tabela: agendamento_idempotencia - chave: escopo do chamador + key (única) -
+ * hashRequisicao: SHA-256 do corpo (mesma key com outro corpo = erro) - demais
+ * campos: resposta original (AgendamentoCreateResponseDTO) - expiraEm: depois
+ * disso a key pode ser reutilizada
+ */
+@Entity
+@Table(name = "agendamento_idempotencia")
+public class AgendamentoIdempotencia {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "chave", nullable = false, length = 160, unique = true)
+	private String chave;
+
+	@Column(name = "hash_requisicao", nullable = false, length = 64)
+	private String hashRequisicao;
+
+	@Column(name = "agendamento_id", nullable = false)
+	private Long agendamentoId;
+
+	@Column(name = "protocolo", nullable = false, length = 30)
+	private String protocolo;
+
+	@Column(name = "inicio", nullable = false)
+	private LocalDateTime inicio;
+
+	@Column(name = "fim", nullable = false)
+	private LocalDateTime fim;
+
+	@Column(name = "status", nullable = false, length = 50)
+	private String status;
+
+	@Column(name = "expira_em", nullable = false)
+	private LocalDateTime expiraEm;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	@PrePersist
+	protected void onCreate() {
+		this.createdAt = LocalDateTime.now();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getChave() {
+		return chave;
+	}
+
+	public void setChave(String chave) {
+		this.chave = chave;
+	}
+
+	public String getHashRequisicao() {
+		return hashRequisicao;
+	}
+
+	public void setHashRequisicao(String hashRequisicao) {
+		this.hashRequisicao = hashRequisicao;
+	}
+
+	public Long getAgendamentoId() {
+		return agendamentoId;
+	}
+
+	public void setAgendamentoId(Long agendamentoId) {
+		this.agendamentoId = agendamentoId;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public void setProtocolo(String protocolo) {
+		this.protocolo = protocolo;
+	}
+
+	public LocalDateTime getInicio() {
+		return inicio;
+	}
+
+	public void setInicio(LocalDateTime inicio) {
+		this.inicio = inicio;
+	}
+
+	public LocalDateTime getFim() {
+		return fim;
+	}
+
+	public void setFim(LocalDateTime fim) {
+		this.fim = fim;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public void setStatus(String status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getExpiraEm() {
+		return expiraEm;
+	}
+
+	public void setExpiraEm(LocalDateTime expiraEm) {
+		this.expiraEm = expiraEm;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+}
@@ -0,0 +1,170 @@
+package br.com.bravvo.api.entity;
+
+import br.com.bravvo.api.enums.StatusFila;
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ficha da fila de espera (walk-in).
+ *
+ * Tabela: fila_espera
+ *
+ * Cliente chega sem horário marcado e entra na fila de um funcionário
+ * (funcionario_id) ou de um serviço (servico_id, "qualquer profissional").
+ * Quem chama preenche funcionario_id e chamado_em.
+ *
+ * A fila em si (ordem, posição, espera) vive em memória no
+ * FilaEsperaService; esta tabela é o registro durável (write-through).
+ */
+@Entity
+@Table(name = "fila_espera")
+public class FilaEspera {
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+
+	@Column(name = "protocolo", nullable = false, length = 30, unique = true)
+	private String protocolo;
+
+	@Column(name = "servico_id")
+	private Long servicoId;
+
+	@Column(name = "funcionario_id")
+	private Long funcionarioId;
+
+	@Column(name = "cliente_id")
+	private Long clienteId;
+
+	@Column(name = "cliente_nome", nullable = false, length = 120)
+	private String clienteNome;
+
+	@Column(name = "cliente_telefone", nullable = false, length = 30)
+	private String clienteTelefone;
+
+	@Column(name = "cliente_email", length = 180)
+	private String clienteEmail;
+
+	@Convert(converter = StatusFilaConverter.class)
+	@Column(name = "status", nullable = false, length = 20)
+	private StatusFila status = StatusFila.AGUARDANDO;
+
+	@Column(name = "chamado_em")
+	private LocalDateTime chamadoEm;
+
+	@Column(name = "concluido_em")
+	private LocalDateTime concluidoEm;
+
+	@Column(name = "created_at", nullable = false, updatable = false)
+	private LocalDateTime createdAt;
+
+	@Column(name = "updated_at", nullable = false)
+	private LocalDateTime updatedAt;
+
+	@PrePersist
+	protected void onCreate() {
+		var now = LocalDateTime.now();
+		this.createdAt = now;
+		this.updatedAt = now;
+		if (this.status == null)
+			this.status = StatusFila.AGUARDANDO;
+	}
+
+	@PreUpdate
+	protected void onUpdate() {
+		this.updatedAt = LocalDateTime.now();
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public void setProtocolo(String protocolo) {
+		this.protocolo = protocolo;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public void setServicoId(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public void setFuncionarioId(Long funcionarioId) {
+		this.funcionarioId = funcionarioId;
+	}
+
+	public Long getClienteId() {
+		return clienteId;
+	}
+
+	public void setClienteId(Long clienteId) {
+		this.clienteId = clienteId;
+	}
+
+	public String getClienteNome() {
+		return clienteNome;
+	}
+
+	public void setClienteNome(String clienteNome) {
+		this.clienteNome = clienteNome;
+	}
+
+	public String getClienteTelefone() {
+		return clienteTelefone;
+	}
+
+	public void setClienteTelefone(String clienteTelefone) {
+		this.clienteTelefone = clienteTelefone;
+	}
+
+	public String getClienteEmail() {
+		return clienteEmail;
+	}
+
+	public void setClienteEmail(String clienteEmail) {
+		this.clienteEmail = clienteEmail;
+	}
+
+	public StatusFila getStatus() {
+		return status;
+	}
+
+	public void setStatus(StatusFila status) {
+		this.status = status;
+	}
+
+	public LocalDateTime getChamadoEm() {
+		return chamadoEm;
+	}
+
+	public void setChamadoEm(LocalDateTime chamadoEm) {
+		this.chamadoEm = chamadoEm;
+	}
+
+	public LocalDateTime getConcluidoEm() {
+		return concluidoEm;
+	}
+
+	public void setConcluidoEm(LocalDateTime concluidoEm) {
+		this.concluidoEm = concluidoEm;
+	}
+
+	public LocalDateTime getCreatedAt() {
+		return createdAt;
+	}
+
+	public LocalDateTime getUpdatedAt() {
+		return updatedAt;
+	}
+}
@@ -0,0 +1,29 @@
+package br.com.bravvo.api.entity;
+
+import br.com.bravvo.api.enums.StatusAgendamento;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * StatusAgendamento <-> agendamentos.status ('pendente', 'confirmado', ...).
+ *
+ * Não usa EnumType.STRING: os valores do banco são minúsculos e já existem em
+ * produção.
+ */
+@Converter
+public class StatusAgendamentoConverter implements AttributeConverter<StatusAgendamento, String> {
+
+	@Override
+	public String convertToDatabaseColumn(StatusAgendamento status) {
+		return status == null ? null : status.getValor();
+	}
+
+	@Override
+	public StatusAgendamento convertToEntityAttribute(String valor) {
+		if (valor == null) {
+			return null;
+		}
+		return StatusAgendamento.fromValor(valor)
+				.orElseThrow(() -> new IllegalStateException("Status de agendamento desconhecido: " + valor));
+	}
+}
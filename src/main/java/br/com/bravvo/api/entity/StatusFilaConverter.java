@@ -0,0 +1,26 @@
+package br.com.bravvo.api.entity;
+
+import br.com.bravvo.api.enums.StatusFila;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * StatusFila <-> fila_espera.status (enum do banco em minúsculas).
+ */
+@Converter
+public class StatusFilaConverter implements AttributeConverter<StatusFila, String> {
+
+	@Override
+	public String convertToDatabaseColumn(StatusFila status) {
+		return status == null ? null : status.getValor();
+	}
+
+	@Override
+	public StatusFila convertToEntityAttribute(String valor) {
+		if (valor == null) {
+			return null;
+		}
+		return StatusFila.fromValor(valor)
+				.orElseThrow(() -> new IllegalStateException("Status de fila desconhecido: " + valor));
+	}
+}
@@ -0,0 +1,53 @@
+package br.com.bravvo.api.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Parâmetros ajustáveis em runtime pela tabela configuracoes (cfg_key ->
+ * cfg_value), lidos via ConfiguracaoService.
+ *
+ * Cada parâmetro tem o valor padrão (usado sem linha na tabela ou com valor
+ * inválido) e a faixa aceita.
+ */
+public enum ParametroConfiguracao {
+    PRE_CADASTRO_EXPIRACAO_MIN("onboarding.pre-cadastro.expiracao-min", 15, 1, 1440),
+    PRE_CADASTRO_MAX_TENTATIVAS("onboarding.pre-cadastro.max-tentativas", 5, 1, 20),
+    TRIAL_DIAS("onboarding.trial-dias", 14, 0, 365),
+    CLIENTES_LIMIT_MAX("paginacao.clientes.limit-max", 50, 1, 500),
+    USUARIOS_LIMIT_MAX("paginacao.usuarios.limit-max", 100, 1, 500),
+    AGENDAMENTOS_LIMIT_MAX("paginacao.agendamentos.limit-max", 100, 1, 500),
+    PROXIMOS_HORARIOS_LIMIT_MAX("disponibilidade.proximos.limit-max", 50, 1, 200);
+
+    private final String chave;
+    private final int padrao;
+    private final int min;
+    private final int max;
+
+    ParametroConfiguracao(String chave, int padrao, int min, int max) {
+        this.chave = chave;
+        this.padrao = padrao;
+        this.min = min;
+        this.max = max;
+    }
+
+    public String getChave() {
+        return chave;
+    }
+
+    public int getPadrao() {
+        return padrao;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public static Optional<ParametroConfiguracao> fromChave(String chave) {
+        return Arrays.stream(values()).filter(p -> p.chave.equals(chave)).findFirst();
+    }
+}
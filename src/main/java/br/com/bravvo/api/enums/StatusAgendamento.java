@@ -1,9 +1,39 @@
 package br.com.bravvo.api.enums;
 
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Status do agendamento. No banco fica o valor em minúsculas
+ * (agendamentos.status), via StatusAgendamentoConverter.
+ *
+ * Bloqueiam agenda: pendente, confirmado, em_atendimento (mesma regra da
+ * coluna gerada agendamentos.is_blocking).
+ */
 public enum StatusAgendamento {
-    PENDENTE,
-    CONFIRMADO,
-    EM_ATENDIMENTO,
-    CONCLUIDO,
-    CANCELADO
+    PENDENTE("pendente", true),
+    CONFIRMADO("confirmado", true),
+    EM_ATENDIMENTO("em_atendimento", true),
+    CONCLUIDO("concluido", false),
+    CANCELADO("cancelado", false);
+
+    private final String valor;
+    private final boolean bloqueante;
+
+    StatusAgendamento(String valor, boolean bloqueante) {
+        this.valor = valor;
+        this.bloqueante = bloqueante;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public boolean isBloqueante() {
+        return bloqueante;
+    }
+
+    public static Optional<StatusAgendamento> fromValor(String valor) {
+        return Arrays.stream(values()).filter(s -> s.valor.equalsIgnoreCase(valor)).findFirst();
+    }
 }
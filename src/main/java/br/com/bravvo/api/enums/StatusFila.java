@@ -0,0 +1,29 @@
+package br.com.bravvo.api.enums;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Status de uma ficha da fila de espera (walk-in). No banco fica o valor em
+ * minúsculas (fila_espera.status), via StatusFilaConverter.
+ */
+public enum StatusFila {
+    AGUARDANDO("aguardando"),
+    EM_ATENDIMENTO("em_atendimento"),
+    CONCLUIDO("concluido"),
+    CANCELADO("cancelado");
+
+    private final String valor;
+
+    StatusFila(String valor) {
+        this.valor = valor;
+    }
+
+    public String getValor() {
+        return valor;
+    }
+
+    public static Optional<StatusFila> fromValor(String valor) {
+        return Arrays.stream(values()).filter(s -> s.valor.equalsIgnoreCase(valor)).findFirst();
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.bravvo.api.event;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+
+/**
+ * Evento publicado pelos fluxos de escrita quando algo muda a disponibilidade
+ * de um funcionário.
+ *
+ * Publicado dentro da transação (ApplicationEventPublisher) e consumido com
+ * {@code @TransactionalEventListener(AFTER_COMMIT)}, ou seja: quem escuta só
+ * enxerga mudanças confirmadas no banco.
+ *
+ * Tipos: - OCUPADO: novo intervalo ocupado (agendamento/bloqueio criado) -
+ * LIBERADO: intervalo deixou de estar ocupado (bloqueio removido) - AGENDA:
+ * agenda semanal alterada (afeta todos os dias do funcionário) - SERVICOS:
+ * serviços habilitados/durações (prefs) alterados; a ocupação não muda, mas os
+ * horários calculados para o funcionário sim - FUNCIONARIO: cadastro alterado
+ * (nome, ativo, perfil); afeta catálogo e elegibilidade, não a ocupação
+ */
+public class DisponibilidadeAlteradaEvent {
+
+	public enum Tipo {
+		OCUPADO, LIBERADO, AGENDA, SERVICOS, FUNCIONARIO
+	}
+
+	private final Tipo tipo;
+	private final Long funcionarioId;
+	private final LocalDateTime inicio;
+	private final LocalDateTime fim;
+
+	private DisponibilidadeAlteradaEvent(Tipo tipo, Long funcionarioId, LocalDateTime inicio, LocalDateTime fim) {
+		this.tipo = tipo;
+		this.funcionarioId = funcionarioId;
+		this.inicio = inicio;
+		this.fim = fim;
+	}
+
+	public static DisponibilidadeAlteradaEvent ocupado(Long funcionarioId, LocalDateTime inicio, LocalDateTime fim) {
+		return new DisponibilidadeAlteradaEvent(Tipo.OCUPADO, funcionarioId, inicio, fim);
+	}
+
+	public static DisponibilidadeAlteradaEvent liberado(Long funcionarioId, LocalDateTime inicio, LocalDateTime fim) {
+		return new DisponibilidadeAlteradaEvent(Tipo.LIBERADO, funcionarioId, inicio, fim);
+	}
+
+	public static DisponibilidadeAlteradaEvent agenda(Long funcionarioId) {
+		return new DisponibilidadeAlteradaEvent(Tipo.AGENDA, funcionarioId, null, null);
+	}
+
+	public static DisponibilidadeAlteradaEvent servicos(Long funcionarioId) {
+		return new DisponibilidadeAlteradaEvent(Tipo.SERVICOS, funcionarioId, null, null);
+	}
+
+	public static DisponibilidadeAlteradaEvent funcionario(Long funcionarioId) {
+		return new DisponibilidadeAlteradaEvent(Tipo.FUNCIONARIO, funcionarioId, null, null);
+	}
+
+	/**
+	 * true quando a ocupação (agenda/bloqueios/agendamentos) mudou. SERVICOS e
+	 * FUNCIONARIO só afetam duração/elegibilidade.
+	 */
+	public boolean isOcupacaoAlterada() {
+		return tipo != Tipo.SERVICOS && tipo != Tipo.FUNCIONARIO;
+	}
+
+	public Tipo getTipo() {
+		return tipo;
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public LocalDateTime getInicio() {
+		return inicio;
+	}
+
+	public LocalDateTime getFim() {
+		return fim;
+	}
+
+	/**
+	 * true quando o evento afeta todos os dias do funcionário (sem intervalo).
+	 */
+	public boolean isTodosOsDias() {
+		return inicio == null || fim == null;
+	}
+
+	/**
+	 * Primeiro dia afetado (inclusive).
+	 */
+	public LocalDate getPrimeiroDia() {
+		return inicio.toLocalDate();
+	}
+
+	/**
+	 * Último dia afetado (inclusive). Um intervalo que termina exatamente às 00:00
+	 * não afeta o dia seguinte.
+	 */
+	public LocalDate getUltimoDia() {
+		LocalDate ultimo = fim.toLocalDate();
+		if (fim.toLocalTime().equals(LocalTime.MIDNIGHT) && ultimo.isAfter(inicio.toLocalDate())) {
+			ultimo = ultimo.minusDays(1);
+		}
+		return ultimo;
+	}
+}
@@ -0,0 +1,58 @@
+package br.com.bravvo.api.event;
+
+/**
+ * Evento publicado quando uma fila de espera avança (chamada, desistência ou
+ * atendimento concluído).
+ *
+ * A fila é identificada por funcionarioId (fila do funcionário) ou servicoId
+ * (fila do serviço). Quando uma ficha sai da fila, protocolo/status dizem qual
+ * e como saiu (cancelado/concluido).
+ */
+public class FilaAlteradaEvent {
+
+	private final Long funcionarioId;
+	private final Long servicoId;
+	private final String protocolo;
+	private final String status;
+
+	private FilaAlteradaEvent(Long funcionarioId, Long servicoId, String protocolo, String status) {
+		this.funcionarioId = funcionarioId;
+		this.servicoId = servicoId;
+		this.protocolo = protocolo;
+		this.status = status;
+	}
+
+	/**
+	 * Posições/esperas mudaram (ninguém saiu).
+	 */
+	public static FilaAlteradaEvent avancou(Long funcionarioId, Long servicoId) {
+		return new FilaAlteradaEvent(funcionarioId, servicoId, null, null);
+	}
+
+	/**
+	 * A ficha do protocolo saiu da fila com o status informado.
+	 */
+	public static FilaAlteradaEvent saiu(Long funcionarioId, Long servicoId, String protocolo, String status) {
+		return new FilaAlteradaEvent(funcionarioId, servicoId, protocolo, status);
+	}
+
+	public Long getFuncionarioId() {
+		return funcionarioId;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+
+	public String getProtocolo() {
+		return protocolo;
+	}
+
+	public String getStatus() {
+		return status;
+	}
+
+	public boolean isSaida() {
+		return protocolo != null;
+	}
+}
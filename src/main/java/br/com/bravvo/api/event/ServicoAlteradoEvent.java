@@ -0,0 +1,21 @@
+package br.com.bravvo.api.event;
+
+/**
+ * Evento publicado quando um serviço muda algo que afeta a disponibilidade
+ * pública (status, duração padrão ou remoção).
+ *
+ * Mesmo esquema do {@link DisponibilidadeAlteradaEvent}: publicado dentro da
+ * transação e consumido após o commit.
+ */
+public class ServicoAlteradoEvent {
+
+	private final Long servicoId;
+
+	public ServicoAlteradoEvent(Long servicoId) {
+		this.servicoId = servicoId;
+	}
+
+	public Long getServicoId() {
+		return servicoId;
+	}
+}
@@ -22,7 +22,7 @@ public class AgendamentoMapper {
                 a.getClienteEmail(),
                 a.getInicio(),
                 a.getFim(),
-                a.getStatus(),
+                a.getStatus().getValor(),
                 a.getObservacoes()
         );
     }
@@ -0,0 +1,33 @@
+package br.com.bravvo.api.repository;
+
+import br.com.bravvo.api.entity.AgendamentoIdempotencia;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Repository da tabela agendamento_idempotencia.
+ */
+public interface AgendamentoIdempotenciaRepository extends JpaRepository<AgendamentoIdempotencia, Long> {
+
+	Optional<AgendamentoIdempotencia> findByChave(String chave);
+
+	/**
+	 * Libera uma key vencida para reuso (antes de criar com a mesma key).
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from AgendamentoIdempotencia i where i.chave = :chave and i.expiraEm <= :agora")
+	int deleteExpirada(@Param("chave") String chave, @Param("agora") LocalDateTime agora);
+
+	/**
+	 * Limpeza geral das keys vencidas.
+	 */
+	@Modifying
+	@Transactional
+	@Query("delete from AgendamentoIdempotencia i where i.expiraEm <= :agora")
+	int deleteExpiradas(@Param("agora") LocalDateTime agora);
+}
@@ -0,0 +1,73 @@
+package br.com.bravvo.api.repository;
+
+import br.com.bravvo.api.entity.Agendamento;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts em lote (JDBC batch) de agendamentos.
+ *
+ * Usado pelo agendamento em lote (recorrência/pacote): as entidades usam id
+ * IDENTITY, então o Hibernate faria um insert por linha; aqui vai um batch só.
+ * Roda na transação corrente (mesma conexão do JPA). Os protocolos do lote vão
+ * pela outbox ({@code ProtocoloOutbox}).
+ *
+ * Sem @PrePersist: created_at/updated_at são preenchidos aqui.
+ */
+@Repository
+public class AgendamentoLoteRepository {
+
+	private static final String INSERT_AGENDAMENTO = """
+			insert into agendamentos (protocolo, tipo, servico_id, funcionario_id, cliente_id, cliente_nome,
+			  cliente_telefone, cliente_email, inicio, fim, status, observacoes, created_at, updated_at)
+			values (:protocolo, :tipo, :servicoId, :funcionarioId, :clienteId, :clienteNome,
+			  :clienteTelefone, :clienteEmail, :inicio, :fim, :status, :observacoes, :createdAt, :updatedAt)
+			""";
+
+	private static final String IDS_POR_PROTOCOLO = """
+			select id, protocolo from agendamentos where protocolo in (:protocolos)
+			""";
+
+	private final NamedParameterJdbcTemplate jdbc;
+
+	public AgendamentoLoteRepository(NamedParameterJdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	/**
+	 * Insere os agendamentos e devolve os ids gerados por protocolo (1 select com
+	 * IN, em vez de depender de generated keys em batch no driver).
+	 */
+	public Map<String, Long> inserirAgendamentos(List<Agendamento> agendamentos) {
+		LocalDateTime agora = LocalDateTime.now();
+
+		SqlParameterSource[] batch = agendamentos.stream()
+				.map(a -> new MapSqlParameterSource().addValue("protocolo", a.getProtocolo())
+						.addValue("tipo", a.getTipo()).addValue("servicoId", a.getServicoId())
+						.addValue("funcionarioId", a.getFuncionarioId()).addValue("clienteId", a.getClienteId())
+						.addValue("clienteNome", a.getClienteNome())
+						.addValue("clienteTelefone", a.getClienteTelefone())
+						.addValue("clienteEmail", a.getClienteEmail()).addValue("inicio", a.getInicio())
+						.addValue("fim", a.getFim()).addValue("status", a.getStatus().getValor())
+						.addValue("observacoes", a.getObservacoes()).addValue("createdAt", agora)
+						.addValue("updatedAt", agora))
+				.toArray(SqlParameterSource[]::new);
+
+		jdbc.batchUpdate(INSERT_AGENDAMENTO, batch);
+
+		Map<String, Long> ids = new HashMap<>();
+		jdbc.query(IDS_POR_PROTOCOLO,
+				Map.of("protocolos", agendamentos.stream().map(Agendamento::getProtocolo).toList()),
+				rs -> {
+					ids.put(rs.getString("protocolo"), rs.getLong("id"));
+				});
+		return ids;
+	}
+}
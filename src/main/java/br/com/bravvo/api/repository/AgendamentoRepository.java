@@ -1,10 +1,15 @@
 package br.com.bravvo.api.repository;
 
+import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
 import br.com.bravvo.api.entity.Agendamento;
+import br.com.bravvo.api.enums.StatusAgendamento;
+import br.com.bravvo.api.repository.projection.IntervaloOcupadoProjection;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,7 +26,8 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
 	/**
 	 * Agendamentos que se sobrepõem ao intervalo [from, to] e BLOQUEIAM agenda.
 	 *
-	 * Regra MVP: bloqueiam: - pendente - confirmado - em_atendimento
+	 * Regra MVP: bloqueiam: - pendente - confirmado - em_atendimento (coluna
+	 * gerada is_blocking, índice idx_ag_funcionario_blocking)
 	 *
 	 * Interseção: - inicio < to - fim > from
 	 */
@@ -29,7 +35,7 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
 			    select a
 			    from Agendamento a
 			    where a.funcionarioId = :funcionarioId
-			      and a.status in ('pendente','confirmado','em_atendimento')
+			      and a.bloqueante = true
 			      and a.inicio < :to
 			      and a.fim > :from
 			    order by a.inicio asc
@@ -37,30 +43,121 @@ public interface AgendamentoRepository extends JpaRepository<Agendamento, Long>
 	List<Agendamento> findBlockingOverlapping(@Param("funcionarioId") Long funcionarioId,
 			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
-	Optional<Agendamento> findByProtocolo(String protocolo);
+	/**
+	 * Existe agendamento bloqueante sobrepondo [from, to]? Checagem final da
+	 * criação: para no primeiro (limit 1) e responde só pelo índice
+	 * idx_ag_funcionario_blocking, sem carregar entidades.
+	 */
+	default boolean existsBlockingOverlap(Long funcionarioId, LocalDateTime from, LocalDateTime to) {
+		return existsByFuncionarioIdAndBloqueanteTrueAndInicioBeforeAndFimAfter(funcionarioId, to, from);
+	}
 
+	boolean existsByFuncionarioIdAndBloqueanteTrueAndInicioBeforeAndFimAfter(Long funcionarioId, LocalDateTime to,
+			LocalDateTime from);
+
+	/**
+	 * Mesma regra de {@link #findBlockingOverlapping}, para vários funcionários de
+	 * uma vez (disponibilidade "qualquer profissional").
+	 */
 	@Query("""
 			    select a
 			    from Agendamento a
+			    where a.funcionarioId in :funcionarioIds
+			      and a.bloqueante = true
+			      and a.inicio < :to
+			      and a.fim > :from
+			    order by a.inicio asc
+			""")
+	List<Agendamento> findBlockingOverlappingByFuncionarioIds(@Param("funcionarioIds") Collection<Long> funcionarioIds,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+	/**
+	 * Tudo que ocupa a agenda do funcionário em [from, to], em uma única query:
+	 * agendamentos bloqueantes + bloqueios (union all).
+	 *
+	 * Usado nas cargas de vários dias (período/mês), onde só o intervalo importa.
+	 */
+	@Query("""
+			    select a.inicio as inicio, a.fim as fim
+			    from Agendamento a
+			    where a.funcionarioId = :funcionarioId
+			      and a.bloqueante = true
+			      and a.inicio < :to
+			      and a.fim > :from
+			    union all
+			    select b.startDt as inicio, b.endDt as fim
+			    from FuncionarioBloqueio b
+			    where b.funcionarioId = :funcionarioId
+			      and b.startDt < :to
+			      and b.endDt > :from
+			""")
+	List<IntervaloOcupadoProjection> findOcupadosOverlapping(@Param("funcionarioId") Long funcionarioId,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+	Optional<Agendamento> findByProtocolo(String protocolo);
+
+	/**
+	 * Consulta por protocolo em projeção (mesmas colunas das listagens).
+	 */
+	@Query("""
+			    select new br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO(
+			      a.id, a.protocolo, a.servicoId, s.nome, a.funcionarioId, f.nome, a.clienteId, a.clienteNome,
+			      a.clienteTelefone, a.clienteEmail, a.inicio, a.fim, a.status, a.observacoes)
+			    from Agendamento a
+			    left join Servico s on s.id = a.servicoId
+			    left join User f on f.id = a.funcionarioId
+			    where a.protocolo = :protocolo
+			""")
+	Optional<AgendamentoItemResponseDTO> findItemByProtocolo(@Param("protocolo") String protocolo);
+
+	/**
+	 * Página (keyset) dos agendamentos do cliente em [fromDt, toDt), ordenada por
+	 * (inicio, id).
+	 *
+	 * Cursor: itens depois de (aposInicio, aposId). Primeira página: aposInicio =
+	 * fromDt e aposId = 0. Sem offset e sem count: o tamanho vem do Pageable
+	 * (limit + 1 para saber se há próxima). Índice: idx_ag_cliente_inicio.
+	 *
+	 * Projeção direto no DTO (somente leitura, fora do contexto de persistência),
+	 * já com nome do serviço e do funcionário.
+	 */
+	@Query("""
+			    select new br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO(
+			      a.id, a.protocolo, a.servicoId, s.nome, a.funcionarioId, f.nome, a.clienteId, a.clienteNome,
+			      a.clienteTelefone, a.clienteEmail, a.inicio, a.fim, a.status, a.observacoes)
+			    from Agendamento a
+			    left join Servico s on s.id = a.servicoId
+			    left join User f on f.id = a.funcionarioId
 			    where a.clienteId = :clienteId
-			      and (:fromDt is null or a.inicio >= :fromDt)
-			      and (:toDt is null or a.inicio < :toDt)
+			      and a.inicio >= :aposInicio
+			      and (a.inicio > :aposInicio or a.id > :aposId)
+			      and a.inicio < :toDt
 			      and (:statusList is null or a.status in :statusList)
-			    order by a.inicio asc
+			    order by a.inicio asc, a.id asc
 			""")
-	List<Agendamento> findByClienteFiltro(@Param("clienteId") Long clienteId, @Param("fromDt") LocalDateTime fromDt,
-			@Param("toDt") LocalDateTime toDt, @Param("statusList") List<String> statusList);
+	List<AgendamentoItemResponseDTO> findPaginaCliente(@Param("clienteId") Long clienteId,
+			@Param("aposInicio") LocalDateTime aposInicio, @Param("aposId") Long aposId,
+			@Param("toDt") LocalDateTime toDt, @Param("statusList") List<StatusAgendamento> statusList, Pageable pageable);
 
+	/**
+	 * Mesma paginação de {@link #findPaginaCliente}, pela agenda do funcionário.
+	 * Índice: idx_ag_funcionario_inicio.
+	 */
 	@Query("""
-			    select a
+			    select new br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO(
+			      a.id, a.protocolo, a.servicoId, s.nome, a.funcionarioId, f.nome, a.clienteId, a.clienteNome,
+			      a.clienteTelefone, a.clienteEmail, a.inicio, a.fim, a.status, a.observacoes)
 			    from Agendamento a
+			    left join Servico s on s.id = a.servicoId
+			    left join User f on f.id = a.funcionarioId
 			    where a.funcionarioId = :funcionarioId
-			      and (:fromDt is null or a.inicio >= :fromDt)
-			      and (:toDt is null or a.inicio < :toDt)
+			      and a.inicio >= :aposInicio
+			      and (a.inicio > :aposInicio or a.id > :aposId)
+			      and a.inicio < :toDt
 			      and (:statusList is null or a.status in :statusList)
-			    order by a.inicio asc
+			    order by a.inicio asc, a.id asc
 			""")
-	List<Agendamento> findByFuncionarioFiltro(@Param("funcionarioId") Long funcionarioId,
-			@Param("fromDt") LocalDateTime fromDt, @Param("toDt") LocalDateTime toDt,
-			@Param("statusList") List<String> statusList);
+	List<AgendamentoItemResponseDTO> findPaginaFuncionario(@Param("funcionarioId") Long funcionarioId,
+			@Param("aposInicio") LocalDateTime aposInicio, @Param("aposId") Long aposId,
+			@Param("toDt") LocalDateTime toDt, @Param("statusList") List<StatusAgendamento> statusList, Pageable pageable);
 }
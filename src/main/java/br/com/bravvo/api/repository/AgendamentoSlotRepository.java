@@ -0,0 +1,90 @@
+package br.com.bravvo.api.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Minutos ocupados por agendamento (tabela agendamento_slots), via JDBC.
+ *
+ * Chave primária (funcionario_id, slot_start): gravar um minuto que já é de
+ * outro agendamento do funcionário falha com DuplicateKeyException. É a
+ * garantia final de não sobreposição, feita pelo banco e válida com vários nós.
+ *
+ * Granularidade: 1 minuto (mesma regra do índice de ocupação: início truncado,
+ * fim arredondado para cima). Roda na transação corrente.
+ */
+@Repository
+public class AgendamentoSlotRepository {
+
+	private static final String INSERT_SLOT = """
+			insert into agendamento_slots (funcionario_id, slot_start, agendamento_id)
+			values (:funcionarioId, :slotStart, :agendamentoId)
+			""";
+
+	private static final String DELETE_POR_AGENDAMENTO = """
+			delete from agendamento_slots where agendamento_id = :agendamentoId
+			""";
+
+	private final NamedParameterJdbcTemplate jdbc;
+
+	public AgendamentoSlotRepository(NamedParameterJdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	/**
+	 * Ocupa os minutos de cada agendamento (um batch para todos).
+	 *
+	 * @throws org.springframework.dao.DuplicateKeyException algum minuto já está
+	 *                                                       ocupado
+	 */
+	public void ocupar(List<Ocupacao> ocupacoes) {
+		List<SqlParameterSource> batch = new ArrayList<>();
+		for (Ocupacao o : ocupacoes) {
+			for (LocalDateTime slot : slots(o.inicio(), o.fim())) {
+				batch.add(new MapSqlParameterSource().addValue("funcionarioId", o.funcionarioId())
+						.addValue("slotStart", slot).addValue("agendamentoId", o.agendamentoId()));
+			}
+		}
+		if (!batch.isEmpty()) {
+			jdbc.batchUpdate(INSERT_SLOT, batch.toArray(SqlParameterSource[]::new));
+		}
+	}
+
+	/**
+	 * Libera os minutos do agendamento (cancelamento).
+	 */
+	public void liberar(Long agendamentoId) {
+		jdbc.update(DELETE_POR_AGENDAMENTO, Map.of("agendamentoId", agendamentoId));
+	}
+
+	/**
+	 * Minutos de [inicio, fim): início truncado, fim arredondado para cima.
+	 */
+	static List<LocalDateTime> slots(LocalDateTime inicio, LocalDateTime fim) {
+		LocalDateTime t = inicio.truncatedTo(ChronoUnit.MINUTES);
+		LocalDateTime teto = fim.truncatedTo(ChronoUnit.MINUTES);
+		if (teto.isBefore(fim)) {
+			teto = teto.plusMinutes(1);
+		}
+
+		List<LocalDateTime> slots = new ArrayList<>();
+		for (; t.isBefore(teto); t = t.plusMinutes(1)) {
+			slots.add(t);
+		}
+		return slots;
+	}
+
+	/**
+	 * Agendamento a ocupar: id e intervalo [inicio, fim) do funcionário.
+	 */
+	public record Ocupacao(Long agendamentoId, Long funcionarioId, LocalDateTime inicio, LocalDateTime fim) {
+	}
+}
@@ -0,0 +1,50 @@
+package br.com.bravvo.api.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Gravação de auditoria_logs em batch, via JDBC.
+ *
+ * O ator chega como e-mail (subject do JWT) e vira actor_user_id no próprio
+ * insert (subselect pelo índice único de users.email): quem registra não
+ * consulta o banco.
+ */
+@Repository
+public class AuditoriaRepository {
+
+	private static final String INSERT = """
+			insert into auditoria_logs (actor_user_id, acao, entidade, entidade_id, detalhes_json, ip, created_at)
+			values ((select u.id from users u where u.email = :actorEmail), :acao, :entidade, :entidadeId,
+			        :detalhesJson, :ip, :createdAt)
+			""";
+
+	private final NamedParameterJdbcTemplate jdbc;
+
+	public AuditoriaRepository(NamedParameterJdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	public void gravar(List<Registro> registros) {
+		SqlParameterSource[] batch = registros.stream().map(AuditoriaRepository::parametros)
+				.toArray(SqlParameterSource[]::new);
+		jdbc.batchUpdate(INSERT, batch);
+	}
+
+	private static SqlParameterSource parametros(Registro r) {
+		return new MapSqlParameterSource().addValue("actorEmail", r.actorEmail()).addValue("acao", r.acao())
+				.addValue("entidade", r.entidade()).addValue("entidadeId", r.entidadeId())
+				.addValue("detalhesJson", r.detalhesJson()).addValue("ip", r.ip())
+				.addValue("createdAt", Timestamp.valueOf(r.createdAt()));
+	}
+
+	public record Registro(String actorEmail, String acao, String entidade, String entidadeId, String detalhesJson,
+			String ip, LocalDateTime createdAt) {
+	}
+}
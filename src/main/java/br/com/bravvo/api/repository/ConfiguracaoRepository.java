@@ -0,0 +1,58 @@
+package br.com.bravvo.api.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Leitura da tabela configuracoes (cfg_key/cfg_value), via JDBC.
+ *
+ * - versao: count + max(updated_at) + horário do banco, consulta barata para
+ * saber se algo mudou - carregarTudo: todas as chaves (tabela pequena)
+ */
+@Repository
+public class ConfiguracaoRepository {
+
+	private static final String SELECT_VERSAO = """
+			select count(*) as total, max(updated_at) as ultima, now() as agora
+			from configuracoes
+			""";
+
+	private static final String SELECT_TUDO = """
+			select cfg_key, cfg_value from configuracoes
+			""";
+
+	private final NamedParameterJdbcTemplate jdbc;
+
+	public ConfiguracaoRepository(NamedParameterJdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	public Versao versao() {
+		return jdbc.queryForObject(SELECT_VERSAO, new MapSqlParameterSource(), (rs, i) -> {
+			Timestamp ultima = rs.getTimestamp("ultima");
+			return new Versao(rs.getLong("total"), ultima != null ? ultima.toLocalDateTime() : null,
+					rs.getTimestamp("agora").toLocalDateTime());
+		});
+	}
+
+	public Map<String, String> carregarTudo() {
+		Map<String, String> valores = new HashMap<>();
+		jdbc.query(SELECT_TUDO, rs -> {
+			valores.put(rs.getString("cfg_key"), rs.getString("cfg_value"));
+		});
+		return valores;
+	}
+
+	/**
+	 * Versão da tabela. "agora" é o relógio do banco no momento da leitura (mesma
+	 * base de updated_at).
+	 */
+	public record Versao(long total, LocalDateTime ultima, LocalDateTime agora) {
+	}
+}
@@ -0,0 +1,25 @@
+package br.com.bravvo.api.repository;
+
+import br.com.bravvo.api.entity.FilaEspera;
+import br.com.bravvo.api.enums.StatusFila;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository da fila de espera (walk-in).
+ *
+ * Usado para: - gravar cada mudança da fila (write-through) - recarregar as
+ * filas em memória no startup - consultar fichas que já saíram da fila
+ */
+public interface FilaEsperaRepository extends JpaRepository<FilaEspera, Long> {
+
+	/**
+	 * Fichas ativas na ordem de chegada (carga das filas em memória).
+	 */
+	List<FilaEspera> findByStatusInOrderByIdAsc(Collection<StatusFila> status);
+
+	Optional<FilaEspera> findByProtocolo(String protocolo);
+}
@@ -4,6 +4,7 @@ import br.com.bravvo.api.entity.FuncionarioAgenda;
 import br.com.bravvo.api.entity.FuncionarioAgendaId;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -15,4 +16,16 @@ public interface FuncionarioAgendaRepository extends JpaRepository<FuncionarioAg
      * Lista a agenda de todos os dias daquele funcionário.
      */
     List<FuncionarioAgenda> findByIdFuncionarioId(Long funcionarioId);
+
+    /**
+     * Agenda de um dia da semana para vários funcionários (IN :ids).
+     * Usado na disponibilidade "qualquer profissional".
+     */
+    List<FuncionarioAgenda> findByIdDiaSemanaAndIdFuncionarioIdIn(Integer diaSemana, Collection<Long> funcionarioIds);
+
+    /**
+     * Agenda semanal completa de vários funcionários (IN :ids).
+     * Usado na busca do próximo horário livre em modo "qualquer profissional".
+     */
+    List<FuncionarioAgenda> findByIdFuncionarioIdIn(Collection<Long> funcionarioIds);
 }
@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -28,4 +29,30 @@ public interface FuncionarioBloqueioRepository extends JpaRepository<Funcionario
 			""")
 	List<FuncionarioBloqueio> findOverlapping(@Param("funcionarioId") Long funcionarioId,
 			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+	/**
+	 * Existe bloqueio sobrepondo [from, to]? (limit 1, índice
+	 * idx_func_bloq_periodo)
+	 */
+	default boolean existsOverlapping(Long funcionarioId, LocalDateTime from, LocalDateTime to) {
+		return existsByFuncionarioIdAndStartDtBeforeAndEndDtAfter(funcionarioId, to, from);
+	}
+
+	boolean existsByFuncionarioIdAndStartDtBeforeAndEndDtAfter(Long funcionarioId, LocalDateTime to,
+			LocalDateTime from);
+
+	/**
+	 * Mesma regra de {@link #findOverlapping}, para vários funcionários de uma vez
+	 * (disponibilidade "qualquer profissional").
+	 */
+	@Query("""
+			    select b
+			    from FuncionarioBloqueio b
+			    where b.funcionarioId in :funcionarioIds
+			      and b.startDt < :to
+			      and b.endDt > :from
+			    order by b.startDt asc
+			""")
+	List<FuncionarioBloqueio> findOverlappingByFuncionarioIds(@Param("funcionarioIds") Collection<Long> funcionarioIds,
+			@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
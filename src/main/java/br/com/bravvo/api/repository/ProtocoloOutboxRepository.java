@@ -0,0 +1,101 @@
+package br.com.bravvo.api.repository;
+
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outbox dos registros de protocolo (tabela protocolos_outbox), via JDBC.
+ *
+ * - gravar: insert em batch na transação corrente (a do agendamento) -
+ * descarregarLote: em transação própria, trava as linhas mais antigas, copia
+ * para protocolos em um batch e apaga da outbox
+ *
+ * A cópia usa insert ignore: se um código já está em protocolos (ex.: cópia
+ * repetida após falha entre nós), a linha só sai da outbox.
+ */
+@Repository
+public class ProtocoloOutboxRepository {
+
+	private static final String INSERT_OUTBOX = """
+			insert into protocolos_outbox (codigo, tipo, dados_json, created_at)
+			values (:codigo, :tipo, :dadosJson, :createdAt)
+			""";
+
+	private static final String SELECT_LOTE = """
+			select id, codigo, tipo, dados_json, created_at
+			from protocolos_outbox
+			order by id
+			limit :limite
+			for update
+			""";
+
+	private static final String INSERT_PROTOCOLO = """
+			insert ignore into protocolos (codigo, tipo, dados_json, created_at)
+			values (:codigo, :tipo, :dadosJson, :createdAt)
+			""";
+
+	private static final String DELETE_LOTE = """
+			delete from protocolos_outbox where id in (:ids)
+			""";
+
+	private final NamedParameterJdbcTemplate jdbc;
+
+	public ProtocoloOutboxRepository(NamedParameterJdbcTemplate jdbc) {
+		this.jdbc = jdbc;
+	}
+
+	/**
+	 * Grava os registros na outbox (um batch), na transação de quem chama.
+	 */
+	public void gravar(List<Registro> registros) {
+		SqlParameterSource[] batch = registros.stream().map(ProtocoloOutboxRepository::parametros)
+				.toArray(SqlParameterSource[]::new);
+		jdbc.batchUpdate(INSERT_OUTBOX, batch);
+	}
+
+	/**
+	 * Copia até "limite" registros para protocolos e apaga da outbox. Retorna
+	 * quantos saíram.
+	 */
+	@Transactional
+	public int descarregarLote(int limite) {
+		List<Long> ids = new ArrayList<>();
+		List<Registro> registros = new ArrayList<>();
+
+		jdbc.query(SELECT_LOTE, Map.of("limite", limite), rs -> {
+			ids.add(rs.getLong("id"));
+			Timestamp createdAt = rs.getTimestamp("created_at");
+			registros.add(new Registro(rs.getString("codigo"), rs.getString("tipo"), rs.getString("dados_json"),
+					createdAt.toLocalDateTime()));
+		});
+
+		if (ids.isEmpty()) {
+			return 0;
+		}
+
+		jdbc.batchUpdate(INSERT_PROTOCOLO,
+				registros.stream().map(ProtocoloOutboxRepository::parametros).toArray(SqlParameterSource[]::new));
+		jdbc.update(DELETE_LOTE, Map.of("ids", ids));
+		return ids.size();
+	}
+
+	private static SqlParameterSource parametros(Registro r) {
+		return new MapSqlParameterSource().addValue("codigo", r.codigo()).addValue("tipo", r.tipo())
+				.addValue("dadosJson", r.dadosJson()).addValue("createdAt", r.createdAt());
+	}
+
+	/**
+	 * Linha de protocolo (outbox ou protocolos).
+	 */
+	public record Registro(String codigo, String tipo, String dadosJson, LocalDateTime createdAt) {
+	}
+}
@@ -6,6 +6,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.Param;
+import jakarta.persistence.LockModeType;
 
 import java.util.Optional;
 
@@ -19,6 +20,21 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
 	boolean existsByEmail(String email);
 
+	// =========================
+	// Lock de agenda
+	// =========================
+
+	/**
+	 * Carrega o usuário com lock de escrita na linha (SELECT ... FOR UPDATE).
+	 *
+	 * Usado como guarda entre nós na criação de agendamentos: quem segura a linha
+	 * do funcionário é o único checando conflito + inserindo para ele até o
+	 * commit.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select u from User u where u.id = :id")
+	Optional<User> findByIdForUpdate(@Param("id") Long id);
+
 	// =========================
 	// Listagem paginada com filtros e busca
 	// =========================
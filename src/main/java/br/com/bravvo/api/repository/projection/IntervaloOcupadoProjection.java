@@ -0,0 +1,13 @@
+package br.com.bravvo.api.repository.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * Projection de um intervalo ocupado [inicio, fim) na agenda do funcionário,
+ * vindo de agendamentos bloqueantes ou de bloqueios.
+ */
+public interface IntervaloOcupadoProjection {
+	LocalDateTime getInicio();
+
+	LocalDateTime getFim();
+}
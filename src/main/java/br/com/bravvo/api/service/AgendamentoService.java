@@ -1,23 +1,29 @@
 package br.com.bravvo.api.service;
 
-import br.com.bravvo.api.entity.Protocolo;
 import br.com.bravvo.api.dto.agendamento.*;
+import br.com.bravvo.api.dto.common.CursorPagedResponseDTO;
 import br.com.bravvo.api.entity.Agendamento;
-import br.com.bravvo.api.entity.FuncionarioPrefs;
+import br.com.bravvo.api.entity.Servico;
+import br.com.bravvo.api.enums.ParametroConfiguracao;
 import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.enums.StatusAgendamento;
 import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BadRequestException;
 import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.ForbiddenException;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.mapper.AgendamentoMapper;
 import br.com.bravvo.api.repository.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -26,8 +32,6 @@ import java.util.stream.Collectors;
 
 import java.time.*;
 
-import java.util.Random;
-
 /**
  * Core único de criação de agendamento (MVP).
  *
@@ -35,8 +39,15 @@ import java.util.Random;
  * ativo - funcionário deve existir, estar ativo, e ser perfil FUNCIONARIO -
  * funcionário deve ter o serviço habilitado (funcionario_servicos) - resolver
  * duração: prefs_json -> fallback servico.duracaoMin - calcular fim = inicio +
- * duração - validar conflito final (overlap) com agendamentos bloqueantes -
- * gerar protocolo único - persistir
+ * duração - validar conflito final (overlap) com agendamentos bloqueantes e
+ * bloqueios - gerar protocolo único - persistir
+ *
+ * Concorrência: checagem de conflito + insert rodam com o funcionário travado
+ * até o commit (lock local por funcionário + lock da linha do funcionário no
+ * banco). Dois pedidos para o mesmo horário não passam juntos; funcionários
+ * diferentes seguem em paralelo. Garantia final no banco: os minutos de cada
+ * agendamento vão para agendamento_slots (chave única por funcionário e
+ * minuto), então sobreposição entre agendamentos falha mesmo com vários nós.
  *
  * Importante: - Controllers diferentes só adaptam "quem é o cliente" e "quem é
  * o funcionário"
@@ -45,43 +56,84 @@ import java.util.Random;
 public class AgendamentoService {
 
 	private final AgendamentoRepository agendamentoRepository;
+	private final FuncionarioBloqueioRepository funcionarioBloqueioRepository;
 	private final ServicoRepository servicoRepository;
 	private final UserRepository userRepository;
 	private final FuncionarioServicoRepository funcionarioServicoRepository;
-	private final FuncionarioPrefsRepository funcionarioPrefsRepository;
-	private final ProtocoloRepository protocoloRepository;
-
-	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final FuncionarioPrefsCache funcionarioPrefsCache;
+	private final ProtocoloOutbox protocoloOutbox;
+	private final FuncionarioLocks funcionarioLocks;
+	private final ProtocoloGenerator protocoloGenerator;
+	private final IdempotenciaService idempotenciaService;
+	private final ReservasTemporarias reservas;
+	private final AgendamentoLoteRepository agendamentoLoteRepository;
+	private final AgendamentoSlotRepository agendamentoSlotRepository;
+	private final ConfiguracaoService configuracaoService;
+	private final Auditoria auditoria;
+	private final ApplicationEventPublisher eventPublisher;
 
 	private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
 	private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
-	public AgendamentoService(AgendamentoRepository agendamentoRepository, ServicoRepository servicoRepository,
+	/**
+	 * Máximo de ocorrências por lote (1 ano de recorrência semanal).
+	 */
+	private static final int MAX_OCORRENCIAS_LOTE = 52;
+
+	/**
+	 * Listagens (cliente/funcionário): janela padrão e máxima, em dias. Itens por
+	 * página: configuracoes (paginacao.agendamentos.limit-max).
+	 */
+	private static final int JANELA_PADRAO_ANTES_DIAS = 30;
+	private static final int JANELA_PADRAO_DIAS = 90;
+	private static final int JANELA_MAX_DIAS = 366;
+
+	public AgendamentoService(AgendamentoRepository agendamentoRepository,
+			FuncionarioBloqueioRepository funcionarioBloqueioRepository, ServicoRepository servicoRepository,
 			UserRepository userRepository, FuncionarioServicoRepository funcionarioServicoRepository,
-			FuncionarioPrefsRepository funcionarioPrefsRepository, ProtocoloRepository protocoloRepository) {
+			FuncionarioPrefsCache funcionarioPrefsCache, ProtocoloOutbox protocoloOutbox,
+			FuncionarioLocks funcionarioLocks, ProtocoloGenerator protocoloGenerator,
+			IdempotenciaService idempotenciaService, ReservasTemporarias reservas,
+			AgendamentoLoteRepository agendamentoLoteRepository, AgendamentoSlotRepository agendamentoSlotRepository,
+			ConfiguracaoService configuracaoService, Auditoria auditoria, ApplicationEventPublisher eventPublisher) {
 		this.agendamentoRepository = agendamentoRepository;
+		this.funcionarioBloqueioRepository = funcionarioBloqueioRepository;
 		this.servicoRepository = servicoRepository;
 		this.userRepository = userRepository;
 		this.funcionarioServicoRepository = funcionarioServicoRepository;
-		this.funcionarioPrefsRepository = funcionarioPrefsRepository;
-		this.protocoloRepository = protocoloRepository;
+		this.funcionarioPrefsCache = funcionarioPrefsCache;
+		this.protocoloOutbox = protocoloOutbox;
+		this.funcionarioLocks = funcionarioLocks;
+		this.protocoloGenerator = protocoloGenerator;
+		this.idempotenciaService = idempotenciaService;
+		this.reservas = reservas;
+		this.agendamentoLoteRepository = agendamentoLoteRepository;
+		this.agendamentoSlotRepository = agendamentoSlotRepository;
+		this.configuracaoService = configuracaoService;
+		this.auditoria = auditoria;
+		this.eventPublisher = eventPublisher;
 	}
 
 	// ============================
 	// Entradas (use pelos controllers)
 	// ============================
+	// idempotencia: chave resolvida pelo IdempotenciaService (null = sem
+	// Idempotency-Key); é gravada na mesma transação do agendamento
+	// holdToken: reserva temporária do checkout público (null nos demais fluxos)
 
 	@Transactional
-	public AgendamentoCreateResponseDTO createPublic(PublicAgendamentoCreateRequestDTO req) {
+	public AgendamentoCreateResponseDTO createPublic(PublicAgendamentoCreateRequestDTO req,
+			IdempotenciaService.Chave idempotencia) {
 		var inicio = parseInicio(req.getData(), req.getHora());
 
 		return createCore(req.getServicoId(), req.getFuncionarioId(), null, // clienteId = null (visitante)
-				req.getClienteNome(), req.getClienteTelefone(), req.getClienteEmail(), req.getObservacoes(), inicio);
+				req.getClienteNome(), req.getClienteTelefone(), req.getClienteEmail(), req.getObservacoes(), inicio,
+				req.getHoldToken(), idempotencia);
 	}
 
 	@Transactional
 	public AgendamentoCreateResponseDTO createClienteLogado(Long clienteIdFromJwt,
-			ClienteAgendamentoCreateRequestDTO req) {
+			ClienteAgendamentoCreateRequestDTO req, IdempotenciaService.Chave idempotencia) {
 		var inicio = parseInicio(req.getData(), req.getHora());
 
 		// cliente logado: força clienteId, e (opcionalmente) podemos trazer
@@ -97,45 +149,150 @@ public class AgendamentoService {
 		}
 
 		return createCore(req.getServicoId(), req.getFuncionarioId(), cliente.getId(), cliente.getNome(),
-				cliente.getTelefone(), cliente.getEmail(), req.getObservacoes(), inicio);
+				cliente.getTelefone(), cliente.getEmail(), req.getObservacoes(), inicio, null, idempotencia);
 	}
 
 	@Transactional
 	public AgendamentoCreateResponseDTO createFuncionario(Long funcionarioIdFromJwt,
-			FuncionarioAgendamentoCreateRequestDTO req) {
+			FuncionarioAgendamentoCreateRequestDTO req, IdempotenciaService.Chave idempotencia) {
 
 		var inicio = parseInicio(req.getData(), req.getHora());
 
-		Long clienteId = req.getClienteId();
-		String nome = req.getClienteNome();
-		String tel = req.getClienteTelefone();
-		String email = req.getClienteEmail();
+		var c = resolveClienteFuncionario(req.getClienteId(), req.getClienteNome(), req.getClienteTelefone(),
+				req.getClienteEmail());
 
-		// Cenário A: cliente cadastrado
-		if (clienteId != null) {
-			var cliente = userRepository.findById(clienteId)
-					.orElseThrow(() -> new NotFoundException("Cliente não encontrado."));
+		return createCore(req.getServicoId(), funcionarioIdFromJwt, c.id, c.nome, c.telefone, c.email,
+				req.getObservacoes(), inicio, null, idempotencia);
+	}
 
-			if (!Boolean.TRUE.equals(cliente.getAtivo())) {
-				throw new BusinessException("Cliente está inativo.");
+	// ============================
+	// Lote (recorrência / pacote)
+	// ============================
+
+	/**
+	 * Vários agendamentos do mesmo cliente/serviço em uma transação.
+	 *
+	 * Diferente de N chamadas ao createCore: - serviço, funcionário, vínculo,
+	 * cliente e duração validados uma vez - lock do funcionário uma vez - conflitos
+	 * de todas as ocorrências em 1 consulta de intervalo (agendamentos + bloqueios)
+	 * - protocolos gerados em memória e inserts em batch JDBC (outbox de
+	 * protocolos e agendamentos)
+	 *
+	 * Resultado por ocorrência: ocorrências em conflito voltam como "conflito" e as
+	 * demais são criadas.
+	 */
+	@Transactional
+	public AgendamentoLoteResponseDTO createFuncionarioLote(Long funcionarioIdFromJwt,
+			FuncionarioAgendamentoLoteRequestDTO req) {
+
+		Long funcionarioId = funcionarioIdFromJwt;
+		Long servicoId = req.getServicoId();
+
+		// 1) ocorrências (ordenadas, sem repetição)
+		List<LocalDateTime> inicios = expandirOcorrencias(req);
+
+		// 2) validações comuns (uma vez)
+		var c = resolveClienteFuncionario(req.getClienteId(), req.getClienteNome(), req.getClienteTelefone(),
+				req.getClienteEmail());
+
+		var servico = servicoRepository.findById(servicoId)
+				.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
+		if (servico.getStatus() != StatusServico.ATIVO) {
+			throw new BusinessException("Serviço está inativo.");
+		}
+
+		funcionarioLocks.travarAteFimDaTransacao(funcionarioId);
+
+		var funcionario = userRepository.findByIdForUpdate(funcionarioId)
+				.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
+		if (!Boolean.TRUE.equals(funcionario.getAtivo())) {
+			throw new BusinessException("Funcionário está inativo.");
+		}
+		if (funcionario.getPerfil() != PerfilUser.FUNCIONARIO) {
+			throw new BusinessException("Usuário informado não é um funcionário.");
+		}
+		if (!funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(funcionarioId, servicoId)) {
+			throw new BusinessException("Este serviço não está habilitado para o funcionário.");
+		}
+
+		int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(funcionarioId, servicoId, servico.getDuracaoMin());
+
+		// 3) conflitos: 1 consulta cobrindo [primeiro início, último fim]
+		LocalDateTime primeiro = inicios.get(0);
+		LocalDateTime ultimoFim = inicios.get(inicios.size() - 1).plusMinutes(duracaoMin);
+
+		SlotSweep.Builder ocupadosBuilder = SlotSweep.builder();
+		agendamentoRepository.findOcupadosOverlapping(funcionarioId, primeiro, ultimoFim)
+				.forEach(o -> ocupadosBuilder.add(o.getInicio(), o.getFim()));
+		SlotSweep ocupados = ocupadosBuilder.build();
+
+		// 4) monta as linhas (ocorrências do próprio lote também não se sobrepõem)
+		List<AgendamentoLoteItemDTO> itens = new ArrayList<>(inicios.size());
+		List<ProtocoloOutbox.Entrada> protocolos = new ArrayList<>();
+		List<Agendamento> agendamentos = new ArrayList<>();
+		LocalDateTime fimAnterior = null;
+
+		for (LocalDateTime inicio : inicios) {
+			LocalDateTime fim = inicio.plusMinutes(duracaoMin);
+
+			boolean conflito = (fimAnterior != null && inicio.isBefore(fimAnterior))
+					|| ocupados.conflita(SlotSweep.epochMinuto(inicio), SlotSweep.epochMinutoTeto(fim))
+					|| reservas.conflita(funcionarioId, inicio, fim, null);
+
+			if (conflito) {
+				itens.add(new AgendamentoLoteItemDTO(inicio, fim, "conflito", null, null, null));
+				continue;
 			}
-			if (cliente.getPerfil() != PerfilUser.CLIENTE) {
-				throw new BusinessException("Usuário informado não é um cliente.");
+			fimAnterior = fim;
+
+			String codigo = protocoloGenerator.next();
+
+			protocolos.add(new ProtocoloOutbox.Entrada(codigo,
+					new ProtocoloDados(servicoId, funcionarioId, c.id, c.nome, c.telefone, c.email, inicio, fim)));
+
+			Agendamento ag = new Agendamento();
+			ag.setProtocolo(codigo);
+			ag.setTipo("hora_marcada");
+			ag.setServicoId(servicoId);
+			ag.setFuncionarioId(funcionarioId);
+			ag.setClienteId(c.id);
+			ag.setClienteNome(c.nome);
+			ag.setClienteTelefone(c.telefone);
+			ag.setClienteEmail(c.email);
+			ag.setInicio(inicio);
+			ag.setFim(fim);
+			ag.setStatus(StatusAgendamento.PENDENTE);
+			ag.setObservacoes(req.getObservacoes());
+			agendamentos.add(ag);
+
+			itens.add(new AgendamentoLoteItemDTO(inicio, fim, "criado", null, codigo, ag.getStatus().getValor()));
+		}
+
+		// 5) inserts em batch (outbox de protocolos + agendamentos) + ids por protocolo
+		if (!agendamentos.isEmpty()) {
+			protocoloOutbox.registrar("agendamento", protocolos);
+			Map<String, Long> ids = agendamentoLoteRepository.inserirAgendamentos(agendamentos);
+
+			for (AgendamentoLoteItemDTO item : itens) {
+				if (item.getProtocolo() != null) {
+					item.setId(ids.get(item.getProtocolo()));
+				}
 			}
 
-			nome = cliente.getNome();
-			tel = cliente.getTelefone();
-			email = cliente.getEmail();
-		} else {
-			// Cenário B: visitante
-			if (nome == null || nome.isBlank() || tel == null || tel.isBlank()) {
-				throw new BusinessException(
-						"Informe clienteNome e clienteTelefone (ou selecione um cliente cadastrado).");
+			ocuparSlots(agendamentos.stream().map(ag -> new AgendamentoSlotRepository.Ocupacao(
+					ids.get(ag.getProtocolo()), funcionarioId, ag.getInicio(), ag.getFim())).toList());
+
+			// 6) índice de ocupação (após o commit)
+			for (Agendamento ag : agendamentos) {
+				eventPublisher.publishEvent(
+						DisponibilidadeAlteradaEvent.ocupado(funcionarioId, ag.getInicio(), ag.getFim()));
 			}
+
+			auditoria.registrar("agendamento.lote.criado", "agendamento", null, Map.of("funcionarioId",
+					funcionarioId, "protocolos", agendamentos.stream().map(Agendamento::getProtocolo).toList()));
 		}
 
-		return createCore(req.getServicoId(), funcionarioIdFromJwt, clienteId, nome, tel, email, req.getObservacoes(),
-				inicio);
+		return new AgendamentoLoteResponseDTO(agendamentos.size(), itens.size() - agendamentos.size(), itens);
 	}
 
 	// ============================
@@ -143,7 +300,8 @@ public class AgendamentoService {
 	// ============================
 
 	private AgendamentoCreateResponseDTO createCore(Long servicoId, Long funcionarioId, Long clienteId,
-			String clienteNome, String clienteTelefone, String clienteEmail, String observacoes, LocalDateTime inicio) {
+			String clienteNome, String clienteTelefone, String clienteEmail, String observacoes, LocalDateTime inicio,
+			String holdToken, IdempotenciaService.Chave idempotencia) {
 		// 1) valida serviço
 		var servico = servicoRepository.findById(servicoId)
 				.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
@@ -155,8 +313,11 @@ public class AgendamentoService {
 			throw new BusinessException("Serviço está inativo.");
 		}
 
-		// 2) valida funcionário
-		var funcionario = userRepository.findById(funcionarioId)
+		// 2) trava a agenda do funcionário até o commit: local (mesmo nó) e linha do
+		// funcionário no banco (entre nós)
+		funcionarioLocks.travarAteFimDaTransacao(funcionarioId);
+
+		var funcionario = userRepository.findByIdForUpdate(funcionarioId)
 				.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
 
 		if (!Boolean.TRUE.equals(funcionario.getAtivo())) {
@@ -174,29 +335,151 @@ public class AgendamentoService {
 		}
 
 		// 4) resolve duração
-		int duracaoMin = resolveDuracaoMin(funcionarioId, servicoId, servico.getDuracaoMin());
+		int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(funcionarioId, servicoId, servico.getDuracaoMin());
 
 		LocalDateTime fim = inicio.plusMinutes(duracaoMin);
 
-		// 5) conflito final (não confiar só no GET)
-		var conflitos = agendamentoRepository.findBlockingOverlapping(funcionarioId, inicio, fim);
-		if (!conflitos.isEmpty()) {
+		// 5) conflito final (não confiar só no GET), já com o funcionário travado
+		// agendamentos bloqueantes + bloqueios: exists (limit 1) respondidos pelos
+		// índices, sem carregar linhas
+		if (temConflito(funcionarioId, inicio, fim)) {
 			throw new BusinessException("Horário indisponível. Escolha outro horário.");
 		}
 
-		// 6) gera protocolo único
-		String protocolo = generateUniqueProtocolo();
+		// 5.1) reservas temporárias (checkout): só o dono da reserva agenda por cima
+		// dela; token vencido/desconhecido segue como agendamento comum
+		var reserva = reservas.buscar(holdToken);
+		if (reserva != null && (!reserva.getFuncionarioId().equals(funcionarioId)
+				|| !reserva.getServicoId().equals(servicoId) || !reserva.getInicio().equals(inicio))) {
+			throw new BusinessException("A reserva informada é de outro horário.");
+		}
+		if (reservas.conflita(funcionarioId, inicio, fim, holdToken)) {
+			throw new BusinessException("Horário reservado por outro cliente. Escolha outro horário.");
+		}
+
+		// 6) a 8) protocolo + agendamento + índice de ocupação
+		Agendamento ag = persistir(servicoId, funcionarioId, clienteId, clienteNome, clienteTelefone, clienteEmail,
+				observacoes, inicio, fim);
 
-		// 6.1) registra protocolo na tabela protocolos (auditoria/rastreabilidade)
-		Protocolo p = new Protocolo();
-		p.setCodigo(protocolo);
-		p.setTipo("agendamento");
+		var resposta = new AgendamentoCreateResponseDTO(ag.getId(), ag.getProtocolo(), ag.getInicio(), ag.getFim(),
+				ag.getStatus().getValor());
+
+		// 9) Idempotency-Key (mesma transação: retry nunca acha key sem agendamento)
+		if (idempotencia != null) {
+			idempotenciaService.registrar(idempotencia, resposta);
+		}
+
+		// 10) reserva consumida (só após o commit; rollback mantém a reserva)
+		if (reserva != null) {
+			reservas.consumirAposCommit(reserva.getToken());
+		}
+
+		return resposta;
+	}
+
+	// ============================
+	// Core multi-item (combo)
+	// ============================
+
+	/**
+	 * Combo público: vários serviços em sequência, possivelmente com funcionários
+	 * diferentes, em uma transação (todos ou nenhum).
+	 *
+	 * Mesmas regras do core para cada item. Locks: todos os funcionários do combo
+	 * são travados antes de qualquer leitura, os locais em ordem de listra (ver
+	 * {@link FuncionarioLocks#travarTodosAteFimDaTransacao}) e os do banco em ordem
+	 * crescente de id, então dois combos com os mesmos funcionários em ordens
+	 * diferentes não se esperam em ciclo.
+	 */
+	@Transactional
+	public List<AgendamentoCreateResponseDTO> createPublicCombo(PublicComboAgendamentoCreateRequestDTO req) {
+		var inicio = parseInicio(req.getData(), req.getHora());
+		var itens = req.getItens();
+
+		// 1) serviços ATIVOS
+		List<Servico> servicos = new ArrayList<>(itens.size());
+		for (AgendamentoComboItemDTO item : itens) {
+			var servico = servicoRepository.findById(item.getServicoId())
+					.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
+			if (servico.getStatus() != StatusServico.ATIVO) {
+				throw new BusinessException("Serviço está inativo.");
+			}
+			servicos.add(servico);
+		}
+
+		// 2) trava todos os funcionários, sempre na mesma ordem
+		TreeSet<Long> funcionarioIds = new TreeSet<>();
+		itens.forEach(i -> funcionarioIds.add(i.getFuncionarioId()));
+
+		funcionarioLocks.travarTodosAteFimDaTransacao(funcionarioIds);
+
+		for (Long funcionarioId : funcionarioIds) {
+			var funcionario = userRepository.findByIdForUpdate(funcionarioId)
+					.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
+			if (!Boolean.TRUE.equals(funcionario.getAtivo())) {
+				throw new BusinessException("Funcionário está inativo.");
+			}
+			if (funcionario.getPerfil() != PerfilUser.FUNCIONARIO) {
+				throw new BusinessException("Usuário informado não é um funcionário.");
+			}
+		}
 
-		// Snapshot mínimo (MVP). Se quiser enriquecer depois, sem stress.
-		p.setDadosJson(buildProtocoloDadosJson(servicoId, funcionarioId, clienteId, clienteNome, clienteTelefone,
-				clienteEmail, inicio, fim));
+		// 3) a 5) por item: vínculo, duração, intervalo em sequência e conflito
+		List<LocalDateTime[]> intervalos = new ArrayList<>(itens.size());
+		LocalDateTime t = inicio;
 
-		protocoloRepository.save(p);
+		for (int i = 0; i < itens.size(); i++) {
+			Long servicoId = itens.get(i).getServicoId();
+			Long funcionarioId = itens.get(i).getFuncionarioId();
+
+			if (!funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(funcionarioId, servicoId)) {
+				throw new BusinessException("Este serviço não está habilitado para o funcionário.");
+			}
+
+			int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(funcionarioId, servicoId,
+					servicos.get(i).getDuracaoMin());
+			LocalDateTime fim = t.plusMinutes(duracaoMin);
+
+			if (temConflito(funcionarioId, t, fim) || reservas.conflita(funcionarioId, t, fim, null)) {
+				throw new BusinessException("Horário indisponível para o combo. Escolha outro horário.");
+			}
+
+			intervalos.add(new LocalDateTime[] { t, fim });
+			t = fim;
+		}
+
+		// 6) a 8) persiste tudo (rollback desfaz o combo inteiro)
+		List<AgendamentoCreateResponseDTO> resposta = new ArrayList<>(itens.size());
+		for (int i = 0; i < itens.size(); i++) {
+			Agendamento ag = persistir(itens.get(i).getServicoId(), itens.get(i).getFuncionarioId(), null,
+					req.getClienteNome(), req.getClienteTelefone(), req.getClienteEmail(), req.getObservacoes(),
+					intervalos.get(i)[0], intervalos.get(i)[1]);
+
+			resposta.add(new AgendamentoCreateResponseDTO(ag.getId(), ag.getProtocolo(), ag.getInicio(), ag.getFim(),
+					ag.getStatus().getValor()));
+		}
+
+		return resposta;
+	}
+
+	// ============================
+	// Helpers
+	// ============================
+
+	/**
+	 * Passos 6 a 8 do core (também usados pelo combo): protocolo, agendamento e
+	 * evento de ocupação.
+	 */
+	private Agendamento persistir(Long servicoId, Long funcionarioId, Long clienteId, String clienteNome,
+			String clienteTelefone, String clienteEmail, String observacoes, LocalDateTime inicio, LocalDateTime fim) {
+
+		// 6) gera protocolo único (sem consultar o banco)
+		String protocolo = protocoloGenerator.next();
+
+		// 6.1) registra o protocolo (auditoria/rastreabilidade) na outbox, na mesma
+		// transação; a cópia para protocolos é feita em lote pelo ProtocoloOutbox
+		protocoloOutbox.registrar(protocolo, "agendamento", new ProtocoloDados(servicoId, funcionarioId, clienteId,
+				clienteNome, clienteTelefone, clienteEmail, inicio, fim));
 
 		// 7) persiste agendamento referenciando o código do protocolo
 		Agendamento ag = new Agendamento();
@@ -210,130 +493,190 @@ public class AgendamentoService {
 		ag.setClienteEmail(clienteEmail);
 		ag.setInicio(inicio);
 		ag.setFim(fim);
-		ag.setStatus("pendente");
+		ag.setStatus(StatusAgendamento.PENDENTE);
 		ag.setObservacoes(observacoes);
 
 		ag = agendamentoRepository.save(ag);
 
-		return new AgendamentoCreateResponseDTO(ag.getId(), ag.getProtocolo(), ag.getInicio(), ag.getFim(),
-				ag.getStatus());
-	}
+		// 7.1) minutos ocupados (chave única): sobreposição falha aqui, no banco
+		ocuparSlots(List.of(new AgendamentoSlotRepository.Ocupacao(ag.getId(), funcionarioId, inicio, fim)));
 
-	// ============================
-	// Helpers
-	// ============================
+		// 8) índice de ocupação (aplicado após o commit)
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.ocupado(funcionarioId, inicio, fim));
 
-	private LocalDateTime parseInicio(String data, String hora) {
-		try {
-			LocalDate d = LocalDate.parse(data, DATE_FMT);
-			LocalTime t = LocalTime.parse(hora, TIME_FMT);
-			return LocalDateTime.of(d, t);
-		} catch (Exception e) {
-			throw new BusinessException("Data/hora inválidas. Use yyyy-MM-dd e HH:mm.");
-		}
+		// 9) auditoria (enfileirada após o commit)
+		auditoria.registrar("agendamento.criado", "agendamento", ag.getId(),
+				new AgendamentoAuditado(protocolo, funcionarioId, inicio));
+
+		return ag;
 	}
 
 	/**
-	 * Resolve a duração do serviço para o funcionário: - prefs_json: { "servicos":
-	 * { "<servicoId>": { "duracaoMin": X } } } - fallback: servico.duracaoMin
+	 * Cliente do agendamento feito pelo funcionário.
+	 *
+	 * Cenário A: cliente cadastrado (clienteId) -> dados do cadastro. Cenário B:
+	 * visitante -> clienteNome e clienteTelefone obrigatórios.
 	 */
-	private int resolveDuracaoMin(Long funcionarioId, Long servicoId, int duracaoPadrao) {
-		try {
-			FuncionarioPrefs prefs = funcionarioPrefsRepository.findById(funcionarioId).orElse(null);
-			if (prefs == null || prefs.getPrefsJson() == null || prefs.getPrefsJson().isBlank()) {
-				return duracaoPadrao;
-			}
+	private ClienteResolvido resolveClienteFuncionario(Long clienteId, String nome, String tel, String email) {
 
-			JsonNode root = objectMapper.readTree(prefs.getPrefsJson());
-			JsonNode servicosNode = root.path("servicos");
-			JsonNode servicoNode = servicosNode.path(String.valueOf(servicoId));
-			JsonNode duracaoNode = servicoNode.path("duracaoMin");
+		// Cenário A: cliente cadastrado
+		if (clienteId != null) {
+			var cliente = userRepository.findById(clienteId)
+					.orElseThrow(() -> new NotFoundException("Cliente não encontrado."));
 
-			if (duracaoNode.isInt()) {
-				return duracaoNode.asInt();
+			if (!Boolean.TRUE.equals(cliente.getAtivo())) {
+				throw new BusinessException("Cliente está inativo.");
 			}
-			return duracaoPadrao;
-		} catch (Exception e) {
-			// se prefs quebrar, não travar o agendamento (fallback no padrão)
-			return duracaoPadrao;
+			if (cliente.getPerfil() != PerfilUser.CLIENTE) {
+				throw new BusinessException("Usuário informado não é um cliente.");
+			}
+
+			return new ClienteResolvido(cliente.getId(), cliente.getNome(), cliente.getTelefone(), cliente.getEmail());
+		}
+
+		// Cenário B: visitante
+		if (nome == null || nome.isBlank() || tel == null || tel.isBlank()) {
+			throw new BusinessException("Informe clienteNome e clienteTelefone (ou selecione um cliente cadastrado).");
 		}
+		return new ClienteResolvido(null, nome, tel, email);
 	}
 
 	/**
-	 * Protocolo simples (MVP): BRV-YYYYMMDD-XXXXXX - Checa unicidade em protocolos
-	 * e em agendamentos (defesa dupla).
+	 * Inícios do lote: recorrência semanal OU lista de horários (exatamente um),
+	 * ordenados e sem repetição.
 	 */
-	private String generateUniqueProtocolo() {
-		String date = LocalDate.now().format(DateTimeFormatter.BASIC_ISO_DATE);
-		Random r = new Random();
+	private List<LocalDateTime> expandirOcorrencias(FuncionarioAgendamentoLoteRequestDTO req) {
+		var recorrencia = req.getRecorrencia();
+		var horarios = req.getHorarios();
+		boolean temHorarios = horarios != null && !horarios.isEmpty();
 
-		for (int i = 0; i < 10; i++) {
-			String suffix = String.format("%06d", r.nextInt(1_000_000));
-			String proto = "BRV-" + date + "-" + suffix;
+		if ((recorrencia == null) == !temHorarios) {
+			throw new BusinessException("Informe 'recorrencia' ou 'horarios' (apenas um).");
+		}
 
-			boolean exists = protocoloRepository.existsByCodigo(proto)
-					|| agendamentoRepository.existsByProtocolo(proto);
+		TreeSet<LocalDateTime> inicios = new TreeSet<>();
 
-			if (!exists) {
-				return proto;
+		if (recorrencia != null) {
+			LocalDateTime primeiro = parseInicio(recorrencia.getData(), recorrencia.getHora());
+			int intervalo = recorrencia.getIntervaloSemanas() == null ? 1 : recorrencia.getIntervaloSemanas();
+			for (int i = 0; i < recorrencia.getOcorrencias(); i++) {
+				inicios.add(primeiro.plusWeeks((long) i * intervalo));
+			}
+		} else {
+			for (AgendamentoHorarioDTO h : horarios) {
+				inicios.add(parseInicio(h.getData(), h.getHora()));
 			}
 		}
 
-		throw new BusinessException("Não foi possível gerar protocolo. Tente novamente.");
+		if (inicios.size() > MAX_OCORRENCIAS_LOTE) {
+			throw new BusinessException("Máximo de " + MAX_OCORRENCIAS_LOTE + " ocorrências por lote.");
+		}
+		return new ArrayList<>(inicios);
+	}
+
+	private LocalDateTime parseInicio(String data, String hora) {
+		try {
+			LocalDate d = LocalDate.parse(data, DATE_FMT);
+			LocalTime t = LocalTime.parse(hora, TIME_FMT);
+			return LocalDateTime.of(d, t);
+		} catch (Exception e) {
+			throw new BusinessException("Data/hora inválidas. Use yyyy-MM-dd e HH:mm.");
+		}
 	}
 
 	/**
-	 * Monta um JSON simples para auditoria do protocolo (MVP). Mantemos manual para
-	 * evitar criar DTO extra só pra isso agora.
+	 * Lista agendamentos do cliente logado, paginado por cursor.
+	 *
+	 * Params: - from/to: yyyy-MM-dd (janela por data; padrão: de hoje - 30 dias
+	 * até from + 90 dias, máximo 366 dias) - status: "pendente,confirmado"
+	 * (opcional) - cursor: nextCursor da página anterior (opcional) - limit:
+	 * itens por página (1..100, ajustável em configuracoes)
 	 */
-	private String buildProtocoloDadosJson(Long servicoId, Long funcionarioId, Long clienteId, String clienteNome,
-			String clienteTelefone, String clienteEmail, LocalDateTime inicio, LocalDateTime fim) {
-		// JSON “manual” simples. (Se preferir, podemos usar ObjectMapper depois.)
-		return "{" + "\"servicoId\":" + servicoId + "," + "\"funcionarioId\":" + funcionarioId + "," + "\"clienteId\":"
-				+ (clienteId == null ? "null" : clienteId) + "," + "\"clienteNome\":\"" + safeJson(clienteNome) + "\","
-				+ "\"clienteTelefone\":\"" + safeJson(clienteTelefone) + "\"," + "\"clienteEmail\":\""
-				+ safeJson(clienteEmail) + "\"," + "\"inicio\":\"" + inicio + "\"," + "\"fim\":\"" + fim + "\"" + "}";
+	public CursorPagedResponseDTO<AgendamentoItemResponseDTO> listCliente(Long clienteId, String from, String to,
+			String status, String cursor, int limit) {
+
+		Janela janela = resolveJanela(from, to);
+		CursorAgendamento apos = cursor == null || cursor.isBlank() ? new CursorAgendamento(janela.from(), 0L)
+				: CursorAgendamento.decode(cursor);
+		int safeLimit = safeLimit(limit);
+
+		var list = agendamentoRepository.findPaginaCliente(clienteId, apos.inicio(), apos.id(), janela.to(),
+				parseStatusList(status), PageRequest.of(0, safeLimit + 1));
+		return pagina(list, safeLimit);
 	}
 
 	/**
-	 * Escape mínimo para não quebrar JSON com aspas.
+	 * Lista agendamentos do funcionário logado, paginado por cursor.
+	 *
+	 * Params: mesmos de {@link #listCliente} (status:
+	 * "pendente,confirmado,em_atendimento")
 	 */
-	private String safeJson(String s) {
-		if (s == null)
-			return "";
-		return s.replace("\\", "\\\\").replace("\"", "\\\"");
+	public CursorPagedResponseDTO<AgendamentoItemResponseDTO> listFuncionario(Long funcionarioId, String from,
+			String to, String status, String cursor, int limit) {
+
+		Janela janela = resolveJanela(from, to);
+		CursorAgendamento apos = cursor == null || cursor.isBlank() ? new CursorAgendamento(janela.from(), 0L)
+				: CursorAgendamento.decode(cursor);
+		int safeLimit = safeLimit(limit);
+
+		var list = agendamentoRepository.findPaginaFuncionario(funcionarioId, apos.inicio(), apos.id(), janela.to(),
+				parseStatusList(status), PageRequest.of(0, safeLimit + 1));
+		return pagina(list, safeLimit);
 	}
 
+	// ============================
+	// Cancelamento
+	// ============================
+
 	/**
-	 * Lista agendamentos do cliente logado (MVP).
-	 *
-	 * Params: - from/to: yyyy-MM-dd (janela por data, opcional) - status:
-	 * "pendente,confirmado" (opcional)
+	 * Cliente cancela um agendamento seu.
 	 */
-	public List<AgendamentoItemResponseDTO> listCliente(Long clienteId, String from, String to, String status) {
+	@Transactional
+	public AgendamentoItemResponseDTO cancelarCliente(Long clienteId, Long agendamentoId) {
+		Agendamento ag = agendamentoRepository.findById(agendamentoId)
+				.orElseThrow(() -> new NotFoundException("Agendamento não encontrado."));
+
+		if (!Objects.equals(ag.getClienteId(), clienteId)) {
+			throw new ForbiddenException("Você não tem permissão para cancelar este agendamento.");
+		}
+		return cancelar(ag);
+	}
 
-		LocalDateTime fromDt = parseDateStart(from);
-		LocalDateTime toDt = parseDateEndExclusive(to);
-		List<String> statusList = parseStatusList(status);
+	/**
+	 * Funcionário cancela um agendamento da sua agenda.
+	 */
+	@Transactional
+	public AgendamentoItemResponseDTO cancelarFuncionario(Long funcionarioId, Long agendamentoId) {
+		Agendamento ag = agendamentoRepository.findById(agendamentoId)
+				.orElseThrow(() -> new NotFoundException("Agendamento não encontrado."));
 
-		var list = agendamentoRepository.findByClienteFiltro(clienteId, fromDt, toDt, statusList);
-		return list.stream().map(AgendamentoMapper::toItemDTO).collect(Collectors.toList());
+		if (!Objects.equals(ag.getFuncionarioId(), funcionarioId)) {
+			throw new ForbiddenException("Você não tem permissão para cancelar este agendamento.");
+		}
+		return cancelar(ag);
 	}
 
 	/**
-	 * Lista agendamentos do funcionário logado (MVP).
-	 *
-	 * Params: - from/to: yyyy-MM-dd (opcional) - status:
-	 * "pendente,confirmado,em_atendimento" (opcional)
+	 * Regras: - só pendente/confirmado (em atendimento/concluído/cancelado não) -
+	 * status cancelado + minutos liberados em agendamento_slots - índice de
+	 * ocupação atualizado após o commit
 	 */
-	public List<AgendamentoItemResponseDTO> listFuncionario(Long funcionarioId, String from, String to, String status) {
+	private AgendamentoItemResponseDTO cancelar(Agendamento ag) {
+		if (ag.getStatus() != StatusAgendamento.PENDENTE && ag.getStatus() != StatusAgendamento.CONFIRMADO) {
+			throw new BusinessException("Só agendamentos pendentes ou confirmados podem ser cancelados.");
+		}
 
-		LocalDateTime fromDt = parseDateStart(from);
-		LocalDateTime toDt = parseDateEndExclusive(to);
-		List<String> statusList = parseStatusList(status);
+		ag.setStatus(StatusAgendamento.CANCELADO);
+		agendamentoRepository.save(ag);
+		agendamentoSlotRepository.liberar(ag.getId());
 
-		var list = agendamentoRepository.findByFuncionarioFiltro(funcionarioId, fromDt, toDt, statusList);
-		return list.stream().map(AgendamentoMapper::toItemDTO).collect(Collectors.toList());
+		eventPublisher.publishEvent(
+				DisponibilidadeAlteradaEvent.liberado(ag.getFuncionarioId(), ag.getInicio(), ag.getFim()));
+
+		auditoria.registrar("agendamento.cancelado", "agendamento", ag.getId(),
+				new AgendamentoAuditado(ag.getProtocolo(), ag.getFuncionarioId(), ag.getInicio()));
+
+		return AgendamentoMapper.toItemDTO(ag);
 	}
 
 	/**
@@ -341,9 +684,8 @@ public class AgendamentoService {
 	 * confirmar/consultar um agendamento sem login.
 	 */
 	public AgendamentoItemResponseDTO getPublicByProtocolo(String protocolo) {
-		var ag = agendamentoRepository.findByProtocolo(protocolo)
+		return agendamentoRepository.findItemByProtocolo(protocolo)
 				.orElseThrow(() -> new NotFoundException("Agendamento não encontrado para este protocolo."));
-		return AgendamentoMapper.toItemDTO(ag);
 	}
 
 	/*
@@ -373,15 +715,129 @@ public class AgendamentoService {
 	}
 
 	/**
-	 * Parse status "pendente,confirmado" em lista.
+	 * Parse status "pendente,confirmado" em lista (valor desconhecido = 400).
 	 */
-	private List<String> parseStatusList(String status) {
+	private List<StatusAgendamento> parseStatusList(String status) {
 		if (status == null || status.isBlank())
 			return null;
 
-		List<String> list = Arrays.stream(status.split(",")).map(String::trim).filter(s -> !s.isBlank())
+		List<StatusAgendamento> list = Arrays.stream(status.split(",")).map(String::trim).filter(s -> !s.isBlank())
+				.map(s -> StatusAgendamento.fromValor(s)
+						.orElseThrow(() -> new BadRequestException("Status inválido: " + s + ".")))
 				.collect(Collectors.toList());
 
 		return list.isEmpty() ? null : list;
 	}
+
+	/**
+	 * Grava os minutos em agendamento_slots. Chave duplicada = outro agendamento
+	 * gravou o horário (ex.: outro nó) depois da nossa checagem.
+	 */
+	private void ocuparSlots(List<AgendamentoSlotRepository.Ocupacao> ocupacoes) {
+		try {
+			agendamentoSlotRepository.ocupar(ocupacoes);
+		} catch (DuplicateKeyException e) {
+			throw new BusinessException("Horário indisponível. Escolha outro horário.");
+		}
+	}
+
+	/**
+	 * Agendamento bloqueante ou bloqueio sobrepondo [inicio, fim).
+	 */
+	private boolean temConflito(Long funcionarioId, LocalDateTime inicio, LocalDateTime fim) {
+		return agendamentoRepository.existsBlockingOverlap(funcionarioId, inicio, fim)
+				|| funcionarioBloqueioRepository.existsOverlapping(funcionarioId, inicio, fim);
+	}
+
+	/**
+	 * Janela [from, to) da listagem. Sem from: hoje - 30 dias; sem to: from + 90
+	 * dias. Mais de 366 dias não é aceito (lista sem limite de período).
+	 */
+	private Janela resolveJanela(String from, String to) {
+		LocalDateTime fromDt;
+		LocalDateTime toDt;
+		try {
+			fromDt = parseDateStart(from);
+			toDt = parseDateEndExclusive(to);
+		} catch (Exception e) {
+			throw new BusinessException("Datas inválidas. Use yyyy-MM-dd.");
+		}
+
+		if (fromDt == null) {
+			fromDt = (toDt == null ? LocalDate.now().atStartOfDay() : toDt).minusDays(JANELA_PADRAO_ANTES_DIAS);
+		}
+		if (toDt == null) {
+			toDt = fromDt.plusDays(JANELA_PADRAO_DIAS);
+		}
+		if (!toDt.isAfter(fromDt)) {
+			throw new BusinessException("'to' deve ser maior ou igual a 'from'.");
+		}
+		if (fromDt.plusDays(JANELA_MAX_DIAS).isBefore(toDt)) {
+			throw new BusinessException("Período máximo de " + JANELA_MAX_DIAS + " dias.");
+		}
+		return new Janela(fromDt, toDt);
+	}
+
+	private int safeLimit(int limit) {
+		return Math.min(Math.max(limit, 1), configuracaoService.getInt(ParametroConfiguracao.AGENDAMENTOS_LIMIT_MAX));
+	}
+
+	/**
+	 * Corta a consulta (limit + 1) na página e monta o próximo cursor a partir do
+	 * último item, se sobrou algum.
+	 */
+	private CursorPagedResponseDTO<AgendamentoItemResponseDTO> pagina(List<AgendamentoItemResponseDTO> list,
+			int limit) {
+		boolean temMais = list.size() > limit;
+		List<AgendamentoItemResponseDTO> itens = temMais ? list.subList(0, limit) : list;
+
+		String nextCursor = null;
+		if (temMais) {
+			AgendamentoItemResponseDTO ultimo = itens.get(itens.size() - 1);
+			nextCursor = new CursorAgendamento(ultimo.getInicio(), ultimo.getId()).encode();
+		}
+		return new CursorPagedResponseDTO<>(limit, nextCursor, itens);
+	}
+
+	private record Janela(LocalDateTime from, LocalDateTime to) {
+	}
+
+	/**
+	 * Posição (inicio, id) do último item entregue. Vai para o cliente como
+	 * base64url de "inicio|id" (opaco; não é para ser montado à mão).
+	 */
+	record CursorAgendamento(LocalDateTime inicio, Long id) {
+
+		String encode() {
+			String raw = inicio + "|" + id;
+			return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+		}
+
+		static CursorAgendamento decode(String cursor) {
+			try {
+				String raw = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+				int sep = raw.indexOf('|');
+				return new CursorAgendamento(LocalDateTime.parse(raw.substring(0, sep)),
+						Long.parseLong(raw.substring(sep + 1)));
+			} catch (Exception e) {
+				throw new BusinessException("Cursor inválido.");
+			}
+		}
+	}
+
+	private record ClienteResolvido(Long id, String nome, String telefone, String email) {
+	}
+
+	/**
+	 * Snapshot mínimo do agendamento no protocolo (dados_json).
+	 */
+	record ProtocoloDados(Long servicoId, Long funcionarioId, Long clienteId, String clienteNome,
+			String clienteTelefone, String clienteEmail, LocalDateTime inicio, LocalDateTime fim) {
+	}
+
+	/**
+	 * Detalhes do agendamento em auditoria_logs (detalhes_json).
+	 */
+	record AgendamentoAuditado(String protocolo, Long funcionarioId, LocalDateTime inicio) {
+	}
 }
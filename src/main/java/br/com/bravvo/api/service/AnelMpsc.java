@@ -0,0 +1,96 @@
+package br.com.bravvo.api.service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fila circular limitada, sem lock: vários produtores, um consumidor.
+ *
+ * Cada posição tem um número de sequência (esquema de Vyukov): - produtor
+ * reserva a posição com um CAS na cauda e publica gravando sequência = pos + 1
+ * - consumidor só lê posições publicadas e as devolve com sequência = pos +
+ * capacidade (livre para a próxima volta)
+ *
+ * Cheia = oferecer() devolve false na hora (quem chama decide se descarta ou
+ * espera). Capacidade arredondada para potência de 2.
+ */
+final class AnelMpsc<T> {
+
+	private final int capacidade;
+	private final int mascara;
+	private final AtomicReferenceArray<T> itens;
+	private final AtomicLongArray sequencias;
+
+	private final AtomicLong cauda = new AtomicLong();
+	/** Só o consumidor escreve; volatile para tamanho() em outras threads. */
+	private volatile long cabeca;
+
+	AnelMpsc(int capacidadeMinima) {
+		if (capacidadeMinima < 2) {
+			throw new IllegalArgumentException("capacidade mínima: 2");
+		}
+		this.capacidade = Integer.highestOneBit(capacidadeMinima - 1) << 1;
+		this.mascara = capacidade - 1;
+		this.itens = new AtomicReferenceArray<>(capacidade);
+		this.sequencias = new AtomicLongArray(capacidade);
+		for (int i = 0; i < capacidade; i++) {
+			sequencias.set(i, i);
+		}
+	}
+
+	/**
+	 * Enfileira sem bloquear. false = cheia.
+	 */
+	boolean oferecer(T item) {
+		long pos = cauda.get();
+		while (true) {
+			int idx = (int) (pos & mascara);
+			long dif = sequencias.get(idx) - pos;
+			if (dif == 0) {
+				if (cauda.compareAndSet(pos, pos + 1)) {
+					itens.set(idx, item);
+					sequencias.set(idx, pos + 1);
+					return true;
+				}
+				pos = cauda.get();
+			} else if (dif < 0) {
+				return false;
+			} else {
+				pos = cauda.get();
+			}
+		}
+	}
+
+	/**
+	 * Move até max itens publicados para destino, na ordem. Só o consumidor
+	 * chama.
+	 */
+	int drenar(List<T> destino, int max) {
+		int n = 0;
+		long pos = cabeca;
+		while (n < max) {
+			int idx = (int) (pos & mascara);
+			if (sequencias.get(idx) != pos + 1) {
+				break;
+			}
+			destino.add(itens.get(idx));
+			itens.set(idx, null);
+			sequencias.set(idx, pos + capacidade);
+			pos++;
+			n++;
+		}
+		cabeca = pos;
+		return n;
+	}
+
+	int tamanho() {
+		long t = cauda.get() - cabeca;
+		return (int) Math.max(0, Math.min(t, capacidade));
+	}
+
+	int capacidade() {
+		return capacidade;
+	}
+}
@@ -0,0 +1,141 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.exception.BusinessException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Assinantes SSE agrupados por chave, compartilhado pelos hubs de tempo real.
+ *
+ * Regras: - entrar e sair do grupo acontecem dentro de compute() da chave: um
+ * grupo só sai do mapa vazio, e ninguém entra num grupo que já saiu - limite
+ * global de conexões (409 acima dele) - heartbeat derruba conexões mortas
+ *
+ * O que enviar e quando (coalescência, cálculo) fica no hub.
+ */
+final class AssinaturasSse<K, A extends AssinaturasSse.Assinante> {
+
+	private final ConcurrentMap<K, Set<A>> porChave = new ConcurrentHashMap<>();
+	private final AtomicInteger conexoes = new AtomicInteger();
+	private final int maxConexoes;
+
+	AssinaturasSse(int maxConexoes) {
+		this.maxConexoes = maxConexoes;
+	}
+
+	/**
+	 * Registra o assinante na chave e liga a remoção aos callbacks do emitter.
+	 */
+	void adicionar(K chave, A assinante) {
+		if (conexoes.incrementAndGet() > maxConexoes) {
+			conexoes.decrementAndGet();
+			throw new BusinessException("Limite de conexões em tempo real atingido. Tente novamente em instantes.");
+		}
+
+		porChave.compute(chave, (k, grupo) -> {
+			Set<A> g = grupo != null ? grupo : ConcurrentHashMap.newKeySet();
+			g.add(assinante);
+			return g;
+		});
+
+		Runnable remover = () -> remover(chave, assinante);
+		assinante.emitter.onCompletion(remover);
+		assinante.emitter.onTimeout(remover);
+		assinante.emitter.onError(e -> remover.run());
+	}
+
+	void remover(K chave, A assinante) {
+		boolean[] removido = new boolean[1];
+		porChave.computeIfPresent(chave, (k, grupo) -> {
+			removido[0] = grupo.remove(assinante);
+			return grupo.isEmpty() ? null : grupo;
+		});
+		if (removido[0]) {
+			conexoes.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Assinantes da chave (visão viva; vazia se não houver).
+	 */
+	Set<A> de(K chave) {
+		Set<A> grupo = porChave.get(chave);
+		return grupo != null ? grupo : Collections.emptySet();
+	}
+
+	boolean contem(K chave) {
+		return porChave.containsKey(chave);
+	}
+
+	Set<K> chaves() {
+		return porChave.keySet();
+	}
+
+	void forEach(BiConsumer<K, Set<A>> acao) {
+		porChave.forEach(acao);
+	}
+
+	/**
+	 * Envia um evento nomeado; falha no envio = conexão morta, sai do grupo.
+	 */
+	void enviar(K chave, A assinante, String evento, Object dados) {
+		try {
+			assinante.emitter.send(SseEmitter.event().name(evento).data(dados));
+		} catch (Exception e) {
+			remover(chave, assinante);
+		}
+	}
+
+	/**
+	 * Comentário SSE periódico: mantém proxies abertos e detecta conexões mortas.
+	 */
+	void heartbeat() {
+		porChave.forEach((chave, grupo) -> {
+			for (A a : grupo) {
+				try {
+					a.emitter.send(SseEmitter.event().comment("ping"));
+				} catch (Exception e) {
+					remover(chave, a);
+				}
+			}
+		});
+	}
+
+	void encerrar() {
+		porChave.values().forEach(grupo -> grupo.forEach(a -> a.emitter.complete()));
+		porChave.clear();
+	}
+
+	int getConexoes() {
+		return conexoes.get();
+	}
+
+	/**
+	 * Assinantes alcançáveis pelo mapa (deve bater com getConexoes()).
+	 */
+	int registrados() {
+		int total = 0;
+		for (Set<A> grupo : porChave.values()) {
+			total += grupo.size();
+		}
+		return total;
+	}
+
+	/**
+	 * Identidade por instância (dois assinantes iguais são conexões diferentes).
+	 */
+	abstract static class Assinante {
+
+		final SseEmitter emitter;
+
+		Assinante(SseEmitter emitter) {
+			this.emitter = emitter;
+		}
+	}
+}
@@ -0,0 +1,262 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.repository.AuditoriaRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Auditoria de ações de segurança e de negócio (tabela auditoria_logs), fora do
+ * caminho da requisição.
+ *
+ * Fluxo: - o service chama registrar(): captura ator (e-mail do JWT), IP e
+ * horário e coloca o evento num anel limitado sem lock ({@link AnelMpsc}) - em
+ * transação, o evento só entra no anel após o commit (rollback = nada a
+ * auditar) - uma thread de fundo drena o anel, serializa detalhes em JSON e
+ * grava em batch JDBC
+ *
+ * Custo na requisição: alguns acessos a ThreadLocal + um CAS. Nenhum insert
+ * síncrono.
+ *
+ * Anel cheio (banco lento/fora), conforme app.auditoria.politica: - descartar:
+ * o evento é descartado na hora - bloquear: espera até app.auditoria.espera-max-ms
+ * por espaço e só então descarta
+ *
+ * Métricas: auditoria.buffer.tamanho, auditoria.registros (resultado =
+ * enfileirado/descartado/gravado/falha) e auditoria.esperas (backpressure na
+ * política bloquear).
+ *
+ * Limitação: é best-effort. Eventos no anel se perdem se o processo morrer sem
+ * shutdown; falha no batch descarta o lote (com log e métrica).
+ */
+@Component
+public class Auditoria {
+
+	private static final Logger log = LoggerFactory.getLogger(Auditoria.class);
+
+	/** Espera entre tentativas quando o anel está cheio (política bloquear). */
+	private static final long ESPERA_PASSO_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+	public enum Politica {
+		DESCARTAR, BLOQUEAR
+	}
+
+	private final AuditoriaRepository repository;
+	private final ObjectMapper objectMapper;
+	private final AnelMpsc<Evento> anel;
+	private final int lote;
+	private final Politica politica;
+	private final long esperaMaxNanos;
+
+	private final Counter enfileirados;
+	private final Counter descartados;
+	private final Counter gravados;
+	private final Counter falhas;
+	private final Counter esperas;
+
+	private final ScheduledExecutorService escritor;
+
+	@Autowired
+	public Auditoria(AuditoriaRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry,
+			@Value("${app.auditoria.capacidade:8192}") int capacidade, @Value("${app.auditoria.lote:500}") int lote,
+			@Value("${app.auditoria.intervalo-ms:200}") long intervaloMs,
+			@Value("${app.auditoria.politica:descartar}") String politica,
+			@Value("${app.auditoria.espera-max-ms:5}") long esperaMaxMs) {
+		this(repository, objectMapper, meterRegistry, capacidade, lote, intervaloMs,
+				Politica.valueOf(politica.trim().toUpperCase(Locale.ROOT)), TimeUnit.MILLISECONDS.toNanos(esperaMaxMs));
+	}
+
+	Auditoria(AuditoriaRepository repository, ObjectMapper objectMapper, MeterRegistry meterRegistry, int capacidade,
+			int lote, long intervaloMs, Politica politica, long esperaMaxNanos) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.anel = new AnelMpsc<>(capacidade);
+		this.lote = lote;
+		this.politica = politica;
+		this.esperaMaxNanos = esperaMaxNanos;
+
+		Gauge.builder("auditoria.buffer.tamanho", anel, AnelMpsc::tamanho)
+				.description("Eventos de auditoria aguardando gravação").register(meterRegistry);
+		Gauge.builder("auditoria.buffer.capacidade", anel, AnelMpsc::capacidade)
+				.description("Capacidade do anel de auditoria").register(meterRegistry);
+		this.enfileirados = registros(meterRegistry, "enfileirado");
+		this.descartados = registros(meterRegistry, "descartado");
+		this.gravados = registros(meterRegistry, "gravado");
+		this.falhas = registros(meterRegistry, "falha");
+		this.esperas = Counter.builder("auditoria.esperas")
+				.description("Vezes em que a requisição esperou espaço no anel (política bloquear)")
+				.register(meterRegistry);
+
+		this.escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "auditoria-escritor");
+			t.setDaemon(true);
+			return t;
+		});
+		if (intervaloMs > 0) {
+			escritor.scheduleWithFixedDelay(this::descarregar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+		}
+	}
+
+	// ==========================================================
+	// Registro (thread da requisição)
+	// ==========================================================
+
+	/**
+	 * Registra uma ação do usuário autenticado (ator = subject do JWT; null se
+	 * anônimo).
+	 *
+	 * @param detalhes objeto imutável (record/Map.of): é serializado depois, em
+	 *                 outra thread
+	 */
+	public void registrar(String acao, String entidade, Object entidadeId, Object detalhes) {
+		registrarComo(atorAtual(), acao, entidade, entidadeId, detalhes);
+	}
+
+	/**
+	 * Registra com ator explícito (ex.: login, quando ainda não há JWT).
+	 */
+	public void registrarComo(String actorEmail, String acao, String entidade, Object entidadeId, Object detalhes) {
+		Evento evento = new Evento(actorEmail, acao, entidade, entidadeId != null ? entidadeId.toString() : null,
+				detalhes, ipAtual(), LocalDateTime.now());
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					enfileirar(evento);
+				}
+			});
+			return;
+		}
+		enfileirar(evento);
+	}
+
+	void enfileirar(Evento evento) {
+		if (anel.oferecer(evento)) {
+			enfileirados.increment();
+			return;
+		}
+
+		if (politica == Politica.BLOQUEAR) {
+			esperas.increment();
+			long limite = System.nanoTime() + esperaMaxNanos;
+			while (System.nanoTime() < limite) {
+				LockSupport.parkNanos(ESPERA_PASSO_NANOS);
+				if (anel.oferecer(evento)) {
+					enfileirados.increment();
+					return;
+				}
+			}
+		}
+
+		descartados.increment();
+	}
+
+	// ==========================================================
+	// Escrita (thread de fundo)
+	// ==========================================================
+
+	/**
+	 * Drena o anel em lotes até esvaziar. Só a thread do escritor (ou o shutdown)
+	 * chama.
+	 */
+	synchronized void descarregar() {
+		List<Evento> eventos = new ArrayList<>(lote);
+		while (anel.drenar(eventos, lote) > 0) {
+			List<AuditoriaRepository.Registro> registros = new ArrayList<>(eventos.size());
+			for (Evento e : eventos) {
+				registros.add(new AuditoriaRepository.Registro(e.actorEmail(), e.acao(), e.entidade(), e.entidadeId(),
+						json(e.detalhes()), e.ip(), e.createdAt()));
+			}
+
+			try {
+				repository.gravar(registros);
+				gravados.increment(registros.size());
+			} catch (RuntimeException ex) {
+				// não derruba o escritor; o lote é perdido (best-effort)
+				falhas.increment(registros.size());
+				log.warn("Auditoria: falha ao gravar lote de {} eventos: {}", registros.size(), ex.getMessage());
+			}
+			eventos.clear();
+		}
+	}
+
+	@PreDestroy
+	void encerrar() {
+		escritor.shutdown();
+		try {
+			escritor.awaitTermination(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		descarregar();
+	}
+
+	int pendentes() {
+		return anel.tamanho();
+	}
+
+	private String json(Object detalhes) {
+		if (detalhes == null) {
+			return null;
+		}
+		try {
+			return objectMapper.writeValueAsString(detalhes);
+		} catch (JsonProcessingException e) {
+			log.warn("Auditoria: detalhes não serializáveis ({}): {}", detalhes.getClass().getSimpleName(),
+					e.getMessage());
+			return null;
+		}
+	}
+
+	private static String atorAtual() {
+		Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+		if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+			return null;
+		}
+		return auth.getName();
+	}
+
+	private static String ipAtual() {
+		if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attrs) {
+			return attrs.getRequest().getRemoteAddr();
+		}
+		return null;
+	}
+
+	private static Counter registros(MeterRegistry registry, String resultado) {
+		return Counter.builder("auditoria.registros").description("Eventos de auditoria por resultado")
+				.tag("resultado", resultado).register(registry);
+	}
+
+	/**
+	 * Evento capturado na requisição (detalhes ainda como objeto).
+	 */
+	record Evento(String actorEmail, String acao, String entidade, String entidadeId, Object detalhes, String ip,
+			LocalDateTime createdAt) {
+	}
+}
@@ -24,6 +24,7 @@ import org.springframework.stereotype.Service;
 import java.security.SecureRandom;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.Map;
 
 @Service
 public class AuthService {
@@ -32,13 +33,15 @@ public class AuthService {
 	private final RefreshTokenRepository refreshTokenRepository;
 	private final PasswordEncoder passwordEncoder;
 	private final JwtService jwtService;
+	private final Auditoria auditoria;
 
 	public AuthService(UserRepository userRepository, RefreshTokenRepository refreshTokenRepository,
-			PasswordEncoder passwordEncoder, JwtService jwtService) {
+			PasswordEncoder passwordEncoder, JwtService jwtService, Auditoria auditoria) {
 		this.userRepository = userRepository;
 		this.refreshTokenRepository = refreshTokenRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.jwtService = jwtService;
+		this.auditoria = auditoria;
 	}
 
 	/**
@@ -47,13 +50,21 @@ public class AuthService {
 	 */
 	public AuthResponseDTO login(String email, String senha) {
 
-		User user = userRepository.findByEmail(email).orElseThrow(() -> new RuntimeException("Credenciais inválidas."));
+		User user = userRepository.findByEmail(email).orElse(null);
+
+		if (user == null) {
+			auditoria.registrarComo(null, "auth.login.falha", "user", null,
+					Map.of("email", email, "motivo", "usuario_inexistente"));
+			throw new RuntimeException("Credenciais inválidas.");
+		}
 
 		if (Boolean.FALSE.equals(user.getAtivo())) {
+			auditoria.registrarComo(email, "auth.login.falha", "user", user.getId(), Map.of("motivo", "inativo"));
 			throw new RuntimeException("Usuário inativo.");
 		}
 
 		if (!passwordEncoder.matches(senha, user.getSenhaHash())) {
+			auditoria.registrarComo(email, "auth.login.falha", "user", user.getId(), Map.of("motivo", "senha"));
 			throw new RuntimeException("Credenciais inválidas.");
 		}
 
@@ -72,6 +83,8 @@ public class AuthService {
 
 		refreshTokenRepository.save(rt);
 
+		auditoria.registrarComo(email, "auth.login", "user", user.getId(), null);
+
 		return new AuthResponseDTO(accessToken, refreshRaw, jwtService.getAccessTokenExpiresInSeconds());
 	}
 
@@ -86,6 +99,8 @@ public class AuthService {
 				.orElseThrow(() -> new RuntimeException("Refresh token inválido."));
 
 		if (Boolean.TRUE.equals(rt.getRevoked())) {
+			// reuso de token rotacionado: possível vazamento
+			auditoria.registrarComo(null, "auth.refresh.revogado", "refresh_token", rt.getId(), null);
 			throw new RuntimeException("Refresh token revogado.");
 		}
 
@@ -118,6 +133,8 @@ public class AuthService {
 		// Novo access token
 		String newAccessToken = jwtService.generateAccessToken(user);
 
+		auditoria.registrarComo(user.getEmail(), "auth.refresh", "user", user.getId(), null);
+
 		return new AuthResponseDTO(newAccessToken, newRefreshRaw, jwtService.getAccessTokenExpiresInSeconds());
 	}
 
@@ -132,6 +149,8 @@ public class AuthService {
 
 		rt.setRevoked(true);
 		refreshTokenRepository.save(rt);
+
+		auditoria.registrar("auth.logout", "refresh_token", rt.getId(), null);
 	}
 
 	/**
@@ -183,6 +202,8 @@ public class AuthService {
 
 		userRepository.save(user);
 
+		auditoria.registrarComo(user.getEmail(), "auth.registro", "user", user.getId(), null);
+
 		// Retorna o "me" do usuário recém criado
 		return new MeResponseDTO(user.getId(), user.getNome(), user.getEmail(), user.getTelefone(), user.getPerfil());
 	}
@@ -242,6 +263,9 @@ public class AuthService {
 	     */
 	    userRepository.save(user);
 
+	    auditoria.registrar("usuario.perfil.atualizado", "user", user.getId(),
+	            Map.of("senhaAlterada", dto.getSenha() != null && !dto.getSenha().isBlank()));
+
 	    /*
 	     * Retorna os dados atualizados do usuário autenticado.
 	     */
@@ -2,6 +2,7 @@ package br.com.bravvo.api.service;
 
 import br.com.bravvo.api.dto.cliente.ClientePickerResponseDTO;
 import br.com.bravvo.api.dto.common.PagedResponseDTO;
+import br.com.bravvo.api.enums.ParametroConfiguracao;
 import br.com.bravvo.api.enums.PerfilUser;
 import br.com.bravvo.api.repository.UserRepository;
 import org.springframework.data.domain.*;
@@ -20,9 +21,11 @@ import java.util.List;
 public class ClientePickerService {
 
 	private final UserRepository userRepository;
+	private final ConfiguracaoService configuracaoService;
 
-	public ClientePickerService(UserRepository userRepository) {
+	public ClientePickerService(UserRepository userRepository, ConfiguracaoService configuracaoService) {
 		this.userRepository = userRepository;
+		this.configuracaoService = configuracaoService;
 	}
 
 	public PagedResponseDTO<ClientePickerResponseDTO> listClientes(int page, int limit, String q) {
@@ -31,7 +34,8 @@ public class ClientePickerService {
 		// Normalização defensiva
 		// =========================
 		int safePage = Math.max(page, 1); // API é 1-based
-		int safeLimit = Math.min(Math.max(limit, 1), 50); // trava simples p/ não estourar
+		int safeLimit = Math.min(Math.max(limit, 1), // trava p/ não estourar (configuracoes)
+				configuracaoService.getInt(ParametroConfiguracao.CLIENTES_LIMIT_MAX));
 
 		Pageable pageable = PageRequest.of(safePage - 1, safeLimit, Sort.by("nome").ascending());
 
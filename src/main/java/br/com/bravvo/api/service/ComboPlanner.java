@@ -0,0 +1,154 @@
+package br.com.bravvo.api.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Motor de combos: vários serviços em sequência (ex.: corte + barba +
+ * sobrancelha), cada etapa começando exatamente quando a anterior termina.
+ *
+ * Entrada: etapas na ordem; cada etapa tem suas opções (funcionário, ocupação
+ * do dia, duração resolvida). Com profissional fixo, cada etapa tem uma opção
+ * só; em "qualquer profissional", uma por funcionário habilitado.
+ *
+ * Busca: inícios candidatos = grade da 1ª etapa (mesma grade da
+ * disponibilidade por serviço, união das opções). Para cada início, busca em
+ * profundidade etapa a etapa, com memória de (etapa, minuto): um minuto que já
+ * falhou numa etapa não é testado de novo, venha de onde vier. No pior caso
+ * são etapas x 1440 x opções checagens de bitmap ({@link DiaOcupacao#isLivre}),
+ * o que roda em milissegundos para um salão inteiro.
+ *
+ * Desempate: opções são tentadas na ordem recebida; a primeira combinação que
+ * fecha é a escolhida para aquele início.
+ */
+public final class ComboPlanner {
+
+	private static final byte DESCONHECIDO = 0;
+	private static final byte FALHA = 1;
+	private static final byte OK = 2;
+
+	private final List<List<Opcao>> etapas;
+
+	/** Estado de (etapa, minuto) e opção escolhida quando OK. */
+	private final byte[][] estado;
+	private final short[][] escolha;
+
+	public ComboPlanner(List<List<Opcao>> etapas) {
+		this.etapas = etapas;
+		this.estado = new byte[etapas.size()][DiaOcupacao.MINUTOS_DIA];
+		this.escolha = new short[etapas.size()][DiaOcupacao.MINUTOS_DIA];
+	}
+
+	/**
+	 * Até "limite" combos, em ordem de início.
+	 */
+	public List<Plano> planejar(int limite) {
+		List<Plano> planos = new ArrayList<>();
+		if (etapas.isEmpty() || limite < 1) {
+			return planos;
+		}
+
+		int duracaoMinima = 0;
+		for (List<Opcao> opcoes : etapas) {
+			if (opcoes.isEmpty()) {
+				return planos; // etapa sem ninguém: nenhum combo possível
+			}
+			duracaoMinima += opcoes.stream().mapToInt(Opcao::duracaoMin).min().getAsInt();
+		}
+
+		for (int inicio : iniciosCandidatos()) {
+			if (inicio + duracaoMinima > DiaOcupacao.MINUTOS_DIA) {
+				break;
+			}
+			if (resolver(0, inicio)) {
+				planos.add(montar(inicio));
+				if (planos.size() >= limite) {
+					break;
+				}
+			}
+		}
+		return planos;
+	}
+
+	/**
+	 * true se as etapas [etapa..fim] cabem em sequência a partir do minuto t.
+	 */
+	private boolean resolver(int etapa, int t) {
+		if (etapa == etapas.size()) {
+			return true;
+		}
+		if (t >= DiaOcupacao.MINUTOS_DIA) {
+			return false;
+		}
+		if (estado[etapa][t] != DESCONHECIDO) {
+			return estado[etapa][t] == OK;
+		}
+
+		List<Opcao> opcoes = etapas.get(etapa);
+		for (int i = 0; i < opcoes.size(); i++) {
+			Opcao o = opcoes.get(i);
+			int fim = t + o.duracaoMin;
+			if (o.dia.isLivre(t, fim) && resolver(etapa + 1, fim)) {
+				estado[etapa][t] = OK;
+				escolha[etapa][t] = (short) i;
+				return true;
+			}
+		}
+
+		estado[etapa][t] = FALHA;
+		return false;
+	}
+
+	private Plano montar(int inicio) {
+		List<Passo> passos = new ArrayList<>(etapas.size());
+		int t = inicio;
+		for (int etapa = 0; etapa < etapas.size(); etapa++) {
+			Opcao o = etapas.get(etapa).get(escolha[etapa][t]);
+			passos.add(new Passo(o.funcionarioId, t, t + o.duracaoMin));
+			t += o.duracaoMin;
+		}
+		return new Plano(inicio, passos);
+	}
+
+	/**
+	 * União (ordenada) das grades da 1ª etapa.
+	 */
+	private int[] iniciosCandidatos() {
+		boolean[] marcados = new boolean[DiaOcupacao.MINUTOS_DIA];
+		for (Opcao o : etapas.get(0)) {
+			for (int s : o.dia.iniciosLivres(o.duracaoMin)) {
+				marcados[s] = true;
+			}
+		}
+
+		int[] inicios = new int[DiaOcupacao.MINUTOS_DIA];
+		int n = 0;
+		for (int s = 0; s < marcados.length; s++) {
+			if (marcados[s]) {
+				inicios[n++] = s;
+			}
+		}
+		return Arrays.copyOf(inicios, n);
+	}
+
+	// ==========================================================
+	// Tipos
+	// ==========================================================
+
+	/**
+	 * Um funcionário que pode executar a etapa, com a ocupação do dia e a duração
+	 * resolvida para o serviço da etapa.
+	 */
+	public record Opcao(Long funcionarioId, DiaOcupacao dia, int duracaoMin) {
+	}
+
+	/**
+	 * Etapa agendada: funcionário e [inicioMin, fimMin) em minutos do dia.
+	 */
+	public record Passo(Long funcionarioId, int inicioMin, int fimMin) {
+	}
+
+	public record Plano(int inicioMin, List<Passo> passos) {
+	}
+}
@@ -0,0 +1,153 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.enums.ParametroConfiguracao;
+import br.com.bravvo.api.repository.ConfiguracaoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Configuração de runtime vinda da tabela configuracoes, tipada por
+ * {@link ParametroConfiguracao}.
+ *
+ * Leitura: um snapshot imutável numa referência volatile. getInt() é uma
+ * leitura de campo + índice de array: sem lock e sem consulta por requisição.
+ *
+ * Atualização: - no startup carrega a tabela inteira - em background consulta só
+ * a versão (count + max(updated_at)) e recarrega quando muda - valores ausentes,
+ * inválidos ou fora da faixa ficam no padrão do parâmetro (com warning no log)
+ *
+ * Sem banco (ou com erro na leitura) o snapshot anterior continua valendo; antes
+ * da primeira carga valem os padrões.
+ */
+@Service
+public class ConfiguracaoService {
+
+	private static final Logger log = LoggerFactory.getLogger(ConfiguracaoService.class);
+
+	private final ConfiguracaoRepository configuracaoRepository;
+
+	private volatile Snapshot atual = Snapshot.padrao();
+
+	public ConfiguracaoService(ConfiguracaoRepository configuracaoRepository) {
+		this.configuracaoRepository = configuracaoRepository;
+	}
+
+	public int getInt(ParametroConfiguracao parametro) {
+		return atual.get(parametro);
+	}
+
+	Snapshot atual() {
+		return atual;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		try {
+			recarregar(configuracaoRepository.versao());
+		} catch (DataAccessException e) {
+			log.warn("Configurações: falha na carga inicial, usando padrões: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Confere a versão e recarrega se mudou.
+	 */
+	@Scheduled(fixedDelayString = "${app.configuracoes.intervalo-ms:30000}", initialDelayString = "${app.configuracoes.intervalo-ms:30000}")
+	public void atualizar() {
+		try {
+			ConfiguracaoRepository.Versao versao = configuracaoRepository.versao();
+			if (mudou(atual, versao)) {
+				recarregar(versao);
+			}
+		} catch (DataAccessException e) {
+			log.warn("Configurações: falha ao atualizar, mantendo snapshot atual: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Mudou o count ou o max(updated_at). updated_at tem precisão de segundo: se a
+	 * última alteração é do mesmo segundo da leitura anterior (ou depois), pode
+	 * ter havido outra escrita nesse segundo; recarrega de novo por garantia.
+	 */
+	static boolean mudou(Snapshot snapshot, ConfiguracaoRepository.Versao versao) {
+		if (snapshot.lidoEm == null) {
+			return true;
+		}
+		if (versao.total() != snapshot.total || !Objects.equals(versao.ultima(), snapshot.ultima)) {
+			return true;
+		}
+		return versao.ultima() != null && !versao.ultima().isBefore(snapshot.lidoEm.minusSeconds(1));
+	}
+
+	private void recarregar(ConfiguracaoRepository.Versao versao) {
+		Map<String, String> valores = configuracaoRepository.carregarTudo();
+		atual = Snapshot.de(valores, versao);
+		log.debug("Configurações recarregadas ({} chaves)", valores.size());
+	}
+
+	/**
+	 * Valores já convertidos (índice = ordinal do parâmetro) + versão lida.
+	 */
+	static final class Snapshot {
+
+		private final int[] valores;
+		private final long total;
+		private final LocalDateTime ultima;
+		private final LocalDateTime lidoEm;
+
+		private Snapshot(int[] valores, long total, LocalDateTime ultima, LocalDateTime lidoEm) {
+			this.valores = valores;
+			this.total = total;
+			this.ultima = ultima;
+			this.lidoEm = lidoEm;
+		}
+
+		static Snapshot padrao() {
+			ParametroConfiguracao[] parametros = ParametroConfiguracao.values();
+			int[] valores = new int[parametros.length];
+			for (ParametroConfiguracao p : parametros) {
+				valores[p.ordinal()] = p.getPadrao();
+			}
+			return new Snapshot(valores, -1, null, null);
+		}
+
+		static Snapshot de(Map<String, String> brutos, ConfiguracaoRepository.Versao versao) {
+			ParametroConfiguracao[] parametros = ParametroConfiguracao.values();
+			int[] valores = new int[parametros.length];
+			for (ParametroConfiguracao p : parametros) {
+				valores[p.ordinal()] = converter(p, brutos.get(p.getChave()));
+			}
+			return new Snapshot(valores, versao.total(), versao.ultima(), versao.agora());
+		}
+
+		int get(ParametroConfiguracao parametro) {
+			return valores[parametro.ordinal()];
+		}
+
+		private static int converter(ParametroConfiguracao p, String bruto) {
+			if (bruto == null || bruto.isBlank()) {
+				return p.getPadrao();
+			}
+			try {
+				int valor = Integer.parseInt(bruto.trim());
+				if (valor >= p.getMin() && valor <= p.getMax()) {
+					return valor;
+				}
+			} catch (NumberFormatException e) {
+				// cai no warning abaixo
+			}
+			log.warn("Configuração '{}' inválida ('{}'; faixa {}..{}), usando padrão {}", p.getChave(), bruto,
+					p.getMin(), p.getMax(), p.getPadrao());
+			return p.getPadrao();
+		}
+	}
+}
@@ -0,0 +1,271 @@
+package br.com.bravvo.api.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Ocupação de um funcionário em um dia, em granularidade de 1 minuto.
+ *
+ * Representação: - janelas: pares [inicio, fim) em minutos do dia (agenda
+ * semanal, até 2 janelas) - livres: bitset de 1440 bits (23 longs); bit = 1
+ * significa minuto livre (dentro de uma janela e sem bloqueio/agendamento)
+ *
+ * A instância é imutável: atualizações incrementais ({@link #comOcupado})
+ * devolvem uma cópia. Assim o índice pode ser lido sem lock.
+ *
+ * Checagem de slot: em vez de comparar o slot com cada intervalo ocupado,
+ * verificamos se todos os bits [inicio, fim) estão ligados, palavra a palavra
+ * (no máximo 1 + duração/64 comparações). Na montagem, os intervalos ocupados
+ * são ordenados e fundidos uma vez pelo {@link SlotSweep}.
+ */
+public final class DiaOcupacao {
+
+	public static final int MINUTOS_DIA = 24 * 60;
+
+	private static final int PALAVRAS = (MINUTOS_DIA + 63) >>> 6;
+
+	/**
+	 * Dia sem expediente (agenda inexistente/inativa): nenhum minuto livre.
+	 */
+	public static final DiaOcupacao SEM_EXPEDIENTE = new DiaOcupacao(new int[0], new long[PALAVRAS]);
+
+	private final int[] janelas;
+	private final long[] livres;
+
+	private DiaOcupacao(int[] janelas, long[] livres) {
+		this.janelas = janelas;
+		this.livres = livres;
+	}
+
+	public static Builder builder(LocalDate data) {
+		return new Builder(data);
+	}
+
+	public boolean temExpediente() {
+		return janelas.length > 0;
+	}
+
+	/**
+	 * true se todos os minutos [inicioMin, fimMin) estão livres.
+	 */
+	public boolean isLivre(int inicioMin, int fimMin) {
+		if (inicioMin < 0 || fimMin > MINUTOS_DIA || inicioMin >= fimMin) {
+			return false;
+		}
+
+		int primeira = inicioMin >>> 6;
+		int ultima = (fimMin - 1) >>> 6;
+
+		for (int w = primeira; w <= ultima; w++) {
+			long mask = mascara(w, primeira, ultima, inicioMin, fimMin);
+			if ((livres[w] & mask) != mask) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Inícios livres (em minutos do dia) para um serviço de duracaoMin.
+	 *
+	 * Mesma grade de sempre: cada janela começa no seu início e anda de
+	 * duracaoMin em duracaoMin; último início = fimJanela - duração.
+	 */
+	public List<Integer> iniciosLivres(int duracaoMin) {
+		List<Integer> inicios = new ArrayList<>();
+		if (duracaoMin < 1) {
+			return inicios;
+		}
+
+		for (int j = 0; j < janelas.length; j += 2) {
+			int fimJanela = janelas[j + 1];
+			for (int s = janelas[j]; s + duracaoMin <= fimJanela; s += duracaoMin) {
+				if (isLivre(s, s + duracaoMin)) {
+					inicios.add(s);
+				}
+			}
+		}
+		return inicios;
+	}
+
+	/**
+	 * Quantidade de inícios livres (mesma grade de {@link #iniciosLivres}), sem
+	 * montar lista. Usado no mapa do mês.
+	 */
+	public int contarLivres(int duracaoMin) {
+		if (duracaoMin < 1) {
+			return 0;
+		}
+
+		int total = 0;
+		for (int j = 0; j < janelas.length; j += 2) {
+			int fimJanela = janelas[j + 1];
+			for (int s = janelas[j]; s + duracaoMin <= fimJanela; s += duracaoMin) {
+				if (isLivre(s, s + duracaoMin)) {
+					total++;
+				}
+			}
+		}
+		return total;
+	}
+
+	/**
+	 * Horários livres no formato HH:mm (contrato do endpoint público).
+	 */
+	public List<String> horarios(int duracaoMin) {
+		List<Integer> inicios = iniciosLivres(duracaoMin);
+		List<String> horarios = new ArrayList<>(inicios.size());
+		for (int s : inicios) {
+			horarios.add(formatarHHmm(s));
+		}
+		return horarios;
+	}
+
+	/**
+	 * Cópia com o intervalo marcado como ocupado (recortado ao dia).
+	 */
+	public DiaOcupacao comOcupado(LocalDate data, LocalDateTime inicio, LocalDateTime fim) {
+		int[] range = recortar(data, inicio, fim);
+		if (range == null || !temExpediente()) {
+			return this;
+		}
+		long[] copia = Arrays.copyOf(livres, PALAVRAS);
+		limpar(copia, range[0], range[1]);
+		return new DiaOcupacao(janelas, copia);
+	}
+
+	// ==========================================================
+	// Auxiliares de bits
+	// ==========================================================
+
+	/**
+	 * Máscara dos bits de [inicioMin, fimMin) dentro da palavra w.
+	 */
+	private static long mascara(int w, int primeira, int ultima, int inicioMin, int fimMin) {
+		int lo = (w == primeira) ? (inicioMin & 63) : 0;
+		int hi = (w == ultima) ? ((fimMin - 1) & 63) : 63;
+		return (-1L >>> (63 - hi)) & (-1L << lo);
+	}
+
+	private static void ligar(long[] bits, int inicioMin, int fimMin) {
+		if (inicioMin >= fimMin)
+			return;
+		int primeira = inicioMin >>> 6;
+		int ultima = (fimMin - 1) >>> 6;
+		for (int w = primeira; w <= ultima; w++) {
+			bits[w] |= mascara(w, primeira, ultima, inicioMin, fimMin);
+		}
+	}
+
+	private static void limpar(long[] bits, int inicioMin, int fimMin) {
+		if (inicioMin >= fimMin)
+			return;
+		int primeira = inicioMin >>> 6;
+		int ultima = (fimMin - 1) >>> 6;
+		for (int w = primeira; w <= ultima; w++) {
+			bits[w] &= ~mascara(w, primeira, ultima, inicioMin, fimMin);
+		}
+	}
+
+	/**
+	 * Converte [inicio, fim) para minutos do dia informado. Retorna null se não
+	 * intersecta o dia.
+	 */
+	private static int[] recortar(LocalDate data, LocalDateTime inicio, LocalDateTime fim) {
+		LocalDateTime inicioDia = data.atStartOfDay();
+		LocalDateTime fimDia = data.plusDays(1).atStartOfDay();
+
+		if (!inicio.isBefore(fimDia) || !fim.isAfter(inicioDia)) {
+			return null;
+		}
+
+		int de = inicio.isAfter(inicioDia) ? minutoDoDia(inicio.toLocalTime()) : 0;
+		int ate = fim.isBefore(fimDia) ? minutoDoDiaArredondadoParaCima(fim.toLocalTime()) : MINUTOS_DIA;
+		return new int[] { de, ate };
+	}
+
+	private static int minutoDoDia(LocalTime t) {
+		return t.getHour() * 60 + t.getMinute();
+	}
+
+	/**
+	 * Fim de intervalo com segundos (ex.: 10:30:15) ocupa o minuto 10:30 inteiro.
+	 */
+	private static int minutoDoDiaArredondadoParaCima(LocalTime t) {
+		int m = minutoDoDia(t);
+		return (t.getSecond() > 0 || t.getNano() > 0) ? m + 1 : m;
+	}
+
+	static String formatarHHmm(int minutoDoDia) {
+		int h = minutoDoDia / 60;
+		int m = minutoDoDia % 60;
+		return new String(new char[] { (char) ('0' + h / 10), (char) ('0' + h % 10), ':', (char) ('0' + m / 10),
+				(char) ('0' + m % 10) });
+	}
+
+	// ==========================================================
+	// Builder
+	// ==========================================================
+
+	/**
+	 * Monta o dia: primeiro as janelas da agenda, depois os intervalos ocupados
+	 * (bloqueios + agendamentos bloqueantes).
+	 */
+	public static final class Builder {
+
+		private final LocalDate data;
+		private final List<int[]> janelas = new ArrayList<>(2);
+		private final SlotSweep.Builder ocupados = SlotSweep.builder();
+
+		private Builder(LocalDate data) {
+			this.data = data;
+		}
+
+		/**
+		 * Janela de trabalho. Ignorada se incompleta ou se fim <= inicio (mesma regra
+		 * de antes).
+		 */
+		public Builder janela(LocalTime inicio, LocalTime fim) {
+			if (inicio == null || fim == null || !fim.isAfter(inicio)) {
+				return this;
+			}
+			janelas.add(new int[] { minutoDoDia(inicio), minutoDoDia(fim) });
+			return this;
+		}
+
+		public Builder ocupado(LocalDateTime inicio, LocalDateTime fim) {
+			int[] range = recortar(data, inicio, fim);
+			if (range != null) {
+				ocupados.add(range[0], range[1]);
+			}
+			return this;
+		}
+
+		public DiaOcupacao build() {
+			if (janelas.isEmpty()) {
+				return SEM_EXPEDIENTE;
+			}
+
+			int[] js = new int[janelas.size() * 2];
+			long[] bits = new long[PALAVRAS];
+
+			for (int i = 0; i < janelas.size(); i++) {
+				int[] j = janelas.get(i);
+				js[i * 2] = j[0];
+				js[i * 2 + 1] = j[1];
+				ligar(bits, j[0], j[1]);
+			}
+			// ocupados fundidos uma vez (sweep): cada minuto é limpo no máximo uma vez
+			SlotSweep fundidos = ocupados.build();
+			for (int i = 0; i < fundidos.size(); i++) {
+				limpar(bits, (int) fundidos.inicio(i), (int) fundidos.fim(i));
+			}
+
+			return new DiaOcupacao(js, bits);
+		}
+	}
+}
@@ -0,0 +1,215 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.event.ServicoAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Cache do resultado de GET /api/public/disponibilidade (modo por data).
+ *
+ * Chave: (funcionário, serviço, data). A duração resolvida faz parte do valor
+ * (duracaoMin do DTO); como qualquer mudança de prefs invalida o funcionário,
+ * ela não precisa entrar na chave.
+ *
+ * Invalidação (após o commit, pelos eventos dos fluxos de escrita): - OCUPADO /
+ * LIBERADO: só as datas tocadas pelo intervalo - AGENDA / SERVICOS /
+ * FUNCIONARIO: todas as entradas do funcionário - {@link ServicoAlteradoEvent}:
+ * todas as entradas do serviço
+ *
+ * Índices secundários funcionário -> chaves e serviço -> chaves: a invalidação
+ * percorre só as entradas do funcionário/serviço, não o cache inteiro. Toda
+ * alteração do índice de uma chave acontece dentro do compute() dessa chave no
+ * cache (publicação, remoção e despejo por tamanho/TTL), então índice e cache
+ * não divergem.
+ *
+ * Consistência: mesmo esquema de versões do {@link OcupacaoIndex} (resultado
+ * calculado durante uma escrita não é publicado). O listener roda depois do
+ * índice, então um recálculo nunca lê um dia desatualizado.
+ *
+ * Métricas (Micrometer): cache.gets (hit/miss), cache.evictions, cache.size
+ * com tag cache=disponibilidade, e disponibilidade.cache.invalidacoes por
+ * motivo.
+ */
+@Component
+public class DisponibilidadeCache {
+
+	private static final String NOME = "disponibilidade";
+
+	private final Cache<Chave, PublicDisponibilidadeResponseDTO> cache;
+	private final Map<Long, AtomicLong> versoesFuncionario = new ConcurrentHashMap<>();
+	private final Map<Long, AtomicLong> versoesServico = new ConcurrentHashMap<>();
+
+	private final Map<Long, Set<Chave>> porFuncionario = new ConcurrentHashMap<>();
+	private final Map<Long, Set<Chave>> porServico = new ConcurrentHashMap<>();
+
+	private final Counter invalidacoesOcupacao;
+	private final Counter invalidacoesFuncionario;
+	private final Counter invalidacoesServico;
+
+	public DisponibilidadeCache(@Value("${app.disponibilidade.cache.max-entradas:50000}") long maxEntradas,
+			@Value("${app.disponibilidade.cache.ttl-minutos:5}") long ttlMinutos, MeterRegistry meterRegistry) {
+		this.cache = Caffeine.newBuilder().maximumSize(maxEntradas).expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+				.evictionListener((Chave k, PublicDisponibilidadeResponseDTO v, RemovalCause causa) -> desindexar(k))
+				.recordStats().build();
+
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, NOME);
+
+		this.invalidacoesOcupacao = invalidacoes(meterRegistry, "ocupacao");
+		this.invalidacoesFuncionario = invalidacoes(meterRegistry, "funcionario");
+		this.invalidacoesServico = invalidacoes(meterRegistry, "servico");
+	}
+
+	/**
+	 * Retorna o resultado em cache ou calcula com o loader.
+	 */
+	public PublicDisponibilidadeResponseDTO get(Long funcionarioId, Long servicoId, LocalDate data,
+			Supplier<PublicDisponibilidadeResponseDTO> loader) {
+
+		Chave chave = new Chave(funcionarioId, servicoId, data);
+
+		PublicDisponibilidadeResponseDTO atual = cache.getIfPresent(chave);
+		if (atual != null) {
+			return atual;
+		}
+
+		long versaoFuncionario = versao(versoesFuncionario, funcionarioId).get();
+		long versaoServico = versao(versoesServico, servicoId).get();
+
+		PublicDisponibilidadeResponseDTO calculado = loader.get();
+
+		PublicDisponibilidadeResponseDTO publicado = cache.asMap().compute(chave, (k, existente) -> {
+			if (existente != null) {
+				return existente;
+			}
+			boolean semEscrita = versao(versoesFuncionario, funcionarioId).get() == versaoFuncionario
+					&& versao(versoesServico, servicoId).get() == versaoServico;
+			if (!semEscrita) {
+				return null;
+			}
+			indexar(porFuncionario, funcionarioId, k);
+			indexar(porServico, servicoId, k);
+			return calculado;
+		});
+
+		return publicado != null ? publicado : calculado;
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE - 1)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent event) {
+		Long funcionarioId = event.getFuncionarioId();
+
+		versao(versoesFuncionario, funcionarioId).incrementAndGet();
+
+		if (event.isTodosOsDias()) {
+			invalidar(porFuncionario.get(funcionarioId), k -> true);
+			invalidacoesFuncionario.increment();
+			return;
+		}
+
+		LocalDate primeiro = event.getPrimeiroDia();
+		LocalDate ultimo = event.getUltimoDia();
+
+		invalidar(porFuncionario.get(funcionarioId), k -> !k.data.isBefore(primeiro) && !k.data.isAfter(ultimo));
+		invalidacoesOcupacao.increment();
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE - 1)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onServicoAlterado(ServicoAlteradoEvent event) {
+		Long servicoId = event.getServicoId();
+
+		versao(versoesServico, servicoId).incrementAndGet();
+
+		invalidar(porServico.get(servicoId), k -> true);
+		invalidacoesServico.increment();
+	}
+
+	/**
+	 * Entradas indexadas (deve bater com o tamanho do cache).
+	 */
+	int indexadas() {
+		int total = 0;
+		for (Set<Chave> chaves : porFuncionario.values()) {
+			total += chaves.size();
+		}
+		return total;
+	}
+
+	long tamanho() {
+		cache.cleanUp();
+		return cache.estimatedSize();
+	}
+
+	/**
+	 * Remove do cache as chaves indexadas que casam com o filtro. Cópia antes de
+	 * percorrer: a remoção mexe no próprio conjunto.
+	 */
+	private void invalidar(Set<Chave> indexadas, Predicate<Chave> filtro) {
+		if (indexadas == null) {
+			return;
+		}
+		for (Chave chave : List.copyOf(indexadas)) {
+			if (filtro.test(chave)) {
+				cache.asMap().compute(chave, (k, v) -> {
+					desindexar(k);
+					return null;
+				});
+			}
+		}
+	}
+
+	private void desindexar(Chave chave) {
+		desindexar(porFuncionario, chave.funcionarioId, chave);
+		desindexar(porServico, chave.servicoId, chave);
+	}
+
+	private static void indexar(Map<Long, Set<Chave>> indice, Long id, Chave chave) {
+		indice.compute(id, (k, chaves) -> {
+			Set<Chave> c = chaves != null ? chaves : ConcurrentHashMap.newKeySet();
+			c.add(chave);
+			return c;
+		});
+	}
+
+	private static void desindexar(Map<Long, Set<Chave>> indice, Long id, Chave chave) {
+		indice.computeIfPresent(id, (k, chaves) -> {
+			chaves.remove(chave);
+			return chaves.isEmpty() ? null : chaves;
+		});
+	}
+
+	private static Counter invalidacoes(MeterRegistry registry, String motivo) {
+		return Counter.builder("disponibilidade.cache.invalidacoes")
+				.description("Invalidações do cache de disponibilidade disparadas por escrita").tag("motivo", motivo)
+				.register(registry);
+	}
+
+	private static AtomicLong versao(Map<Long, AtomicLong> versoes, Long id) {
+		return versoes.computeIfAbsent(id, k -> new AtomicLong());
+	}
+
+	private record Chave(Long funcionarioId, Long servicoId, LocalDate data) {
+	}
+}
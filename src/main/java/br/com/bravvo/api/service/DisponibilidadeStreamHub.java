@@ -0,0 +1,200 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.event.ServicoAlteradoEvent;
+import br.com.bravvo.api.exception.NotFoundException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Conexões SSE da disponibilidade pública (funcionário + dia).
+ *
+ * Fluxo: - o cliente assina (funcionário, serviço, dia) e recebe os horários
+ * atuais - escritas que tocam o funcionário/dia (eventos após o commit) só
+ * marcam a chave como pendente - a cada janela de coalescência, cada chave
+ * pendente é recalculada UMA vez por serviço e enviada a todos os assinantes
+ * (rajada de alterações = um push)
+ *
+ * Custo por conexão ociosa: um SseEmitter (requisição assíncrona, sem thread
+ * presa) e uma entrada no mapa ({@link AssinaturasSse}). Um heartbeat periódico
+ * derruba conexões mortas; o timeout força o cliente a reconectar (EventSource
+ * faz isso sozinho).
+ */
+@Component
+public class DisponibilidadeStreamHub {
+
+	static final String EVENTO = "disponibilidade";
+
+	private final PublicDisponibilidadeService disponibilidadeService;
+
+	private final long timeoutMs;
+
+	private final AssinaturasSse<Chave, Assinante> assinantes;
+	private final Set<Chave> pendentes = ConcurrentHashMap.newKeySet();
+
+	private final ScheduledExecutorService agendador;
+
+	public DisponibilidadeStreamHub(PublicDisponibilidadeService disponibilidadeService,
+			@Value("${app.disponibilidade.stream.timeout-minutos:30}") long timeoutMinutos,
+			@Value("${app.disponibilidade.stream.max-conexoes:10000}") int maxConexoes,
+			@Value("${app.disponibilidade.stream.coalescencia-ms:500}") long coalescenciaMs,
+			@Value("${app.disponibilidade.stream.heartbeat-segundos:25}") long heartbeatSegundos) {
+		this.disponibilidadeService = disponibilidadeService;
+		this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutos);
+		this.assinantes = new AssinaturasSse<>(maxConexoes);
+
+		this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "disponibilidade-stream");
+			t.setDaemon(true);
+			return t;
+		});
+		if (coalescenciaMs > 0) {
+			agendador.scheduleWithFixedDelay(this::flush, coalescenciaMs, coalescenciaMs, TimeUnit.MILLISECONDS);
+		}
+		if (heartbeatSegundos > 0) {
+			agendador.scheduleWithFixedDelay(this::heartbeat, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Abre a assinatura. Valida serviço/funcionário (404) e já envia os horários
+	 * atuais.
+	 */
+	public SseEmitter assinar(Long servicoId, Long funcionarioId, LocalDate data) {
+		PublicDisponibilidadeResponseDTO atual = disponibilidadeService.getDisponibilidade(servicoId, funcionarioId,
+				data);
+
+		Chave chave = new Chave(funcionarioId, data);
+		Assinante assinante = new Assinante(servicoId, novoEmitter());
+		assinantes.adicionar(chave, assinante);
+
+		assinantes.enviar(chave, assinante, EVENTO, atual);
+		return assinante.emitter;
+	}
+
+	/**
+	 * Só marca as chaves assinadas como pendentes; o envio acontece no flush
+	 * (coalescência).
+	 */
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent event) {
+		Long funcionarioId = event.getFuncionarioId();
+
+		if (event.isTodosOsDias()) {
+			for (Chave chave : assinantes.chaves()) {
+				if (chave.funcionarioId.equals(funcionarioId)) {
+					pendentes.add(chave);
+				}
+			}
+			return;
+		}
+
+		for (LocalDate d = event.getPrimeiroDia(); !d.isAfter(event.getUltimoDia()); d = d.plusDays(1)) {
+			Chave chave = new Chave(funcionarioId, d);
+			if (assinantes.contem(chave)) {
+				pendentes.add(chave);
+			}
+		}
+	}
+
+	/**
+	 * Serviço mudou (duração/status): marca os dias com assinantes desse serviço.
+	 */
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onServicoAlterado(ServicoAlteradoEvent event) {
+		assinantes.forEach((chave, doDia) -> {
+			for (Assinante a : doDia) {
+				if (a.servicoId.equals(event.getServicoId())) {
+					pendentes.add(chave);
+					break;
+				}
+			}
+		});
+	}
+
+	public int getConexoes() {
+		return assinantes.getConexoes();
+	}
+
+	/**
+	 * Envia os horários atualizados das chaves pendentes: um cálculo por (chave,
+	 * serviço), não por assinante.
+	 */
+	void flush() {
+		if (pendentes.isEmpty()) {
+			return;
+		}
+
+		List<Chave> lote = new ArrayList<>(pendentes);
+		pendentes.removeAll(lote);
+
+		for (Chave chave : lote) {
+			Set<Assinante> doDia = assinantes.de(chave);
+			if (doDia.isEmpty()) {
+				continue;
+			}
+
+			Map<Long, PublicDisponibilidadeResponseDTO> porServico = new HashMap<>();
+			for (Assinante a : doDia) {
+				PublicDisponibilidadeResponseDTO dto;
+				try {
+					dto = porServico.computeIfAbsent(a.servicoId,
+							servicoId -> disponibilidadeService.getDisponibilidade(servicoId, chave.funcionarioId,
+									chave.data));
+				} catch (NotFoundException e) {
+					// serviço/funcionário removido ou inativado: encerra a assinatura
+					a.emitter.complete();
+					assinantes.remover(chave, a);
+					continue;
+				} catch (RuntimeException e) {
+					// falha transitória (ex.: banco): tenta de novo no próximo ciclo, sem
+					// derrubar o agendador
+					pendentes.add(chave);
+					break;
+				}
+				assinantes.enviar(chave, a, EVENTO, dto);
+			}
+		}
+	}
+
+	/**
+	 * Comentário SSE periódico: mantém proxies abertos e detecta conexões mortas.
+	 */
+	void heartbeat() {
+		assinantes.heartbeat();
+	}
+
+	@PreDestroy
+	void encerrar() {
+		agendador.shutdownNow();
+		assinantes.encerrar();
+	}
+
+	SseEmitter novoEmitter() {
+		return new SseEmitter(timeoutMs);
+	}
+
+	private static final class Assinante extends AssinaturasSse.Assinante {
+		private final Long servicoId;
+
+		private Assinante(Long servicoId, SseEmitter emitter) {
+			super(emitter);
+			this.servicoId = servicoId;
+		}
+	}
+
+	private record Chave(Long funcionarioId, LocalDate data) {
+	}
+}
@@ -0,0 +1,186 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.event.ServicoAlteradoEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versões em memória para GET condicional (ETag / 304) no catálogo e na
+ * disponibilidade pública.
+ *
+ * Contadores: - catálogo (serviços, vínculos/prefs e cadastro de funcionários)
+ * - por funcionário (agenda semanal, serviços/prefs, cadastro) - por
+ * (funcionário, dia) (agendamentos e bloqueios que tocam o dia)
+ *
+ * Todos recebem valores de uma única sequência crescente, semeada com o
+ * horário do boot (uma ETag de antes de um restart não volta a valer). Assim a
+ * ETag de um recurso é simplesmente o maior valor entre os contadores de que
+ * ele depende, e muda sempre que qualquer um deles muda.
+ *
+ * Os contadores sobem após o commit, depois dos caches serem invalidados: uma
+ * ETag nova nunca acompanha um resultado antigo. Consultar versões não toca o
+ * banco.
+ *
+ * Validade: os contadores são do nó, que não vê escritas feitas em outro nó.
+ * Por isso a ETag leva também a janela de tempo atual (do tamanho do TTL do
+ * cache de disponibilidade): uma ETag vale no máximo até a virada da janela,
+ * o mesmo atraso que o cache do nó já admite.
+ *
+ * Contadores por dia ficam num cache Caffeine com o mesmo TTL e o mesmo
+ * tamanho máximo do cache de disponibilidade. Expirar é seguro: um contador
+ * gravado numa janela só expira numa janela seguinte, e nessa toda ETag
+ * emitida já o incluía (sem ele o valor muda: no máximo um 200 a mais, nunca
+ * um 304 errado). Despejo por tamanho pode acontecer na mesma janela, então o
+ * valor despejado sobe para a versão do funcionário (a ETag nunca regride).
+ */
+@Component
+public class DisponibilidadeVersoes {
+
+	private final Clock clock;
+	private final long janelaMs;
+	private final AtomicLong sequencia;
+
+	private volatile long catalogo;
+	private final Map<Long, AtomicLong> funcionarios = new ConcurrentHashMap<>();
+	private final Cache<Dia, Long> dias;
+
+	@Autowired
+	public DisponibilidadeVersoes(@Value("${app.disponibilidade.cache.ttl-minutos:5}") long validadeMinutos,
+			@Value("${app.disponibilidade.cache.max-entradas:50000}") long maxDias) {
+		this(Clock.systemDefaultZone(), TimeUnit.MINUTES.toMillis(validadeMinutos), maxDias);
+	}
+
+	DisponibilidadeVersoes(Clock clock, long janelaMs, long maxDias) {
+		this.clock = clock;
+		this.janelaMs = Math.max(1, janelaMs);
+		this.sequencia = new AtomicLong(clock.millis() * 1000);
+		this.catalogo = sequencia.get();
+
+		// manutenção na própria thread: o despejo sobe a versão antes de alguém ler
+		this.dias = Caffeine.newBuilder().maximumSize(maxDias).expireAfterWrite(Duration.ofMillis(this.janelaMs))
+				.ticker(() -> TimeUnit.MILLISECONDS.toNanos(clock.millis())).executor(Runnable::run)
+				.evictionListener((Dia k, Long versao, RemovalCause causa) -> {
+					if (causa == RemovalCause.SIZE) {
+						subir(geral(k.funcionarioId()), versao);
+					}
+				}).build();
+	}
+
+	// ==========================================================
+	// Consultas (ETags)
+	// ==========================================================
+
+	/**
+	 * Catálogo público (serviços e funcionários por serviço).
+	 */
+	public String etagCatalogo() {
+		return etag("c", catalogo);
+	}
+
+	/**
+	 * Disponibilidade de um funcionário em um dia.
+	 */
+	public String etagDia(Long funcionarioId, LocalDate data) {
+		return etagPeriodo(funcionarioId, data, data);
+	}
+
+	/**
+	 * Disponibilidade de um funcionário em um período [from, to] (inclusive).
+	 */
+	public String etagPeriodo(Long funcionarioId, LocalDate from, LocalDate to) {
+		long versao = catalogo;
+
+		AtomicLong geral = funcionarios.get(funcionarioId);
+		if (geral != null) {
+			versao = Math.max(versao, geral.get());
+			for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+				Long doDia = dias.getIfPresent(new Dia(funcionarioId, d));
+				if (doDia != null) {
+					versao = Math.max(versao, doDia);
+				}
+			}
+		}
+		return etag("d", versao);
+	}
+
+	/**
+	 * Qualquer escrita que afete disponibilidade (usado quando o recurso depende
+	 * de funcionários que só o banco saberia listar, ex.: "qualquer
+	 * profissional").
+	 */
+	public String etagGlobal() {
+		return etag("g", sequencia.get());
+	}
+
+	// ==========================================================
+	// Escritas (após o commit)
+	// ==========================================================
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent event) {
+		Long funcionarioId = event.getFuncionarioId();
+		AtomicLong geral = geral(funcionarioId);
+
+		if (!event.isOcupacaoAlterada()) {
+			// serviços/prefs/cadastro também mudam o catálogo (funcionários por serviço)
+			catalogo = sequencia.incrementAndGet();
+		}
+
+		if (event.isTodosOsDias()) {
+			subir(geral, sequencia.incrementAndGet());
+			return;
+		}
+
+		long versao = sequencia.incrementAndGet();
+		for (LocalDate d = event.getPrimeiroDia(); !d.isAfter(event.getUltimoDia()); d = d.plusDays(1)) {
+			dias.put(new Dia(funcionarioId, d), versao);
+		}
+	}
+
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onServicoAlterado(ServicoAlteradoEvent event) {
+		catalogo = sequencia.incrementAndGet();
+	}
+
+	private String etag(String prefixo, long versao) {
+		long janela = clock.millis() / janelaMs;
+		return "\"" + prefixo + Long.toString(versao, 36) + "-" + Long.toString(janela, 36) + "\"";
+	}
+
+	/**
+	 * Contadores por dia ativos (expirados/despejados ficam de fora).
+	 */
+	long diasVersionados() {
+		dias.cleanUp();
+		return dias.estimatedSize();
+	}
+
+	private AtomicLong geral(Long funcionarioId) {
+		return funcionarios.computeIfAbsent(funcionarioId, id -> new AtomicLong());
+	}
+
+	private static void subir(AtomicLong versao, long nova) {
+		versao.accumulateAndGet(nova, Math::max);
+	}
+
+	private record Dia(Long funcionarioId, LocalDate data) {
+	}
+}
@@ -0,0 +1,119 @@
+package br.com.bravvo.api.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Durações personalizadas de um funcionário (prefs_json já decodificado).
+ *
+ * Representação: servicoId -> duracaoMin em dois arrays primitivos ordenados
+ * (long[] / int[]), sem boxing. A busca é binária; funcionários costumam ter
+ * poucas dezenas de serviços.
+ *
+ * Imutável: pode ser compartilhado entre threads pelo
+ * {@link FuncionarioPrefsCache}.
+ */
+public final class DuracoesServico {
+
+	public static final DuracoesServico VAZIO = new DuracoesServico(new long[0], new int[0]);
+
+	private final long[] servicoIds;
+	private final int[] duracoes;
+
+	private DuracoesServico(long[] servicoIds, int[] duracoes) {
+		this.servicoIds = servicoIds;
+		this.duracoes = duracoes;
+	}
+
+	/**
+	 * Duração do serviço para o funcionário, ou o fallback (duração padrão do
+	 * serviço) se não houver personalização.
+	 */
+	public int get(long servicoId, int fallback) {
+		int i = Arrays.binarySearch(servicoIds, servicoId);
+		return i >= 0 ? duracoes[i] : fallback;
+	}
+
+	public int size() {
+		return servicoIds.length;
+	}
+
+	/**
+	 * Decodifica o prefs_json no formato: { "servicos": { "16": { "duracaoMin": 60
+	 * } } }
+	 *
+	 * Regras (as mesmas que os services aplicavam): - só entra duracaoMin inteiro
+	 * >= 1 - chave de serviço precisa ser o id na forma canônica (a busca antiga
+	 * era por String.valueOf(servicoId): "016" ou "+16" nunca valeram para o
+	 * serviço 16) - JSON inválido/vazio -> VAZIO (disponibilidade/agendamento não
+	 * podem quebrar por prefs)
+	 */
+	public static DuracoesServico decode(String prefsJson, ObjectMapper objectMapper) {
+		if (prefsJson == null || prefsJson.isBlank()) {
+			return VAZIO;
+		}
+
+		try {
+			JsonNode servicosNode = objectMapper.readTree(prefsJson).path("servicos");
+			if (!servicosNode.isObject() || servicosNode.isEmpty()) {
+				return VAZIO;
+			}
+
+			long[] ids = new long[servicosNode.size()];
+			int[] durs = new int[servicosNode.size()];
+			int n = 0;
+
+			for (Map.Entry<String, JsonNode> e : servicosNode.properties()) {
+				JsonNode duracaoNode = e.getValue().path("duracaoMin");
+
+				if (!duracaoNode.isInt() || duracaoNode.asInt() < 1) {
+					continue;
+				}
+
+				long servicoId;
+				try {
+					servicoId = Long.parseLong(e.getKey());
+				} catch (NumberFormatException ex) {
+					continue;
+				}
+				if (!Long.toString(servicoId).equals(e.getKey())) {
+					continue;
+				}
+
+				ids[n] = servicoId;
+				durs[n] = duracaoNode.asInt();
+				n++;
+			}
+
+			return n == 0 ? VAZIO : ordenado(ids, durs, n);
+		} catch (Exception e) {
+			return VAZIO;
+		}
+	}
+
+	/**
+	 * Ordena pelos IDs (insertion sort: n pequeno) para permitir busca binária.
+	 */
+	private static DuracoesServico ordenado(long[] ids, int[] durs, int n) {
+		long[] sortedIds = Arrays.copyOf(ids, n);
+		int[] sortedDurs = Arrays.copyOf(durs, n);
+
+		for (int i = 1; i < n; i++) {
+			long id = sortedIds[i];
+			int dur = sortedDurs[i];
+			int j = i - 1;
+			while (j >= 0 && sortedIds[j] > id) {
+				sortedIds[j + 1] = sortedIds[j];
+				sortedDurs[j + 1] = sortedDurs[j];
+				j--;
+			}
+			sortedIds[j + 1] = id;
+			sortedDurs[j + 1] = dur;
+		}
+
+		return new DuracoesServico(sortedIds, sortedDurs);
+	}
+}
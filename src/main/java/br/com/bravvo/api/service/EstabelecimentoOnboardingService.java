@@ -5,6 +5,7 @@ import br.com.bravvo.api.dto.estabelecimento.EstabelecimentoPreRegisterRequestDT
 import br.com.bravvo.api.entity.Estabelecimentos;
 import br.com.bravvo.api.entity.EstabelecimentosPreCadastro;
 import br.com.bravvo.api.entity.User;
+import br.com.bravvo.api.enums.ParametroConfiguracao;
 import br.com.bravvo.api.enums.PerfilUser;
 import br.com.bravvo.api.enums.StatusAssinatura;
 import br.com.bravvo.api.exception.BusinessException;
@@ -28,14 +29,17 @@ public class EstabelecimentoOnboardingService {
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
 	private final MailService mailService;
+	private final ConfiguracaoService configuracaoService;
 
 	public EstabelecimentoOnboardingService(EstabelecimentoRepository salaoRepository, EstabelecimentoPreCadastroRepository preCadastroRepository,
-			UserRepository userRepository, PasswordEncoder passwordEncoder, MailService mailService) {
+			UserRepository userRepository, PasswordEncoder passwordEncoder, MailService mailService,
+			ConfiguracaoService configuracaoService) {
 		this.salaoRepository = salaoRepository;
 		this.preCadastroRepository = preCadastroRepository;
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
 		this.mailService = mailService;
+		this.configuracaoService = configuracaoService;
 	}
 
 	@Transactional
@@ -79,7 +83,8 @@ public class EstabelecimentoOnboardingService {
 		pre.setSenhaHash(senhaHash);
 		pre.setSlug(slug);
 		pre.setCodigoHash(codigoHash);
-		pre.setExpiresAt(LocalDateTime.now().plusMinutes(15));
+		pre.setExpiresAt(LocalDateTime.now()
+				.plusMinutes(configuracaoService.getInt(ParametroConfiguracao.PRE_CADASTRO_EXPIRACAO_MIN)));
 		pre.setAttempts(0);
 
 		preCadastroRepository.save(pre);
@@ -102,7 +107,7 @@ public class EstabelecimentoOnboardingService {
 			throw new BusinessException("Código expirado. Solicite um novo cadastro.");
 		}
 
-		if (pre.getAttempts() >= 5) {
+		if (pre.getAttempts() >= configuracaoService.getInt(ParametroConfiguracao.PRE_CADASTRO_MAX_TENTATIVAS)) {
 			preCadastroRepository.deleteByEmail(email);
 			throw new BusinessException("Muitas tentativas. Refazer cadastro.");
 		}
@@ -130,7 +135,8 @@ public class EstabelecimentoOnboardingService {
 		estabelecimento.setRamoAtuacao(pre.getRamoAtuacao());
 		estabelecimento.setSlug(pre.getSlug());
 		estabelecimento.setStatusAssinatura(StatusAssinatura.TRIAL);
-		estabelecimento.setTrialEndsAt(LocalDateTime.now().plusDays(14));
+		estabelecimento
+				.setTrialEndsAt(LocalDateTime.now().plusDays(configuracaoService.getInt(ParametroConfiguracao.TRIAL_DIAS)));
 
 		salaoRepository.save(estabelecimento);
 
@@ -0,0 +1,217 @@
+package br.com.bravvo.api.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Uma fila de espera (walk-in) em memória: de um funcionário ou de um serviço
+ * ("qualquer profissional").
+ *
+ * Posição e espera sem percorrer a fila: cada ficha guarda, na entrada, sua
+ * ordem e a soma das durações de quem já estava na frente; a fila guarda
+ * quantos foram chamados e a soma das durações chamadas. Então:
+ *
+ * - posição = ordem - chamados - minutos à frente = somaAntes - somaChamadas
+ *
+ * Entrar, chamar o próximo e consultar posição/espera são O(1). Só a desistência
+ * no meio da fila é O(n) (renumera quem estava atrás), e é o caso raro.
+ *
+ * Espera estimada = minutos à frente + o que falta dos atendimentos em curso,
+ * dividido pelo número de atendimentos em curso (atendentes em paralelo; 1 numa
+ * fila de funcionário).
+ *
+ * Não é thread-safe sozinha: quem usa sincroniza na instância. Escritas (banco
+ * + memória) ainda passam pelo lock de escrita da fila, que fica de fora das
+ * leituras: uma gravação lenta não trava quem só consulta posição.
+ */
+public final class FilaAtendimento {
+
+	private final ReentrantLock escrita = new ReentrantLock();
+
+	private final ArrayDeque<Ficha> aguardando = new ArrayDeque<>();
+	private final Map<Long, Ficha> emAtendimento = new LinkedHashMap<>();
+
+	private long entrados;
+	private long chamados;
+	private long somaEntradas;
+	private long somaChamadas;
+
+	/**
+	 * Entra no fim da fila.
+	 */
+	public Ficha entrar(Long id, String protocolo, int duracaoMin) {
+		Ficha f = new Ficha(id, protocolo, duracaoMin);
+		f.ordem = ++entrados;
+		f.somaAntes = somaEntradas;
+		somaEntradas += duracaoMin;
+		aguardando.addLast(f);
+		return f;
+	}
+
+	/**
+	 * Próxima ficha, sem chamar (null = fila vazia).
+	 */
+	public Ficha proxima() {
+		return aguardando.peekFirst();
+	}
+
+	/**
+	 * Chama a primeira da fila: sai da espera e entra em atendimento.
+	 */
+	public Ficha chamar(LocalDateTime agora) {
+		Ficha f = aguardando.pollFirst();
+		if (f == null) {
+			return null;
+		}
+		chamados++;
+		somaChamadas += f.duracaoMin;
+		f.chamadoEm = agora;
+		emAtendimento.put(f.id, f);
+		return f;
+	}
+
+	/**
+	 * Atendimento terminou (a ficha sai da fila).
+	 */
+	public boolean concluir(Long id) {
+		return emAtendimento.remove(id) != null;
+	}
+
+	/**
+	 * Desistência de quem ainda aguarda: quem estava atrás anda uma posição.
+	 */
+	public boolean cancelar(Ficha ficha) {
+		boolean atras = false;
+		for (Iterator<Ficha> it = aguardando.iterator(); it.hasNext();) {
+			Ficha f = it.next();
+			if (f == ficha) {
+				it.remove();
+				atras = true;
+			} else if (atras) {
+				f.ordem--;
+				f.somaAntes -= ficha.duracaoMin;
+			}
+		}
+		if (atras) {
+			entrados--;
+			somaEntradas -= ficha.duracaoMin;
+		}
+		return atras;
+	}
+
+	/**
+	 * Posição (1 = próxima a ser chamada).
+	 */
+	public int posicao(Ficha f) {
+		return (int) (f.ordem - chamados);
+	}
+
+	/**
+	 * Espera estimada, em minutos, até a ficha ser chamada.
+	 */
+	public int esperaEstimadaMin(Ficha f, LocalDateTime agora) {
+		return instantaneo(agora).esperaEstimadaMin(f);
+	}
+
+	/**
+	 * Estado da fila num instante: calculado uma vez e aplicado a quantas fichas
+	 * aguardando forem preciso (O(1) cada). É o que o stream envia a cada avanço.
+	 */
+	public Instantaneo instantaneo(LocalDateTime agora) {
+		long restante = 0;
+		for (Ficha a : emAtendimento.values()) {
+			LocalDateTime fim = a.chamadoEm.plusMinutes(a.duracaoMin);
+			if (fim.isAfter(agora)) {
+				restante += Duration.between(agora, fim).toMinutes();
+			}
+		}
+		return new Instantaneo(chamados, somaChamadas, restante, Math.max(1, emAtendimento.size()));
+	}
+
+	/**
+	 * Serializa as escritas da fila (ordem da memória = ordem do banco).
+	 */
+	public ReentrantLock escrita() {
+		return escrita;
+	}
+
+	public int tamanho() {
+		return aguardando.size();
+	}
+
+	public boolean isVazia() {
+		return aguardando.isEmpty() && emAtendimento.isEmpty();
+	}
+
+	public List<Ficha> aguardando() {
+		return new ArrayList<>(aguardando);
+	}
+
+	/**
+	 * Atendimento em curso (carga inicial, após restart).
+	 */
+	public Ficha emAtendimento(Long id, String protocolo, int duracaoMin, LocalDateTime chamadoEm) {
+		Ficha f = new Ficha(id, protocolo, duracaoMin);
+		f.chamadoEm = chamadoEm;
+		emAtendimento.put(id, f);
+		return f;
+	}
+
+	/**
+	 * Contadores da fila + minutos restantes dos atendimentos em curso.
+	 */
+	public record Instantaneo(long chamados, long somaChamadas, long restanteMin, int atendentes) {
+
+		public int posicao(Ficha f) {
+			return (int) (f.ordem - chamados);
+		}
+
+		public int esperaEstimadaMin(Ficha f) {
+			long aFrente = f.somaAntes - somaChamadas;
+			return (int) ((aFrente + restanteMin + atendentes - 1) / atendentes);
+		}
+	}
+
+	/**
+	 * Ficha da fila (id/protocolo de fila_espera e duração resolvida).
+	 */
+	public static final class Ficha {
+
+		private final Long id;
+		private final String protocolo;
+		private final int duracaoMin;
+
+		private long ordem;
+		private long somaAntes;
+		private LocalDateTime chamadoEm;
+
+		private Ficha(Long id, String protocolo, int duracaoMin) {
+			this.id = id;
+			this.protocolo = protocolo;
+			this.duracaoMin = duracaoMin;
+		}
+
+		public Long getId() {
+			return id;
+		}
+
+		public String getProtocolo() {
+			return protocolo;
+		}
+
+		public int getDuracaoMin() {
+			return duracaoMin;
+		}
+
+		public LocalDateTime getChamadoEm() {
+			return chamadoEm;
+		}
+	}
+}
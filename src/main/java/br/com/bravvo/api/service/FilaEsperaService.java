@@ -0,0 +1,632 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.funcionario.FuncionarioFilaChamadaResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicFilaEntradaRequestDTO;
+import br.com.bravvo.api.dto.publico.PublicFilaPosicaoResponseDTO;
+import br.com.bravvo.api.entity.FilaEspera;
+import br.com.bravvo.api.event.FilaAlteradaEvent;
+import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.enums.StatusFila;
+import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.exception.ForbiddenException;
+import br.com.bravvo.api.exception.NotFoundException;
+import br.com.bravvo.api.repository.FilaEsperaRepository;
+import br.com.bravvo.api.repository.FuncionarioServicoRepository;
+import br.com.bravvo.api.repository.ServicoRepository;
+import br.com.bravvo.api.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fila de espera (walk-in): cliente chega sem horário e entra na fila de um
+ * funcionário ou de um serviço ("qualquer profissional").
+ *
+ * Fluxo: - recepção coloca o cliente na fila (protocolo) - recepção/cliente
+ * acompanham posição e espera estimada (polling) - funcionário chama o próximo
+ * (da sua fila ou das filas dos serviços habilitados para ele) e conclui o
+ * atendimento; o cliente pode desistir enquanto aguarda
+ *
+ * Filas em memória ({@link FilaAtendimento}) com write-through em fila_espera:
+ * cada mudança grava no banco numa transação e só depois do commit muda a
+ * memória (falha na gravação deixa a memória como estava). As escritas de uma
+ * fila passam pelo lock de escrita dela (ordem da memória = ordem do banco);
+ * o monitor da fila só é segurado para ler/mudar a memória, então consultar
+ * posição não espera o banco. Fichas que já saíram da fila são lidas de
+ * fila_espera. No startup as filas são recarregadas das fichas ativas.
+ *
+ * Limites de entrada (o endpoint é anônimo): - por fila: fichas aguardando
+ * (app.fila.max-por-fila) - por telefone: fichas ativas
+ * (app.fila.max-por-telefone) - por chamador (IP): fichas ativas
+ * (app.fila.max-por-chamador; a recepção costuma ter um IP só, daí a folga)
+ *
+ * Espera estimada: duração resolvida de cada ficha (prefs_json do funcionário
+ * -> duração do serviço -> app.fila.duracao-padrao-min sem serviço).
+ *
+ * Avanços da fila (chamada, desistência, conclusão) publicam
+ * {@link FilaAlteradaEvent}; o {@link FilaStreamHub} empurra as novas posições
+ * para os clientes conectados.
+ *
+ * Limitação: as filas são do nó (como as reservas temporárias). Com mais de um
+ * nó, recepção e funcionários de um estabelecimento precisam cair no mesmo nó.
+ */
+@Service
+public class FilaEsperaService {
+
+	private static final Logger log = LoggerFactory.getLogger(FilaEsperaService.class);
+
+	private final FilaEsperaRepository filaEsperaRepository;
+	private final ServicoRepository servicoRepository;
+	private final UserRepository userRepository;
+	private final FuncionarioServicoRepository funcionarioServicoRepository;
+	private final FuncionarioPrefsCache funcionarioPrefsCache;
+	private final ProtocoloGenerator protocoloGenerator;
+	private final ProtocoloOutbox protocoloOutbox;
+	private final TransactionTemplate transactionTemplate;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+	private final int duracaoPadraoMin;
+	private final int maxPorFila;
+	private final int maxPorTelefone;
+	private final int maxPorChamador;
+
+	private final Map<Chave, FilaAtendimento> filas = new ConcurrentHashMap<>();
+	private final Map<String, Local> porProtocolo = new ConcurrentHashMap<>();
+	private final Map<Long, Local> porId = new ConcurrentHashMap<>();
+	private final Map<String, Integer> ativasPorTelefone = new ConcurrentHashMap<>();
+	private final Map<String, Integer> ativasPorChamador = new ConcurrentHashMap<>();
+
+	@Autowired
+	public FilaEsperaService(FilaEsperaRepository filaEsperaRepository, ServicoRepository servicoRepository,
+			UserRepository userRepository, FuncionarioServicoRepository funcionarioServicoRepository,
+			FuncionarioPrefsCache funcionarioPrefsCache, ProtocoloGenerator protocoloGenerator,
+			ProtocoloOutbox protocoloOutbox, TransactionTemplate transactionTemplate,
+			ApplicationEventPublisher eventPublisher, @Value("${app.fila.duracao-padrao-min:30}") int duracaoPadraoMin,
+			@Value("${app.fila.max-por-fila:100}") int maxPorFila,
+			@Value("${app.fila.max-por-telefone:2}") int maxPorTelefone,
+			@Value("${app.fila.max-por-chamador:20}") int maxPorChamador) {
+		this(filaEsperaRepository, servicoRepository, userRepository, funcionarioServicoRepository,
+				funcionarioPrefsCache, protocoloGenerator, protocoloOutbox, transactionTemplate, eventPublisher,
+				Clock.systemDefaultZone(), duracaoPadraoMin, maxPorFila, maxPorTelefone, maxPorChamador);
+	}
+
+	FilaEsperaService(FilaEsperaRepository filaEsperaRepository, ServicoRepository servicoRepository,
+			UserRepository userRepository, FuncionarioServicoRepository funcionarioServicoRepository,
+			FuncionarioPrefsCache funcionarioPrefsCache, ProtocoloGenerator protocoloGenerator,
+			ProtocoloOutbox protocoloOutbox, TransactionTemplate transactionTemplate,
+			ApplicationEventPublisher eventPublisher, Clock clock, int duracaoPadraoMin, int maxPorFila,
+			int maxPorTelefone, int maxPorChamador) {
+		this.filaEsperaRepository = filaEsperaRepository;
+		this.servicoRepository = servicoRepository;
+		this.userRepository = userRepository;
+		this.funcionarioServicoRepository = funcionarioServicoRepository;
+		this.funcionarioPrefsCache = funcionarioPrefsCache;
+		this.protocoloGenerator = protocoloGenerator;
+		this.protocoloOutbox = protocoloOutbox;
+		this.transactionTemplate = transactionTemplate;
+		this.eventPublisher = eventPublisher;
+		this.clock = clock;
+		this.duracaoPadraoMin = duracaoPadraoMin;
+		this.maxPorFila = maxPorFila;
+		this.maxPorTelefone = maxPorTelefone;
+		this.maxPorChamador = maxPorChamador;
+	}
+
+	// ==========================================================
+	// Recepção / cliente
+	// ==========================================================
+
+	/**
+	 * Coloca o cliente na fila do funcionário (se informado) ou do serviço.
+	 * Falha (409) se algum limite de entrada foi atingido.
+	 */
+	public PublicFilaPosicaoResponseDTO entrar(PublicFilaEntradaRequestDTO req, String chamador) {
+		Long servicoId = req.getServicoId();
+		Long funcionarioId = req.getFuncionarioId();
+
+		if (servicoId == null && funcionarioId == null) {
+			throw new BusinessException("Informe o serviço e/ou o funcionário da fila.");
+		}
+
+		int duracaoMin = resolveDuracao(servicoId, funcionarioId, true);
+		Chave chave = funcionarioId != null ? Chave.funcionario(funcionarioId) : Chave.servico(servicoId);
+		FilaAtendimento fila = filas.computeIfAbsent(chave, k -> new FilaAtendimento());
+		String telefone = normalizarTelefone(req.getClienteTelefone());
+
+		// vagas do telefone e do chamador (devolvidas se a entrada falhar)
+		ocuparVaga(ativasPorTelefone, telefone, maxPorTelefone, "Este telefone já está na fila.");
+		try {
+			ocuparVaga(ativasPorChamador, chamador, maxPorChamador,
+					"Muitas fichas abertas a partir deste endereço. Tente novamente mais tarde.");
+		} catch (RuntimeException e) {
+			devolverVaga(ativasPorTelefone, telefone);
+			throw e;
+		}
+
+		fila.escrita().lock();
+		try {
+			synchronized (fila) {
+				if (fila.tamanho() >= maxPorFila) {
+					throw new BusinessException("A fila está cheia. Tente novamente mais tarde.");
+				}
+			}
+
+			FilaEspera salvo = transactionTemplate.execute(tx -> {
+				FilaEspera f = new FilaEspera();
+				f.setProtocolo(protocoloGenerator.next());
+				f.setServicoId(servicoId);
+				f.setFuncionarioId(funcionarioId);
+				f.setClienteNome(req.getClienteNome());
+				f.setClienteTelefone(req.getClienteTelefone());
+				f.setClienteEmail(req.getClienteEmail());
+				f.setStatus(StatusFila.AGUARDANDO);
+				f = filaEsperaRepository.save(f);
+
+				protocoloOutbox.registrar(f.getProtocolo(), "fila", new ProtocoloDados(servicoId, funcionarioId,
+						req.getClienteNome(), req.getClienteTelefone(), req.getClienteEmail(), f.getCreatedAt()));
+				return f;
+			});
+
+			synchronized (fila) {
+				Local local = new Local(chave, fila, fila.entrar(salvo.getId(), salvo.getProtocolo(), duracaoMin),
+						servicoId, telefone, chamador);
+				indexar(local);
+				return posicao(local, fila.instantaneo(LocalDateTime.now(clock)));
+			}
+		} catch (RuntimeException e) {
+			devolverVaga(ativasPorTelefone, telefone);
+			devolverVaga(ativasPorChamador, chamador);
+			throw e;
+		} finally {
+			fila.escrita().unlock();
+		}
+	}
+
+	/**
+	 * Posição e espera estimada (polling). Fichas na fila: só memória.
+	 */
+	public PublicFilaPosicaoResponseDTO consultar(String protocolo) {
+		Local local = porProtocolo.get(protocolo);
+		if (local != null) {
+			synchronized (local.fila()) {
+				// pode ter saído entre o get e o lock
+				if (porProtocolo.get(protocolo) == local) {
+					return posicao(local, local.fila().instantaneo(LocalDateTime.now(clock)));
+				}
+			}
+		}
+
+		FilaEspera f = filaEsperaRepository.findByProtocolo(protocolo)
+				.orElseThrow(() -> new NotFoundException("Protocolo não encontrado na fila."));
+		return new PublicFilaPosicaoResponseDTO(f.getProtocolo(), f.getStatus().getValor(), f.getServicoId(),
+				f.getFuncionarioId(), null, null);
+	}
+
+	/**
+	 * Cliente desistiu (só enquanto aguarda).
+	 */
+	public PublicFilaPosicaoResponseDTO cancelar(String protocolo) {
+		Local local = porProtocolo.get(protocolo);
+		if (local == null) {
+			throw new NotFoundException("Protocolo não encontrado na fila.");
+		}
+
+		FilaAtendimento fila = local.fila();
+		fila.escrita().lock();
+		try {
+			synchronized (fila) {
+				if (local.ficha().getChamadoEm() != null || porProtocolo.get(protocolo) != local) {
+					throw new BusinessException("A ficha já foi chamada e não pode ser cancelada.");
+				}
+			}
+
+			FilaEspera f = transactionTemplate
+					.execute(tx -> atualizar(local.ficha().getId(), StatusFila.CANCELADO, null));
+
+			synchronized (fila) {
+				fila.cancelar(local.ficha());
+				desindexar(local);
+			}
+			publicarSaida(local, f);
+
+			return new PublicFilaPosicaoResponseDTO(protocolo, f.getStatus().getValor(), f.getServicoId(),
+					f.getFuncionarioId(), null, null);
+		} finally {
+			fila.escrita().unlock();
+		}
+	}
+
+	// ==========================================================
+	// Funcionário
+	// ==========================================================
+
+	/**
+	 * Chama o próximo: a ficha mais antiga entre a fila do funcionário e as filas
+	 * dos serviços habilitados para ele. 404 se não houver ninguém aguardando.
+	 */
+	public FuncionarioFilaChamadaResponseDTO chamarProximo(Long funcionarioId) {
+		List<Chave> candidatas = new ArrayList<>();
+		candidatas.add(Chave.funcionario(funcionarioId));
+		for (Long servicoId : funcionarioServicoRepository.findServicoIdsByFuncionarioId(funcionarioId)) {
+			candidatas.add(Chave.servico(servicoId));
+		}
+
+		// tenta de novo se outro funcionário levou a ficha escolhida
+		for (int tentativa = 0; tentativa < 3; tentativa++) {
+			FilaAtendimento escolhida = null;
+			Long menorId = null;
+			for (Chave chave : candidatas) {
+				FilaAtendimento fila = filas.get(chave);
+				if (fila == null) {
+					continue;
+				}
+				synchronized (fila) {
+					FilaAtendimento.Ficha proxima = fila.proxima();
+					if (proxima != null && (menorId == null || proxima.getId() < menorId)) {
+						menorId = proxima.getId();
+						escolhida = fila;
+					}
+				}
+			}
+
+			if (escolhida == null) {
+				throw new NotFoundException("Nenhum cliente aguardando na fila.");
+			}
+
+			escolhida.escrita().lock();
+			try {
+				Long id;
+				synchronized (escolhida) {
+					FilaAtendimento.Ficha proxima = escolhida.proxima();
+					if (proxima == null || !proxima.getId().equals(menorId)) {
+						continue;
+					}
+					id = proxima.getId();
+				}
+
+				LocalDateTime agora = LocalDateTime.now(clock);
+				FilaEspera f = transactionTemplate.execute(tx -> {
+					FilaEspera ficha = filaEsperaRepository.findById(id)
+							.orElseThrow(() -> new NotFoundException("Ficha não encontrada."));
+					ficha.setStatus(StatusFila.EM_ATENDIMENTO);
+					ficha.setFuncionarioId(funcionarioId);
+					ficha.setChamadoEm(agora);
+					return filaEsperaRepository.save(ficha);
+				});
+
+				Local local;
+				synchronized (escolhida) {
+					escolhida.chamar(agora);
+					local = porId.get(id);
+					local.atendidoPor = funcionarioId;
+				}
+				eventPublisher.publishEvent(
+						FilaAlteradaEvent.avancou(local.chave().funcionarioId(), local.chave().servicoId()));
+				return toChamada(f);
+			} finally {
+				escolhida.escrita().unlock();
+			}
+		}
+		throw new BusinessException("Fila concorrida. Tente chamar novamente.");
+	}
+
+	/**
+	 * Conclui o atendimento (só quem chamou).
+	 */
+	public FuncionarioFilaChamadaResponseDTO concluir(Long funcionarioId, Long id) {
+		Local local = porId.get(id);
+		if (local == null) {
+			throw new NotFoundException("Atendimento não encontrado.");
+		}
+
+		FilaAtendimento fila = local.fila();
+		fila.escrita().lock();
+		try {
+			synchronized (fila) {
+				if (local.ficha().getChamadoEm() == null || porId.get(id) != local) {
+					throw new BusinessException("A ficha não está em atendimento.");
+				}
+			}
+			if (!funcionarioId.equals(local.atendidoPor)) {
+				throw new ForbiddenException("Você não tem permissão para concluir este atendimento.");
+			}
+
+			FilaEspera f = transactionTemplate
+					.execute(tx -> atualizar(id, StatusFila.CONCLUIDO, LocalDateTime.now(clock)));
+
+			synchronized (fila) {
+				fila.concluir(id);
+				desindexar(local);
+			}
+			publicarSaida(local, f);
+			return toChamada(f);
+		} finally {
+			fila.escrita().unlock();
+		}
+	}
+
+	// ==========================================================
+	// Stream (FilaStreamHub)
+	// ==========================================================
+
+	/**
+	 * Fila em que está a ficha ativa do protocolo (null = não está em fila).
+	 */
+	Chave chaveDe(String protocolo) {
+		Local local = porProtocolo.get(protocolo);
+		return local != null ? local.chave() : null;
+	}
+
+	/**
+	 * Posições de várias fichas da mesma fila com um único instantâneo, sem
+	 * banco. Protocolos que já saíram da fila ficam fora do mapa.
+	 */
+	Map<String, PublicFilaPosicaoResponseDTO> posicoes(Chave chave, Collection<String> protocolos) {
+		Map<String, PublicFilaPosicaoResponseDTO> result = new HashMap<>();
+		FilaAtendimento fila = filas.get(chave);
+		if (fila == null) {
+			return result;
+		}
+
+		synchronized (fila) {
+			FilaAtendimento.Instantaneo instantaneo = fila.instantaneo(LocalDateTime.now(clock));
+			for (String protocolo : protocolos) {
+				Local local = porProtocolo.get(protocolo);
+				if (local != null && local.fila() == fila) {
+					result.put(protocolo, posicao(local, instantaneo));
+				}
+			}
+		}
+		return result;
+	}
+
+	// ==========================================================
+	// Carga inicial
+	// ==========================================================
+
+	/**
+	 * Recarrega as filas a partir das fichas ativas (aguardando/em_atendimento),
+	 * na ordem de chegada.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void carregar() {
+		List<FilaEspera> ativas = filaEsperaRepository
+				.findByStatusInOrderByIdAsc(List.of(StatusFila.AGUARDANDO, StatusFila.EM_ATENDIMENTO));
+
+		for (FilaEspera f : ativas) {
+			int duracaoMin = resolveDuracao(f.getServicoId(), f.getFuncionarioId(), false);
+			Chave chave = f.getFuncionarioId() != null ? Chave.funcionario(f.getFuncionarioId())
+					: Chave.servico(f.getServicoId());
+			FilaAtendimento fila = filas.computeIfAbsent(chave, k -> new FilaAtendimento());
+			String telefone = normalizarTelefone(f.getClienteTelefone());
+			if (telefone != null) {
+				// conta sem limite: o que já está na fila fica
+				ativasPorTelefone.merge(telefone, 1, Integer::sum);
+			}
+
+			synchronized (fila) {
+				if (f.getStatus() == StatusFila.AGUARDANDO) {
+					indexar(new Local(chave, fila, fila.entrar(f.getId(), f.getProtocolo(), duracaoMin),
+							f.getServicoId(), telefone, null));
+				} else {
+					Local local = new Local(chave, fila, fila.emAtendimento(f.getId(), f.getProtocolo(), duracaoMin,
+							f.getChamadoEm() != null ? f.getChamadoEm() : LocalDateTime.now(clock)), f.getServicoId(),
+							telefone, null);
+					local.atendidoPor = f.getFuncionarioId();
+					indexar(local);
+				}
+			}
+		}
+
+		if (!ativas.isEmpty()) {
+			log.info("Fila de espera: {} fichas ativas carregadas em {} filas", ativas.size(), filas.size());
+		}
+	}
+
+	// ==========================================================
+	// Helpers
+	// ==========================================================
+
+	/**
+	 * Duração da ficha: prefs do funcionário -> serviço -> padrão (sem serviço).
+	 * Na entrada (validar=true) serviço/funcionário precisam estar ativos e
+	 * vinculados; na carga só resolve a duração.
+	 */
+	private int resolveDuracao(Long servicoId, Long funcionarioId, boolean validar) {
+		Integer duracaoServico = null;
+
+		if (servicoId != null) {
+			var servico = servicoRepository.findById(servicoId).orElse(null);
+			if (validar && servico == null) {
+				throw new NotFoundException("Serviço não encontrado.");
+			}
+			if (validar && servico.getStatus() != StatusServico.ATIVO) {
+				throw new BusinessException("Serviço está inativo.");
+			}
+			duracaoServico = servico != null ? servico.getDuracaoMin() : null;
+		}
+
+		if (funcionarioId != null && validar) {
+			var funcionario = userRepository.findById(funcionarioId)
+					.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
+			if (!Boolean.TRUE.equals(funcionario.getAtivo()) || funcionario.getPerfil() != PerfilUser.FUNCIONARIO) {
+				throw new BusinessException("Funcionário indisponível.");
+			}
+			if (servicoId != null
+					&& !funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(funcionarioId, servicoId)) {
+				throw new BusinessException("Este serviço não está habilitado para o funcionário.");
+			}
+		}
+
+		if (duracaoServico == null) {
+			return duracaoPadraoMin;
+		}
+		if (funcionarioId != null) {
+			return funcionarioPrefsCache.resolveDuracaoMin(funcionarioId, servicoId, duracaoServico);
+		}
+		return duracaoServico;
+	}
+
+	/**
+	 * Só o que roda dentro da transação de quem chama.
+	 */
+	private FilaEspera atualizar(Long id, StatusFila status, LocalDateTime concluidoEm) {
+		FilaEspera f = filaEsperaRepository.findById(id)
+				.orElseThrow(() -> new NotFoundException("Ficha não encontrada."));
+		f.setStatus(status);
+		if (concluidoEm != null) {
+			f.setConcluidoEm(concluidoEm);
+		}
+		return filaEsperaRepository.save(f);
+	}
+
+	/**
+	 * Posição da ficha ativa (posição/espera só enquanto aguarda). Quem chama
+	 * segura o lock da fila.
+	 */
+	private PublicFilaPosicaoResponseDTO posicao(Local local, FilaAtendimento.Instantaneo instantaneo) {
+		FilaAtendimento.Ficha ficha = local.ficha();
+		Long funcionarioId = local.atendidoPor != null ? local.atendidoPor : local.chave().funcionarioId();
+
+		if (ficha.getChamadoEm() != null) {
+			return new PublicFilaPosicaoResponseDTO(ficha.getProtocolo(), StatusFila.EM_ATENDIMENTO.getValor(),
+					local.servicoId(), funcionarioId, null, null);
+		}
+		return new PublicFilaPosicaoResponseDTO(ficha.getProtocolo(), StatusFila.AGUARDANDO.getValor(),
+				local.servicoId(), funcionarioId, instantaneo.posicao(ficha), instantaneo.esperaEstimadaMin(ficha));
+	}
+
+	private void publicarSaida(Local local, FilaEspera f) {
+		eventPublisher.publishEvent(FilaAlteradaEvent.saiu(local.chave().funcionarioId(), local.chave().servicoId(),
+				f.getProtocolo(), f.getStatus().getValor()));
+	}
+
+	private void indexar(Local local) {
+		porProtocolo.put(local.ficha().getProtocolo(), local);
+		porId.put(local.ficha().getId(), local);
+	}
+
+	private void desindexar(Local local) {
+		porProtocolo.remove(local.ficha().getProtocolo());
+		porId.remove(local.ficha().getId());
+		devolverVaga(ativasPorTelefone, local.telefone);
+		devolverVaga(ativasPorChamador, local.chamador);
+	}
+
+	/**
+	 * Conta uma ficha ativa para a chave (telefone/chamador); 409 no limite.
+	 */
+	private static void ocuparVaga(Map<String, Integer> ativas, String chave, int max, String mensagem) {
+		if (chave == null) {
+			return;
+		}
+		ativas.compute(chave, (k, n) -> {
+			int atual = (n == null) ? 0 : n;
+			if (atual >= max) {
+				throw new BusinessException(mensagem);
+			}
+			return atual + 1;
+		});
+	}
+
+	private static void devolverVaga(Map<String, Integer> ativas, String chave) {
+		if (chave != null) {
+			ativas.computeIfPresent(chave, (k, n) -> n > 1 ? n - 1 : null);
+		}
+	}
+
+	/**
+	 * Só os dígitos ("(11) 99999-0000" e "11999990000" são o mesmo telefone).
+	 */
+	private static String normalizarTelefone(String telefone) {
+		if (telefone == null) {
+			return null;
+		}
+		String digitos = telefone.replaceAll("\\D", "");
+		return digitos.isEmpty() ? telefone : digitos;
+	}
+
+	private FuncionarioFilaChamadaResponseDTO toChamada(FilaEspera f) {
+		return new FuncionarioFilaChamadaResponseDTO(f.getId(), f.getProtocolo(), f.getServicoId(),
+				f.getClienteNome(), f.getClienteTelefone(), f.getStatus().getValor(), f.getChamadoEm(),
+				f.getConcluidoEm());
+	}
+
+	/**
+	 * Fila de um funcionário ou de um serviço (o outro campo fica null).
+	 */
+	record Chave(Long funcionarioId, Long servicoId) {
+
+		static Chave funcionario(Long funcionarioId) {
+			return new Chave(funcionarioId, null);
+		}
+
+		static Chave servico(Long servicoId) {
+			return new Chave(null, servicoId);
+		}
+	}
+
+	/**
+	 * Onde está uma ficha ativa: fila, ficha, quem está atendendo e de quem são
+ * as vagas (telefone/chamador) devolvidas quando ela sai.
+	 */
+	private static final class Local {
+
+		private final Chave chave;
+		private final FilaAtendimento fila;
+		private final FilaAtendimento.Ficha ficha;
+		private final Long servicoId;
+		private final String telefone;
+		private final String chamador;
+		private volatile Long atendidoPor;
+
+		Local(Chave chave, FilaAtendimento fila, FilaAtendimento.Ficha ficha, Long servicoId, String telefone,
+				String chamador) {
+			this.chave = chave;
+			this.fila = fila;
+			this.ficha = ficha;
+			this.servicoId = servicoId;
+			this.telefone = telefone;
+			this.chamador = chamador;
+		}
+
+		Chave chave() {
+			return chave;
+		}
+
+		FilaAtendimento fila() {
+			return fila;
+		}
+
+		FilaAtendimento.Ficha ficha() {
+			return ficha;
+		}
+
+		Long servicoId() {
+			return servicoId;
+		}
+	}
+
+	/**
+	 * Snapshot da ficha no protocolo (dados_json).
+	 */
+	record ProtocoloDados(Long servicoId, Long funcionarioId, String clienteNome, String clienteTelefone,
+			String clienteEmail, LocalDateTime createdAt) {
+	}
+}
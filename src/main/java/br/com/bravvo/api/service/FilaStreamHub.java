@@ -0,0 +1,191 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicFilaPosicaoResponseDTO;
+import br.com.bravvo.api.event.FilaAlteradaEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Conexões SSE da fila de espera (uma por protocolo).
+ *
+ * Fluxo: - o cliente assina pelo protocolo e recebe posição/espera atuais -
+ * cada avanço da fila (chamada, desistência, conclusão) só marca a fila como
+ * pendente - a cada janela de coalescência, cada fila pendente tira UM
+ * instantâneo em memória e envia a posição de cada assinante a partir dele
+ * (chamar o próximo = um cálculo + N envios, nenhum acesso ao banco)
+ *
+ * Quando a ficha do assinante sai da fila (cancelada/concluída) ele recebe o
+ * status final e a conexão é encerrada. Assinantes, limite e heartbeat são os
+ * mesmos do {@link DisponibilidadeStreamHub} ({@link AssinaturasSse}).
+ */
+@Component
+public class FilaStreamHub {
+
+	static final String EVENTO = "fila";
+
+	private final FilaEsperaService filaEsperaService;
+
+	private final long timeoutMs;
+
+	private final AssinaturasSse<FilaEsperaService.Chave, Assinante> assinantes;
+	private final Set<FilaEsperaService.Chave> pendentes = ConcurrentHashMap.newKeySet();
+	private final ConcurrentMap<String, String> saidas = new ConcurrentHashMap<>();
+
+	private final ScheduledExecutorService agendador;
+
+	public FilaStreamHub(FilaEsperaService filaEsperaService,
+			@Value("${app.fila.stream.timeout-minutos:30}") long timeoutMinutos,
+			@Value("${app.fila.stream.max-conexoes:10000}") int maxConexoes,
+			@Value("${app.fila.stream.coalescencia-ms:500}") long coalescenciaMs,
+			@Value("${app.fila.stream.heartbeat-segundos:25}") long heartbeatSegundos) {
+		this.filaEsperaService = filaEsperaService;
+		this.timeoutMs = TimeUnit.MINUTES.toMillis(timeoutMinutos);
+		this.assinantes = new AssinaturasSse<>(maxConexoes);
+
+		this.agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+			Thread t = new Thread(r, "fila-stream");
+			t.setDaemon(true);
+			return t;
+		});
+		if (coalescenciaMs > 0) {
+			agendador.scheduleWithFixedDelay(this::flush, coalescenciaMs, coalescenciaMs, TimeUnit.MILLISECONDS);
+		}
+		if (heartbeatSegundos > 0) {
+			agendador.scheduleWithFixedDelay(this::heartbeat, heartbeatSegundos, heartbeatSegundos, TimeUnit.SECONDS);
+		}
+	}
+
+	/**
+	 * Abre a assinatura do protocolo (404 se não existir). Ficha fora da fila
+	 * recebe o status e a conexão termina.
+	 */
+	public SseEmitter assinar(String protocolo) {
+		PublicFilaPosicaoResponseDTO atual = filaEsperaService.consultar(protocolo);
+		FilaEsperaService.Chave chave = filaEsperaService.chaveDe(protocolo);
+
+		if (chave == null) {
+			SseEmitter emitter = novoEmitter();
+			try {
+				emitter.send(SseEmitter.event().name(EVENTO).data(atual));
+				emitter.complete();
+			} catch (Exception e) {
+				emitter.completeWithError(e);
+			}
+			return emitter;
+		}
+
+		Assinante assinante = new Assinante(protocolo, novoEmitter());
+		assinantes.adicionar(chave, assinante);
+
+		assinantes.enviar(chave, assinante, EVENTO, atual);
+		// avanço entre a consulta e o registro: o próximo flush corrige
+		pendentes.add(chave);
+		return assinante.emitter;
+	}
+
+	/**
+	 * Só marca a fila (e a saída, se houver) como pendente; o envio acontece no
+	 * flush.
+	 */
+	@Order(Ordered.LOWEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onFilaAlterada(FilaAlteradaEvent event) {
+		FilaEsperaService.Chave chave = new FilaEsperaService.Chave(event.getFuncionarioId(), event.getServicoId());
+		if (!assinantes.contem(chave)) {
+			return;
+		}
+		if (event.isSaida()) {
+			saidas.put(event.getProtocolo(), event.getStatus());
+		}
+		pendentes.add(chave);
+	}
+
+	public int getConexoes() {
+		return assinantes.getConexoes();
+	}
+
+	/**
+	 * Envia as posições das filas pendentes: um instantâneo por fila, não por
+	 * assinante.
+	 */
+	void flush() {
+		if (pendentes.isEmpty()) {
+			return;
+		}
+
+		List<FilaEsperaService.Chave> lote = new ArrayList<>(pendentes);
+		pendentes.removeAll(lote);
+		List<String> saidasLote = new ArrayList<>(saidas.keySet());
+
+		for (FilaEsperaService.Chave chave : lote) {
+			Set<Assinante> daFila = assinantes.de(chave);
+			if (daFila.isEmpty()) {
+				continue;
+			}
+
+			List<String> protocolos = new ArrayList<>(daFila.size());
+			for (Assinante a : daFila) {
+				protocolos.add(a.protocolo);
+			}
+			Map<String, PublicFilaPosicaoResponseDTO> posicoes = filaEsperaService.posicoes(chave, protocolos);
+
+			for (Assinante a : daFila) {
+				PublicFilaPosicaoResponseDTO dto = posicoes.get(a.protocolo);
+				if (dto != null) {
+					assinantes.enviar(chave, a, EVENTO, dto);
+					continue;
+				}
+
+				// saiu da fila: status final e encerra
+				String status = saidas.get(a.protocolo);
+				if (status != null) {
+					assinantes.enviar(chave, a, EVENTO, new PublicFilaPosicaoResponseDTO(a.protocolo, status,
+							chave.servicoId(), chave.funcionarioId(), null, null));
+				}
+				a.emitter.complete();
+				assinantes.remover(chave, a);
+			}
+		}
+
+		// saídas sem assinante; as que chegaram durante o flush ficam para o próximo
+		saidasLote.forEach(saidas::remove);
+	}
+
+	/**
+	 * Comentário SSE periódico: mantém proxies abertos e detecta conexões mortas.
+	 */
+	void heartbeat() {
+		assinantes.heartbeat();
+	}
+
+	@PreDestroy
+	void encerrar() {
+		agendador.shutdownNow();
+		assinantes.encerrar();
+	}
+
+	SseEmitter novoEmitter() {
+		return new SseEmitter(timeoutMs);
+	}
+
+	/**
+	 * Identidade por instância (duas abas do mesmo protocolo são conexões
+	 * diferentes).
+	 */
+	private static final class Assinante extends AssinaturasSse.Assinante {
+		private final String protocolo;
+
+		private Assinante(String protocolo, SseEmitter emitter) {
+			super(emitter);
+			this.protocolo = protocolo;
+		}
+	}
+}
@@ -3,10 +3,12 @@ package br.com.bravvo.api.service;
 import br.com.bravvo.api.dto.funcionario.*;
 import br.com.bravvo.api.entity.*;
 import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
 import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.ForbiddenException;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.repository.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -27,12 +29,19 @@ public class FuncionarioAgendaService {
 	private final UserRepository userRepository;
 	private final FuncionarioAgendaRepository agendaRepository;
 	private final FuncionarioBloqueioRepository bloqueioRepository;
+	private final FuncionarioLocks funcionarioLocks;
+	private final ApplicationEventPublisher eventPublisher;
+	private final Auditoria auditoria;
 
 	public FuncionarioAgendaService(UserRepository userRepository, FuncionarioAgendaRepository agendaRepository,
-			FuncionarioBloqueioRepository bloqueioRepository) {
+			FuncionarioBloqueioRepository bloqueioRepository, FuncionarioLocks funcionarioLocks,
+			ApplicationEventPublisher eventPublisher, Auditoria auditoria) {
 		this.userRepository = userRepository;
 		this.agendaRepository = agendaRepository;
 		this.bloqueioRepository = bloqueioRepository;
+		this.funcionarioLocks = funcionarioLocks;
+		this.eventPublisher = eventPublisher;
+		this.auditoria = auditoria;
 	}
 
 	// =========================
@@ -131,6 +140,10 @@ public class FuncionarioAgendaService {
 			agendaRepository.save(row);
 		}
 
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.agenda(funcionarioId));
+
+		auditoria.registrar("agenda.atualizada", "funcionario_agenda", funcionarioId, null);
+
 		return getMyAgenda();
 	}
 
@@ -192,13 +205,26 @@ public class FuncionarioAgendaService {
 			throw new BusinessException("startDt deve ser menor que endDt.");
 		}
 
+		// mesma trava da criação de agendamento: um agendamento em andamento não
+		// deixa de enxergar este bloqueio
+		funcionarioLocks.travarAteFimDaTransacao(funcionarioId);
+		userRepository.findByIdForUpdate(funcionarioId);
+
 		FuncionarioBloqueio b = new FuncionarioBloqueio();
 		b.setFuncionarioId(funcionarioId);
 		b.setStartDt(dto.getStartDt());
 		b.setEndDt(dto.getEndDt());
 		b.setMotivo(dto.getMotivo());
 
-		return toResponse(bloqueioRepository.save(b));
+		FuncionarioBloqueio salvo = bloqueioRepository.save(b);
+
+		eventPublisher.publishEvent(
+				DisponibilidadeAlteradaEvent.ocupado(funcionarioId, salvo.getStartDt(), salvo.getEndDt()));
+
+		auditoria.registrar("bloqueio.criado", "funcionario_bloqueio", salvo.getId(),
+				Map.of("inicio", salvo.getStartDt(), "fim", salvo.getEndDt()));
+
+		return toResponse(salvo);
 	}
 
 	@Transactional
@@ -213,6 +239,11 @@ public class FuncionarioAgendaService {
 		}
 
 		bloqueioRepository.delete(b);
+
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.liberado(funcionarioId, b.getStartDt(), b.getEndDt()));
+
+		auditoria.registrar("bloqueio.removido", "funcionario_bloqueio", id,
+				Map.of("inicio", b.getStartDt(), "fim", b.getEndDt()));
 	}
 
 	private FuncionarioBloqueioResponseDTO toResponse(FuncionarioBloqueio b) {
@@ -0,0 +1,107 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Locks em processo por funcionário (listras), para serializar as escritas de
+ * agenda de um mesmo funcionário.
+ *
+ * Regras: - o lock é pego dentro da transação e só é solto quando ela termina
+ * (commit ou rollback): o próximo na fila já enxerga o que foi gravado -
+ * funcionários em listras diferentes não se bloqueiam (número fixo de locks,
+ * memória constante) - espera limitada: se demorar demais, a requisição falha
+ * com 409 em vez de prender a thread - vários funcionários na mesma transação
+ * (combo): as listras são travadas em ordem crescente de índice, sem repetir
+ *
+ * Em mais de um nó isso não basta: quem usa combina com um lock de linha no
+ * banco (ver UserRepository.findByIdForUpdate). O lock local evita que as
+ * requisições do mesmo nó disputem a linha.
+ */
+@Component
+public class FuncionarioLocks {
+
+	private final ReentrantLock[] listras;
+	private final int mascara;
+	private final long esperaMs;
+
+	public FuncionarioLocks(@Value("${app.agendamento.lock.listras:256}") int quantidade,
+			@Value("${app.agendamento.lock.espera-ms:5000}") long esperaMs) {
+		// potência de 2: índice por máscara
+		int n = Integer.highestOneBit(Math.max(1, quantidade - 1)) << 1;
+		this.listras = new ReentrantLock[n];
+		for (int i = 0; i < n; i++) {
+			listras[i] = new ReentrantLock();
+		}
+		this.mascara = n - 1;
+		this.esperaMs = esperaMs;
+	}
+
+	/**
+	 * Trava o funcionário até o fim da transação atual.
+	 *
+	 * Exige transação ativa (@Transactional): o unlock é registrado como
+	 * sincronização da transação.
+	 */
+	public void travarAteFimDaTransacao(Long funcionarioId) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Lock de funcionário exige transação ativa.");
+		}
+
+		travar(listras[indice(funcionarioId)]);
+	}
+
+	/**
+	 * Trava vários funcionários até o fim da transação atual.
+	 *
+	 * A ordem é a das listras, não a dos ids: dois ids em ordem crescente podem
+	 * cair em listras em ordem decrescente, e duas transações travando na ordem
+	 * dos ids se esperariam até o timeout. Ids na mesma listra travam uma vez só.
+	 */
+	public void travarTodosAteFimDaTransacao(Collection<Long> funcionarioIds) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			throw new IllegalStateException("Lock de funcionário exige transação ativa.");
+		}
+
+		TreeSet<Integer> indices = new TreeSet<>();
+		funcionarioIds.forEach(id -> indices.add(indice(id)));
+		for (int i : indices) {
+			travar(listras[i]);
+		}
+	}
+
+	ReentrantLock listra(Long funcionarioId) {
+		return listras[indice(funcionarioId)];
+	}
+
+	int indice(Long funcionarioId) {
+		int h = funcionarioId.hashCode();
+		return (h ^ (h >>> 16)) & mascara;
+	}
+
+	private void travar(ReentrantLock lock) {
+		try {
+			if (!lock.tryLock(esperaMs, TimeUnit.MILLISECONDS)) {
+				throw new BusinessException("Agenda do funcionário ocupada no momento. Tente novamente.");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new BusinessException("Agenda do funcionário ocupada no momento. Tente novamente.");
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCompletion(int status) {
+				lock.unlock();
+			}
+		});
+	}
+}
@@ -0,0 +1,110 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.entity.FuncionarioPrefs;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.repository.FuncionarioPrefsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Prefs do funcionário decodificadas uma única vez (prefs_json ->
+ * {@link DuracoesServico}).
+ *
+ * Único ponto que resolve "duração do serviço para o funcionário"
+ * (disponibilidade pública, agendamento e catálogo).
+ *
+ * Cache: - chave: funcionarioId; versão: updated_at da linha de prefs - quem já
+ * tem a entidade em mãos (carga em lote) reaproveita o decodificado se a versão
+ * bater; senão decodifica e atualiza - invalidado após o commit de
+ * updateMeServicos (evento SERVICOS) - TTL cobre alterações feitas por outras
+ * instâncias
+ */
+@Component
+public class FuncionarioPrefsCache {
+
+	private final FuncionarioPrefsRepository funcionarioPrefsRepository;
+	private final ObjectMapper objectMapper;
+
+	private final Cache<Long, Entrada> cache;
+
+	public FuncionarioPrefsCache(FuncionarioPrefsRepository funcionarioPrefsRepository, ObjectMapper objectMapper,
+			@Value("${app.funcionario-prefs.cache.max-entradas:10000}") long maxEntradas,
+			@Value("${app.funcionario-prefs.cache.ttl-minutos:30}") long ttlMinutos) {
+		this.funcionarioPrefsRepository = funcionarioPrefsRepository;
+		this.objectMapper = objectMapper;
+		this.cache = Caffeine.newBuilder().maximumSize(maxEntradas).expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+				.build();
+	}
+
+	/**
+	 * Duração resolvida: prefs do funcionário -> fallback duração padrão do
+	 * serviço.
+	 */
+	public int resolveDuracaoMin(Long funcionarioId, Long servicoId, int fallback) {
+		return duracoes(funcionarioId).get(servicoId, fallback);
+	}
+
+	/**
+	 * Mesma resolução, com a entidade já carregada (uso em lote, ex.:
+	 * findAllById). prefs pode ser null (funcionário sem prefs).
+	 */
+	public int resolveDuracaoMin(FuncionarioPrefs prefs, Long servicoId, int fallback) {
+		return duracoes(prefs).get(servicoId, fallback);
+	}
+
+	public DuracoesServico duracoes(Long funcionarioId) {
+		// o loader roda dentro do compute da chave: uma invalidação concorrente espera
+		// a carga terminar e descarta o resultado, então não sobra versão antiga
+		return cache.get(funcionarioId, id -> funcionarioPrefsRepository.findById(id).map(this::decodificar)
+				.orElse(Entrada.SEM_PREFS)).duracoes;
+	}
+
+	public DuracoesServico duracoes(FuncionarioPrefs prefs) {
+		if (prefs == null) {
+			return DuracoesServico.VAZIO;
+		}
+
+		Entrada atual = cache.getIfPresent(prefs.getFuncionarioId());
+		if (atual != null && atual.versao != null && Objects.equals(atual.versao, prefs.getUpdatedAt())) {
+			return atual.duracoes;
+		}
+
+		Entrada nova = decodificar(prefs);
+
+		// não sobrescreve uma versão mais nova já publicada por outra leitura
+		cache.asMap().merge(prefs.getFuncionarioId(), nova, (existente, candidata) -> existente.versao != null
+				&& candidata.versao != null && existente.versao.isAfter(candidata.versao) ? existente : candidata);
+
+		return nova.duracoes;
+	}
+
+	/**
+	 * Prefs mudam em updateMeServicos (evento SERVICOS). Roda antes do cache de
+	 * disponibilidade, que depende da duração resolvida.
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent event) {
+		if (event.getTipo() == DisponibilidadeAlteradaEvent.Tipo.SERVICOS) {
+			cache.invalidate(event.getFuncionarioId());
+		}
+	}
+
+	private Entrada decodificar(FuncionarioPrefs prefs) {
+		return new Entrada(prefs.getUpdatedAt(), DuracoesServico.decode(prefs.getPrefsJson(), objectMapper));
+	}
+
+	private record Entrada(LocalDateTime versao, DuracoesServico duracoes) {
+		static final Entrada SEM_PREFS = new Entrada(null, DuracoesServico.VAZIO);
+	}
+}
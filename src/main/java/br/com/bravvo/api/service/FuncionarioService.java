@@ -8,6 +8,7 @@ import br.com.bravvo.api.entity.FuncionarioServico;
 import br.com.bravvo.api.entity.FuncionarioServicoId;
 import br.com.bravvo.api.entity.User;
 import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
 import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.ForbiddenException;
 import br.com.bravvo.api.repository.*;
@@ -18,6 +19,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
@@ -37,16 +39,18 @@ public class FuncionarioService {
 	private final ServicoRepository servicoRepository;
 	private final FuncionarioServicoRepository funcionarioServicoRepository;
 	private final FuncionarioPrefsRepository funcionarioPrefsRepository;
+	private final ApplicationEventPublisher eventPublisher;
 
 	private final ObjectMapper objectMapper = new ObjectMapper();
 
 	public FuncionarioService(UserRepository userRepository, ServicoRepository servicoRepository,
 			FuncionarioServicoRepository funcionarioServicoRepository,
-			FuncionarioPrefsRepository funcionarioPrefsRepository) {
+			FuncionarioPrefsRepository funcionarioPrefsRepository, ApplicationEventPublisher eventPublisher) {
 		this.userRepository = userRepository;
 		this.servicoRepository = servicoRepository;
 		this.funcionarioServicoRepository = funcionarioServicoRepository;
 		this.funcionarioPrefsRepository = funcionarioPrefsRepository;
+		this.eventPublisher = eventPublisher;
 	}
 
 	/**
@@ -244,7 +248,10 @@ public class FuncionarioService {
 		prefs.setPrefsJson(prefsJson);
 		funcionarioPrefsRepository.save(prefs);
 
-		// 7) retorna a lista atualizada (mesma do GET)
+		// 7) disponibilidade pública do funcionário muda (vínculos/durações)
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.servicos(funcionario.getId()));
+
+		// 8) retorna a lista atualizada (mesma do GET)
 		return getMeServicos();
 	}
 
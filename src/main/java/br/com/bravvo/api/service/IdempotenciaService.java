@@ -0,0 +1,244 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.agendamento.AgendamentoCreateResponseDTO;
+import br.com.bravvo.api.entity.AgendamentoIdempotencia;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.AgendamentoIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * Idempotency-Key na criação de agendamentos.
+ *
+ * Fluxo: - sem header: cria normalmente - key já usada (cache em memória ->
+ * tabela agendamento_idempotencia): devolve a resposta original, sem passar
+ * pelo createCore - mesma key com outro corpo: 409 - key nova: cria; o registro
+ * da key é gravado na MESMA transação do agendamento (ou ambos existem, ou
+ * nenhum)
+ *
+ * Retries simultâneos: - no mesmo nó, o segundo espera o primeiro e recebe o
+ * mesmo resultado - entre nós, a constraint única da chave derruba o segundo
+ * insert; ele então devolve o registro do primeiro
+ *
+ * Escopo: a key vale por chamador (público, cliente, funcionário), então keys
+ * iguais de usuários diferentes não se misturam.
+ *
+ * Limpeza: keys vencidas são apagadas em background
+ * (app.idempotencia.limpeza-ms); o reuso de uma key só apaga ela mesma.
+ */
+@Service
+public class IdempotenciaService {
+
+	private static final Logger log = LoggerFactory.getLogger(IdempotenciaService.class);
+
+	public static final String HEADER = "Idempotency-Key";
+
+	private static final int MAX_TAMANHO_KEY = 100;
+
+	private final AgendamentoIdempotenciaRepository repository;
+	private final ObjectMapper objectMapper;
+
+	private final Duration ttl;
+	private final Cache<String, Registro> cache;
+	private final ConcurrentMap<String, EmAndamento> emAndamento = new ConcurrentHashMap<>();
+
+	public IdempotenciaService(AgendamentoIdempotenciaRepository repository, ObjectMapper objectMapper,
+			@Value("${app.idempotencia.max-chaves:100000}") long maxChaves,
+			@Value("${app.idempotencia.ttl-horas:24}") long ttlHoras) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.ttl = Duration.ofHours(ttlHoras);
+		this.cache = Caffeine.newBuilder().maximumSize(maxChaves).expireAfterWrite(ttl).build();
+	}
+
+	/**
+	 * Executa a criação respeitando a Idempotency-Key (se informada).
+	 *
+	 * @param escopo     quem chama (ex.: "publico", "cliente:12")
+	 * @param key        valor do header (null/vazio = sem idempotência)
+	 * @param requisicao corpo da requisição (comparado entre retries)
+	 * @param criar      criação transacional; deve chamar {@link #registrar} na
+	 *                   própria transação quando receber uma chave
+	 */
+	public AgendamentoCreateResponseDTO executar(String escopo, String key, Object requisicao,
+			Function<Chave, AgendamentoCreateResponseDTO> criar) {
+
+		if (key == null || key.isBlank()) {
+			return criar.apply(null);
+		}
+		if (key.length() > MAX_TAMANHO_KEY) {
+			throw new BusinessException("Idempotency-Key deve ter no máximo " + MAX_TAMANHO_KEY + " caracteres.");
+		}
+
+		Chave chave = new Chave(escopo + ":" + key.trim(), hash(requisicao));
+
+		// 1) já concluída (memória -> banco)
+		Registro existente = buscar(chave.valor);
+		if (existente != null) {
+			return existente.resposta(chave);
+		}
+
+		// 2) em andamento no mesmo nó: espera o resultado
+		EmAndamento atual = new EmAndamento(chave.hash);
+		EmAndamento outro = emAndamento.putIfAbsent(chave.valor, atual);
+		if (outro != null) {
+			return outro.aguardar(chave);
+		}
+
+		try {
+			repository.deleteExpirada(chave.valor, LocalDateTime.now());
+
+			AgendamentoCreateResponseDTO resposta = criar.apply(chave);
+			cache.put(chave.valor, new Registro(chave.hash, resposta));
+			atual.futuro.complete(resposta);
+			return resposta;
+
+		} catch (DataIntegrityViolationException e) {
+			// outro nó gravou a mesma key primeiro
+			Registro vencedor = buscar(chave.valor);
+			if (vencedor == null) {
+				atual.futuro.completeExceptionally(e);
+				throw e;
+			}
+			atual.futuro.complete(vencedor.resposta);
+			return vencedor.resposta(chave);
+
+		} catch (RuntimeException e) {
+			atual.futuro.completeExceptionally(e);
+			throw e;
+
+		} finally {
+			emAndamento.remove(chave.valor, atual);
+		}
+	}
+
+	/**
+	 * Grava a key junto com o agendamento (chamado dentro da transação do
+	 * createCore).
+	 */
+	public void registrar(Chave chave, AgendamentoCreateResponseDTO resposta) {
+		AgendamentoIdempotencia i = new AgendamentoIdempotencia();
+		i.setChave(chave.valor);
+		i.setHashRequisicao(chave.hash);
+		i.setAgendamentoId(resposta.getId());
+		i.setProtocolo(resposta.getProtocolo());
+		i.setInicio(resposta.getInicio());
+		i.setFim(resposta.getFim());
+		i.setStatus(resposta.getStatus());
+		i.setExpiraEm(LocalDateTime.now().plus(ttl));
+
+		repository.save(i);
+	}
+
+	/**
+	 * Apaga as keys vencidas da tabela.
+	 */
+	@Scheduled(fixedDelayString = "${app.idempotencia.limpeza-ms:3600000}", initialDelayString = "${app.idempotencia.limpeza-ms:3600000}")
+	public void limparExpiradas() {
+		try {
+			int apagadas = repository.deleteExpiradas(LocalDateTime.now());
+			if (apagadas > 0) {
+				log.debug("Idempotência: {} keys vencidas apagadas", apagadas);
+			}
+		} catch (DataAccessException e) {
+			log.warn("Idempotência: falha ao apagar keys vencidas: {}", e.getMessage());
+		}
+	}
+
+	private Registro buscar(String chave) {
+		Registro r = cache.getIfPresent(chave);
+		if (r != null) {
+			return r;
+		}
+
+		r = repository.findByChave(chave).filter(i -> i.getExpiraEm().isAfter(LocalDateTime.now()))
+				.map(i -> new Registro(i.getHashRequisicao(), new AgendamentoCreateResponseDTO(i.getAgendamentoId(),
+						i.getProtocolo(), i.getInicio(), i.getFim(), i.getStatus())))
+				.orElse(null);
+
+		if (r != null) {
+			cache.put(chave, r);
+		}
+		return r;
+	}
+
+	private String hash(Object requisicao) {
+		try {
+			byte[] json = objectMapper.writeValueAsBytes(requisicao);
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(json));
+		} catch (Exception e) {
+			throw new BusinessException("Não foi possível processar a Idempotency-Key.");
+		}
+	}
+
+	private static void conferirHash(Chave chave, String hashOriginal) {
+		if (!hashOriginal.equals(chave.hash)) {
+			throw new BusinessException("Idempotency-Key já utilizada com outra requisição.");
+		}
+	}
+
+	// ==========================================================
+	// Tipos auxiliares
+	// ==========================================================
+
+	/**
+	 * Key resolvida (escopo + header) e hash do corpo.
+	 */
+	public static final class Chave {
+		private final String valor;
+		private final String hash;
+
+		private Chave(String valor, String hash) {
+			this.valor = valor;
+			this.hash = hash;
+		}
+	}
+
+	private record Registro(String hash, AgendamentoCreateResponseDTO resposta) {
+
+		private AgendamentoCreateResponseDTO resposta(Chave chave) {
+			conferirHash(chave, hash);
+			return resposta;
+		}
+	}
+
+	private static final class EmAndamento {
+		private final String hash;
+		private final CompletableFuture<AgendamentoCreateResponseDTO> futuro = new CompletableFuture<>();
+
+		private EmAndamento(String hash) {
+			this.hash = hash;
+		}
+
+		private AgendamentoCreateResponseDTO aguardar(Chave chave) {
+			conferirHash(chave, hash);
+			try {
+				return futuro.join();
+			} catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException re) {
+					throw re;
+				}
+				throw e;
+			}
+		}
+	}
+}
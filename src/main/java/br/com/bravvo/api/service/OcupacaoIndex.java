@@ -0,0 +1,204 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Índice em memória da ocupação por (funcionário, dia).
+ *
+ * Leitura: a disponibilidade pública consulta o índice; só vai ao banco quando
+ * o dia não está carregado (ou expirou).
+ *
+ * Escrita: os fluxos de escrita publicam {@link DisponibilidadeAlteradaEvent}
+ * e o índice é atualizado após o commit: - OCUPADO: marca o intervalo nos dias
+ * já carregados (incremental, sem ir ao banco) - LIBERADO: descarta os dias
+ * afetados (recarrega na próxima leitura) - AGENDA: descarta todos os dias do
+ * funcionário
+ *
+ * Consistência: cada funcionário tem uma "versão" incrementada a cada evento.
+ * Uma carga feita fora do cache só é publicada se a versão não mudou durante a
+ * leitura do banco (evita gravar no índice um dia que já nasceu desatualizado).
+ * O TTL cobre alterações feitas por outras instâncias da API.
+ */
+@Component
+public class OcupacaoIndex {
+
+	private final Cache<Chave, DiaOcupacao> cache;
+	private final Map<Long, AtomicLong> versoes = new ConcurrentHashMap<>();
+
+	public OcupacaoIndex(@Value("${app.disponibilidade.ocupacao.max-dias:20000}") long maxDias,
+			@Value("${app.disponibilidade.ocupacao.ttl-minutos:10}") long ttlMinutos) {
+		this.cache = Caffeine.newBuilder().maximumSize(maxDias).expireAfterWrite(Duration.ofMinutes(ttlMinutos))
+				.build();
+	}
+
+	/**
+	 * Retorna a ocupação do dia, carregando com o loader se necessário.
+	 */
+	public DiaOcupacao get(Long funcionarioId, LocalDate data, Supplier<DiaOcupacao> loader) {
+		Chave chave = new Chave(funcionarioId, data);
+
+		DiaOcupacao atual = cache.getIfPresent(chave);
+		if (atual != null) {
+			return atual;
+		}
+
+		long versao = versao(funcionarioId).get();
+		DiaOcupacao carregado = loader.get();
+		return publicar(chave, carregado, versao);
+	}
+
+	/**
+	 * Versão em lote: retorna a ocupação de vários dias do mesmo funcionário. Os
+	 * dias ausentes são carregados juntos em uma única chamada do loader.
+	 */
+	public Map<LocalDate, DiaOcupacao> getAll(Long funcionarioId, Collection<LocalDate> dias,
+			Function<List<LocalDate>, Map<LocalDate, DiaOcupacao>> loader) {
+
+		return getAll(Map.of(funcionarioId, dias), faltantes -> Map.of(funcionarioId,
+				loader.apply(faltantes.get(funcionarioId)))).get(funcionarioId);
+	}
+
+	/**
+	 * Versão em lote por funcionário: a ocupação de um mesmo dia para vários
+	 * funcionários. Os ausentes são carregados juntos em uma única chamada do
+	 * loader.
+	 */
+	public Map<Long, DiaOcupacao> getAllFuncionarios(Collection<Long> funcionarioIds, LocalDate data,
+			Function<List<Long>, Map<Long, DiaOcupacao>> loader) {
+
+		Map<Long, List<LocalDate>> pedidos = new LinkedHashMap<>();
+		funcionarioIds.forEach(id -> pedidos.put(id, List.of(data)));
+
+		Map<Long, Map<LocalDate, DiaOcupacao>> porFuncionario = getAll(pedidos, faltantes -> {
+			Map<Long, Map<LocalDate, DiaOcupacao>> carregados = new HashMap<>();
+			loader.apply(new ArrayList<>(faltantes.keySet()))
+					.forEach((id, dia) -> carregados.put(id, Map.of(data, dia)));
+			return carregados;
+		});
+
+		Map<Long, DiaOcupacao> result = new HashMap<>();
+		porFuncionario.forEach((id, dias) -> result.put(id, dias.get(data)));
+		return result;
+	}
+
+	/**
+	 * Forma geral do lote: vários funcionários, cada um com seus dias. Tudo que
+	 * não está no índice vai para uma única chamada do loader (funcionário ->
+	 * dias faltantes).
+	 */
+	public Map<Long, Map<LocalDate, DiaOcupacao>> getAll(Map<Long, ? extends Collection<LocalDate>> diasPorFuncionario,
+			Function<Map<Long, List<LocalDate>>, Map<Long, Map<LocalDate, DiaOcupacao>>> loader) {
+
+		Map<Long, Map<LocalDate, DiaOcupacao>> result = new HashMap<>();
+		Map<Long, List<LocalDate>> faltantes = new LinkedHashMap<>();
+
+		diasPorFuncionario.forEach((id, dias) -> {
+			Map<LocalDate, DiaOcupacao> doFuncionario = result.computeIfAbsent(id, k -> new HashMap<>());
+			for (LocalDate d : dias) {
+				DiaOcupacao atual = cache.getIfPresent(new Chave(id, d));
+				if (atual != null) {
+					doFuncionario.put(d, atual);
+				} else {
+					faltantes.computeIfAbsent(id, k -> new ArrayList<>()).add(d);
+				}
+			}
+		});
+
+		if (faltantes.isEmpty()) {
+			return result;
+		}
+
+		Map<Long, Long> versoesAntesDaCarga = new HashMap<>();
+		for (Long id : faltantes.keySet()) {
+			versoesAntesDaCarga.put(id, versao(id).get());
+		}
+
+		Map<Long, Map<LocalDate, DiaOcupacao>> carregados = loader.apply(faltantes);
+
+		faltantes.forEach((id, dias) -> {
+			Map<LocalDate, DiaOcupacao> doFuncionario = carregados.getOrDefault(id, Map.of());
+			for (LocalDate d : dias) {
+				DiaOcupacao dia = doFuncionario.getOrDefault(d, DiaOcupacao.SEM_EXPEDIENTE);
+				result.get(id).put(d, publicar(new Chave(id, d), dia, versoesAntesDaCarga.get(id)));
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * Aplica no índice as mudanças confirmadas pelos fluxos de escrita.
+	 *
+	 * Roda antes dos caches que dependem do índice (ver DisponibilidadeCache),
+	 * para que eles nunca recalculem a partir de um dia ainda desatualizado.
+	 */
+	@Order(Ordered.HIGHEST_PRECEDENCE)
+	@TransactionalEventListener(fallbackExecution = true)
+	public void onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent event) {
+		if (!event.isOcupacaoAlterada()) {
+			return;
+		}
+
+		Long funcionarioId = event.getFuncionarioId();
+
+		// incrementa ANTES de mexer no cache (ver publicar)
+		versao(funcionarioId).incrementAndGet();
+
+		if (event.isTodosOsDias()) {
+			cache.asMap().keySet().removeIf(k -> k.funcionarioId.equals(funcionarioId));
+			return;
+		}
+
+		for (LocalDate d = event.getPrimeiroDia(); !d.isAfter(event.getUltimoDia()); d = d.plusDays(1)) {
+			Chave chave = new Chave(funcionarioId, d);
+
+			if (event.getTipo() == DisponibilidadeAlteradaEvent.Tipo.OCUPADO) {
+				LocalDate data = d;
+				cache.asMap().computeIfPresent(chave,
+						(k, dia) -> dia.comOcupado(data, event.getInicio(), event.getFim()));
+			} else {
+				cache.invalidate(chave);
+			}
+		}
+	}
+
+	/**
+	 * Grava o dia carregado somente se nenhum evento do funcionário aconteceu
+	 * desde o início da carga. A checagem roda dentro do compute da chave, então
+	 * não existe janela entre "checar versão" e "gravar".
+	 */
+	private DiaOcupacao publicar(Chave chave, DiaOcupacao carregado, long versaoAntesDaCarga) {
+		AtomicLong versao = versao(chave.funcionarioId);
+
+		DiaOcupacao publicado = cache.asMap().compute(chave, (k, existente) -> {
+			if (existente != null) {
+				return existente;
+			}
+			return versao.get() == versaoAntesDaCarga ? carregado : null;
+		});
+
+		return publicado != null ? publicado : carregado;
+	}
+
+	private AtomicLong versao(Long funcionarioId) {
+		return versoes.computeIfAbsent(funcionarioId, id -> new AtomicLong());
+	}
+
+	private record Chave(Long funcionarioId, LocalDate data) {
+	}
+}
@@ -0,0 +1,202 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+
+/**
+ * Gerador de protocolos BRV-YYYYMMDD-XXXXXX sem consultar o banco.
+ *
+ * Sufixo: 6 caracteres base 36 (0-9A-Z) = 31 bits, no estilo Snowflake: -
+ * segundo do dia (17 bits) - nó (5 bits, app.protocolo.node-id, 0..31) -
+ * sequência dentro do segundo (9 bits, 512 por segundo por nó)
+ *
+ * Unicidade: dentro do nó pela sequência; entre nós pelo node-id (cada
+ * instância precisa de um diferente; sem PROTOCOLO_NODE_ID a aplicação não
+ * sobe, para duas instâncias não caírem no mesmo nó sem ninguém ver). Se a sequência estoura, usa o segundo
+ * seguinte (não espera); relógio que volta não repete códigos porque o último
+ * segundo usado nunca regride.
+ *
+ * O protocolo é a única credencial das rotas públicas por protocolo (consulta
+ * com dados do cliente, saída da fila). Por isso os 31 bits passam por uma
+ * permutação com chave secreta (app.protocolo.chave) antes de virar texto:
+ * Feistel de 10 rodadas com AES como função de rodada, o dia como tweak e
+ * cycle-walking para ficar em 31 bits. Sem a chave, conhecer o esquema e
+ * alguns códigos não leva aos códigos vizinhos; adivinhar continua sendo
+ * acertar 1 em 2^31 por dia.
+ *
+ * As constraints únicas de protocolos/agendamentos continuam como última
+ * defesa (ex.: restart logo após uma rajada que adiantou segundos).
+ */
+@Component
+public class ProtocoloGenerator {
+
+	private static final String PREFIXO = "BRV-";
+	private static final DateTimeFormatter DIA_FMT = DateTimeFormatter.BASIC_ISO_DATE;
+
+	private static final int BITS_NO = 5;
+	private static final int BITS_SEQ = 9;
+
+	static final int MAX_NOS = 1 << BITS_NO;
+	static final int MAX_SEQ = 1 << BITS_SEQ;
+
+	private static final int SEGUNDOS_DIA = 86_400;
+	private static final int MASCARA_31 = 0x7FFF_FFFF;
+
+	private static final int RODADAS = 10;
+
+	private static final char[] BASE36 = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ".toCharArray();
+	private static final int TAMANHO = 6;
+
+	private final int nodeId;
+	private final Clock clock;
+	private final ThreadLocal<Cipher> aes;
+
+	private LocalDate dia;
+	private int ultimoSegundo = -1;
+	private int sequencia;
+
+	@Autowired
+	public ProtocoloGenerator(@Value("${app.protocolo.node-id}") int nodeId,
+			@Value("${app.protocolo.chave}") String chave) {
+		this(nodeId, chave, Clock.systemDefaultZone());
+	}
+
+	ProtocoloGenerator(int nodeId, String chave, Clock clock) {
+		if (nodeId < 0 || nodeId >= MAX_NOS) {
+			throw new IllegalArgumentException("app.protocolo.node-id deve estar entre 0 e " + (MAX_NOS - 1));
+		}
+		if (chave == null || chave.length() < 16) {
+			throw new IllegalArgumentException("app.protocolo.chave deve ter ao menos 16 caracteres");
+		}
+		this.nodeId = nodeId;
+		this.clock = clock;
+
+		SecretKeySpec chaveAes = new SecretKeySpec(derivar(chave), "AES");
+		this.aes = ThreadLocal.withInitial(() -> {
+			try {
+				Cipher c = Cipher.getInstance("AES/ECB/NoPadding");
+				c.init(Cipher.ENCRYPT_MODE, chaveAes);
+				return c;
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("AES indisponível", e);
+			}
+		});
+	}
+
+	/**
+	 * Próximo protocolo do dia atual.
+	 */
+	public String next() {
+		LocalDate d;
+		int segundo;
+		int seq;
+
+		synchronized (this) {
+			LocalDateTime agora = LocalDateTime.now(clock);
+			int s = agora.toLocalTime().toSecondOfDay();
+
+			if (!agora.toLocalDate().equals(dia)) {
+				dia = agora.toLocalDate();
+				ultimoSegundo = -1;
+			}
+
+			if (s > ultimoSegundo) {
+				ultimoSegundo = s;
+				sequencia = 0;
+			} else if (++sequencia == MAX_SEQ) {
+				// estourou o segundo (ou o relógio voltou): adianta um segundo
+				ultimoSegundo++;
+				sequencia = 0;
+			}
+
+			if (ultimoSegundo >= SEGUNDOS_DIA) {
+				throw new BusinessException("Não foi possível gerar protocolo. Tente novamente.");
+			}
+
+			d = dia;
+			segundo = ultimoSegundo;
+			seq = sequencia;
+		}
+
+		int id = (segundo << (BITS_NO + BITS_SEQ)) | (nodeId << BITS_SEQ) | seq;
+		return PREFIXO + d.format(DIA_FMT) + "-" + base36(embaralhar(id, d.toEpochDay()));
+	}
+
+	/**
+	 * Permutação de [0, 2^31) com chave: Feistel em 32 bits aplicado até o
+	 * resultado cair em 31 bits (cycle-walking; em média 2 passadas).
+	 */
+	int embaralhar(int x, long dia) {
+		int v = x & MASCARA_31;
+		do {
+			v = feistel(v, dia);
+		} while (v < 0);
+		return v;
+	}
+
+	private int feistel(int v, long dia) {
+		int esquerda = v >>> 16;
+		int direita = v & 0xFFFF;
+
+		byte[] entrada = new byte[16];
+		byte[] saida = new byte[16];
+		for (int rodada = 0; rodada < RODADAS; rodada++) {
+			entrada[0] = (byte) rodada;
+			for (int i = 0; i < 8; i++) {
+				entrada[1 + i] = (byte) (dia >>> (8 * i));
+			}
+			entrada[9] = (byte) (direita >>> 8);
+			entrada[10] = (byte) direita;
+
+			cifrar(entrada, saida);
+			int f = ((saida[0] & 0xFF) << 8) | (saida[1] & 0xFF);
+
+			int nova = esquerda ^ f;
+			esquerda = direita;
+			direita = nova;
+		}
+		return (esquerda << 16) | direita;
+	}
+
+	private void cifrar(byte[] entrada, byte[] saida) {
+		try {
+			aes.get().doFinal(entrada, 0, 16, saida, 0);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Falha ao gerar protocolo", e);
+		}
+	}
+
+	/**
+	 * Chave AES-128 a partir do segredo configurado (SHA-256, 16 primeiros bytes).
+	 */
+	private static byte[] derivar(String chave) {
+		try {
+			byte[] hash = MessageDigest.getInstance("SHA-256").digest(chave.getBytes(StandardCharsets.UTF_8));
+			return Arrays.copyOf(hash, 16);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("SHA-256 indisponível", e);
+		}
+	}
+
+	private static String base36(int valor) {
+		char[] out = new char[TAMANHO];
+		for (int i = TAMANHO - 1; i >= 0; i--) {
+			out[i] = BASE36[valor % 36];
+			valor /= 36;
+		}
+		return new String(out);
+	}
+}
@@ -0,0 +1,81 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.repository.ProtocoloOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Registro de protocolos (auditoria) com write-behind.
+ *
+ * Fluxo: - o agendamento grava o registro na outbox (protocolos_outbox), na
+ * mesma transação: ou ambos existem, ou nenhum - um worker agendado copia a
+ * outbox para protocolos em lotes (batch JDBC) e apaga o que copiou
+ *
+ * A transação do agendamento só faz um insert pequeno e sem índices únicos;
+ * protocolos (unique + índice por tipo/data) recebe as linhas em lote, fora do
+ * caminho crítico. Nada se perde em restart: o que não foi copiado continua na
+ * outbox.
+ *
+ * dados_json é serializado com o ObjectMapper da aplicação (escapes corretos
+ * para aspas, barras e caracteres de controle).
+ */
+@Component
+public class ProtocoloOutbox {
+
+	private final ProtocoloOutboxRepository repository;
+	private final ObjectMapper objectMapper;
+	private final int lote;
+
+	public ProtocoloOutbox(ProtocoloOutboxRepository repository, ObjectMapper objectMapper,
+			@Value("${app.protocolo.outbox.lote:500}") int lote) {
+		this.repository = repository;
+		this.objectMapper = objectMapper;
+		this.lote = lote;
+	}
+
+	/**
+	 * Grava um protocolo na outbox (transação de quem chama).
+	 */
+	public void registrar(String codigo, String tipo, Object dados) {
+		registrar(tipo, List.of(new Entrada(codigo, dados)));
+	}
+
+	/**
+	 * Grava vários protocolos do mesmo tipo em um batch.
+	 */
+	public void registrar(String tipo, List<Entrada> entradas) {
+		LocalDateTime agora = LocalDateTime.now();
+		repository.gravar(entradas.stream()
+				.map(e -> new ProtocoloOutboxRepository.Registro(e.codigo(), tipo, json(e.dados()), agora)).toList());
+	}
+
+	/**
+	 * Copia a outbox para protocolos até esvaziar (lotes de app.protocolo.outbox.lote).
+	 */
+	@Scheduled(fixedDelayString = "${app.protocolo.outbox.intervalo-ms:1000}")
+	public void descarregar() {
+		while (repository.descarregarLote(lote) == lote) {
+			// lote cheio: pode haver mais
+		}
+	}
+
+	String json(Object dados) {
+		try {
+			return objectMapper.writeValueAsString(dados);
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException("Não foi possível serializar os dados do protocolo.", e);
+		}
+	}
+
+	/**
+	 * Protocolo a registrar: código e dados (serializados como JSON).
+	 */
+	public record Entrada(String codigo, Object dados) {
+	}
+}
@@ -11,8 +11,6 @@ import br.com.bravvo.api.repository.FuncionarioPrefsRepository;
 import br.com.bravvo.api.repository.FuncionarioServicoRepository;
 import br.com.bravvo.api.repository.ServicoRepository;
 import br.com.bravvo.api.repository.projection.FuncionarioBasicProjection;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
@@ -27,7 +25,7 @@ import java.util.stream.Collectors;
  *
  * Segurança:
  * - Não expõe dados sensíveis do funcionário
- * - Defensivo contra prefs_json inválido (não pode quebrar a API)
+ * - Defensivo contra prefs_json inválido (não pode quebrar a API; ver FuncionarioPrefsCache)
  */
 @Service
 public class PublicCatalogService {
@@ -35,18 +33,18 @@ public class PublicCatalogService {
     private final ServicoRepository servicoRepository;
     private final FuncionarioServicoRepository funcionarioServicoRepository;
     private final FuncionarioPrefsRepository funcionarioPrefsRepository;
-    private final ObjectMapper objectMapper;
+    private final FuncionarioPrefsCache funcionarioPrefsCache;
 
     public PublicCatalogService(
             ServicoRepository servicoRepository,
             FuncionarioServicoRepository funcionarioServicoRepository,
             FuncionarioPrefsRepository funcionarioPrefsRepository,
-            ObjectMapper objectMapper
+            FuncionarioPrefsCache funcionarioPrefsCache
     ) {
         this.servicoRepository = servicoRepository;
         this.funcionarioServicoRepository = funcionarioServicoRepository;
         this.funcionarioPrefsRepository = funcionarioPrefsRepository;
-        this.objectMapper = objectMapper;
+        this.funcionarioPrefsCache = funcionarioPrefsCache;
     }
 
     /**
@@ -109,7 +107,7 @@ public class PublicCatalogService {
 
         for (FuncionarioBasicProjection f : funcionarios) {
 
-            Integer duracaoResolvida = resolveDuracaoMin(
+            Integer duracaoResolvida = funcionarioPrefsCache.resolveDuracaoMin(
                     prefsMap.get(f.getId()),
                     servicoId,
                     servico.getDuracaoMin()
@@ -125,43 +123,4 @@ public class PublicCatalogService {
 
         return result;
     }
-
-    /**
-     * Resolve duração do serviço para o funcionário:
-     * - tenta ler do prefs_json no formato:
-     *   {
-     *     "servicos": {
-     *       "1": { "duracaoMin": 30 }
-     *     }
-     *   }
-     * - fallback para a duração padrão do serviço
-     *
-     * Defesa:
-     * - se JSON estiver inválido, retorna fallback
-     * - se duração estiver inválida (<1), retorna fallback
-     */
-    private Integer resolveDuracaoMin(FuncionarioPrefs prefs, Long servicoId, Integer fallbackDuracaoMin) {
-
-        if (prefs == null || prefs.getPrefsJson() == null || prefs.getPrefsJson().isBlank()) {
-            return fallbackDuracaoMin;
-        }
-
-        try {
-            JsonNode root = objectMapper.readTree(prefs.getPrefsJson());
-
-            JsonNode duracaoNode = root.path("servicos")
-                    .path(String.valueOf(servicoId))
-                    .path("duracaoMin");
-
-            if (duracaoNode != null && duracaoNode.isInt()) {
-                int v = duracaoNode.asInt();
-                return v >= 1 ? v : fallbackDuracaoMin;
-            }
-
-            return fallbackDuracaoMin;
-        } catch (Exception e) {
-            // Não derrubar catálogo público por prefs_json inválido
-            return fallbackDuracaoMin;
-        }
-    }
 }
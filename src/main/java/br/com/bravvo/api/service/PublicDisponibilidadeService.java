@@ -1,18 +1,33 @@
 package br.com.bravvo.api.service;
 
+import br.com.bravvo.api.dto.publico.PublicComboDisponibilidadeResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicComboEtapaDTO;
+import br.com.bravvo.api.dto.publico.PublicComboHorarioDTO;
+import br.com.bravvo.api.dto.publico.PublicDiaLivresDTO;
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeMesResponseDTO;
 import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeServicoResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicFuncionarioServicoResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicHorarioFuncionariosDTO;
+import br.com.bravvo.api.dto.publico.PublicProximoHorarioDTO;
+import br.com.bravvo.api.dto.publico.PublicProximosHorariosResponseDTO;
+import br.com.bravvo.api.dto.publico.PublicReservaCreateRequestDTO;
+import br.com.bravvo.api.dto.publico.PublicReservaResponseDTO;
 import br.com.bravvo.api.entity.FuncionarioAgenda;
+import br.com.bravvo.api.entity.FuncionarioAgendaId;
 import br.com.bravvo.api.entity.FuncionarioPrefs;
+import br.com.bravvo.api.enums.ParametroConfiguracao;
 import br.com.bravvo.api.enums.PerfilUser;
 import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.repository.*;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import br.com.bravvo.api.repository.projection.FuncionarioBasicProjection;
 import org.springframework.stereotype.Service;
 
 import java.time.*;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.*;
 
 /**
@@ -22,12 +37,41 @@ import java.util.*;
  * (funcionario_bloqueios) - agendamentos existentes (agendamentos) - duração
  * resolvida (funcionario_prefs -> fallback servico.duracaoMin)
  *
- * Endpoint consumidor: GET /api/public/disponibilidade
+ * A ocupação de cada (funcionário, dia) fica em um índice em memória
+ * ({@link OcupacaoIndex}), mantido pelos fluxos de escrita; o banco só é
+ * consultado quando o dia não está carregado. Reservas temporárias do checkout
+ * ({@link ReservasTemporarias}) entram na carga como horários ocupados.
+ *
+ * Endpoints consumidores: - GET /api/public/disponibilidade (por data ou
+ * período from/to) - GET /api/public/servicos/{servicoId}/disponibilidade
+ * (qualquer profissional) - GET /api/public/disponibilidade/proxima (próximos
+ * horários livres) - GET /api/public/disponibilidade/mes (livres por dia) -
+ * GET /api/public/disponibilidade/combo (serviços em sequência)
  */
 @Service
 public class PublicDisponibilidadeService {
 
-	private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+	/**
+	 * Limite do modo período (from/to) para não virar consulta ilimitada.
+	 */
+	private static final int MAX_DIAS_PERIODO = 62;
+
+	/**
+	 * Busca do próximo horário: quantos horários por padrão, até onde procurar e
+	 * de quantos em quantos dias carregar do banco. O máximo de horários vem de
+	 * configuracoes (disponibilidade.proximos.limit-max).
+	 */
+	private static final int PROXIMOS_LIMIT_PADRAO = 5;
+	private static final int PROXIMOS_HORIZONTE_DIAS = 60;
+	private static final int PROXIMOS_BLOCO_DIAS = 7;
+
+	/**
+	 * Máximo de serviços em um combo.
+	 */
+	public static final int MAX_ETAPAS_COMBO = 5;
+
+	private static final DateTimeFormatter DATE_FMT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+	private static final DateTimeFormatter TIME_FMT = DateTimeFormatter.ofPattern("HH:mm");
 
 	private final ServicoRepository servicoRepository;
 	private final UserRepository userRepository;
@@ -37,14 +81,20 @@ public class PublicDisponibilidadeService {
 	private final FuncionarioBloqueioRepository funcionarioBloqueioRepository;
 	private final AgendamentoRepository agendamentoRepository;
 
-	private final ObjectMapper objectMapper;
+	private final FuncionarioPrefsCache funcionarioPrefsCache;
+	private final OcupacaoIndex ocupacaoIndex;
+	private final DisponibilidadeCache disponibilidadeCache;
+	private final ReservasTemporarias reservas;
+	private final ConfiguracaoService configuracaoService;
 
 	public PublicDisponibilidadeService(ServicoRepository servicoRepository, UserRepository userRepository,
 			FuncionarioServicoRepository funcionarioServicoRepository,
 			FuncionarioPrefsRepository funcionarioPrefsRepository,
 			FuncionarioAgendaRepository funcionarioAgendaRepository,
 			FuncionarioBloqueioRepository funcionarioBloqueioRepository, AgendamentoRepository agendamentoRepository,
-			ObjectMapper objectMapper) {
+			FuncionarioPrefsCache funcionarioPrefsCache, OcupacaoIndex ocupacaoIndex,
+			DisponibilidadeCache disponibilidadeCache, ReservasTemporarias reservas,
+			ConfiguracaoService configuracaoService) {
 		this.servicoRepository = servicoRepository;
 		this.userRepository = userRepository;
 		this.funcionarioServicoRepository = funcionarioServicoRepository;
@@ -52,177 +102,747 @@ public class PublicDisponibilidadeService {
 		this.funcionarioAgendaRepository = funcionarioAgendaRepository;
 		this.funcionarioBloqueioRepository = funcionarioBloqueioRepository;
 		this.agendamentoRepository = agendamentoRepository;
-		this.objectMapper = objectMapper;
+		this.funcionarioPrefsCache = funcionarioPrefsCache;
+		this.ocupacaoIndex = ocupacaoIndex;
+		this.disponibilidadeCache = disponibilidadeCache;
+		this.reservas = reservas;
+		this.configuracaoService = configuracaoService;
 	}
 
+	/**
+	 * Disponibilidade por data. O resultado fica em cache
+	 * ({@link DisponibilidadeCache}) até uma escrita tocar o funcionário/data ou o
+	 * serviço.
+	 */
 	public PublicDisponibilidadeResponseDTO getDisponibilidade(Long servicoId, Long funcionarioId, LocalDate data) {
+		return disponibilidadeCache.get(funcionarioId, servicoId, data,
+				() -> calcularDisponibilidade(servicoId, funcionarioId, data));
+	}
+
+	private PublicDisponibilidadeResponseDTO calcularDisponibilidade(Long servicoId, Long funcionarioId,
+			LocalDate data) {
 
 		// =========================
-		// 1) Valida serviço (existe e ATIVO)
+		// 1) a 4) Valida serviço/funcionário/vínculo e resolve duração
+		// =========================
+		Elegibilidade elegibilidade = resolveElegibilidade(servicoId, funcionarioId);
+
+		if (!elegibilidade.disponivel) {
+			return new PublicDisponibilidadeResponseDTO(data, elegibilidade.duracaoMin, List.of());
+		}
+
+		int duracaoMin = elegibilidade.duracaoMin;
+
+		// =========================
+		// 5) Ocupação do dia (índice em memória; banco só se não estiver carregado)
+		// =========================
+		DiaOcupacao dia = ocupacaoIndex.get(funcionarioId, data, () -> carregarDia(funcionarioId, data));
+
+		// =========================
+		// 6) Gera slots a partir do bitmap
+		// =========================
+		return new PublicDisponibilidadeResponseDTO(data, duracaoMin, dia.horarios(duracaoMin));
+	}
+
+	/**
+	 * Disponibilidade de vários dias em uma única chamada (modo período).
+	 *
+	 * Mesmas regras de {@link #getDisponibilidade}, mas com carga em lote: -
+	 * validações e duração resolvidas uma vez - agenda semanal carregada uma vez
+	 * (findByIdFuncionarioId) - bloqueios e agendamentos do período inteiro em uma
+	 * única query (union all)
+	 *
+	 * Retorna um item por dia do período [from, to] (inclusive), na ordem.
+	 */
+	public List<PublicDisponibilidadeResponseDTO> getDisponibilidadePeriodo(Long servicoId, Long funcionarioId,
+			LocalDate from, LocalDate to) {
+
+		if (to.isBefore(from)) {
+			throw new BusinessException("Período inválido: 'from' deve ser menor ou igual a 'to'.");
+		}
+		if (ChronoUnit.DAYS.between(from, to) + 1 > MAX_DIAS_PERIODO) {
+			throw new BusinessException("Período máximo permitido é de " + MAX_DIAS_PERIODO + " dias.");
+		}
+
+		// =========================
+		// 1) Validações + duração (uma vez para o período)
+		// =========================
+		Elegibilidade elegibilidade = resolveElegibilidade(servicoId, funcionarioId);
+
+		List<PublicDisponibilidadeResponseDTO> result = new ArrayList<>();
+
+		if (!elegibilidade.disponivel) {
+			for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+				result.add(new PublicDisponibilidadeResponseDTO(d, elegibilidade.duracaoMin, List.of()));
+			}
+			return result;
+		}
+
+		int duracaoMin = elegibilidade.duracaoMin;
+
+		// =========================
+		// 2) Ocupação de cada dia (dias fora do índice são carregados juntos)
+		// =========================
+		List<LocalDate> dias = new ArrayList<>();
+		for (LocalDate d = from; !d.isAfter(to); d = d.plusDays(1)) {
+			dias.add(d);
+		}
+
+		Map<LocalDate, DiaOcupacao> ocupacao = ocupacaoIndex.getAll(funcionarioId, dias,
+				faltantes -> carregarDias(funcionarioId, faltantes));
+
+		for (LocalDate d : dias) {
+			result.add(new PublicDisponibilidadeResponseDTO(d, duracaoMin, ocupacao.get(d).horarios(duracaoMin)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Mapa do mês: quantidade de horários livres por dia, para o calendário
+	 * sombrear os dias sem montar as listas de horários.
+	 *
+	 * Carga: agenda semanal em 1 query + agendamentos/bloqueios do mês em 1 query
+	 * (union all), apenas para os dias com expediente que não estão no índice.
+	 * A contagem roda direto no bitmap de cada dia.
+	 */
+	public PublicDisponibilidadeMesResponseDTO getDisponibilidadeMes(Long servicoId, Long funcionarioId,
+			YearMonth mes) {
+
+		Elegibilidade elegibilidade = resolveElegibilidade(servicoId, funcionarioId);
+		int duracaoMin = elegibilidade.duracaoMin;
+
+		List<LocalDate> dias = new ArrayList<>(mes.lengthOfMonth());
+		for (int d = 1; d <= mes.lengthOfMonth(); d++) {
+			dias.add(mes.atDay(d));
+		}
+
+		Map<LocalDate, DiaOcupacao> ocupacao = elegibilidade.disponivel
+				? ocupacaoIndex.getAll(funcionarioId, dias, faltantes -> carregarDias(funcionarioId, faltantes))
+				: Map.of();
+
+		List<PublicDiaLivresDTO> result = new ArrayList<>(dias.size());
+		for (LocalDate d : dias) {
+			DiaOcupacao dia = ocupacao.get(d);
+			result.add(new PublicDiaLivresDTO(d, dia == null ? 0 : dia.contarLivres(duracaoMin)));
+		}
+
+		return new PublicDisponibilidadeMesResponseDTO(mes, duracaoMin, result);
+	}
+
+	/**
+	 * Disponibilidade "qualquer profissional": união dos horários livres de todos
+	 * os funcionários ativos que executam o serviço, em uma única chamada.
+	 *
+	 * Carga em lote (sem N+1): - funcionários do serviço em 1 query - prefs em 1
+	 * query (findAllById) - agenda do dia, bloqueios e agendamentos de todos os
+	 * funcionários fora do índice com IN (:ids), 1 query cada
+	 *
+	 * Cada funcionário usa a própria duração resolvida; o horário entra na lista
+	 * se pelo menos um funcionário estiver livre nele.
+	 */
+	public PublicDisponibilidadeServicoResponseDTO getDisponibilidadeServico(Long servicoId, LocalDate data) {
+
+		// =========================
+		// 1) Serviço existente e ATIVO
 		// =========================
 		var servico = servicoRepository.findById(servicoId)
 				.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
 
 		if (servico.getStatus() != StatusServico.ATIVO) {
 			// catálogo público: "indisponível" -> lista vazia
-			return new PublicDisponibilidadeResponseDTO(data, servico.getDuracaoMin(), List.of());
+			return new PublicDisponibilidadeServicoResponseDTO(data, servicoId, List.of(), List.of());
 		}
 
 		// =========================
-		// 2) Valida funcionário (existe, ativo e perfil FUNCIONARIO)
+		// 2) Funcionários ativos habilitados no serviço
 		// =========================
-		var funcionario = userRepository.findById(funcionarioId)
-				.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
+		List<FuncionarioBasicProjection> funcionarios = funcionarioServicoRepository
+				.findFuncionariosAtivosByServicoId(servicoId, PerfilUser.FUNCIONARIO);
 
-		if (!Boolean.TRUE.equals(funcionario.getAtivo())) {
-			return new PublicDisponibilidadeResponseDTO(data, servico.getDuracaoMin(), List.of());
-		}
-		if (funcionario.getPerfil() != PerfilUser.FUNCIONARIO) {
-			return new PublicDisponibilidadeResponseDTO(data, servico.getDuracaoMin(), List.of());
+		if (funcionarios.isEmpty()) {
+			return new PublicDisponibilidadeServicoResponseDTO(data, servicoId, List.of(), List.of());
 		}
 
+		List<Long> funcionarioIds = funcionarios.stream().map(FuncionarioBasicProjection::getId).toList();
+
 		// =========================
-		// 3) Valida se serviço está habilitado para o funcionário
+		// 3) Duração por funcionário (prefs em lote)
 		// =========================
-		boolean habilitado = funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(funcionarioId,
-				servicoId);
-		if (!habilitado) {
-			return new PublicDisponibilidadeResponseDTO(data, servico.getDuracaoMin(), List.of());
-		}
+		Map<Long, FuncionarioPrefs> prefsMap = new HashMap<>();
+		funcionarioPrefsRepository.findAllById(funcionarioIds).forEach(p -> prefsMap.put(p.getFuncionarioId(), p));
 
 		// =========================
-		// 4) Resolve duração do serviço (prefs_json -> fallback duração padrão)
+		// 4) Ocupação do dia de todos (índice + carga em lote dos faltantes)
 		// =========================
-		int duracaoMin = resolveDuracaoMin(funcionarioId, servicoId, servico.getDuracaoMin());
+		Map<Long, DiaOcupacao> ocupacao = ocupacaoIndex.getAllFuncionarios(funcionarioIds, data,
+				faltantes -> carregarDiaFuncionarios(faltantes, data));
 
 		// =========================
-		// 5) Busca agenda do dia (dia_semana 1..7)
+		// 5) União dos horários (ordenados por início)
 		// =========================
-		int diaSemana = data.getDayOfWeek().getValue(); // 1=Seg ... 7=Dom (igual sua doc)
+		List<PublicFuncionarioServicoResponseDTO> funcionariosDto = new ArrayList<>();
+		TreeMap<Integer, List<Long>> porInicio = new TreeMap<>();
 
-		FuncionarioAgenda agenda = funcionarioAgendaRepository
-				.findById(new br.com.bravvo.api.entity.FuncionarioAgendaId(funcionarioId, diaSemana)).orElse(null);
+		for (FuncionarioBasicProjection f : funcionarios) {
+			int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(prefsMap.get(f.getId()), servicoId,
+					servico.getDuracaoMin());
+
+			funcionariosDto.add(
+					new PublicFuncionarioServicoResponseDTO(f.getId(), f.getNome(), servico.getValor(), duracaoMin));
 
-		if (agenda == null || !Boolean.TRUE.equals(agenda.getAtivo())) {
-			return new PublicDisponibilidadeResponseDTO(data, duracaoMin, List.of());
+			for (int inicio : ocupacao.get(f.getId()).iniciosLivres(duracaoMin)) {
+				porInicio.computeIfAbsent(inicio, k -> new ArrayList<>()).add(f.getId());
+			}
 		}
 
-		// monta janelas do dia (até 2)
-		List<Intervalo> janelas = new ArrayList<>();
-		addJanelaIfValid(janelas, data, agenda.getInicio1(), agenda.getFim1());
-		addJanelaIfValid(janelas, data, agenda.getInicio2(), agenda.getFim2());
+		List<PublicHorarioFuncionariosDTO> horarios = new ArrayList<>(porInicio.size());
+		porInicio.forEach((inicio, ids) -> horarios
+				.add(new PublicHorarioFuncionariosDTO(DiaOcupacao.formatarHHmm(inicio), ids)));
+
+		return new PublicDisponibilidadeServicoResponseDTO(data, servicoId, funcionariosDto, horarios);
+	}
+
+	/**
+	 * Próximos horários livres a partir de agora, sem o front sondar dia a dia.
+	 *
+	 * - funcionarioId informado: só aquele funcionário - funcionarioId null:
+	 * qualquer profissional do serviço (horário entra se alguém estiver livre)
+	 *
+	 * Estratégia: - funcionários, prefs e agenda semanal carregados uma vez
+	 * (agenda de todos com IN :ids) - dias da semana sem expediente são pulados
+	 * sem consulta - avança em blocos de PROXIMOS_BLOCO_DIAS: bloqueios e
+	 * agendamentos do bloco inteiro em 1 query cada (dias já no índice não vão ao
+	 * banco) - para assim que tiver "limit" horários ou ao atingir
+	 * PROXIMOS_HORIZONTE_DIAS
+	 */
+	public PublicProximosHorariosResponseDTO getProximosHorarios(Long servicoId, Long funcionarioId, Integer limit) {
 
-		if (janelas.isEmpty()) {
-			return new PublicDisponibilidadeResponseDTO(data, duracaoMin, List.of());
+		int limite = (limit == null) ? PROXIMOS_LIMIT_PADRAO : limit;
+		int limiteMax = configuracaoService.getInt(ParametroConfiguracao.PROXIMOS_HORARIOS_LIMIT_MAX);
+		if (limite < 1 || limite > limiteMax) {
+			throw new BusinessException("'limit' deve estar entre 1 e " + limiteMax + ".");
 		}
 
 		// =========================
-		// 6) Carrega indisponibilidades do dia: bloqueios + agendamentos
+		// 1) Serviço existente e ATIVO
 		// =========================
-		LocalDateTime from = data.atStartOfDay();
-		LocalDateTime to = data.plusDays(1).atStartOfDay();
+		var servico = servicoRepository.findById(servicoId)
+				.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
+
+		if (servico.getStatus() != StatusServico.ATIVO) {
+			return new PublicProximosHorariosResponseDTO(servicoId, List.of(), List.of());
+		}
+
+		if (funcionarioId != null && !userRepository.existsById(funcionarioId)) {
+			throw new NotFoundException("Funcionário não encontrado.");
+		}
+
+		// =========================
+		// 2) Candidatos: ativos, perfil FUNCIONARIO e habilitados no serviço
+		// =========================
+		List<FuncionarioBasicProjection> funcionarios = funcionarioServicoRepository
+				.findFuncionariosAtivosByServicoId(servicoId, PerfilUser.FUNCIONARIO).stream()
+				.filter(f -> funcionarioId == null || f.getId().equals(funcionarioId)).toList();
 
-		var bloqueios = funcionarioBloqueioRepository.findOverlapping(funcionarioId, from, to);
-		var agendamentos = agendamentoRepository.findBlockingOverlapping(funcionarioId, from, to);
+		if (funcionarios.isEmpty()) {
+			return new PublicProximosHorariosResponseDTO(servicoId, List.of(), List.of());
+		}
 
-		List<Intervalo> indisponiveis = new ArrayList<>();
+		List<Long> funcionarioIds = funcionarios.stream().map(FuncionarioBasicProjection::getId).toList();
 
-		bloqueios.forEach(b -> indisponiveis.add(new Intervalo(b.getStartDt(), b.getEndDt())));
-		agendamentos.forEach(a -> indisponiveis.add(new Intervalo(a.getInicio(), a.getFim())));
+		// =========================
+		// 3) Duração e agenda semanal de todos (uma vez)
+		// =========================
+		Map<Long, FuncionarioPrefs> prefsMap = new HashMap<>();
+		funcionarioPrefsRepository.findAllById(funcionarioIds).forEach(p -> prefsMap.put(p.getFuncionarioId(), p));
+
+		Map<Long, Map<Integer, FuncionarioAgenda>> agendas = new HashMap<>();
+		funcionarioAgendaRepository.findByIdFuncionarioIdIn(funcionarioIds)
+				.forEach(a -> agendas.computeIfAbsent(a.getId().getFuncionarioId(), k -> new HashMap<>())
+						.put(a.getId().getDiaSemana(), a));
+
+		List<PublicFuncionarioServicoResponseDTO> funcionariosDto = new ArrayList<>();
+		Map<Long, Integer> duracoes = new HashMap<>();
+
+		for (FuncionarioBasicProjection f : funcionarios) {
+			int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(prefsMap.get(f.getId()), servicoId,
+					servico.getDuracaoMin());
+			duracoes.put(f.getId(), duracaoMin);
+			funcionariosDto.add(
+					new PublicFuncionarioServicoResponseDTO(f.getId(), f.getNome(), servico.getValor(), duracaoMin));
+		}
 
 		// =========================
-		// 7) Gera slots (step 15m) e filtra conflito
+		// 4) Varredura em blocos de dias
 		// =========================
-		Duration duracao = Duration.ofMinutes(duracaoMin);
-		List<String> horarios = new ArrayList<>();
+		LocalDateTime agora = LocalDateTime.now();
+		LocalDate hoje = agora.toLocalDate();
+		int agoraMin = agora.getHour() * 60 + agora.getMinute();
+		LocalDate limiteHorizonte = hoje.plusDays(PROXIMOS_HORIZONTE_DIAS);
 
-		for (Intervalo janela : janelas) {
+		List<PublicProximoHorarioDTO> horarios = new ArrayList<>();
 
-			// primeiro slot começa no início da janela
-			LocalDateTime slotStart = janela.start;
+		for (LocalDate inicioBloco = hoje; inicioBloco.isBefore(limiteHorizonte)
+				&& horarios.size() < limite; inicioBloco = inicioBloco.plusDays(PROXIMOS_BLOCO_DIAS)) {
 
-			// último início permitido = fimJanela - duracao
-			LocalDateTime lastStart = janela.end.minus(duracao);
+			LocalDate fimBloco = inicioBloco.plusDays(PROXIMOS_BLOCO_DIAS);
+			if (fimBloco.isAfter(limiteHorizonte)) {
+				fimBloco = limiteHorizonte;
+			}
 
-			while (!slotStart.isAfter(lastStart)) {
+			// só dias com expediente na agenda semanal (sem consulta)
+			Map<Long, List<LocalDate>> diasPorFuncionario = new LinkedHashMap<>();
+			for (Long id : funcionarioIds) {
+				Map<Integer, FuncionarioAgenda> agendaPorDia = agendas.getOrDefault(id, Map.of());
+				for (LocalDate d = inicioBloco; d.isBefore(fimBloco); d = d.plusDays(1)) {
+					if (temExpediente(agendaPorDia.get(d.getDayOfWeek().getValue()))) {
+						diasPorFuncionario.computeIfAbsent(id, k -> new ArrayList<>()).add(d);
+					}
+				}
+			}
 
-				LocalDateTime slotEnd = slotStart.plus(duracao);
+			if (diasPorFuncionario.isEmpty()) {
+				continue;
+			}
 
-				if (!intersectsAny(slotStart, slotEnd, indisponiveis)) {
-					horarios.add(slotStart.toLocalTime().format(HHMM));
+			Map<Long, Map<LocalDate, DiaOcupacao>> ocupacao = ocupacaoIndex.getAll(diasPorFuncionario,
+					faltantes -> carregarDias(faltantes, agendas));
+
+			for (LocalDate d = inicioBloco; d.isBefore(fimBloco) && horarios.size() < limite; d = d.plusDays(1)) {
+				TreeMap<Integer, List<Long>> porInicio = new TreeMap<>();
+
+				for (Long id : funcionarioIds) {
+					DiaOcupacao dia = ocupacao.getOrDefault(id, Map.of()).get(d);
+					if (dia == null) {
+						continue;
+					}
+					for (int inicio : dia.iniciosLivres(duracoes.get(id))) {
+						if (d.equals(hoje) && inicio <= agoraMin) {
+							continue;
+						}
+						porInicio.computeIfAbsent(inicio, k -> new ArrayList<>()).add(id);
+					}
 				}
 
-				slotStart = slotStart.plusMinutes(duracaoMin);
+				for (var e : porInicio.entrySet()) {
+					if (horarios.size() >= limite) {
+						break;
+					}
+					horarios.add(new PublicProximoHorarioDTO(d, DiaOcupacao.formatarHHmm(e.getKey()), e.getValue()));
+				}
 			}
 		}
 
-		return new PublicDisponibilidadeResponseDTO(data, duracaoMin, horarios);
+		return new PublicProximosHorariosResponseDTO(servicoId, funcionariosDto, horarios);
+	}
+
+	/**
+	 * Combo: serviços em sequência (ex.: corte + barba + sobrancelha), cada um
+	 * começando quando o anterior termina.
+	 *
+	 * - funcionarioId informado: todas as etapas com ele - funcionarioId null:
+	 * cada etapa com qualquer funcionário habilitado no serviço (pode trocar de
+	 * profissional entre etapas)
+	 *
+	 * Carga: funcionários de cada serviço (1 query por etapa), prefs de todos em 1
+	 * query e ocupação do dia pelo índice (faltantes em lote). A busca roda em
+	 * memória ({@link ComboPlanner}).
+	 */
+	public PublicComboDisponibilidadeResponseDTO getDisponibilidadeCombo(List<Long> servicoIds, Long funcionarioId,
+			LocalDate data) {
+
+		if (servicoIds == null || servicoIds.isEmpty() || servicoIds.size() > MAX_ETAPAS_COMBO) {
+			throw new BusinessException("Informe de 1 a " + MAX_ETAPAS_COMBO + " serviços.");
+		}
+
+		if (funcionarioId != null && !userRepository.existsById(funcionarioId)) {
+			throw new NotFoundException("Funcionário não encontrado.");
+		}
+
+		// =========================
+		// 1) Serviços ATIVOS e candidatos de cada etapa
+		// =========================
+		List<Integer> duracoesPadrao = new ArrayList<>(servicoIds.size());
+		List<List<Long>> candidatos = new ArrayList<>(servicoIds.size());
+		Map<Long, List<Long>> porServico = new HashMap<>();
+		Set<Long> todos = new LinkedHashSet<>();
+
+		for (Long servicoId : servicoIds) {
+			var servico = servicoRepository.findById(servicoId)
+					.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
+
+			List<Long> ids = servico.getStatus() != StatusServico.ATIVO ? List.of()
+					: porServico.computeIfAbsent(servicoId,
+							id -> funcionarioServicoRepository
+									.findFuncionariosAtivosByServicoId(id, PerfilUser.FUNCIONARIO).stream()
+									.map(FuncionarioBasicProjection::getId)
+									.filter(f -> funcionarioId == null || f.equals(funcionarioId)).toList());
+
+			if (ids.isEmpty()) {
+				// etapa sem ninguém: combo indisponível (lista vazia, não é erro)
+				return new PublicComboDisponibilidadeResponseDTO(data, servicoIds, List.of());
+			}
+
+			duracoesPadrao.add(servico.getDuracaoMin());
+			candidatos.add(ids);
+			todos.addAll(ids);
+		}
+
+		// =========================
+		// 2) Durações (prefs em lote) e ocupação do dia de todos
+		// =========================
+		Map<Long, FuncionarioPrefs> prefsMap = new HashMap<>();
+		funcionarioPrefsRepository.findAllById(todos).forEach(p -> prefsMap.put(p.getFuncionarioId(), p));
+
+		Map<Long, DiaOcupacao> ocupacao = ocupacaoIndex.getAllFuncionarios(todos, data,
+				faltantes -> carregarDiaFuncionarios(faltantes, data));
+
+		List<List<ComboPlanner.Opcao>> etapas = new ArrayList<>(servicoIds.size());
+		for (int i = 0; i < servicoIds.size(); i++) {
+			List<ComboPlanner.Opcao> opcoes = new ArrayList<>();
+			for (Long id : candidatos.get(i)) {
+				int duracaoMin = funcionarioPrefsCache.resolveDuracaoMin(prefsMap.get(id), servicoIds.get(i),
+						duracoesPadrao.get(i));
+				opcoes.add(new ComboPlanner.Opcao(id, ocupacao.get(id), duracaoMin));
+			}
+			etapas.add(opcoes);
+		}
+
+		// =========================
+		// 3) Busca em memória
+		// =========================
+		List<PublicComboHorarioDTO> horarios = new ArrayList<>();
+		for (ComboPlanner.Plano plano : new ComboPlanner(etapas).planejar(DiaOcupacao.MINUTOS_DIA)) {
+			List<PublicComboEtapaDTO> passos = new ArrayList<>(plano.passos().size());
+			for (int i = 0; i < plano.passos().size(); i++) {
+				ComboPlanner.Passo p = plano.passos().get(i);
+				passos.add(new PublicComboEtapaDTO(servicoIds.get(i), p.funcionarioId(),
+						DiaOcupacao.formatarHHmm(p.inicioMin()), DiaOcupacao.formatarHHmm(p.fimMin())));
+			}
+			horarios.add(new PublicComboHorarioDTO(DiaOcupacao.formatarHHmm(plano.inicioMin()),
+					passos.get(passos.size() - 1).getFim(), passos));
+		}
+
+		return new PublicComboDisponibilidadeResponseDTO(data, servicoIds, horarios);
+	}
+
+	/**
+	 * Reserva temporária do horário escolhido (checkout público): enquanto vale, o
+	 * horário some da disponibilidade e só o dono do token consegue agendá-lo.
+	 *
+	 * Mesmas regras da disponibilidade (elegibilidade, duração, ocupação do
+	 * índice); a checagem final continua no createCore.
+	 *
+	 * @param chamador IP de quem pede (limite de reservas ativas por chamador)
+	 */
+	public PublicReservaResponseDTO reservar(PublicReservaCreateRequestDTO req, String chamador) {
+
+		LocalDateTime inicio;
+		try {
+			inicio = LocalDateTime.of(LocalDate.parse(req.getData(), DATE_FMT),
+					LocalTime.parse(req.getHora(), TIME_FMT));
+		} catch (Exception e) {
+			throw new BusinessException("Data/hora inválidas. Use yyyy-MM-dd e HH:mm.");
+		}
+
+		if (!inicio.isAfter(LocalDateTime.now())) {
+			throw new BusinessException("Horário já passou. Escolha outro horário.");
+		}
+
+		Long funcionarioId = req.getFuncionarioId();
+		LocalDate data = inicio.toLocalDate();
+
+		Elegibilidade elegibilidade = resolveElegibilidade(req.getServicoId(), funcionarioId);
+		if (!elegibilidade.disponivel) {
+			throw new BusinessException("Serviço indisponível para este funcionário.");
+		}
+
+		// expediente + agendamentos + bloqueios + outras reservas (índice)
+		int minIni = inicio.getHour() * 60 + inicio.getMinute();
+		DiaOcupacao dia = ocupacaoIndex.get(funcionarioId, data, () -> carregarDia(funcionarioId, data));
+		if (!dia.isLivre(minIni, minIni + elegibilidade.duracaoMin)) {
+			throw new BusinessException("Horário indisponível. Escolha outro horário.");
+		}
+
+		var r = reservas.reservar(req.getServicoId(), funcionarioId, inicio,
+				inicio.plusMinutes(elegibilidade.duracaoMin), chamador);
+
+		return new PublicReservaResponseDTO(r.getToken(), r.getServicoId(), r.getFuncionarioId(), r.getInicio(),
+				r.getFim(), r.getExpiraEm());
+	}
+
+	/**
+	 * Cancela a reserva (cliente desistiu do checkout).
+	 */
+	public void liberarReserva(String token) {
+		if (!reservas.liberar(token)) {
+			throw new NotFoundException("Reserva não encontrada ou expirada.");
+		}
 	}
 
 	// ==========================================================
-	// Auxiliares
+	// Carga da ocupação (usada pelo índice quando o dia não está em memória)
 	// ==========================================================
 
-	private void addJanelaIfValid(List<Intervalo> janelas, LocalDate data, LocalTime inicio, LocalTime fim) {
-		if (inicio == null || fim == null)
-			return;
-		if (!fim.isAfter(inicio))
-			return;
-		janelas.add(new Intervalo(LocalDateTime.of(data, inicio), LocalDateTime.of(data, fim)));
+	/**
+	 * Carrega um dia: agenda do dia_semana (1=Seg ... 7=Dom) + bloqueios +
+	 * agendamentos bloqueantes. Dia sem expediente não consulta o resto.
+	 */
+	private DiaOcupacao carregarDia(Long funcionarioId, LocalDate data) {
+		int diaSemana = data.getDayOfWeek().getValue();
+
+		FuncionarioAgenda agenda = funcionarioAgendaRepository
+				.findById(new FuncionarioAgendaId(funcionarioId, diaSemana)).orElse(null);
+
+		if (!temExpediente(agenda)) {
+			return DiaOcupacao.SEM_EXPEDIENTE;
+		}
+
+		LocalDateTime from = data.atStartOfDay();
+		LocalDateTime to = data.plusDays(1).atStartOfDay();
+
+		DiaOcupacao.Builder builder = novoDia(data, agenda);
+
+		funcionarioBloqueioRepository.findOverlapping(funcionarioId, from, to)
+				.forEach(b -> builder.ocupado(b.getStartDt(), b.getEndDt()));
+		agendamentoRepository.findBlockingOverlapping(funcionarioId, from, to)
+				.forEach(a -> builder.ocupado(a.getInicio(), a.getFim()));
+		ocuparReservas(funcionarioId, Map.of(data, builder));
+
+		return builder.build();
+	}
+
+	/**
+	 * Carrega vários dias de um funcionário: - agenda semanal completa em 1 query
+	 * (findByIdFuncionarioId) - agendamentos bloqueantes + bloqueios do intervalo
+	 * [menor dia, maior dia] em 1 query (union all)
+	 */
+	private Map<LocalDate, DiaOcupacao> carregarDias(Long funcionarioId, List<LocalDate> dias) {
+		Map<Integer, FuncionarioAgenda> agendaPorDia = agendaSemanal(funcionarioId);
+
+		TreeMap<LocalDate, DiaOcupacao.Builder> builders = new TreeMap<>();
+		Map<LocalDate, DiaOcupacao> result = new HashMap<>();
+
+		for (LocalDate d : dias) {
+			FuncionarioAgenda agenda = agendaPorDia.get(d.getDayOfWeek().getValue());
+			if (temExpediente(agenda)) {
+				builders.put(d, novoDia(d, agenda));
+			} else {
+				result.put(d, DiaOcupacao.SEM_EXPEDIENTE);
+			}
+		}
+
+		if (builders.isEmpty()) {
+			return result;
+		}
+
+		LocalDateTime from = builders.firstKey().atStartOfDay();
+		LocalDateTime to = builders.lastKey().plusDays(1).atStartOfDay();
+
+		agendamentoRepository.findOcupadosOverlapping(funcionarioId, from, to)
+				.forEach(o -> ocupar(builders, o.getInicio(), o.getFim()));
+		ocuparReservas(funcionarioId, builders);
+
+		builders.forEach((d, builder) -> result.put(d, builder.build()));
+		return result;
 	}
 
 	/**
-	 * Resolve duração do serviço para o funcionário (mesma ideia que você já usa).
+	 * Forma geral da carga em lote: vários funcionários, cada um com seus dias,
+	 * usando a agenda semanal já carregada (dia_semana -> agenda).
 	 *
-	 * Formato: { "servicos": { "16": { "duracaoMin": 60 } } }
+	 * Dias sem expediente não geram consulta; bloqueios e agendamentos de todos os
+	 * funcionários no intervalo [menor dia, maior dia] vêm em 1 query cada (IN
+	 * :ids).
 	 */
-	private int resolveDuracaoMin(Long funcionarioId, Long servicoId, Integer fallback) {
+	private Map<Long, Map<LocalDate, DiaOcupacao>> carregarDias(Map<Long, List<LocalDate>> diasPorFuncionario,
+			Map<Long, Map<Integer, FuncionarioAgenda>> agendas) {
 
-		Optional<FuncionarioPrefs> prefsOpt = funcionarioPrefsRepository.findById(funcionarioId);
+		Map<Long, Map<LocalDate, DiaOcupacao.Builder>> builders = new HashMap<>();
+		Map<Long, Map<LocalDate, DiaOcupacao>> result = new HashMap<>();
 
-		if (prefsOpt.isEmpty() || prefsOpt.get().getPrefsJson() == null || prefsOpt.get().getPrefsJson().isBlank()) {
-			return fallback;
+		LocalDate primeiro = null;
+		LocalDate ultimo = null;
+
+		for (var e : diasPorFuncionario.entrySet()) {
+			Long funcionarioId = e.getKey();
+			Map<Integer, FuncionarioAgenda> agendaPorDia = agendas.getOrDefault(funcionarioId, Map.of());
+			Map<LocalDate, DiaOcupacao> doFuncionario = result.computeIfAbsent(funcionarioId, k -> new HashMap<>());
+
+			for (LocalDate d : e.getValue()) {
+				FuncionarioAgenda agenda = agendaPorDia.get(d.getDayOfWeek().getValue());
+				if (!temExpediente(agenda)) {
+					doFuncionario.put(d, DiaOcupacao.SEM_EXPEDIENTE);
+					continue;
+				}
+
+				builders.computeIfAbsent(funcionarioId, k -> new HashMap<>()).put(d, novoDia(d, agenda));
+				primeiro = (primeiro == null || d.isBefore(primeiro)) ? d : primeiro;
+				ultimo = (ultimo == null || d.isAfter(ultimo)) ? d : ultimo;
+			}
 		}
 
-		try {
-			JsonNode root = objectMapper.readTree(prefsOpt.get().getPrefsJson());
+		if (builders.isEmpty()) {
+			return result;
+		}
+
+		LocalDateTime from = primeiro.atStartOfDay();
+		LocalDateTime to = ultimo.plusDays(1).atStartOfDay();
 
-			JsonNode duracaoNode = root.path("servicos").path(String.valueOf(servicoId)).path("duracaoMin");
+		funcionarioBloqueioRepository.findOverlappingByFuncionarioIds(builders.keySet(), from, to)
+				.forEach(b -> ocupar(builders.get(b.getFuncionarioId()), b.getStartDt(), b.getEndDt()));
+		agendamentoRepository.findBlockingOverlappingByFuncionarioIds(builders.keySet(), from, to)
+				.forEach(a -> ocupar(builders.get(a.getFuncionarioId()), a.getInicio(), a.getFim()));
+		builders.forEach(this::ocuparReservas);
 
-			if (duracaoNode != null && duracaoNode.isInt()) {
-				int v = duracaoNode.asInt();
-				return v >= 1 ? v : fallback;
+		builders.forEach((funcionarioId, dias) -> dias
+				.forEach((d, builder) -> result.get(funcionarioId).put(d, builder.build())));
+		return result;
+	}
+
+	/**
+	 * Agenda semanal do funcionário indexada por dia_semana (1=Seg ... 7=Dom).
+	 */
+	private Map<Integer, FuncionarioAgenda> agendaSemanal(Long funcionarioId) {
+		Map<Integer, FuncionarioAgenda> agendaPorDia = new HashMap<>();
+		funcionarioAgendaRepository.findByIdFuncionarioId(funcionarioId)
+				.forEach(a -> agendaPorDia.put(a.getId().getDiaSemana(), a));
+		return agendaPorDia;
+	}
+
+	/**
+	 * Carrega um mesmo dia para vários funcionários: agenda do dia_semana,
+	 * bloqueios e agendamentos com IN (:ids), 1 query cada.
+	 */
+	private Map<Long, DiaOcupacao> carregarDiaFuncionarios(List<Long> funcionarioIds, LocalDate data) {
+		Map<Long, DiaOcupacao.Builder> builders = new HashMap<>();
+		Map<Long, DiaOcupacao> result = new HashMap<>();
+
+		for (FuncionarioAgenda agenda : funcionarioAgendaRepository
+				.findByIdDiaSemanaAndIdFuncionarioIdIn(data.getDayOfWeek().getValue(), funcionarioIds)) {
+			if (temExpediente(agenda)) {
+				builders.put(agenda.getId().getFuncionarioId(), novoDia(data, agenda));
 			}
+		}
 
-			return fallback;
-		} catch (Exception e) {
-			// IMPORTANTE: disponibilidade pública não pode quebrar por prefs_json inválido
-			return fallback;
+		// sem linha de agenda ou dia inativo: sem expediente
+		for (Long id : funcionarioIds) {
+			if (!builders.containsKey(id)) {
+				result.put(id, DiaOcupacao.SEM_EXPEDIENTE);
+			}
+		}
+
+		if (builders.isEmpty()) {
+			return result;
+		}
+
+		LocalDateTime from = data.atStartOfDay();
+		LocalDateTime to = data.plusDays(1).atStartOfDay();
+
+		funcionarioBloqueioRepository.findOverlappingByFuncionarioIds(builders.keySet(), from, to)
+				.forEach(b -> builders.get(b.getFuncionarioId()).ocupado(b.getStartDt(), b.getEndDt()));
+		agendamentoRepository.findBlockingOverlappingByFuncionarioIds(builders.keySet(), from, to)
+				.forEach(a -> builders.get(a.getFuncionarioId()).ocupado(a.getInicio(), a.getFim()));
+		builders.forEach((id, builder) -> ocuparReservas(id, Map.of(data, builder)));
+
+		builders.forEach((id, builder) -> result.put(id, builder.build()));
+		return result;
+	}
+
+	/**
+	 * Aplica o intervalo ocupado em todos os dias carregados que ele toca.
+	 */
+	private void ocupar(Map<LocalDate, DiaOcupacao.Builder> builders, LocalDateTime inicio, LocalDateTime fim) {
+		for (LocalDate d = inicio.toLocalDate(); d.atStartOfDay().isBefore(fim); d = d.plusDays(1)) {
+			DiaOcupacao.Builder builder = builders.get(d);
+			if (builder != null) {
+				builder.ocupado(inicio, fim);
+			}
 		}
 	}
 
-	private boolean intersectsAny(LocalDateTime start, LocalDateTime end, List<Intervalo> intervals) {
-		for (Intervalo i : intervals) {
-			if (i.intersects(start, end))
-				return true;
+	/**
+	 * Reservas temporárias ativas contam como ocupado nos dias carregados.
+	 */
+	private void ocuparReservas(Long funcionarioId, Map<LocalDate, DiaOcupacao.Builder> builders) {
+		for (LocalDate d : builders.keySet()) {
+			reservas.ativas(funcionarioId, d).forEach(r -> ocupar(builders, r.getInicio(), r.getFim()));
+		}
+	}
+
+	private boolean temExpediente(FuncionarioAgenda agenda) {
+		return agenda != null && Boolean.TRUE.equals(agenda.getAtivo());
+	}
+
+	/**
+	 * Builder do dia já com as janelas (até 2) da agenda.
+	 */
+	private DiaOcupacao.Builder novoDia(LocalDate data, FuncionarioAgenda agenda) {
+		return DiaOcupacao.builder(data).janela(agenda.getInicio1(), agenda.getFim1()).janela(agenda.getInicio2(),
+				agenda.getFim2());
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	/**
+	 * Passos 1 a 4 da disponibilidade: serviço ATIVO, funcionário ATIVO e perfil
+	 * FUNCIONARIO, serviço habilitado e duração resolvida.
+	 *
+	 * Se alguma regra não passar, retorna "indisponível" com a duração padrão do
+	 * serviço (catálogo público: lista vazia, não é erro).
+	 */
+	private Elegibilidade resolveElegibilidade(Long servicoId, Long funcionarioId) {
+
+		var servico = servicoRepository.findById(servicoId)
+				.orElseThrow(() -> new NotFoundException("Serviço não encontrado."));
+
+		if (servico.getStatus() != StatusServico.ATIVO) {
+			// catálogo público: "indisponível" -> lista vazia
+			return Elegibilidade.indisponivel(servico.getDuracaoMin());
+		}
+
+		var funcionario = userRepository.findById(funcionarioId)
+				.orElseThrow(() -> new NotFoundException("Funcionário não encontrado."));
+
+		if (!Boolean.TRUE.equals(funcionario.getAtivo())) {
+			return Elegibilidade.indisponivel(servico.getDuracaoMin());
+		}
+		if (funcionario.getPerfil() != PerfilUser.FUNCIONARIO) {
+			return Elegibilidade.indisponivel(servico.getDuracaoMin());
+		}
+
+		boolean habilitado = funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(funcionarioId,
+				servicoId);
+		if (!habilitado) {
+			return Elegibilidade.indisponivel(servico.getDuracaoMin());
 		}
-		return false;
+
+		return Elegibilidade.disponivel(
+				funcionarioPrefsCache.resolveDuracaoMin(funcionarioId, servicoId, servico.getDuracaoMin()));
 	}
 
 	/**
-	 * Intervalo [start, end) para checar interseção.
+	 * Resultado das validações de serviço/funcionário: se está disponível e qual
+	 * duração usar.
 	 */
-	private static class Intervalo {
-		private final LocalDateTime start;
-		private final LocalDateTime end;
+	private static class Elegibilidade {
+		private final boolean disponivel;
+		private final int duracaoMin;
+
+		private Elegibilidade(boolean disponivel, int duracaoMin) {
+			this.disponivel = disponivel;
+			this.duracaoMin = duracaoMin;
+		}
 
-		private Intervalo(LocalDateTime start, LocalDateTime end) {
-			this.start = start;
-			this.end = end;
+		private static Elegibilidade disponivel(int duracaoMin) {
+			return new Elegibilidade(true, duracaoMin);
 		}
 
-		private boolean intersects(LocalDateTime otherStart, LocalDateTime otherEnd) {
-			return start.isBefore(otherEnd) && end.isAfter(otherStart);
+		private static Elegibilidade indisponivel(int duracaoMin) {
+			return new Elegibilidade(false, duracaoMin);
 		}
 	}
 }
@@ -0,0 +1,347 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.exception.BusinessException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reservas temporárias (holds) de horário durante o checkout público.
+ *
+ * Fluxo: - o cliente escolhe o horário e pede uma reserva (token, poucos
+ * minutos) - enquanto ela vale, o horário aparece ocupado para todo mundo e só
+ * o dono do token consegue agendar - o agendamento consome a reserva (após o
+ * commit); se ninguém agendar, ela expira sozinha
+ *
+ * Em memória, indexadas por token e por (funcionário, dia) em cada dia que o
+ * intervalo toca (uma reserva que atravessa a meia-noite aparece nos dois). Criar/liberar
+ * publica os mesmos eventos de ocupação que agendamentos e bloqueios (OCUPADO /
+ * LIBERADO), então índice de ocupação, caches, ETags e SSE acompanham sem
+ * código novo.
+ *
+ * Limites (o endpoint é anônimo): - por chamador (IP do cliente; atrás do
+ * proxy vem do X-Forwarded-For via server.forward-headers-strategy): reservas
+ * ativas ao mesmo tempo (app.disponibilidade.holds.max-por-chamador; folga
+ * para clientes atrás do mesmo NAT) - por (funcionário,
+ * dia): reservas ativas somando todos os chamadores
+ * (app.disponibilidade.holds.max-por-funcionario-dia), para ninguém segurar o
+ * dia inteiro de um profissional - global (app.disponibilidade.holds.max-reservas)
+ *
+ * Limitação: as reservas são do nó. Com mais de um nó, o agendamento continua
+ * protegido pela checagem final no banco; a reserva só evita a corrida no
+ * mesmo nó.
+ */
+@Component
+public class ReservasTemporarias {
+
+	private final ApplicationEventPublisher eventPublisher;
+	private final Clock clock;
+
+	private final Duration ttl;
+	private final int maxReservas;
+	private final int maxPorChamador;
+	private final int maxPorFuncionarioDia;
+
+	private final Map<Chave, List<Reserva>> porDia = new ConcurrentHashMap<>();
+	private final Map<String, List<Reserva>> porChamador = new ConcurrentHashMap<>();
+	private final Map<String, Reserva> porToken = new ConcurrentHashMap<>();
+	private final AtomicInteger total = new AtomicInteger();
+
+	@Autowired
+	public ReservasTemporarias(ApplicationEventPublisher eventPublisher,
+			@Value("${app.disponibilidade.holds.ttl-minutos:5}") long ttlMinutos,
+			@Value("${app.disponibilidade.holds.max-reservas:10000}") int maxReservas,
+			@Value("${app.disponibilidade.holds.max-por-chamador:3}") int maxPorChamador,
+			@Value("${app.disponibilidade.holds.max-por-funcionario-dia:5}") int maxPorFuncionarioDia) {
+		this(eventPublisher, Clock.systemDefaultZone(), Duration.ofMinutes(ttlMinutos), maxReservas, maxPorChamador,
+				maxPorFuncionarioDia);
+	}
+
+	ReservasTemporarias(ApplicationEventPublisher eventPublisher, Clock clock, Duration ttl, int maxReservas,
+			int maxPorChamador, int maxPorFuncionarioDia) {
+		this.eventPublisher = eventPublisher;
+		this.clock = clock;
+		this.ttl = ttl;
+		this.maxReservas = maxReservas;
+		this.maxPorChamador = maxPorChamador;
+		this.maxPorFuncionarioDia = maxPorFuncionarioDia;
+	}
+
+	/**
+	 * Reserva [inicio, fim) do funcionário para o chamador. Falha (409) se outra
+	 * reserva ativa sobrepõe o intervalo ou se algum limite foi atingido.
+	 *
+	 * A checagem contra agendamentos/bloqueios fica com quem chama (índice de
+	 * ocupação); aqui só reservas disputam entre si.
+	 */
+	public Reserva reservar(Long servicoId, Long funcionarioId, LocalDateTime inicio, LocalDateTime fim,
+			String chamador) {
+		Instant agora = clock.instant();
+		List<LocalDate> dias = dias(inicio, fim);
+		Reserva nova = new Reserva(UUID.randomUUID().toString(), servicoId, funcionarioId, chamador, inicio, fim,
+				agora.plus(ttl));
+
+		// 1) vaga do chamador (devolvida se o passo 2 falhar)
+		if (chamador != null) {
+			porChamador.compute(chamador, (k, doChamador) -> {
+				List<Reserva> atual = (doChamador == null) ? List.of() : doChamador;
+				if (contarAtivas(atual, agora) >= maxPorChamador) {
+					throw new BusinessException(
+							"Você já tem reservas em andamento. Conclua ou cancele antes de reservar outro horário.");
+				}
+				return com(atual, nova);
+			});
+		}
+
+		// 2) limite global
+		if (total.incrementAndGet() > maxReservas) {
+			total.decrementAndGet();
+			removerDoChamador(nova);
+			throw new BusinessException("Muitas reservas em andamento. Tente novamente em instantes.");
+		}
+
+		// 3) horário e limites de cada dia tocado; listas imutáveis trocadas dentro
+		// do compute: leituras não precisam de lock. Duas reservas que se sobrepõem
+		// dividem ao menos um dia, e é no compute desse dia que uma vê a outra.
+		List<LocalDate> feitos = new ArrayList<>(dias.size());
+		try {
+			for (LocalDate d : dias) {
+				porDia.compute(new Chave(funcionarioId, d), (k, doDia) -> {
+					List<Reserva> atual = (doDia == null) ? List.of() : doDia;
+					for (Reserva r : atual) {
+						if (r.isAtiva(agora) && r.sobrepoe(inicio, fim)) {
+							throw new BusinessException("Horário reservado por outro cliente. Escolha outro horário.");
+						}
+					}
+					if (contarAtivas(atual, agora) >= maxPorFuncionarioDia) {
+						throw new BusinessException(
+								"Muitas reservas em andamento para este profissional no dia. Tente novamente em instantes.");
+					}
+					return com(atual, nova);
+				});
+				feitos.add(d);
+			}
+		} catch (RuntimeException e) {
+			for (LocalDate d : feitos) {
+				porDia.computeIfPresent(new Chave(funcionarioId, d), (k, doDia) -> sem(doDia, nova));
+			}
+			total.decrementAndGet();
+			removerDoChamador(nova);
+			throw e;
+		}
+		porToken.put(nova.token, nova);
+
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.ocupado(funcionarioId, inicio, fim));
+		return nova;
+	}
+
+	/**
+	 * Reserva ativa pelo token (null se não existe ou expirou).
+	 */
+	public Reserva buscar(String token) {
+		Reserva r = (token == null) ? null : porToken.get(token);
+		return (r != null && r.isAtiva(clock.instant())) ? r : null;
+	}
+
+	/**
+	 * true se alguma reserva ativa, que não seja a do token informado, sobrepõe
+	 * [inicio, fim) do funcionário.
+	 */
+	public boolean conflita(Long funcionarioId, LocalDateTime inicio, LocalDateTime fim, String tokenDoDono) {
+		Instant agora = clock.instant();
+
+		for (LocalDate d : dias(inicio, fim)) {
+			for (Reserva r : porDia.getOrDefault(new Chave(funcionarioId, d), List.of())) {
+				if (r.isAtiva(agora) && r.sobrepoe(inicio, fim) && !r.token.equals(tokenDoDono)) {
+					return true;
+				}
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Reservas ativas do funcionário no dia (para a carga da ocupação).
+	 */
+	public List<Reserva> ativas(Long funcionarioId, LocalDate data) {
+		Instant agora = clock.instant();
+		return porDia.getOrDefault(new Chave(funcionarioId, data), List.of()).stream().filter(r -> r.isAtiva(agora))
+				.toList();
+	}
+
+	/**
+	 * Libera a reserva agora (cliente desistiu).
+	 */
+	public boolean liberar(String token) {
+		Reserva r = porToken.get(token);
+		if (r == null || !remover(r)) {
+			return false;
+		}
+		eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.liberado(r.funcionarioId, r.inicio, r.fim));
+		return true;
+	}
+
+	/**
+	 * Consome a reserva quando a transação do agendamento fizer commit (rollback
+	 * mantém a reserva para nova tentativa).
+	 */
+	public void consumirAposCommit(String token) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			liberar(token);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				liberar(token);
+			}
+		});
+	}
+
+	/**
+	 * Remove reservas vencidas e devolve os horários.
+	 */
+	@Scheduled(fixedDelayString = "${app.disponibilidade.holds.varredura-ms:10000}")
+	public void expirar() {
+		Instant agora = clock.instant();
+
+		for (Reserva r : List.copyOf(porToken.values())) {
+			if (!r.isAtiva(agora) && remover(r)) {
+				eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.liberado(r.funcionarioId, r.inicio, r.fim));
+			}
+		}
+	}
+
+	public int getTotal() {
+		return total.get();
+	}
+
+	private boolean remover(Reserva r) {
+		if (!porToken.remove(r.token, r)) {
+			return false;
+		}
+		total.decrementAndGet();
+
+		for (LocalDate d : dias(r.inicio, r.fim)) {
+			porDia.computeIfPresent(new Chave(r.funcionarioId, d), (k, doDia) -> sem(doDia, r));
+		}
+		removerDoChamador(r);
+		return true;
+	}
+
+	private void removerDoChamador(Reserva r) {
+		if (r.chamador != null) {
+			porChamador.computeIfPresent(r.chamador, (k, doChamador) -> sem(doChamador, r));
+		}
+	}
+
+	/**
+	 * Dias que [inicio, fim) toca (o dia do fim só entra se passar da meia-noite).
+	 */
+	private static List<LocalDate> dias(LocalDateTime inicio, LocalDateTime fim) {
+		List<LocalDate> dias = new ArrayList<>(2);
+		for (LocalDate d = inicio.toLocalDate(); d.atStartOfDay().isBefore(fim); d = d.plusDays(1)) {
+			dias.add(d);
+		}
+		return dias;
+	}
+
+	private static int contarAtivas(List<Reserva> reservas, Instant agora) {
+		int ativas = 0;
+		for (Reserva r : reservas) {
+			if (r.isAtiva(agora)) {
+				ativas++;
+			}
+		}
+		return ativas;
+	}
+
+	private static List<Reserva> com(List<Reserva> lista, Reserva nova) {
+		List<Reserva> novaLista = new ArrayList<>(lista.size() + 1);
+		novaLista.addAll(lista);
+		novaLista.add(nova);
+		return List.copyOf(novaLista);
+	}
+
+	private static List<Reserva> sem(List<Reserva> lista, Reserva r) {
+		List<Reserva> restantes = lista.stream().filter(x -> x != r).toList();
+		return restantes.isEmpty() ? null : restantes;
+	}
+
+	// ==========================================================
+	// Tipos
+	// ==========================================================
+
+	public static final class Reserva {
+		private final String token;
+		private final Long servicoId;
+		private final Long funcionarioId;
+		private final String chamador;
+		private final LocalDateTime inicio;
+		private final LocalDateTime fim;
+		private final Instant expiraEm;
+
+		private Reserva(String token, Long servicoId, Long funcionarioId, String chamador, LocalDateTime inicio,
+				LocalDateTime fim, Instant expiraEm) {
+			this.token = token;
+			this.servicoId = servicoId;
+			this.funcionarioId = funcionarioId;
+			this.chamador = chamador;
+			this.inicio = inicio;
+			this.fim = fim;
+			this.expiraEm = expiraEm;
+		}
+
+		private boolean isAtiva(Instant agora) {
+			return agora.isBefore(expiraEm);
+		}
+
+		private boolean sobrepoe(LocalDateTime i, LocalDateTime f) {
+			return inicio.isBefore(f) && fim.isAfter(i);
+		}
+
+		public String getToken() {
+			return token;
+		}
+
+		public Long getServicoId() {
+			return servicoId;
+		}
+
+		public Long getFuncionarioId() {
+			return funcionarioId;
+		}
+
+		public LocalDateTime getInicio() {
+			return inicio;
+		}
+
+		public LocalDateTime getFim() {
+			return fim;
+		}
+
+		public Instant getExpiraEm() {
+			return expiraEm;
+		}
+	}
+
+	private record Chave(Long funcionarioId, LocalDate data) {
+	}
+}
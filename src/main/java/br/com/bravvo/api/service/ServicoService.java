@@ -7,15 +7,18 @@ import br.com.bravvo.api.dto.servico.ServicoStatusUpdateRequestDTO;
 import br.com.bravvo.api.dto.servico.ServicoUpdateRequestDTO;
 import br.com.bravvo.api.entity.Servico;
 import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.event.ServicoAlteradoEvent;
 import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.mapper.ServicoMapper;
 import br.com.bravvo.api.repository.ServicoRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service responsável pelas regras de negócio do domínio Serviço.
@@ -29,9 +32,14 @@ import java.util.List;
 public class ServicoService {
 
     private final ServicoRepository servicoRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Auditoria auditoria;
 
-    public ServicoService(ServicoRepository servicoRepository) {
+    public ServicoService(ServicoRepository servicoRepository, ApplicationEventPublisher eventPublisher,
+                          Auditoria auditoria) {
         this.servicoRepository = servicoRepository;
+        this.eventPublisher = eventPublisher;
+        this.auditoria = auditoria;
     }
 
     // =========================================================
@@ -134,6 +142,12 @@ public class ServicoService {
         servico.setNome(nomeNormalizado);
 
         Servico saved = servicoRepository.save(servico);
+
+        // novo serviço no catálogo público
+        eventPublisher.publishEvent(new ServicoAlteradoEvent(saved.getId()));
+
+        auditoria.registrar("servico.criado", "servico", saved.getId(), detalhes(saved));
+
         return ServicoMapper.toResponse(saved);
     }
 
@@ -168,6 +182,12 @@ public class ServicoService {
         servico.setNome(nomeNormalizado);
 
         Servico updated = servicoRepository.save(servico);
+
+        // duração padrão/status podem ter mudado -> disponibilidade pública
+        eventPublisher.publishEvent(new ServicoAlteradoEvent(id));
+
+        auditoria.registrar("servico.atualizado", "servico", id, detalhes(updated));
+
         return ServicoMapper.toResponse(updated);
     }
     // =========================================================
@@ -189,6 +209,11 @@ public class ServicoService {
         servico.setStatus(dto.getStatus());
 
         Servico updated = servicoRepository.save(servico);
+
+        eventPublisher.publishEvent(new ServicoAlteradoEvent(id));
+
+        auditoria.registrar("servico.status", "servico", id, Map.of("status", updated.getStatus().name()));
+
         return ServicoMapper.toResponse(updated);
     }
 
@@ -210,7 +235,16 @@ public class ServicoService {
         }
 
         servicoRepository.deleteById(id);
+
+        eventPublisher.publishEvent(new ServicoAlteradoEvent(id));
+
+        auditoria.registrar("servico.removido", "servico", id, null);
+    }
+
+    /**
+     * Snapshot do serviço para os detalhes da auditoria.
+     */
+    private static Map<String, Object> detalhes(Servico s) {
+        return Map.of("nome", s.getNome(), "duracaoMin", s.getDuracaoMin(), "status", s.getStatus().name());
     }
-    
- 
 }
@@ -0,0 +1,167 @@
+package br.com.bravvo.api.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Motor de varredura (sweep-line) para intervalos ocupados, em minutos.
+ *
+ * Uso: - adiciona os intervalos ocupados [inicio, fim) do dia (bloqueios +
+ * agendamentos), em qualquer ordem e com sobreposição - build(): ordena e
+ * funde tudo uma vez (intervalos disjuntos e ordenados) - consulta: conflito
+ * de um intervalo (busca binária)
+ *
+ * Aritmética em long (minuto de época ou minuto do dia), sem criar
+ * LocalDateTime por slot candidato.
+ *
+ * Usado na montagem do bitmap da disponibilidade pública ({@link DiaOcupacao}:
+ * cada minuto ocupado é limpo uma vez) e na checagem de conflito das
+ * ocorrências do agendamento em lote (AgendamentoService.createFuncionarioLote:
+ * uma consulta, N buscas binárias). A geração de horários livres é do
+ * DiaOcupacao (bitmap).
+ */
+public final class SlotSweep {
+
+	private static final SlotSweep VAZIO = new SlotSweep(new long[0], new long[0], 0);
+
+	private final long[] inicios;
+	private final long[] fins;
+	private final int n;
+
+	private SlotSweep(long[] inicios, long[] fins, int n) {
+		this.inicios = inicios;
+		this.fins = fins;
+		this.n = n;
+	}
+
+	public static Builder builder() {
+		return new Builder();
+	}
+
+	/**
+	 * Quantidade de intervalos após a fusão.
+	 */
+	public int size() {
+		return n;
+	}
+
+	public long inicio(int i) {
+		return inicios[i];
+	}
+
+	public long fim(int i) {
+		return fins[i];
+	}
+
+	/**
+	 * true se [inicio, fim) intersecta algum intervalo ocupado.
+	 */
+	public boolean conflita(long inicio, long fim) {
+		if (n == 0 || fim <= inicio) {
+			return false;
+		}
+
+		// último intervalo que começa antes de "fim"
+		int i = Arrays.binarySearch(inicios, 0, n, fim);
+		i = (i >= 0) ? i - 1 : -i - 2;
+
+		return i >= 0 && fins[i] > inicio;
+	}
+
+	/**
+	 * Minuto de época (piso) de um instante local. Só é usado para comparar e
+	 * subtrair, então o offset fixo não importa.
+	 */
+	public static long epochMinuto(LocalDateTime t) {
+		return Math.floorDiv(t.toEpochSecond(ZoneOffset.UTC), 60);
+	}
+
+	/**
+	 * Minuto de época arredondado para cima: fim com segundos (ex.: 10:30:15) ocupa
+	 * o minuto 10:30 inteiro.
+	 */
+	public static long epochMinutoTeto(LocalDateTime t) {
+		long m = epochMinuto(t);
+		return (t.getSecond() > 0 || t.getNano() > 0) ? m + 1 : m;
+	}
+
+	// ==========================================================
+	// Builder
+	// ==========================================================
+
+	public static final class Builder {
+
+		private long[] inicios = new long[16];
+		private long[] fins = new long[16];
+		private int n;
+
+		private Builder() {
+		}
+
+		/**
+		 * Intervalo ocupado [inicio, fim). Vazio/invertido é ignorado.
+		 */
+		public Builder add(long inicio, long fim) {
+			if (fim <= inicio) {
+				return this;
+			}
+			if (n == inicios.length) {
+				inicios = Arrays.copyOf(inicios, n * 2);
+				fins = Arrays.copyOf(fins, n * 2);
+			}
+			inicios[n] = inicio;
+			fins[n] = fim;
+			n++;
+			return this;
+		}
+
+		public Builder add(LocalDateTime inicio, LocalDateTime fim) {
+			return add(epochMinuto(inicio), epochMinutoTeto(fim));
+		}
+
+		/**
+		 * Ordena e funde.
+		 *
+		 * Inícios e fins são ordenados separadamente (arrays primitivos) e varridos
+		 * como eventos: a profundidade sobe em cada início e desce em cada fim; um
+		 * intervalo fundido abre quando ela sai de 0 e fecha quando volta a 0.
+		 * Intervalos que só encostam ([1,3) e [3,5)) viram um só.
+		 */
+		public SlotSweep build() {
+			if (n == 0) {
+				return VAZIO;
+			}
+
+			long[] is = Arrays.copyOf(inicios, n);
+			long[] fs = Arrays.copyOf(fins, n);
+			Arrays.sort(is);
+			Arrays.sort(fs);
+
+			long[] outInicios = new long[n];
+			long[] outFins = new long[n];
+			int m = 0;
+
+			int a = 0;
+			int b = 0;
+			int profundidade = 0;
+
+			while (b < n) {
+				// início empatado com fim é processado primeiro (funde intervalos encostados)
+				if (a < n && is[a] <= fs[b]) {
+					if (profundidade++ == 0) {
+						outInicios[m] = is[a];
+					}
+					a++;
+				} else {
+					if (--profundidade == 0) {
+						outFins[m++] = fs[b];
+					}
+					b++;
+				}
+			}
+
+			return new SlotSweep(outInicios, outFins, m);
+		}
+	}
+}
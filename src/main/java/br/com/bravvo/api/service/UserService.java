@@ -5,12 +5,15 @@ import br.com.bravvo.api.dto.user.UserCreateRequestDTO;
 import br.com.bravvo.api.dto.user.UserResponseDTO;
 import br.com.bravvo.api.dto.user.UserUpdateRequestDTO;
 import br.com.bravvo.api.entity.User;
+import br.com.bravvo.api.enums.ParametroConfiguracao;
 import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
 import br.com.bravvo.api.exception.BusinessException;
 import br.com.bravvo.api.exception.ForbiddenException;
 import br.com.bravvo.api.exception.NotFoundException;
 import br.com.bravvo.api.mapper.UserMapper;
 import br.com.bravvo.api.repository.UserRepository;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;   // <<< ESTE é o Pageable correto
@@ -21,16 +24,25 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
     private final BCryptPasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ConfiguracaoService configuracaoService;
+    private final Auditoria auditoria;
 
-    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, BCryptPasswordEncoder passwordEncoder,
+                       ApplicationEventPublisher eventPublisher, ConfiguracaoService configuracaoService,
+                       Auditoria auditoria) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
+        this.configuracaoService = configuracaoService;
+        this.auditoria = auditoria;
     }
 
     @Transactional
@@ -93,6 +105,9 @@ public class UserService {
         user.setSenhaHash(hash);
 
         User saved = userRepository.save(user);
+
+        auditoria.registrar("usuario.criado", "user", saved.getId(), Map.of("perfil", saved.getPerfil().name()));
+
         return UserMapper.toResponse(saved);
     }
 
@@ -185,6 +200,14 @@ public class UserService {
         }
 
         User saved = userRepository.save(user);
+
+        // nome/ativo/perfil de funcionário aparecem no catálogo e na disponibilidade pública
+        eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.funcionario(saved.getId()));
+
+        auditoria.registrar("usuario.atualizado", "user", saved.getId(),
+                Map.of("perfil", saved.getPerfil().name(), "ativo", Boolean.TRUE.equals(saved.getAtivo()),
+                        "senhaAlterada", dto.getSenha() != null && !dto.getSenha().isBlank()));
+
         return UserMapper.toResponse(saved);
     }
 
@@ -195,6 +218,10 @@ public class UserService {
 
         user.setAtivo(false);
         userRepository.save(user);
+
+        eventPublisher.publishEvent(DisponibilidadeAlteradaEvent.funcionario(id));
+
+        auditoria.registrar("usuario.inativado", "user", id, null);
     }
 
     @Transactional(readOnly = true)
@@ -231,7 +258,8 @@ public class UserService {
 
         // Defaults e proteção básica
         int safePage = (page == null || page < 1) ? 1 : page;
-        int safeLimit = (limit == null || limit < 1) ? 10 : Math.min(limit, 100);
+        int safeLimit = (limit == null || limit < 1) ? 10
+                : Math.min(limit, configuracaoService.getInt(ParametroConfiguracao.USUARIOS_LIMIT_MAX));
 
         Pageable pageable = PageRequest.of(
                 safePage - 1,
@@ -0,0 +1,22 @@
+-- V10__agendamentos_is_blocking.sql
+-- Checagem de conflito (overlap) por índice: status bloqueante como coluna gerada
+-- DB: MariaDB
+
+-- =========================================================
+-- 1) agendamentos.is_blocking
+--    1 = pendente/confirmado/em_atendimento (mesma regra de
+--    StatusAgendamento.isBloqueante); calculada pelo banco, nunca gravada
+--    pela aplicação
+-- =========================================================
+ALTER TABLE `agendamentos`
+  ADD COLUMN `is_blocking` tinyint(1) AS (`status` IN ('pendente','confirmado','em_atendimento')) STORED AFTER `status`;
+
+-- =========================================================
+-- 2) índice de cobertura do overlap
+--    where funcionario_id = ? and is_blocking = 1 and inicio < ? and fim > ?
+--    igualdade nas duas primeiras colunas, range em inicio e fim lido do
+--    próprio índice (sem ir à linha). Listagens seguem em
+--    idx_ag_funcionario_inicio.
+-- =========================================================
+ALTER TABLE `agendamentos`
+  ADD KEY `idx_ag_funcionario_blocking` (`funcionario_id`,`is_blocking`,`inicio`,`fim`);
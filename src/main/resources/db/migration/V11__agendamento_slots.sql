@@ -0,0 +1,43 @@
+-- V11__agendamento_slots.sql
+-- Sem sobreposição garantida pelo banco: cada minuto ocupado por um
+-- agendamento bloqueante vira uma linha com chave (funcionario_id, slot_start)
+-- DB: MariaDB
+
+-- =========================================================
+-- 1) Tabela: agendamento_slots
+--    granularidade fixa de 1 minuto (a mesma do índice de ocupação da
+--    aplicação): [inicio, fim) -> inicio, inicio + 1min, ..., fim - 1min
+--    gravada na transação do agendamento; dois agendamentos sobrepostos do
+--    mesmo funcionário = violação da chave primária (vale entre nós)
+--    cancelamento apaga as linhas do agendamento
+-- =========================================================
+CREATE TABLE IF NOT EXISTS `agendamento_slots` (
+  `funcionario_id` bigint(20) unsigned NOT NULL,
+  `slot_start` datetime NOT NULL,
+  `agendamento_id` bigint(20) unsigned NOT NULL,
+  PRIMARY KEY (`funcionario_id`,`slot_start`),
+  KEY `idx_slot_agendamento` (`agendamento_id`),
+  CONSTRAINT `fk_slot_agendamento` FOREIGN KEY (`agendamento_id`) REFERENCES `agendamentos` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
+
+-- =========================================================
+-- 2) Carga inicial: agendamentos bloqueantes que ainda não terminaram
+--    minutos 0..1439 gerados por dígitos (sem depender de tabela auxiliar);
+--    insert ignore: se já houver sobreposição legada, o primeiro fica com o
+--    minuto
+-- =========================================================
+INSERT IGNORE INTO `agendamento_slots` (`funcionario_id`, `slot_start`, `agendamento_id`)
+SELECT a.`funcionario_id`, a.`inicio` + INTERVAL m.n MINUTE, a.`id`
+FROM `agendamentos` a
+JOIN (
+  SELECT u.n + d.n * 10 + c.n * 100 + k.n * 1000 AS n
+  FROM (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+        UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) u,
+       (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+        UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) d,
+       (SELECT 0 n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4
+        UNION ALL SELECT 5 UNION ALL SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9) c,
+       (SELECT 0 n UNION ALL SELECT 1) k
+) m ON a.`inicio` + INTERVAL m.n MINUTE < a.`fim` AND m.n < 1440
+WHERE a.`is_blocking` = 1
+  AND a.`fim` > NOW();
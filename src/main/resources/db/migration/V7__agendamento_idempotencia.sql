@@ -0,0 +1,25 @@
+-- V7__agendamento_idempotencia.sql
+-- Idempotency-Key na criação de agendamentos (retries devolvem o resultado original)
+-- DB: MariaDB
+
+-- =========================================================
+-- 1) Tabela: agendamento_idempotencia
+--    chave = escopo do chamador + ":" + Idempotency-Key
+--    (ex.: "publico:...", "cliente:12:...", "funcionario:7:...")
+-- =========================================================
+CREATE TABLE IF NOT EXISTS `agendamento_idempotencia` (
+  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT,
+  `chave` varchar(160) NOT NULL,
+  `hash_requisicao` varchar(64) NOT NULL,
+  `agendamento_id` bigint(20) unsigned NOT NULL,
+  `protocolo` varchar(30) NOT NULL,
+  `inicio` datetime NOT NULL,
+  `fim` datetime NOT NULL,
+  `status` varchar(50) NOT NULL,
+  `expira_em` datetime NOT NULL,
+  `created_at` datetime NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_idem_chave` (`chave`),
+  KEY `idx_idem_expira` (`expira_em`),
+  CONSTRAINT `fk_idem_agendamento` FOREIGN KEY (`agendamento_id`) REFERENCES `agendamentos` (`id`) ON DELETE CASCADE
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -0,0 +1,19 @@
+-- V8__protocolos_outbox.sql
+-- Outbox dos registros de protocolo (gravado na transação do agendamento,
+-- copiado para `protocolos` em lote por um worker)
+-- DB: MariaDB
+
+-- =========================================================
+-- 1) Tabela: protocolos_outbox
+--    mesma forma de `protocolos` (inclusive o json_valid: JSON inválido
+--    falha no agendamento, não trava o worker); a linha sai daqui quando é
+--    copiada
+-- =========================================================
+CREATE TABLE IF NOT EXISTS `protocolos_outbox` (
+  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT,
+  `codigo` varchar(30) NOT NULL,
+  `tipo` varchar(50) NOT NULL,
+  `dados_json` longtext CHARACTER SET utf8mb4 COLLATE utf8mb4_bin NOT NULL CHECK (json_valid(`dados_json`)),
+  `created_at` datetime NOT NULL DEFAULT current_timestamp(),
+  PRIMARY KEY (`id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_general_ci;
@@ -0,0 +1,16 @@
+-- V9__agendamentos_indice_cliente.sql
+-- Listagem paginada por cursor (keyset em inicio, id) dos agendamentos do cliente
+-- DB: MariaDB
+
+-- =========================================================
+-- 1) agendamentos: (cliente_id, inicio)
+--    o id entra implícito (chave primária no fim do índice InnoDB), então
+--    filtro por cliente + ordem (inicio, id) saem do índice, sem filesort.
+--    Substitui idx_ag_cliente_id (o novo índice atende a FK fk_ag_cliente).
+--    A agenda do funcionário já tem idx_ag_funcionario_inicio.
+-- =========================================================
+ALTER TABLE `agendamentos`
+  ADD KEY `idx_ag_cliente_inicio` (`cliente_id`,`inicio`);
+
+ALTER TABLE `agendamentos`
+  DROP KEY `idx_ag_cliente_id`;
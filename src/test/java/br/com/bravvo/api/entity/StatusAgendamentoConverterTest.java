@@ -0,0 +1,74 @@
+package br.com.bravvo.api.entity;
+
+import br.com.bravvo.api.enums.StatusAgendamento;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link StatusAgendamentoConverter}: valores do banco (minúsculos) e a regra
+ * de bloqueio, que precisa bater com a coluna gerada is_blocking (V10).
+ */
+class StatusAgendamentoConverterTest {
+
+	private final StatusAgendamentoConverter converter = new StatusAgendamentoConverter();
+
+	@Test
+	void idaEVolta() {
+		for (StatusAgendamento status : StatusAgendamento.values()) {
+			String valor = converter.convertToDatabaseColumn(status);
+			assertEquals(status.name().toLowerCase(), valor);
+			assertEquals(status, converter.convertToEntityAttribute(valor));
+		}
+		assertNull(converter.convertToDatabaseColumn(null));
+		assertNull(converter.convertToEntityAttribute(null));
+	}
+
+	@Test
+	void valorDesconhecidoFalha() {
+		assertThrows(IllegalStateException.class, () -> converter.convertToEntityAttribute("remarcado"));
+	}
+
+	@Test
+	void bloqueantesIguaisAMigration() throws IOException {
+		// lido da própria migration: editar um lado sem o outro quebra aqui
+		Set<String> bloqueantes = statusDaColunaGerada();
+		assertFalse(bloqueantes.isEmpty());
+
+		for (StatusAgendamento status : StatusAgendamento.values()) {
+			assertEquals(bloqueantes.contains(status.getValor()), status.isBloqueante(), status.name());
+		}
+		for (String valor : bloqueantes) {
+			assertTrue(StatusAgendamento.fromValor(valor).isPresent(), "status desconhecido na migration: " + valor);
+		}
+	}
+
+	/**
+	 * Valores do IN de `is_blocking` ... AS (`status` IN (...)) em V10.
+	 */
+	private static Set<String> statusDaColunaGerada() throws IOException {
+		String sql;
+		try (InputStream in = StatusAgendamentoConverterTest.class
+				.getResourceAsStream("/db/migration/V10__agendamentos_is_blocking.sql")) {
+			assertNotNull(in, "migration V10 não encontrada");
+			sql = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+
+		Matcher m = Pattern.compile("`is_blocking`[^\\n]*?AS \\(`status` IN \\(([^)]*)\\)\\)").matcher(sql);
+		assertTrue(m.find(), "coluna is_blocking não encontrada em V10");
+
+		Set<String> valores = new HashSet<>();
+		for (String v : m.group(1).split(",")) {
+			valores.add(v.trim().replace("'", ""));
+		}
+		return valores;
+	}
+}
@@ -0,0 +1,125 @@
+package br.com.bravvo.api.repository;
+
+import br.com.bravvo.api.enums.StatusAgendamento;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.MariaDBContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checagem de conflito contra o schema migrado (Flyway até a última versão) num
+ * MariaDB de verdade: a coluna gerada is_blocking tem que bater com
+ * {@link StatusAgendamento#isBloqueante()} (se divergirem, agendamento duplo
+ * passa), e o overlap tem que usar idx_ag_funcionario_blocking.
+ *
+ * Sem Docker a classe é pulada.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+class AgendamentoRepositoryTest {
+
+	@Container
+	@ServiceConnection
+	static final MariaDBContainer<?> MARIADB = new MariaDBContainer<>("mariadb:11.4");
+
+	private static final LocalDateTime DEZ = LocalDateTime.of(2026, 3, 10, 10, 0);
+
+	@Autowired
+	private AgendamentoRepository agendamentoRepository;
+
+	@Autowired
+	private DataSource dataSource;
+
+	private JdbcTemplate jdbc;
+	private final AtomicInteger protocolos = new AtomicInteger();
+
+	private long funcionario;
+	private long outroFuncionario;
+	private long servico;
+
+	@BeforeEach
+	void setUp() {
+		jdbc = new JdbcTemplate(dataSource);
+		funcionario = inserir("insert into users (nome, senha_hash, perfil) values ('Ana', 'x', 'funcionario')");
+		outroFuncionario = inserir("insert into users (nome, senha_hash, perfil) values ('Bia', 'x', 'funcionario')");
+		servico = inserir("insert into servicos (nome, duracao_min) values ('Corte', 60)");
+	}
+
+	@Test
+	void isBlockingBateComStatusAgendamento() {
+		for (StatusAgendamento status : StatusAgendamento.values()) {
+			long id = agendamento(funcionario, status, DEZ, DEZ.plusHours(1));
+
+			Boolean blocking = jdbc.queryForObject("select is_blocking from agendamentos where id = ?", Boolean.class,
+					id);
+			assertEquals(status.isBloqueante(), blocking, status.getValor());
+		}
+	}
+
+	@Test
+	void overlapSoComStatusBloqueante() {
+		agendamento(funcionario, StatusAgendamento.PENDENTE, DEZ, DEZ.plusHours(1));
+		agendamento(funcionario, StatusAgendamento.CANCELADO, DEZ.plusHours(1), DEZ.plusHours(2));
+		agendamento(funcionario, StatusAgendamento.CONCLUIDO, DEZ.plusHours(2), DEZ.plusHours(3));
+
+		assertTrue(agendamentoRepository.existsBlockingOverlap(funcionario, DEZ.plusMinutes(30), DEZ.plusMinutes(90)));
+
+		// encostado no pendente; por cima de cancelado/concluído
+		assertFalse(agendamentoRepository.existsBlockingOverlap(funcionario, DEZ.plusHours(1), DEZ.plusHours(3)));
+		assertFalse(agendamentoRepository.existsBlockingOverlap(funcionario, DEZ.minusHours(1), DEZ));
+
+		// outro funcionário
+		assertFalse(agendamentoRepository.existsBlockingOverlap(outroFuncionario, DEZ, DEZ.plusHours(1)));
+	}
+
+	@Test
+	void overlapUsaOIndiceDeBloqueio() {
+		// agenda cheia de outros funcionários e status, para o otimizador ter o que
+		// escolher
+		for (int i = 0; i < 200; i++) {
+			LocalDateTime inicio = DEZ.plusMinutes(30L * i);
+			agendamento(i % 2 == 0 ? funcionario : outroFuncionario,
+					i % 3 == 0 ? StatusAgendamento.CANCELADO : StatusAgendamento.CONFIRMADO, inicio,
+					inicio.plusMinutes(30));
+		}
+		jdbc.execute("analyze table agendamentos");
+
+		Map<String, Object> plano = jdbc.queryForMap("""
+				explain select 1 from agendamentos
+				where funcionario_id = ? and is_blocking = 1 and inicio < ? and fim > ?
+				limit 1
+				""", funcionario, Timestamp.valueOf(DEZ.plusHours(2)), Timestamp.valueOf(DEZ.plusHours(1)));
+
+		assertEquals("idx_ag_funcionario_blocking", plano.get("key"), plano.toString());
+		assertTrue(String.valueOf(plano.get("Extra")).contains("Using index"), plano.toString());
+	}
+
+	private long agendamento(long funcionarioId, StatusAgendamento status, LocalDateTime inicio, LocalDateTime fim) {
+		jdbc.update("""
+				insert into agendamentos (protocolo, servico_id, funcionario_id, cliente_nome, inicio, fim, status)
+				values (?, ?, ?, 'Cliente', ?, ?, ?)
+				""", "BRV-20260310-T" + protocolos.incrementAndGet(), servico, funcionarioId, Timestamp.valueOf(inicio),
+				Timestamp.valueOf(fim), status.getValor());
+		return jdbc.queryForObject("select last_insert_id()", Long.class);
+	}
+
+	private long inserir(String sql) {
+		jdbc.update(sql);
+		return jdbc.queryForObject("select last_insert_id()", Long.class);
+	}
+}
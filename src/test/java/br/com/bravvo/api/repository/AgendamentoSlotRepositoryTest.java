@@ -0,0 +1,41 @@
+package br.com.bravvo.api.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Minutos gravados em agendamento_slots: mesma regra de sobreposição do índice
+ * de ocupação (início truncado, fim arredondado para cima).
+ */
+class AgendamentoSlotRepositoryTest {
+
+	private static final LocalDateTime DEZ = LocalDateTime.of(2026, 3, 10, 10, 0);
+
+	@Test
+	void umaLinhaPorMinuto() {
+		List<LocalDateTime> slots = AgendamentoSlotRepository.slots(DEZ, DEZ.plusMinutes(30));
+
+		assertEquals(30, slots.size());
+		assertEquals(DEZ, slots.get(0));
+		assertEquals(DEZ.plusMinutes(29), slots.get(29));
+	}
+
+	@Test
+	void encostadosNaoColidem() {
+		var primeiro = AgendamentoSlotRepository.slots(DEZ, DEZ.plusMinutes(30));
+		var segundo = AgendamentoSlotRepository.slots(DEZ.plusMinutes(30), DEZ.plusMinutes(60));
+
+		assertTrue(primeiro.stream().noneMatch(segundo::contains));
+	}
+
+	@Test
+	void segundosArredondam() {
+		var slots = AgendamentoSlotRepository.slots(DEZ.plusSeconds(20), DEZ.plusMinutes(1).plusSeconds(1));
+
+		assertEquals(List.of(DEZ, DEZ.plusMinutes(1)), slots);
+	}
+}
@@ -0,0 +1,86 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.entity.Agendamento;
+import br.com.bravvo.api.enums.StatusAgendamento;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.exception.ForbiddenException;
+import br.com.bravvo.api.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cancelamento: dono, status permitido, minutos liberados em agendamento_slots
+ * e evento de liberação.
+ */
+class AgendamentoCancelamentoTest {
+
+	private static final Long ID = 10L;
+	private static final Long CLIENTE = 5L;
+	private static final Long FUNCIONARIO = 2L;
+
+	private AgendamentoRepository agendamentoRepository;
+	private AgendamentoSlotRepository slotRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private AgendamentoService service;
+	private Agendamento ag;
+
+	@BeforeEach
+	void setUp() {
+		agendamentoRepository = mock(AgendamentoRepository.class);
+		slotRepository = mock(AgendamentoSlotRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+
+		ag = new Agendamento();
+		ReflectionTestUtils.setField(ag, "id", ID); // id só vem do banco
+		ag.setClienteId(CLIENTE);
+		ag.setFuncionarioId(FUNCIONARIO);
+		ag.setInicio(LocalDateTime.of(2026, 3, 10, 10, 0));
+		ag.setFim(LocalDateTime.of(2026, 3, 10, 10, 30));
+		ag.setStatus(StatusAgendamento.CONFIRMADO);
+		when(agendamentoRepository.findById(ID)).thenReturn(Optional.of(ag));
+
+		service = new AgendamentoService(agendamentoRepository, mock(FuncionarioBloqueioRepository.class),
+				mock(ServicoRepository.class), mock(UserRepository.class), mock(FuncionarioServicoRepository.class),
+				mock(FuncionarioPrefsCache.class), mock(ProtocoloOutbox.class), mock(FuncionarioLocks.class),
+				new ProtocoloGenerator(0, "chave-de-teste-protocolo"), mock(IdempotenciaService.class), mock(ReservasTemporarias.class),
+				mock(AgendamentoLoteRepository.class), slotRepository,
+				new ConfiguracaoService(mock(ConfiguracaoRepository.class)),
+				mock(Auditoria.class), eventPublisher);
+	}
+
+	@Test
+	void clienteCancelaOProprio() {
+		var dto = service.cancelarCliente(CLIENTE, ID);
+
+		assertEquals("cancelado", dto.getStatus());
+		assertEquals(StatusAgendamento.CANCELADO, ag.getStatus());
+		verify(slotRepository).liberar(ID);
+		verify(eventPublisher).publishEvent(argThat((Object e) -> e instanceof DisponibilidadeAlteradaEvent d
+				&& d.getTipo() == DisponibilidadeAlteradaEvent.Tipo.LIBERADO));
+	}
+
+	@Test
+	void funcionarioDeOutraAgendaNaoCancela() {
+		assertThrows(ForbiddenException.class, () -> service.cancelarFuncionario(99L, ID));
+		assertThrows(ForbiddenException.class, () -> service.cancelarCliente(99L, ID));
+		verifyNoInteractions(slotRepository, eventPublisher);
+	}
+
+	@Test
+	void concluidoNaoCancela() {
+		ag.setStatus(StatusAgendamento.CONCLUIDO);
+
+		assertThrows(BusinessException.class, () -> service.cancelarFuncionario(FUNCIONARIO, ID));
+		verifyNoInteractions(slotRepository, eventPublisher);
+	}
+}
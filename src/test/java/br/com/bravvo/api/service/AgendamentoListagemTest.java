@@ -0,0 +1,114 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.agendamento.AgendamentoItemResponseDTO;
+import br.com.bravvo.api.enums.StatusAgendamento;
+import br.com.bravvo.api.exception.BadRequestException;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Listagens paginadas por cursor: limit + 1 sem count, próximo cursor a partir
+ * do último item e janela padrão/máxima.
+ */
+class AgendamentoListagemTest {
+
+	private static final Long FUNCIONARIO = 2L;
+
+	private AgendamentoRepository agendamentoRepository;
+	private AgendamentoService service;
+
+	@BeforeEach
+	void setUp() {
+		agendamentoRepository = mock(AgendamentoRepository.class);
+		service = new AgendamentoService(agendamentoRepository, mock(FuncionarioBloqueioRepository.class),
+				mock(ServicoRepository.class), mock(UserRepository.class), mock(FuncionarioServicoRepository.class),
+				mock(FuncionarioPrefsCache.class), mock(ProtocoloOutbox.class), mock(FuncionarioLocks.class),
+				new ProtocoloGenerator(0, "chave-de-teste-protocolo"), mock(IdempotenciaService.class), mock(ReservasTemporarias.class),
+				mock(AgendamentoLoteRepository.class), mock(AgendamentoSlotRepository.class),
+				new ConfiguracaoService(mock(ConfiguracaoRepository.class)),
+				mock(Auditoria.class), mock(ApplicationEventPublisher.class));
+	}
+
+	@Test
+	void primeiraPaginaComProximoCursor() {
+		when(agendamentoRepository.findPaginaFuncionario(eq(FUNCIONARIO), any(), any(), any(), any(), any()))
+				.thenReturn(agendamentos(LocalDateTime.of(2026, 3, 10, 9, 0), 3));
+
+		var pagina = service.listFuncionario(FUNCIONARIO, "2026-03-01", "2026-03-31", null, null, 2);
+
+		assertEquals(2, pagina.getItems().size());
+		assertNotNull(pagina.getNextCursor());
+
+		// começa em (from, 0), busca limit + 1, fim exclusivo
+		verify(agendamentoRepository).findPaginaFuncionario(FUNCIONARIO, LocalDateTime.of(2026, 3, 1, 0, 0), 0L,
+				LocalDateTime.of(2026, 4, 1, 0, 0), null, PageRequest.of(0, 3));
+		verify(agendamentoRepository, never()).count();
+
+		var cursor = AgendamentoService.CursorAgendamento.decode(pagina.getNextCursor());
+		assertEquals(LocalDateTime.of(2026, 3, 10, 9, 30), cursor.inicio());
+		assertEquals(2L, cursor.id());
+	}
+
+	@Test
+	void segundaPaginaSegueDoCursor() {
+		when(agendamentoRepository.findPaginaFuncionario(eq(FUNCIONARIO), any(), any(), any(), any(), any()))
+				.thenReturn(agendamentos(LocalDateTime.of(2026, 3, 10, 10, 0), 1));
+
+		String cursor = new AgendamentoService.CursorAgendamento(LocalDateTime.of(2026, 3, 10, 9, 30), 2L).encode();
+		var pagina = service.listFuncionario(FUNCIONARIO, "2026-03-01", "2026-03-31", "pendente", cursor, 2);
+
+		assertEquals(1, pagina.getItems().size());
+		assertNull(pagina.getNextCursor());
+		verify(agendamentoRepository).findPaginaFuncionario(FUNCIONARIO, LocalDateTime.of(2026, 3, 10, 9, 30), 2L,
+				LocalDateTime.of(2026, 4, 1, 0, 0), List.of(StatusAgendamento.PENDENTE), PageRequest.of(0, 3));
+	}
+
+	@Test
+	void janelaPadraoELimites() {
+		when(agendamentoRepository.findPaginaCliente(any(), any(), any(), any(), any(), any())).thenReturn(List.of());
+
+		service.listCliente(7L, "2026-03-01", null, null, null, 1000);
+
+		// sem "to": from + 90 dias; limit travado em 100
+		verify(agendamentoRepository).findPaginaCliente(7L, LocalDateTime.of(2026, 3, 1, 0, 0), 0L,
+				LocalDateTime.of(2026, 5, 30, 0, 0), null, PageRequest.of(0, 101));
+
+		assertThrows(BusinessException.class,
+				() -> service.listCliente(7L, "2025-01-01", "2026-12-31", null, null, 20));
+		assertThrows(BusinessException.class, () -> service.listCliente(7L, null, null, null, "???", 20));
+	}
+
+	@Test
+	void statusDesconhecidoEhRequisicaoInvalida() {
+		// 400, não 409: o filtro é que está errado, não o estado da agenda
+		BadRequestException ex = assertThrows(BadRequestException.class,
+				() -> service.listFuncionario(FUNCIONARIO, "2026-03-01", "2026-03-31", "pendente,xyz", null, 20));
+		assertEquals("Status inválido: xyz.", ex.getMessage());
+		verifyNoInteractions(agendamentoRepository);
+	}
+
+	private static List<AgendamentoItemResponseDTO> agendamentos(LocalDateTime primeiro, int n) {
+		List<AgendamentoItemResponseDTO> list = new ArrayList<>();
+		for (int i = 0; i < n; i++) {
+			AgendamentoItemResponseDTO a = new AgendamentoItemResponseDTO();
+			a.setId((long) i + 1);
+			a.setInicio(primeiro.plusMinutes(30L * i));
+			a.setFim(primeiro.plusMinutes(30L * i + 30));
+			a.setStatus("pendente");
+			list.add(a);
+		}
+		return list;
+	}
+}
@@ -0,0 +1,203 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.agendamento.AgendamentoHorarioDTO;
+import br.com.bravvo.api.dto.agendamento.AgendamentoLoteItemDTO;
+import br.com.bravvo.api.dto.agendamento.AgendamentoRecorrenciaDTO;
+import br.com.bravvo.api.dto.agendamento.FuncionarioAgendamentoLoteRequestDTO;
+import br.com.bravvo.api.entity.Agendamento;
+import br.com.bravvo.api.entity.Servico;
+import br.com.bravvo.api.entity.User;
+import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.*;
+import br.com.bravvo.api.repository.projection.IntervaloOcupadoProjection;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Agendamento em lote sem banco: validações uma vez, uma consulta de
+ * conflitos, um batch por tabela e resultado por ocorrência.
+ */
+class AgendamentoLoteTest {
+
+	private static final Long FUNCIONARIO = 2L;
+	private static final Long SERVICO = 1L;
+
+	private AgendamentoRepository agendamentoRepository;
+	private AgendamentoLoteRepository loteRepository;
+	private ProtocoloOutbox protocoloOutbox;
+	private AgendamentoSlotRepository slotRepository;
+	private ApplicationEventPublisher eventPublisher;
+	private AgendamentoService service;
+
+	private final List<IntervaloOcupadoProjection> ocupados = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() {
+		agendamentoRepository = mock(AgendamentoRepository.class);
+		loteRepository = mock(AgendamentoLoteRepository.class);
+		protocoloOutbox = mock(ProtocoloOutbox.class);
+		slotRepository = mock(AgendamentoSlotRepository.class);
+		eventPublisher = mock(ApplicationEventPublisher.class);
+
+		ServicoRepository servicoRepository = mock(ServicoRepository.class);
+		Servico servico = new Servico();
+		servico.setStatus(StatusServico.ATIVO);
+		servico.setDuracaoMin(60);
+		when(servicoRepository.findById(SERVICO)).thenReturn(Optional.of(servico));
+
+		UserRepository userRepository = mock(UserRepository.class);
+		User funcionario = new User();
+		funcionario.setAtivo(true);
+		funcionario.setPerfil(PerfilUser.FUNCIONARIO);
+		when(userRepository.findByIdForUpdate(FUNCIONARIO)).thenReturn(Optional.of(funcionario));
+
+		FuncionarioServicoRepository funcionarioServicoRepository = mock(FuncionarioServicoRepository.class);
+		when(funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(FUNCIONARIO, SERVICO))
+				.thenReturn(true);
+
+		FuncionarioPrefsCache prefsCache = mock(FuncionarioPrefsCache.class);
+		when(prefsCache.resolveDuracaoMin(eq(FUNCIONARIO), eq(SERVICO), anyInt())).thenReturn(60);
+
+		when(agendamentoRepository.findOcupadosOverlapping(eq(FUNCIONARIO), any(), any())).thenReturn(ocupados);
+		when(loteRepository.inserirAgendamentos(anyList())).thenAnswer(inv -> {
+			List<Agendamento> ags = inv.getArgument(0);
+			Map<String, Long> ids = new HashMap<>();
+			for (int i = 0; i < ags.size(); i++) {
+				ids.put(ags.get(i).getProtocolo(), 100L + i);
+			}
+			return ids;
+		});
+
+		ReservasTemporarias reservas = new ReservasTemporarias(e -> {
+		}, Clock.systemDefaultZone(), Duration.ofMinutes(5), 100, 1, 5);
+
+		service = new AgendamentoService(agendamentoRepository, mock(FuncionarioBloqueioRepository.class),
+				servicoRepository, userRepository, funcionarioServicoRepository, prefsCache, protocoloOutbox,
+				mock(FuncionarioLocks.class), new ProtocoloGenerator(0, "chave-de-teste-protocolo"), mock(IdempotenciaService.class), reservas,
+				loteRepository, slotRepository, new ConfiguracaoService(mock(ConfiguracaoRepository.class)),
+				mock(Auditoria.class), eventPublisher);
+	}
+
+	@Test
+	void recorrenciaSemanalUmaConsultaUmBatch() {
+		// terça 10/03/2026 10:00, 8 semanas; a 3ª já está ocupada
+		ocupados.add(intervalo(LocalDateTime.of(2026, 3, 24, 10, 30), LocalDateTime.of(2026, 3, 24, 11, 0)));
+
+		var resposta = service.createFuncionarioLote(FUNCIONARIO, recorrencia("2026-03-10", "10:00", 8));
+
+		assertEquals(7, resposta.getCriados());
+		assertEquals(1, resposta.getConflitos());
+		assertEquals(8, resposta.getItens().size());
+
+		AgendamentoLoteItemDTO terceiro = resposta.getItens().get(2);
+		assertEquals("conflito", terceiro.getResultado());
+		assertNull(terceiro.getProtocolo());
+
+		for (AgendamentoLoteItemDTO item : resposta.getItens()) {
+			assertEquals(10, item.getInicio().getHour());
+			if ("criado".equals(item.getResultado())) {
+				assertNotNull(item.getId());
+				assertNotNull(item.getProtocolo());
+			}
+		}
+
+		// uma consulta cobrindo o lote inteiro
+		verify(agendamentoRepository, times(1)).findOcupadosOverlapping(FUNCIONARIO,
+				LocalDateTime.of(2026, 3, 10, 10, 0), LocalDateTime.of(2026, 4, 28, 11, 0));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<Agendamento>> captor = ArgumentCaptor.forClass(List.class);
+		verify(protocoloOutbox, times(1)).registrar(eq("agendamento"), argThat(l -> l.size() == 7));
+		verify(loteRepository, times(1)).inserirAgendamentos(captor.capture());
+		assertEquals(7, captor.getValue().size());
+
+		// minutos dos 7 no mesmo batch, com os ids devolvidos pelo insert
+		verify(slotRepository, times(1)).ocupar(argThat(l -> l.size() == 7 && l.get(0).agendamentoId() == 100L));
+
+		verify(eventPublisher, times(7)).publishEvent(any(Object.class));
+	}
+
+	@Test
+	void pacoteComHorariosSobrepostos() {
+		var req = base();
+		req.setHorarios(List.of(new AgendamentoHorarioDTO("2026-03-10", "10:00"),
+				new AgendamentoHorarioDTO("2026-03-10", "10:30"), // sobrepõe o das 10:00 (60 min)
+				new AgendamentoHorarioDTO("2026-03-10", "11:00"),
+				new AgendamentoHorarioDTO("2026-03-10", "10:00"))); // repetido: ignorado
+
+		var resposta = service.createFuncionarioLote(FUNCIONARIO, req);
+
+		assertEquals(3, resposta.getItens().size());
+		assertEquals(List.of("criado", "conflito", "criado"),
+				resposta.getItens().stream().map(AgendamentoLoteItemDTO::getResultado).toList());
+	}
+
+	@Test
+	void tudoEmConflitoNaoInsere() {
+		ocupados.add(intervalo(LocalDateTime.of(2026, 3, 10, 0, 0), LocalDateTime.of(2026, 3, 20, 0, 0)));
+
+		var resposta = service.createFuncionarioLote(FUNCIONARIO, recorrencia("2026-03-10", "10:00", 1));
+
+		assertEquals(0, resposta.getCriados());
+		verifyNoInteractions(loteRepository, protocoloOutbox, slotRepository);
+	}
+
+	@Test
+	void recorrenciaOuHorariosApenasUm() {
+		var req = recorrencia("2026-03-10", "10:00", 2);
+		req.setHorarios(List.of(new AgendamentoHorarioDTO("2026-03-11", "10:00")));
+
+		assertThrows(BusinessException.class, () -> service.createFuncionarioLote(FUNCIONARIO, req));
+		assertThrows(BusinessException.class, () -> service.createFuncionarioLote(FUNCIONARIO, base()));
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	private static FuncionarioAgendamentoLoteRequestDTO base() {
+		var req = new FuncionarioAgendamentoLoteRequestDTO();
+		req.setServicoId(SERVICO);
+		req.setClienteNome("Maria");
+		req.setClienteTelefone("11999999999");
+		return req;
+	}
+
+	private static FuncionarioAgendamentoLoteRequestDTO recorrencia(String data, String hora, int ocorrencias) {
+		var r = new AgendamentoRecorrenciaDTO();
+		r.setData(data);
+		r.setHora(hora);
+		r.setOcorrencias(ocorrencias);
+
+		var req = base();
+		req.setRecorrencia(r);
+		return req;
+	}
+
+	private static IntervaloOcupadoProjection intervalo(LocalDateTime inicio, LocalDateTime fim) {
+		return new IntervaloOcupadoProjection() {
+			@Override
+			public LocalDateTime getInicio() {
+				return inicio;
+			}
+
+			@Override
+			public LocalDateTime getFim() {
+				return fim;
+			}
+		};
+	}
+}
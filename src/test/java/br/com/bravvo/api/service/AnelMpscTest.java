@@ -0,0 +1,89 @@
+package br.com.bravvo.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link AnelMpsc}: capacidade, ordem, cheio sem bloquear e vários produtores
+ * concorrentes sem perda nem duplicação.
+ */
+class AnelMpscTest {
+
+	@Test
+	void capacidadeEmPotenciaDeDoisECheio() {
+		AnelMpsc<Integer> anel = new AnelMpsc<>(5);
+		assertEquals(8, anel.capacidade());
+
+		for (int i = 0; i < 8; i++) {
+			assertTrue(anel.oferecer(i));
+		}
+		assertFalse(anel.oferecer(99));
+		assertEquals(8, anel.tamanho());
+
+		List<Integer> lidos = new ArrayList<>();
+		assertEquals(3, anel.drenar(lidos, 3));
+		assertEquals(List.of(0, 1, 2), lidos);
+
+		// posições liberadas voltam a aceitar (segunda volta do anel)
+		assertTrue(anel.oferecer(8));
+		assertEquals(6, anel.drenar(lidos, 100));
+		assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7, 8), lidos);
+		assertEquals(0, anel.tamanho());
+	}
+
+	@Test
+	void variosProdutoresUmConsumidor() throws Exception {
+		int produtores = 8;
+		int porProdutor = 50_000;
+		AnelMpsc<Long> anel = new AnelMpsc<>(1024);
+
+		ExecutorService pool = Executors.newFixedThreadPool(produtores);
+		CountDownLatch largada = new CountDownLatch(1);
+		for (int p = 0; p < produtores; p++) {
+			long base = (long) p * porProdutor;
+			pool.submit(() -> {
+				largada.await();
+				for (long i = 0; i < porProdutor; i++) {
+					while (!anel.oferecer(base + i)) {
+						Thread.onSpinWait();
+					}
+				}
+				return null;
+			});
+		}
+
+		largada.countDown();
+		Set<Long> vistos = new HashSet<>();
+		List<Long> lote = new ArrayList<>();
+		long[] ultimoPorProdutor = new long[produtores];
+		java.util.Arrays.fill(ultimoPorProdutor, -1);
+
+		long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+		while (vistos.size() < produtores * porProdutor && System.nanoTime() < limite) {
+			lote.clear();
+			anel.drenar(lote, 256);
+			for (Long v : lote) {
+				assertTrue(vistos.add(v), "duplicado: " + v);
+				// ordem preservada por produtor
+				int p = (int) (v / porProdutor);
+				assertTrue(v > ultimoPorProdutor[p]);
+				ultimoPorProdutor[p] = v;
+			}
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+
+		assertEquals(produtores * porProdutor, vistos.size());
+		assertEquals(0, anel.tamanho());
+	}
+}
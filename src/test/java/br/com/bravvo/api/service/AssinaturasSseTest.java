@@ -0,0 +1,94 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.exception.BusinessException;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Entrar/sair concorrente na mesma chave: nenhum assinante pode ficar num grupo
+ * que já saiu do mapa (contaria como conexão e nunca receberia evento).
+ */
+class AssinaturasSseTest {
+
+	private static final int THREADS = 8;
+	private static final int RODADAS = 20_000;
+
+	@Test
+	void entrarESairNaMesmaChaveNaoPerdeAssinante() throws Exception {
+		AssinaturasSse<String, Assinante> assinaturas = new AssinaturasSse<>(Integer.MAX_VALUE);
+
+		ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<?>> futuros = new ArrayList<>();
+
+		for (int t = 0; t < THREADS; t++) {
+			futuros.add(pool.submit(() -> {
+				largada.await();
+				for (int i = 0; i < RODADAS; i++) {
+					Assinante a = new Assinante();
+					assinaturas.adicionar("dia", a);
+					// o último de cada thread fica
+					if (i < RODADAS - 1) {
+						assinaturas.remover("dia", a);
+					}
+				}
+				return null;
+			}));
+		}
+
+		largada.countDown();
+		try {
+			for (Future<?> f : futuros) {
+				f.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals(THREADS, assinaturas.getConexoes());
+		assertEquals(THREADS, assinaturas.registrados());
+		assertEquals(THREADS, assinaturas.de("dia").size());
+	}
+
+	@Test
+	void ultimoASairRemoveAChave() {
+		AssinaturasSse<String, Assinante> assinaturas = new AssinaturasSse<>(10);
+		Assinante a = new Assinante();
+		Assinante b = new Assinante();
+
+		assinaturas.adicionar("dia", a);
+		assinaturas.adicionar("dia", b);
+		assinaturas.remover("dia", a);
+		assertTrue(assinaturas.contem("dia"));
+
+		assinaturas.remover("dia", b);
+		assertFalse(assinaturas.contem("dia"));
+		assertEquals(0, assinaturas.getConexoes());
+
+		// remover de novo não desconta
+		assinaturas.remover("dia", b);
+		assertEquals(0, assinaturas.getConexoes());
+	}
+
+	@Test
+	void limiteDeConexoes() {
+		AssinaturasSse<String, Assinante> assinaturas = new AssinaturasSse<>(1);
+		assinaturas.adicionar("dia", new Assinante());
+
+		assertThrows(BusinessException.class, () -> assinaturas.adicionar("outro", new Assinante()));
+		assertEquals(1, assinaturas.getConexoes());
+		assertFalse(assinaturas.contem("outro"));
+	}
+
+	private static final class Assinante extends AssinaturasSse.Assinante {
+		private Assinante() {
+			super(new SseEmitter());
+		}
+	}
+}
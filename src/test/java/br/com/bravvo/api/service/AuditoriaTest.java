@@ -0,0 +1,146 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.repository.AuditoriaRepository;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link Auditoria}: anel + escritor chamado na mão (sem agendador), lotes,
+ * políticas de anel cheio, após o commit e métricas.
+ */
+class AuditoriaTest {
+
+	private AuditoriaRepository repository;
+	private SimpleMeterRegistry registry;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AuditoriaRepository.class);
+		registry = new SimpleMeterRegistry();
+	}
+
+	@AfterEach
+	void limpar() {
+		SecurityContextHolder.clearContext();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.clearSynchronization();
+		}
+	}
+
+	@Test
+	void gravaEmLotesComAtorEJson() {
+		Auditoria auditoria = auditoria(16, 4, Auditoria.Politica.DESCARTAR);
+		SecurityContextHolder.getContext()
+				.setAuthentication(new UsernamePasswordAuthenticationToken("ana@bravvo.com", null, List.of()));
+
+		for (int i = 0; i < 10; i++) {
+			auditoria.registrar("servico.criado", "servico", (long) i,
+					Map.of("nome", "Corte \"degradê\"", "inicio", LocalDateTime.of(2026, 3, 10, 9, 0)));
+		}
+		verifyNoInteractions(repository);
+
+		auditoria.descarregar();
+
+		// 10 eventos em lotes de 4: 4 + 4 + 2
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<AuditoriaRepository.Registro>> captor = ArgumentCaptor.forClass(List.class);
+		verify(repository, times(3)).gravar(captor.capture());
+		assertEquals(List.of(4, 4, 2), captor.getAllValues().stream().map(List::size).toList());
+
+		AuditoriaRepository.Registro r = captor.getAllValues().get(0).get(0);
+		assertEquals("ana@bravvo.com", r.actorEmail());
+		assertEquals("servico.criado", r.acao());
+		assertEquals("0", r.entidadeId());
+		assertTrue(r.detalhesJson().contains("\"inicio\":\"2026-03-10T09:00:00\""), r.detalhesJson());
+		assertTrue(r.detalhesJson().contains("Corte \\\"degradê\\\""), r.detalhesJson());
+
+		assertEquals(10, contador("gravado"));
+		assertEquals(0, auditoria.pendentes());
+	}
+
+	@Test
+	void anelCheioDescartaSemBloquear() {
+		Auditoria auditoria = auditoria(4, 100, Auditoria.Politica.DESCARTAR);
+
+		long inicio = System.nanoTime();
+		for (int i = 0; i < 10; i++) {
+			auditoria.registrarComo(null, "auth.login.falha", "user", null, null);
+		}
+		assertTrue(System.nanoTime() - inicio < TimeUnit.SECONDS.toNanos(1));
+
+		assertEquals(4, contador("enfileirado"));
+		assertEquals(6, contador("descartado"));
+		assertEquals(4.0, registry.get("auditoria.buffer.tamanho").gauge().value());
+	}
+
+	@Test
+	void bloquearEsperaAteOLimiteEContaBackpressure() {
+		Auditoria auditoria = new Auditoria(repository, JsonMapper.builder().build(), registry, 2, 100, 0,
+				Auditoria.Politica.BLOQUEAR, TimeUnit.MILLISECONDS.toNanos(2));
+
+		for (int i = 0; i < 3; i++) {
+			auditoria.registrarComo(null, "auth.login", "user", i, null);
+		}
+
+		assertEquals(2, contador("enfileirado"));
+		assertEquals(1, contador("descartado"));
+		assertEquals(1.0, registry.get("auditoria.esperas").counter().count());
+	}
+
+	@Test
+	void emTransacaoSoEnfileiraAposOCommit() {
+		Auditoria auditoria = auditoria(16, 100, Auditoria.Politica.DESCARTAR);
+
+		TransactionSynchronizationManager.initSynchronization();
+		auditoria.registrar("agendamento.criado", "agendamento", 1L, null);
+		assertEquals(0, auditoria.pendentes());
+
+		for (TransactionSynchronization s : TransactionSynchronizationManager.getSynchronizations()) {
+			s.afterCommit();
+		}
+		assertEquals(1, auditoria.pendentes());
+	}
+
+	@Test
+	void falhaNoBancoPerdeOLoteENaoParaOEscritor() {
+		Auditoria auditoria = auditoria(16, 100, Auditoria.Politica.DESCARTAR);
+		doThrow(new DataAccessResourceFailureException("sem conexão")).doNothing().when(repository).gravar(any());
+
+		auditoria.registrarComo(null, "a", "e", null, null);
+		auditoria.descarregar();
+		auditoria.registrarComo(null, "b", "e", null, null);
+		auditoria.descarregar();
+
+		assertEquals(1, contador("falha"));
+		assertEquals(1, contador("gravado"));
+	}
+
+	private Auditoria auditoria(int capacidade, int lote, Auditoria.Politica politica) {
+		return new Auditoria(repository,
+				JsonMapper.builder().findAndAddModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build(),
+				registry, capacidade, lote, 0, politica, 0);
+	}
+
+	private double contador(String resultado) {
+		return registry.get("auditoria.registros").tag("resultado", resultado).counter().count();
+	}
+}
@@ -0,0 +1,117 @@
+package br.com.bravvo.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link ComboPlanner}: etapas em sequência, troca de profissional, poda e
+ * tempo para um salão inteiro.
+ */
+class ComboPlannerTest {
+
+	private static final LocalDate DIA = LocalDate.of(2026, 3, 10);
+
+	@Test
+	void mesmoProfissionalEmSequencia() {
+		// 09:00-12:00, ocupado 10:00-10:30
+		DiaOcupacao dia = dia(9, 12).ocupado(DIA.atTime(10, 0), DIA.atTime(10, 30)).build();
+
+		var planos = new ComboPlanner(List.of(List.of(new ComboPlanner.Opcao(1L, dia, 30)),
+				List.of(new ComboPlanner.Opcao(1L, dia, 15)))).planejar(100);
+
+		// grade da 1ª etapa (30 em 30): 09:30 não fecha (2ª etapa cairia em 10:00,
+		// ocupado) e 11:30 também não (2ª etapa passaria das 12:00)
+		List<Integer> inicios = planos.stream().map(ComboPlanner.Plano::inicioMin).toList();
+		assertEquals(List.of(9 * 60, 10 * 60 + 30, 11 * 60), inicios);
+
+		ComboPlanner.Plano primeiro = planos.get(0);
+		assertEquals(new ComboPlanner.Passo(1L, 540, 570), primeiro.passos().get(0));
+		assertEquals(new ComboPlanner.Passo(1L, 570, 585), primeiro.passos().get(1));
+	}
+
+	@Test
+	void trocaDeProfissionalEntreEtapas() {
+		DiaOcupacao cabeleireiro = dia(9, 10).build();
+		DiaOcupacao barbeiro = dia(9, 12).ocupado(DIA.atTime(9, 0), DIA.atTime(9, 30)).build();
+
+		// corte só com 1; barba com 1 ou 2 (1 só trabalha até 10:00)
+		var planos = new ComboPlanner(List.of(List.of(new ComboPlanner.Opcao(1L, cabeleireiro, 30)),
+				List.of(new ComboPlanner.Opcao(1L, cabeleireiro, 30), new ComboPlanner.Opcao(2L, barbeiro, 20))))
+				.planejar(100);
+
+		assertEquals(2, planos.size());
+		// 09:00: corte com 1, barba com 1 (09:30-10:00)
+		assertEquals(1L, planos.get(0).passos().get(1).funcionarioId());
+		// 09:30: corte com 1, barba com 2 (10:00-10:20)
+		assertEquals(570, planos.get(1).inicioMin());
+		assertEquals(new ComboPlanner.Passo(2L, 600, 620), planos.get(1).passos().get(1));
+	}
+
+	@Test
+	void etapaSemOpcaoNaoTemCombo() {
+		DiaOcupacao dia = dia(9, 18).build();
+		assertTrue(new ComboPlanner(List.of(List.of(new ComboPlanner.Opcao(1L, dia, 30)), List.of())).planejar(10)
+				.isEmpty());
+	}
+
+	@Test
+	void respeitaLimite() {
+		DiaOcupacao dia = dia(8, 20).build();
+		assertEquals(3, new ComboPlanner(List.of(List.of(new ComboPlanner.Opcao(1L, dia, 30)))).planejar(3).size());
+	}
+
+	@Test
+	void salaoInteiroEmMilissegundos() {
+		// 20 profissionais, 5 etapas, dia cheio de buracos
+		Random random = new Random(42);
+		List<DiaOcupacao> dias = new ArrayList<>();
+		for (int f = 0; f < 20; f++) {
+			DiaOcupacao.Builder b = dia(8, 20);
+			for (int k = 0; k < 12; k++) {
+				int ini = 8 * 60 + random.nextInt(12 * 60);
+				int fim = ini + 15 + random.nextInt(45);
+				b.ocupado(DIA.atStartOfDay().plusMinutes(ini), DIA.atStartOfDay().plusMinutes(fim));
+			}
+			dias.add(b.build());
+		}
+
+		List<List<ComboPlanner.Opcao>> etapas = new ArrayList<>();
+		int[] duracoes = { 30, 20, 15, 45, 10 };
+		for (int e = 0; e < duracoes.length; e++) {
+			List<ComboPlanner.Opcao> opcoes = new ArrayList<>();
+			for (int f = 0; f < dias.size(); f++) {
+				opcoes.add(new ComboPlanner.Opcao((long) f, dias.get(f), duracoes[e] + (f % 3) * 5));
+			}
+			etapas.add(opcoes);
+		}
+
+		long t0 = System.nanoTime();
+		var planos = new ComboPlanner(etapas).planejar(DiaOcupacao.MINUTOS_DIA);
+		long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+
+		assertFalse(planos.isEmpty());
+		for (ComboPlanner.Plano plano : planos) {
+			int t = plano.inicioMin();
+			for (int e = 0; e < plano.passos().size(); e++) {
+				ComboPlanner.Passo p = plano.passos().get(e);
+				assertEquals(t, p.inicioMin(), "etapas encostadas");
+				assertTrue(dias.get(p.funcionarioId().intValue()).isLivre(p.inicioMin(), p.fimMin()));
+				t = p.fimMin();
+			}
+		}
+		// referência grosseira (máquina de CI lenta incluída)
+		assertTrue(ms < 500, "busca lenta: " + ms + " ms");
+	}
+
+	private static DiaOcupacao.Builder dia(int de, int ate) {
+		return DiaOcupacao.builder(DIA).janela(LocalTime.of(de, 0), LocalTime.of(ate, 0));
+	}
+}
@@ -0,0 +1,98 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.enums.ParametroConfiguracao;
+import br.com.bravvo.api.repository.ConfiguracaoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ConfiguracaoService}: conversão tipada com padrões, recarga só quando
+ * a versão muda e snapshot mantido em falha do banco.
+ */
+class ConfiguracaoServiceTest {
+
+	private static final LocalDateTime ULTIMA = LocalDateTime.of(2026, 3, 10, 9, 0);
+	private static final LocalDateTime AGORA = ULTIMA.plusMinutes(5);
+
+	private ConfiguracaoRepository repository;
+	private ConfiguracaoService service;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(ConfiguracaoRepository.class);
+		service = new ConfiguracaoService(repository);
+	}
+
+	@Test
+	void padroesAntesDaPrimeiraCarga() {
+		for (ParametroConfiguracao p : ParametroConfiguracao.values()) {
+			assertEquals(p.getPadrao(), service.getInt(p));
+		}
+		verifyNoInteractions(repository);
+	}
+
+	@Test
+	void converteValoresEInvalidosFicamNoPadrao() {
+		when(repository.versao()).thenReturn(new ConfiguracaoRepository.Versao(4, ULTIMA, AGORA));
+		when(repository.carregarTudo()).thenReturn(Map.of("onboarding.trial-dias", " 30 ",
+				"onboarding.pre-cadastro.max-tentativas", "abc", "paginacao.clientes.limit-max", "100000",
+				"outra.chave", "qualquer"));
+
+		service.carregar();
+
+		assertEquals(30, service.getInt(ParametroConfiguracao.TRIAL_DIAS));
+		assertEquals(5, service.getInt(ParametroConfiguracao.PRE_CADASTRO_MAX_TENTATIVAS));
+		assertEquals(50, service.getInt(ParametroConfiguracao.CLIENTES_LIMIT_MAX));
+		assertEquals(15, service.getInt(ParametroConfiguracao.PRE_CADASTRO_EXPIRACAO_MIN));
+	}
+
+	@Test
+	void recarregaSoQuandoAVersaoMuda() {
+		when(repository.versao()).thenReturn(new ConfiguracaoRepository.Versao(1, ULTIMA, AGORA));
+		when(repository.carregarTudo()).thenReturn(Map.of("onboarding.trial-dias", "30"));
+		service.carregar();
+
+		service.atualizar();
+		service.atualizar();
+		verify(repository, times(1)).carregarTudo();
+
+		when(repository.versao()).thenReturn(new ConfiguracaoRepository.Versao(1, ULTIMA.plusMinutes(6), AGORA));
+		when(repository.carregarTudo()).thenReturn(Map.of("onboarding.trial-dias", "7"));
+		service.atualizar();
+
+		verify(repository, times(2)).carregarTudo();
+		assertEquals(7, service.getInt(ParametroConfiguracao.TRIAL_DIAS));
+	}
+
+	@Test
+	void alteracaoNoMesmoSegundoDaLeituraRecarregaDeNovo() {
+		var snapshot = ConfiguracaoService.Snapshot.de(Map.of(),
+				new ConfiguracaoRepository.Versao(1, ULTIMA, ULTIMA));
+
+		// mesma versão, mas a última alteração é do segundo da leitura
+		assertTrue(ConfiguracaoService.mudou(snapshot, new ConfiguracaoRepository.Versao(1, ULTIMA, AGORA)));
+
+		var depois = ConfiguracaoService.Snapshot.de(Map.of(), new ConfiguracaoRepository.Versao(1, ULTIMA, AGORA));
+		assertFalse(ConfiguracaoService.mudou(depois, new ConfiguracaoRepository.Versao(1, ULTIMA, AGORA)));
+		assertTrue(ConfiguracaoService.mudou(depois, new ConfiguracaoRepository.Versao(0, null, AGORA)));
+	}
+
+	@Test
+	void falhaNoBancoMantemSnapshot() {
+		when(repository.versao()).thenReturn(new ConfiguracaoRepository.Versao(1, ULTIMA, AGORA));
+		when(repository.carregarTudo()).thenReturn(Map.of("onboarding.trial-dias", "30"));
+		service.carregar();
+
+		when(repository.versao()).thenThrow(new DataAccessResourceFailureException("sem conexão"));
+		service.atualizar();
+
+		assertEquals(30, service.getInt(ParametroConfiguracao.TRIAL_DIAS));
+	}
+}
@@ -0,0 +1,115 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.event.ServicoAlteradoEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Invalidação pelos índices funcionário/serviço: só as entradas tocadas saem, e
+ * o índice acompanha o cache (inclusive no despejo por tamanho).
+ */
+class DisponibilidadeCacheTest {
+
+	private static final LocalDate DIA = LocalDate.of(2026, 3, 10);
+
+	private final AtomicInteger calculos = new AtomicInteger();
+
+	@Test
+	void ocupacaoInvalidaSoOsDiasDoFuncionario() {
+		DisponibilidadeCache cache = new DisponibilidadeCache(1_000, 5, new SimpleMeterRegistry());
+		preencher(cache);
+
+		cache.onDisponibilidadeAlterada(
+				DisponibilidadeAlteradaEvent.ocupado(1L, DIA.atTime(10, 0), DIA.plusDays(1).atTime(9, 0)));
+
+		// funcionário 1, serviços 1 e 2, dias 10 e 11: 4 entradas saem
+		assertEquals(8, cache.tamanho());
+		assertEquals(8, cache.indexadas());
+		assertEquals(4, recalculos(cache));
+	}
+
+	@Test
+	void agendaInvalidaTodoOFuncionario() {
+		DisponibilidadeCache cache = new DisponibilidadeCache(1_000, 5, new SimpleMeterRegistry());
+		preencher(cache);
+
+		cache.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.agenda(2L));
+
+		assertEquals(6, cache.tamanho());
+		assertEquals(6, cache.indexadas());
+		assertEquals(6, recalculos(cache));
+	}
+
+	@Test
+	void servicoInvalidaSoAsEntradasDoServico() {
+		DisponibilidadeCache cache = new DisponibilidadeCache(1_000, 5, new SimpleMeterRegistry());
+		preencher(cache);
+
+		cache.onServicoAlterado(new ServicoAlteradoEvent(2L));
+
+		assertEquals(6, cache.tamanho());
+		assertEquals(6, cache.indexadas());
+		assertEquals(6, recalculos(cache));
+	}
+
+	@Test
+	void despejoPorTamanhoSaiDoIndice() {
+		DisponibilidadeCache cache = new DisponibilidadeCache(10, 5, new SimpleMeterRegistry());
+
+		for (long f = 1; f <= 50; f++) {
+			cache.get(f, 1L, DIA, this::calcular);
+		}
+
+		assertEquals(10, cache.tamanho());
+		assertEquals(10, cache.indexadas());
+
+		// invalidar depois do despejo não deixa resto
+		for (long f = 1; f <= 50; f++) {
+			cache.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.agenda(f));
+		}
+		assertEquals(0, cache.tamanho());
+		assertEquals(0, cache.indexadas());
+	}
+
+	/**
+	 * 2 funcionários x 2 serviços x 3 dias = 12 entradas.
+	 */
+	private void preencher(DisponibilidadeCache cache) {
+		for (long f = 1; f <= 2; f++) {
+			for (long s = 1; s <= 2; s++) {
+				for (int d = 0; d < 3; d++) {
+					cache.get(f, s, DIA.plusDays(d), this::calcular);
+				}
+			}
+		}
+		assertEquals(12, cache.tamanho());
+		calculos.set(0);
+	}
+
+	/**
+	 * Quantas entradas precisaram ser recalculadas ao ler tudo de novo.
+	 */
+	private int recalculos(DisponibilidadeCache cache) {
+		for (long f = 1; f <= 2; f++) {
+			for (long s = 1; s <= 2; s++) {
+				for (int d = 0; d < 3; d++) {
+					cache.get(f, s, DIA.plusDays(d), this::calcular);
+				}
+			}
+		}
+		return calculos.get();
+	}
+
+	private PublicDisponibilidadeResponseDTO calcular() {
+		calculos.incrementAndGet();
+		return new PublicDisponibilidadeResponseDTO(DIA, 30, List.of("10:00"));
+	}
+}
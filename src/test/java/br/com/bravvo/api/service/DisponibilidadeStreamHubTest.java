@@ -0,0 +1,158 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicDisponibilidadeResponseDTO;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Hub SSE sem servidor HTTP: milhares de assinantes em memória, rajadas de
+ * eventos e o flush chamado na mão (sem agendador).
+ */
+class DisponibilidadeStreamHubTest {
+
+	private static final int ASSINANTES = 5_000;
+	private static final int FUNCIONARIOS = 50;
+
+	private static final LocalDate DIA = LocalDate.of(2026, 3, 10);
+
+	private PublicDisponibilidadeService service;
+	private Hub hub;
+
+	@BeforeEach
+	void setUp() {
+		service = mock(PublicDisponibilidadeService.class);
+		when(service.getDisponibilidade(anyLong(), anyLong(), any()))
+				.thenAnswer(inv -> new PublicDisponibilidadeResponseDTO(inv.getArgument(2), 30, List.of("09:00")));
+
+		hub = new Hub(service, ASSINANTES);
+	}
+
+	@Test
+	void rajadaViraUmEnvioPorAssinante() {
+		// 5000 conexões: 50 funcionários x 2 serviços no mesmo dia
+		for (int i = 0; i < ASSINANTES; i++) {
+			hub.assinar(1L + (i / FUNCIONARIOS) % 2, 1L + (i % FUNCIONARIOS), DIA);
+		}
+		assertEquals(ASSINANTES, hub.getConexoes());
+		hub.emitters.forEach(e -> assertEquals(1, e.envios.get(), "snapshot inicial"));
+
+		clearInvocations(service);
+
+		// rajada no funcionário 1: 200 agendamentos/bloqueios + agenda
+		for (int i = 0; i < 200; i++) {
+			hub.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.ocupado(1L, DIA.atTime(8, 0).plusMinutes(i),
+					DIA.atTime(8, 30).plusMinutes(i)));
+		}
+		hub.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.agenda(1L));
+		hub.flush();
+
+		// um cálculo por (dia, serviço), não por evento nem por assinante
+		verify(service, times(1)).getDisponibilidade(eq(1L), eq(1L), eq(DIA));
+		verify(service, times(1)).getDisponibilidade(eq(2L), eq(1L), eq(DIA));
+		verifyNoMoreInteractions(service);
+
+		int atualizados = 0;
+		for (int i = 0; i < ASSINANTES; i++) {
+			int envios = hub.emitters.get(i).envios.get();
+			if (i % FUNCIONARIOS == 0) {
+				assertEquals(2, envios, "assinante " + i);
+				atualizados++;
+			} else {
+				assertEquals(1, envios, "assinante " + i);
+			}
+		}
+		assertEquals(ASSINANTES / FUNCIONARIOS, atualizados);
+
+		// nada pendente: flush seguinte não envia
+		hub.flush();
+		verifyNoMoreInteractions(service);
+	}
+
+	@Test
+	void diaSemAssinanteNaoMarcaPendente() {
+		hub.assinar(1L, 1L, DIA);
+		clearInvocations(service);
+
+		hub.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.ocupado(1L, DIA.plusDays(1).atTime(9, 0),
+				DIA.plusDays(1).atTime(10, 0)));
+		hub.onDisponibilidadeAlterada(
+				DisponibilidadeAlteradaEvent.ocupado(2L, DIA.atTime(9, 0), DIA.atTime(10, 0)));
+		hub.flush();
+
+		verifyNoInteractions(service);
+	}
+
+	@Test
+	void conexaoMortaSaiNoHeartbeat() {
+		for (int i = 0; i < 10; i++) {
+			hub.assinar(1L, 1L, DIA);
+		}
+		hub.emitters.get(3).falhar = true;
+		hub.emitters.get(7).falhar = true;
+
+		hub.heartbeat();
+
+		assertEquals(8, hub.getConexoes());
+	}
+
+	@Test
+	void limiteDeConexoes() {
+		Hub pequeno = new Hub(service, 2);
+		pequeno.assinar(1L, 1L, DIA);
+		pequeno.assinar(1L, 1L, DIA);
+
+		assertThrows(BusinessException.class, () -> pequeno.assinar(1L, 1L, DIA));
+		assertEquals(2, pequeno.getConexoes());
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	/**
+	 * Hub sem agendador (coalescência/heartbeat chamados pelo teste) que guarda
+	 * os emitters criados.
+	 */
+	private static final class Hub extends DisponibilidadeStreamHub {
+
+		private final List<EmitterContador> emitters = new ArrayList<>();
+
+		private Hub(PublicDisponibilidadeService service, int maxConexoes) {
+			super(service, 30, maxConexoes, 0, 0);
+		}
+
+		@Override
+		SseEmitter novoEmitter() {
+			EmitterContador e = new EmitterContador();
+			emitters.add(e);
+			return e;
+		}
+	}
+
+	private static final class EmitterContador extends SseEmitter {
+
+		private final AtomicInteger envios = new AtomicInteger();
+		private volatile boolean falhar;
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			if (falhar) {
+				throw new IOException("conexão fechada");
+			}
+			envios.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * ETags: mudam com escritas do próprio nó e expiram com a janela de tempo
+ * (escritas de outro nó não chegam aqui). Contadores por dia são limitados e
+ * expiram junto com a janela.
+ */
+class DisponibilidadeVersoesTest {
+
+	private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+	private static final LocalDate DIA = LocalDate.of(2026, 3, 10);
+	private static final Duration JANELA = Duration.ofMinutes(5);
+
+	private final MutableClock clock = new MutableClock(Instant.parse("2026-03-10T12:00:00Z"));
+	private final DisponibilidadeVersoes versoes = new DisponibilidadeVersoes(clock, JANELA.toMillis(), 100);
+
+	@Test
+	void semEscritaEtagSeMantemDentroDaJanela() {
+		String etag = versoes.etagDia(1L, DIA);
+
+		clock.avancar(Duration.ofMinutes(4));
+
+		assertEquals(etag, versoes.etagDia(1L, DIA));
+	}
+
+	@Test
+	void escritaNoDiaMudaEtag() {
+		String etag = versoes.etagDia(1L, DIA);
+		String outroFuncionario = versoes.etagDia(2L, DIA);
+
+		versoes.onDisponibilidadeAlterada(
+				DisponibilidadeAlteradaEvent.ocupado(1L, DIA.atTime(9, 0), DIA.atTime(10, 0)));
+
+		assertNotEquals(etag, versoes.etagDia(1L, DIA));
+		assertEquals(outroFuncionario, versoes.etagDia(2L, DIA));
+	}
+
+	@Test
+	void etagExpiraNaViradaDaJanela() {
+		// escrita em outro nó: nada muda aqui, mas a ETag não vale para sempre
+		String dia = versoes.etagDia(1L, DIA);
+		String catalogo = versoes.etagCatalogo();
+		String global = versoes.etagGlobal();
+
+		clock.avancar(JANELA);
+
+		assertNotEquals(dia, versoes.etagDia(1L, DIA));
+		assertNotEquals(catalogo, versoes.etagCatalogo());
+		assertNotEquals(global, versoes.etagGlobal());
+	}
+
+	@Test
+	void bloqueioLongoNaoAcumulaContadores() {
+		String antes = versoes.etagDia(1L, DIA.plusDays(10));
+
+		// um ano de bloqueio: 365 dias, limite de 100 contadores
+		versoes.onDisponibilidadeAlterada(
+				DisponibilidadeAlteradaEvent.ocupado(1L, DIA.atStartOfDay(), DIA.plusDays(365).atStartOfDay()));
+
+		assertTrue(versoes.diasVersionados() <= 100);
+		// dia despejado: a versão subiu para o funcionário, a ETag não regride
+		for (int d = 0; d < 365; d++) {
+			assertNotEquals(antes, versoes.etagDia(1L, DIA.plusDays(d)));
+		}
+	}
+
+	@Test
+	void contadoresExpiramComAJanela() {
+		versoes.onDisponibilidadeAlterada(
+				DisponibilidadeAlteradaEvent.ocupado(1L, DIA.plusDays(300).atTime(9, 0), DIA.plusDays(300).atTime(10, 0)));
+		assertEquals(1, versoes.diasVersionados());
+
+		clock.avancar(JANELA);
+
+		assertEquals(0, versoes.diasVersionados());
+		String etag = versoes.etagDia(1L, DIA.plusDays(300));
+		clock.avancar(Duration.ofMinutes(1));
+		assertEquals(etag, versoes.etagDia(1L, DIA.plusDays(300)));
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile Instant agora;
+
+		private MutableClock(Instant agora) {
+			this.agora = agora;
+		}
+
+		private void avancar(Duration d) {
+			agora = agora.plus(d);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONA;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return agora;
+		}
+	}
+}
@@ -0,0 +1,75 @@
+package br.com.bravvo.api.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Decodificação do prefs_json: mesmas regras da busca antiga por
+ * String.valueOf(servicoId).
+ */
+class DuracoesServicoTest {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void decodificaEOrdena() {
+		DuracoesServico d = decode("""
+				{ "servicos": { "30": { "duracaoMin": 45 }, "2": { "duracaoMin": 20 }, "16": { "duracaoMin": 60 } } }
+				""");
+
+		assertEquals(3, d.size());
+		assertEquals(20, d.get(2, 30));
+		assertEquals(60, d.get(16, 30));
+		assertEquals(45, d.get(30, 30));
+		assertEquals(30, d.get(99, 30), "sem personalização: fallback");
+	}
+
+	@Test
+	void chaveSoValeNaFormaCanonica() {
+		// "016" nunca casou com o serviço 16 (busca por String.valueOf)
+		DuracoesServico soZero = decode("""
+				{ "servicos": { "016": { "duracaoMin": 90 }, "+17": { "duracaoMin": 90 } } }
+				""");
+		assertSame(DuracoesServico.VAZIO, soZero);
+		assertEquals(30, soZero.get(16, 30));
+
+		// as duas formas juntas: vale só "16", sem id duplicado na busca binária
+		DuracoesServico ambas = decode("""
+				{ "servicos": { "016": { "duracaoMin": 90 }, "16": { "duracaoMin": 60 } } }
+				""");
+		assertEquals(1, ambas.size());
+		assertEquals(60, ambas.get(16, 30));
+	}
+
+	@Test
+	void ignoraInvalidos() {
+		DuracoesServico d = decode("""
+				{ "servicos": {
+				    "1": { "duracaoMin": 0 },
+				    "2": { "duracaoMin": "40" },
+				    "3": { "duracaoMin": 12.5 },
+				    "abc": { "duracaoMin": 40 },
+				    "4": { "outro": 1 },
+				    "5": { "duracaoMin": 25 } } }
+				""");
+
+		assertEquals(1, d.size());
+		assertEquals(25, d.get(5, 30));
+		assertEquals(30, d.get(1, 30));
+	}
+
+	@Test
+	void jsonVazioOuQuebradoViraVazio() {
+		assertSame(DuracoesServico.VAZIO, decode(null));
+		assertSame(DuracoesServico.VAZIO, decode("  "));
+		assertSame(DuracoesServico.VAZIO, decode("{ quebrado"));
+		assertSame(DuracoesServico.VAZIO, decode("{ \"servicos\": [] }"));
+		assertSame(DuracoesServico.VAZIO, decode("{ \"outra\": {} }"));
+	}
+
+	private DuracoesServico decode(String json) {
+		return DuracoesServico.decode(json, objectMapper);
+	}
+}
@@ -0,0 +1,110 @@
+package br.com.bravvo.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * {@link FilaAtendimento}: posição e espera estimada após entrar, chamar,
+ * desistir e concluir.
+ */
+class FilaAtendimentoTest {
+
+	private static final LocalDateTime AGORA = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+	@Test
+	void posicaoEEsperaAoEntrar() {
+		FilaAtendimento fila = new FilaAtendimento();
+		var a = fila.entrar(1L, "A", 30);
+		var b = fila.entrar(2L, "B", 20);
+		var c = fila.entrar(3L, "C", 40);
+
+		assertEquals(1, fila.posicao(a));
+		assertEquals(2, fila.posicao(b));
+		assertEquals(3, fila.posicao(c));
+
+		// ninguém em atendimento: soma de quem está na frente
+		assertEquals(0, fila.esperaEstimadaMin(a, AGORA));
+		assertEquals(30, fila.esperaEstimadaMin(b, AGORA));
+		assertEquals(50, fila.esperaEstimadaMin(c, AGORA));
+	}
+
+	@Test
+	void chamarAndaAFilaEContaOAtendimentoEmCurso() {
+		FilaAtendimento fila = new FilaAtendimento();
+		fila.entrar(1L, "A", 30);
+		var b = fila.entrar(2L, "B", 20);
+		var c = fila.entrar(3L, "C", 40);
+
+		assertEquals(1L, fila.chamar(AGORA).getId());
+
+		assertEquals(1, fila.posicao(b));
+		assertEquals(2, fila.posicao(c));
+
+		// 10 minutos depois, faltam 20 do atendimento de A
+		LocalDateTime depois = AGORA.plusMinutes(10);
+		assertEquals(20, fila.esperaEstimadaMin(b, depois));
+		assertEquals(40, fila.esperaEstimadaMin(c, depois));
+
+		// atendimento passou da duração prevista: não conta negativo
+		assertEquals(0, fila.esperaEstimadaMin(b, AGORA.plusMinutes(45)));
+
+		assertTrue(fila.concluir(1L));
+		assertFalse(fila.concluir(1L));
+		assertEquals(20, fila.esperaEstimadaMin(c, depois));
+	}
+
+	@Test
+	void desistenciaRenumeraQuemEstavaAtras() {
+		FilaAtendimento fila = new FilaAtendimento();
+		var a = fila.entrar(1L, "A", 30);
+		var b = fila.entrar(2L, "B", 20);
+		var c = fila.entrar(3L, "C", 40);
+
+		assertTrue(fila.cancelar(b));
+		assertFalse(fila.cancelar(b));
+
+		assertEquals(1, fila.posicao(a));
+		assertEquals(2, fila.posicao(c));
+		assertEquals(30, fila.esperaEstimadaMin(c, AGORA));
+
+		// quem entra depois continua a numeração sem buraco
+		var d = fila.entrar(4L, "D", 10);
+		assertEquals(3, fila.posicao(d));
+		assertEquals(70, fila.esperaEstimadaMin(d, AGORA));
+		assertEquals(3, fila.tamanho());
+	}
+
+	@Test
+	void atendimentosEmParaleloDividemAEspera() {
+		// fila de serviço: dois funcionários chamando
+		FilaAtendimento fila = new FilaAtendimento();
+		fila.entrar(1L, "A", 30);
+		fila.entrar(2L, "B", 30);
+		var c = fila.entrar(3L, "C", 30);
+		var d = fila.entrar(4L, "D", 30);
+
+		fila.chamar(AGORA);
+		fila.chamar(AGORA);
+
+		assertEquals(1, fila.posicao(c));
+		// (0 à frente + 30 + 30 restantes) / 2
+		assertEquals(30, fila.esperaEstimadaMin(c, AGORA));
+		// (30 à frente + 60 restantes) / 2, arredondado para cima
+		assertEquals(45, fila.esperaEstimadaMin(d, AGORA));
+	}
+
+	@Test
+	void filaVazia() {
+		FilaAtendimento fila = new FilaAtendimento();
+		assertNull(fila.proxima());
+		assertNull(fila.chamar(AGORA));
+		assertTrue(fila.isVazia());
+
+		fila.emAtendimento(9L, "Z", 30, AGORA);
+		assertFalse(fila.isVazia());
+		assertEquals(0, fila.tamanho());
+	}
+}
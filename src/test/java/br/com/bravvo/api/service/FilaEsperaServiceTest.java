@@ -0,0 +1,188 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicFilaEntradaRequestDTO;
+import br.com.bravvo.api.entity.FilaEspera;
+import br.com.bravvo.api.entity.Servico;
+import br.com.bravvo.api.entity.User;
+import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Limites de entrada da fila (telefone, chamador, tamanho da fila) e
+ * write-through: a memória só muda depois que o banco gravou, e consultar
+ * posição não espera uma gravação lenta.
+ */
+class FilaEsperaServiceTest {
+
+	private static final Long FUNCIONARIO = 3L;
+	private static final Long SERVICO = 1L;
+
+	private static final Clock CLOCK = Clock.fixed(
+			LocalDateTime.of(2026, 3, 10, 9, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+	private FilaEsperaRepository filaEsperaRepository;
+	private Map<Long, FilaEspera> banco;
+	private final AtomicLong ids = new AtomicLong();
+	private FilaEsperaService service;
+
+	@BeforeEach
+	void setUp() {
+		filaEsperaRepository = mock(FilaEsperaRepository.class);
+		banco = new ConcurrentHashMap<>();
+
+		when(filaEsperaRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(banco.get(inv.getArgument(0))));
+		when(filaEsperaRepository.save(any())).thenAnswer(inv -> gravar(inv.getArgument(0)));
+
+		ServicoRepository servicoRepository = mock(ServicoRepository.class);
+		Servico servico = new Servico();
+		servico.setStatus(StatusServico.ATIVO);
+		servico.setDuracaoMin(30);
+		when(servicoRepository.findById(SERVICO)).thenReturn(Optional.of(servico));
+
+		UserRepository userRepository = mock(UserRepository.class);
+		User funcionario = new User();
+		funcionario.setAtivo(true);
+		funcionario.setPerfil(PerfilUser.FUNCIONARIO);
+		when(userRepository.findById(FUNCIONARIO)).thenReturn(Optional.of(funcionario));
+
+		FuncionarioServicoRepository funcionarioServicoRepository = mock(FuncionarioServicoRepository.class);
+		when(funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(FUNCIONARIO, SERVICO)).thenReturn(true);
+
+		FuncionarioPrefsCache prefsCache = mock(FuncionarioPrefsCache.class);
+		when(prefsCache.resolveDuracaoMin(eq(FUNCIONARIO), eq(SERVICO), anyInt())).thenReturn(30);
+
+		// fila de até 3, 1 ficha por telefone, 2 por IP
+		service = new FilaEsperaService(filaEsperaRepository, servicoRepository, userRepository,
+				funcionarioServicoRepository, prefsCache, new ProtocoloGenerator(0, "chave-de-teste-protocolo"),
+				mock(ProtocoloOutbox.class), semTransacao(), mock(ApplicationEventPublisher.class), CLOCK, 30, 3, 1, 2);
+	}
+
+	@Test
+	void mesmoTelefoneUmaFichaPorVez() {
+		var primeira = service.entrar(entrada("(11) 99999-0001"), "10.0.0.1");
+
+		// mesmo número escrito de outro jeito, de outro IP
+		assertThrows(BusinessException.class, () -> service.entrar(entrada("11999990001"), "10.0.0.2"));
+
+		// saiu da fila: o telefone pode entrar de novo
+		service.cancelar(primeira.getProtocolo());
+		assertNotNull(service.entrar(entrada("11999990001"), "10.0.0.2"));
+	}
+
+	@Test
+	void limitePorChamador() {
+		service.entrar(entrada("11999990001"), "10.0.0.1");
+		service.entrar(entrada("11999990002"), "10.0.0.1");
+
+		assertThrows(BusinessException.class, () -> service.entrar(entrada("11999990003"), "10.0.0.1"));
+		// a recusa devolveu a vaga do telefone
+		assertNotNull(service.entrar(entrada("11999990003"), "10.0.0.2"));
+	}
+
+	@Test
+	void filaCheiaRecusaAteAlguemSair() {
+		service.entrar(entrada("11999990001"), "10.0.0.1");
+		service.entrar(entrada("11999990002"), "10.0.0.2");
+		service.entrar(entrada("11999990003"), "10.0.0.3");
+
+		assertThrows(BusinessException.class, () -> service.entrar(entrada("11999990004"), "10.0.0.4"));
+
+		service.chamarProximo(FUNCIONARIO);
+		assertNotNull(service.entrar(entrada("11999990004"), "10.0.0.4"));
+	}
+
+	@Test
+	void falhaAoGravarNaoMexeNaMemoria() {
+		var ficha = service.entrar(entrada("11999990001"), "10.0.0.1");
+
+		doThrow(new IllegalStateException("banco fora")).when(filaEsperaRepository).save(any());
+		assertThrows(IllegalStateException.class, () -> service.chamarProximo(FUNCIONARIO));
+		assertThrows(IllegalStateException.class, () -> service.cancelar(ficha.getProtocolo()));
+		assertThrows(IllegalStateException.class, () -> service.entrar(entrada("11999990002"), "10.0.0.2"));
+
+		// continua aguardando na primeira posição (rollback deixa o banco assim)
+		var atual = service.consultar(ficha.getProtocolo());
+		assertEquals("aguardando", atual.getStatus());
+		assertEquals(1, atual.getPosicao());
+
+		// banco voltou; a entrada que falhou devolveu as vagas
+		doAnswer(inv -> gravar(inv.getArgument(0))).when(filaEsperaRepository).save(any());
+		assertNotNull(service.entrar(entrada("11999990002"), "10.0.0.1"));
+		assertEquals("em_atendimento", service.chamarProximo(FUNCIONARIO).getStatus());
+	}
+
+	@Test
+	void consultaNaoEsperaAGravacao() throws Exception {
+		var primeira = service.entrar(entrada("11999990001"), "10.0.0.1");
+		var segunda = service.entrar(entrada("11999990002"), "10.0.0.2");
+
+		CountDownLatch gravando = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+		doAnswer(inv -> {
+			gravando.countDown();
+			liberar.await(10, TimeUnit.SECONDS);
+			return inv.getArgument(0);
+		}).when(filaEsperaRepository).save(any());
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		try {
+			Future<?> chamada = pool.submit(() -> service.chamarProximo(FUNCIONARIO));
+			assertTrue(gravando.await(5, TimeUnit.SECONDS));
+
+			// banco "lento": a leitura responde da memória, com o estado de antes
+			var posicao = assertTimeoutPreemptively(Duration.ofSeconds(2),
+					() -> service.consultar(segunda.getProtocolo()));
+			assertEquals(2, posicao.getPosicao());
+
+			liberar.countDown();
+			chamada.get(5, TimeUnit.SECONDS);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		assertEquals("em_atendimento", service.consultar(primeira.getProtocolo()).getStatus());
+		assertEquals(1, service.consultar(segunda.getProtocolo()).getPosicao());
+	}
+
+	private FilaEspera gravar(FilaEspera f) {
+		if (f.getId() == null) {
+			ReflectionTestUtils.setField(f, "id", ids.incrementAndGet()); // id só vem do banco
+		}
+		banco.put(f.getId(), f);
+		return f;
+	}
+
+	private static PublicFilaEntradaRequestDTO entrada(String telefone) {
+		return new PublicFilaEntradaRequestDTO(SERVICO, FUNCIONARIO, "Cliente", telefone, null);
+	}
+
+	/**
+	 * TransactionTemplate que só executa o callback.
+	 */
+	private static TransactionTemplate semTransacao() {
+		TransactionTemplate tx = mock(TransactionTemplate.class);
+		when(tx.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		return tx;
+	}
+}
@@ -0,0 +1,207 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.publico.PublicFilaPosicaoResponseDTO;
+import br.com.bravvo.api.entity.FilaEspera;
+import br.com.bravvo.api.enums.StatusFila;
+import br.com.bravvo.api.event.FilaAlteradaEvent;
+import br.com.bravvo.api.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Stream da fila sem servidor HTTP: fila carregada em memória, assinantes por
+ * protocolo e o flush chamado na mão. Chamar o próximo não lê o banco por
+ * assinante.
+ */
+class FilaStreamHubTest {
+
+	private static final Long FUNCIONARIO = 1L;
+	private static final int FICHAS = 1_000;
+
+	private static final Clock CLOCK = Clock.fixed(
+			LocalDateTime.of(2026, 3, 10, 9, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+
+	private FilaEsperaRepository filaEsperaRepository;
+	private Map<Long, FilaEspera> banco;
+	private FilaEsperaService service;
+	private Hub hub;
+
+	@BeforeEach
+	void setUp() {
+		filaEsperaRepository = mock(FilaEsperaRepository.class);
+		banco = new HashMap<>();
+
+		List<FilaEspera> ativas = new ArrayList<>();
+		for (long id = 1; id <= FICHAS; id++) {
+			FilaEspera f = new FilaEspera();
+			ReflectionTestUtils.setField(f, "id", id); // id só vem do banco
+			f.setProtocolo("BRV-20260310-" + id);
+			f.setFuncionarioId(FUNCIONARIO);
+			f.setStatus(StatusFila.AGUARDANDO);
+			ativas.add(f);
+			banco.put(id, f);
+		}
+		when(filaEsperaRepository.findByStatusInOrderByIdAsc(any())).thenReturn(ativas);
+		when(filaEsperaRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(banco.get(inv.getArgument(0))));
+		when(filaEsperaRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+
+		service = new FilaEsperaService(filaEsperaRepository, mock(ServicoRepository.class),
+				mock(UserRepository.class), mock(FuncionarioServicoRepository.class), mock(FuncionarioPrefsCache.class),
+				new ProtocoloGenerator(0, "chave-de-teste-protocolo"), mock(ProtocoloOutbox.class), semTransacao(),
+				e -> hub.onFilaAlterada((FilaAlteradaEvent) e), CLOCK, 30, 100, 2, 20);
+		service.carregar();
+
+		hub = new Hub(service);
+	}
+
+	@Test
+	void chamarOProximoEnviaUmInstantaneoSemLerOBanco() {
+		for (long id = 1; id <= FICHAS; id++) {
+			hub.assinar("BRV-20260310-" + id);
+		}
+		hub.flush();
+		assertEquals(FICHAS, hub.getConexoes());
+		assertEquals(2, hub.ultimo("BRV-20260310-2").getPosicao());
+		assertEquals(30, hub.ultimo("BRV-20260310-2").getEsperaEstimadaMin());
+
+		clearInvocations(filaEsperaRepository);
+
+		service.chamarProximo(FUNCIONARIO);
+		hub.flush();
+
+		// só a ficha chamada vai ao banco (status), nenhuma leitura por assinante
+		verify(filaEsperaRepository, times(1)).findById(1L);
+		verify(filaEsperaRepository, times(1)).save(any());
+		verifyNoMoreInteractions(filaEsperaRepository);
+
+		assertEquals("em_atendimento", hub.ultimo("BRV-20260310-1").getStatus());
+		assertNull(hub.ultimo("BRV-20260310-1").getPosicao());
+		assertEquals(1, hub.ultimo("BRV-20260310-2").getPosicao());
+		assertEquals(30, hub.ultimo("BRV-20260310-2").getEsperaEstimadaMin());
+		assertEquals(FICHAS - 1, hub.ultimo("BRV-20260310-" + FICHAS).getPosicao());
+	}
+
+	@Test
+	void rajadaViraUmEnvioPorAssinante() {
+		for (long id = 1; id <= 10; id++) {
+			hub.assinar("BRV-20260310-" + id);
+		}
+		hub.flush();
+		int antes = hub.envios();
+
+		service.chamarProximo(FUNCIONARIO);
+		service.concluir(FUNCIONARIO, 1L);
+		service.chamarProximo(FUNCIONARIO);
+		hub.flush();
+
+		// 1 concluído (status final) + 9 atualizados, um envio cada
+		assertEquals(antes + 10, hub.envios());
+		assertEquals("concluido", hub.ultimo("BRV-20260310-1").getStatus());
+		assertEquals(9, hub.getConexoes());
+		assertEquals(1, hub.ultimo("BRV-20260310-3").getPosicao());
+
+		hub.flush();
+		assertEquals(antes + 10, hub.envios());
+	}
+
+	@Test
+	void desistenciaEncerraOStreamEAndaQuemEstavaAtras() {
+		hub.assinar("BRV-20260310-2");
+		hub.assinar("BRV-20260310-3");
+		hub.flush();
+
+		service.cancelar("BRV-20260310-2");
+		hub.flush();
+
+		assertEquals("cancelado", hub.ultimo("BRV-20260310-2").getStatus());
+		assertEquals(2, hub.ultimo("BRV-20260310-3").getPosicao());
+		assertEquals(1, hub.getConexoes());
+	}
+
+	@Test
+	void filaSemAssinanteNaoMarcaPendente() {
+		service.chamarProximo(FUNCIONARIO);
+		hub.flush();
+
+		assertEquals(0, hub.envios());
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	/**
+	 * Hub sem agendador que guarda o último evento enviado por protocolo.
+	 */
+	/**
+	 * TransactionTemplate que só executa o callback.
+	 */
+	private static TransactionTemplate semTransacao() {
+		TransactionTemplate tx = mock(TransactionTemplate.class);
+		when(tx.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		return tx;
+	}
+
+	private static final class Hub extends FilaStreamHub {
+
+		private final Map<String, PublicFilaPosicaoResponseDTO> ultimos = new HashMap<>();
+		private final List<EmitterGravador> emitters = new ArrayList<>();
+
+		private Hub(FilaEsperaService service) {
+			super(service, 30, 10_000, 0, 0);
+		}
+
+		@Override
+		SseEmitter novoEmitter() {
+			EmitterGravador e = new EmitterGravador(ultimos);
+			emitters.add(e);
+			return e;
+		}
+
+		PublicFilaPosicaoResponseDTO ultimo(String protocolo) {
+			return ultimos.get(protocolo);
+		}
+
+		int envios() {
+			return emitters.stream().mapToInt(e -> e.envios).sum();
+		}
+	}
+
+	private static final class EmitterGravador extends SseEmitter {
+
+		private final Map<String, PublicFilaPosicaoResponseDTO> ultimos;
+		private int envios;
+
+		private EmitterGravador(Map<String, PublicFilaPosicaoResponseDTO> ultimos) {
+			this.ultimos = ultimos;
+		}
+
+		@Override
+		public void send(SseEventBuilder builder) throws IOException {
+			envios++;
+			for (var d : builder.build()) {
+				if (d.getData() instanceof PublicFilaPosicaoResponseDTO dto) {
+					ultimos.put(dto.getProtocolo(), dto);
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,298 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.agendamento.PublicAgendamentoCreateRequestDTO;
+import br.com.bravvo.api.entity.Agendamento;
+import br.com.bravvo.api.entity.Servico;
+import br.com.bravvo.api.entity.User;
+import br.com.bravvo.api.enums.PerfilUser;
+import br.com.bravvo.api.enums.StatusServico;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Estresse do lock por funcionário no caminho real: centenas de threads
+ * chamando AgendamentoService.createPublic no mesmo horário ao mesmo tempo.
+ *
+ * Repositórios mockados sobre uma "tabela" em memória: a checagem de conflito
+ * enxerga os agendamentos já salvos e tem uma pausa antes de responder, para
+ * que sem o lock a corrida aconteça quase sempre. A tabela de slots
+ * (agendamento_slots) é um mock vazio: aqui só o lock protege o horário.
+ */
+class FuncionarioLocksTest {
+
+	private static final int THREADS = 300;
+
+	private static final Long FUNCIONARIO = 7L;
+	private static final Long SERVICO = 1L;
+
+	private final FuncionarioLocks locks = new FuncionarioLocks(256, 10_000);
+
+	@Test
+	void mesmoHorarioSoUmPassa() throws Exception {
+		Agenda agenda = new Agenda(locks);
+		AtomicInteger sucesso = new AtomicInteger();
+		AtomicInteger conflito = new AtomicInteger();
+
+		disparar(THREADS, i -> {
+			try {
+				emTransacao(() -> agenda.service.createPublic(requisicao(i), null));
+				sucesso.incrementAndGet();
+			} catch (BusinessException e) {
+				conflito.incrementAndGet();
+			}
+		});
+
+		assertEquals(1, sucesso.get());
+		assertEquals(THREADS - 1, conflito.get());
+		assertEquals(1, agenda.salvos.size());
+	}
+
+	@Test
+	void semLockACorridaAcontece() throws Exception {
+		// controle: mesmo serviço com um lock que não trava grava mais de um
+		Agenda agenda = new Agenda(mock(FuncionarioLocks.class));
+
+		disparar(50, i -> {
+			try {
+				emTransacao(() -> agenda.service.createPublic(requisicao(i), null));
+			} catch (BusinessException ignored) {
+			}
+		});
+
+		assertTrue(agenda.salvos.size() > 1);
+	}
+
+	@Test
+	void funcionariosDiferentesNaoEsperam() throws Exception {
+		Long a = 1L;
+		Long b = 2L;
+		assertNotSame(locks.listra(a), locks.listra(b));
+
+		CountDownLatch travado = new CountDownLatch(1);
+		CountDownLatch liberar = new CountDownLatch(1);
+
+		ExecutorService pool = Executors.newSingleThreadExecutor();
+		Future<?> segurando = pool.submit(() -> emTransacao(() -> {
+			locks.travarAteFimDaTransacao(a);
+			travado.countDown();
+			await(liberar);
+		}));
+
+		try {
+			assertTrue(travado.await(5, TimeUnit.SECONDS));
+
+			// "b" entra na hora, mesmo com "a" preso
+			long t0 = System.nanoTime();
+			emTransacao(() -> locks.travarAteFimDaTransacao(b));
+			assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0) < 1_000);
+
+			// "a" continua preso até a transação dona terminar
+			assertFalse(locks.listra(a).tryLock());
+		} finally {
+			liberar.countDown();
+			segurando.get(5, TimeUnit.SECONDS);
+			pool.shutdownNow();
+		}
+
+		// commit soltou o lock
+		assertFalse(locks.listra(a).isLocked());
+	}
+
+	@Test
+	void combosEmOrdemDeListraNaoSeEsperamEmCiclo() throws Exception {
+		// 255 < 256, mas a listra de 256 (0) vem antes da de 255 (255)
+		Long a = 255L;
+		Long b = 256L;
+		assertTrue(locks.indice(a) > locks.indice(b));
+
+		FuncionarioLocks curtos = new FuncionarioLocks(256, 2_000);
+		AtomicInteger ocupados = new AtomicInteger();
+
+		disparar(2, i -> {
+			List<Long> ids = i == 0 ? List.of(a, b) : List.of(b, a);
+			for (int n = 0; n < 500; n++) {
+				try {
+					emTransacao(() -> {
+						curtos.travarTodosAteFimDaTransacao(ids);
+						Thread.yield();
+					});
+				} catch (BusinessException e) {
+					ocupados.incrementAndGet();
+				}
+			}
+		});
+
+		assertEquals(0, ocupados.get());
+		assertFalse(curtos.listra(a).isLocked());
+		assertFalse(curtos.listra(b).isLocked());
+	}
+
+	@Test
+	void mesmaListraTravaUmaVez() {
+		Long a = 1L;
+		Long b = 257L;
+		assertSame(locks.listra(a), locks.listra(b));
+
+		emTransacao(() -> {
+			locks.travarTodosAteFimDaTransacao(List.of(a, b));
+			assertEquals(1, locks.listra(a).getHoldCount());
+		});
+		assertFalse(locks.listra(a).isLocked());
+	}
+
+	@Test
+	void exigeTransacao() {
+		assertThrows(IllegalStateException.class, () -> locks.travarAteFimDaTransacao(1L));
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	private static PublicAgendamentoCreateRequestDTO requisicao(int cliente) {
+		PublicAgendamentoCreateRequestDTO req = new PublicAgendamentoCreateRequestDTO();
+		req.setServicoId(SERVICO);
+		req.setFuncionarioId(FUNCIONARIO);
+		req.setData("2030-03-11");
+		req.setHora("10:00");
+		req.setClienteNome("Cliente " + cliente);
+		req.setClienteTelefone("1199999" + String.format("%04d", cliente));
+		return req;
+	}
+
+	/**
+	 * AgendamentoService real sobre repositórios mockados; os agendamentos salvos
+	 * ficam em memória e a checagem de conflito lê deles.
+	 */
+	private static final class Agenda {
+
+		private final List<Agendamento> salvos = new CopyOnWriteArrayList<>();
+		private final AgendamentoService service;
+
+		private Agenda(FuncionarioLocks locks) {
+			AgendamentoRepository agendamentoRepository = mock(AgendamentoRepository.class);
+			AtomicLong ids = new AtomicLong();
+
+			when(agendamentoRepository.existsBlockingOverlap(eq(FUNCIONARIO), any(), any())).thenAnswer(inv -> {
+				LocalDateTime inicio = inv.getArgument(1);
+				LocalDateTime fim = inv.getArgument(2);
+				boolean conflita = salvos.stream()
+						.anyMatch(a -> a.getInicio().isBefore(fim) && a.getFim().isAfter(inicio));
+
+				// janela entre a leitura e o insert
+				sleep(2);
+				return conflita;
+			});
+			when(agendamentoRepository.save(any(Agendamento.class))).thenAnswer(inv -> {
+				Agendamento ag = inv.getArgument(0);
+				ReflectionTestUtils.setField(ag, "id", ids.incrementAndGet());
+				salvos.add(ag);
+				return ag;
+			});
+
+			ServicoRepository servicoRepository = mock(ServicoRepository.class);
+			Servico servico = new Servico();
+			servico.setStatus(StatusServico.ATIVO);
+			servico.setDuracaoMin(30);
+			when(servicoRepository.findById(SERVICO)).thenReturn(Optional.of(servico));
+
+			UserRepository userRepository = mock(UserRepository.class);
+			User funcionario = new User();
+			funcionario.setAtivo(true);
+			funcionario.setPerfil(PerfilUser.FUNCIONARIO);
+			when(userRepository.findByIdForUpdate(FUNCIONARIO)).thenReturn(Optional.of(funcionario));
+
+			FuncionarioServicoRepository funcionarioServicoRepository = mock(FuncionarioServicoRepository.class);
+			when(funcionarioServicoRepository.existsByIdFuncionarioIdAndIdServicoId(FUNCIONARIO, SERVICO))
+					.thenReturn(true);
+
+			FuncionarioPrefsCache prefsCache = mock(FuncionarioPrefsCache.class);
+			when(prefsCache.resolveDuracaoMin(eq(FUNCIONARIO), eq(SERVICO), anyInt())).thenReturn(30);
+
+			this.service = new AgendamentoService(agendamentoRepository, mock(FuncionarioBloqueioRepository.class),
+					servicoRepository, userRepository, funcionarioServicoRepository, prefsCache,
+					mock(ProtocoloOutbox.class), locks, new ProtocoloGenerator(0, "chave-de-teste-protocolo"), mock(IdempotenciaService.class),
+					mock(ReservasTemporarias.class), mock(AgendamentoLoteRepository.class),
+					mock(AgendamentoSlotRepository.class), new ConfiguracaoService(mock(ConfiguracaoRepository.class)),
+					mock(Auditoria.class), mock(ApplicationEventPublisher.class));
+		}
+	}
+
+	/**
+	 * Simula @Transactional: sincronização ativa durante o trabalho e
+	 * afterCompletion no fim (commit ou rollback).
+	 */
+	private static void emTransacao(Runnable trabalho) {
+		TransactionSynchronizationManager.initSynchronization();
+		int status = TransactionSynchronization.STATUS_COMMITTED;
+		try {
+			trabalho.run();
+		} catch (RuntimeException e) {
+			status = TransactionSynchronization.STATUS_ROLLED_BACK;
+			throw e;
+		} finally {
+			List<TransactionSynchronization> syncs = TransactionSynchronizationManager.getSynchronizations();
+			TransactionSynchronizationManager.clearSynchronization();
+			for (TransactionSynchronization s : syncs) {
+				s.afterCompletion(status);
+			}
+		}
+	}
+
+	private static void disparar(int threads, IntConsumer tarefa) throws Exception {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		CountDownLatch largada = new CountDownLatch(1);
+		List<Future<?>> futuros = new ArrayList<>();
+
+		for (int i = 0; i < threads; i++) {
+			int n = i;
+			futuros.add(pool.submit(() -> {
+				await(largada);
+				tarefa.accept(n);
+			}));
+		}
+
+		largada.countDown();
+		try {
+			for (Future<?> f : futuros) {
+				f.get(60, TimeUnit.SECONDS);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private static void sleep(long ms) {
+		try {
+			Thread.sleep(ms);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
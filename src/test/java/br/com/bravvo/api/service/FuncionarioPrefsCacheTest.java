@@ -0,0 +1,97 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.entity.FuncionarioPrefs;
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.repository.FuncionarioPrefsRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Cache das prefs: decodifica uma vez por versão (updated_at) e invalida no
+ * evento SERVICOS.
+ */
+class FuncionarioPrefsCacheTest {
+
+	private static final Long FUNCIONARIO = 7L;
+	private static final LocalDateTime V1 = LocalDateTime.of(2026, 3, 10, 9, 0);
+	private static final LocalDateTime V2 = V1.plusMinutes(5);
+
+	private FuncionarioPrefsRepository repository;
+	private FuncionarioPrefsCache cache;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(FuncionarioPrefsRepository.class);
+		cache = new FuncionarioPrefsCache(repository, new ObjectMapper(), 100, 30);
+	}
+
+	@Test
+	void carregaUmaVezPorFuncionario() {
+		when(repository.findById(FUNCIONARIO)).thenReturn(Optional.of(prefs(45, V1)));
+
+		assertEquals(45, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+		assertEquals(45, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+		assertEquals(30, cache.resolveDuracaoMin(FUNCIONARIO, 99L, 30));
+
+		verify(repository, times(1)).findById(FUNCIONARIO);
+	}
+
+	@Test
+	void eventoServicosInvalida() {
+		when(repository.findById(FUNCIONARIO)).thenReturn(Optional.of(prefs(45, V1)));
+		assertEquals(45, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+
+		when(repository.findById(FUNCIONARIO)).thenReturn(Optional.of(prefs(60, V2)));
+
+		// outros eventos não tocam nas prefs
+		cache.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.agenda(FUNCIONARIO));
+		assertEquals(45, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+
+		cache.onDisponibilidadeAlterada(DisponibilidadeAlteradaEvent.servicos(FUNCIONARIO));
+		assertEquals(60, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+	}
+
+	@Test
+	void entidadeComOutraVersaoRedecodifica() {
+		FuncionarioPrefs v1 = prefs(45, V1);
+		DuracoesServico primeira = cache.duracoes(v1);
+
+		// mesma versão: reaproveita o decodificado
+		assertSame(primeira, cache.duracoes(prefs(45, V1)));
+
+		// updated_at mudou: decodifica de novo e publica para as próximas leituras
+		DuracoesServico segunda = cache.duracoes(prefs(60, V2));
+		assertNotSame(primeira, segunda);
+		assertEquals(60, segunda.get(16L, 30));
+		assertEquals(60, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+		verifyNoInteractions(repository);
+
+		// versão antiga chegando depois não sobrescreve a nova
+		assertEquals(45, cache.resolveDuracaoMin(v1, 16L, 30));
+		assertEquals(60, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+	}
+
+	@Test
+	void semPrefsUsaFallback() {
+		when(repository.findById(FUNCIONARIO)).thenReturn(Optional.empty());
+
+		assertEquals(30, cache.resolveDuracaoMin(FUNCIONARIO, 16L, 30));
+		assertEquals(30, cache.resolveDuracaoMin((FuncionarioPrefs) null, 16L, 30));
+	}
+
+	private static FuncionarioPrefs prefs(int duracaoMin, LocalDateTime updatedAt) {
+		FuncionarioPrefs p = new FuncionarioPrefs();
+		p.setFuncionarioId(FUNCIONARIO);
+		p.setPrefsJson("{ \"servicos\": { \"16\": { \"duracaoMin\": " + duracaoMin + " } } }");
+		ReflectionTestUtils.setField(p, "updatedAt", updatedAt);
+		return p;
+	}
+}
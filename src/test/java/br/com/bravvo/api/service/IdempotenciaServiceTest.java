@@ -0,0 +1,217 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.dto.agendamento.AgendamentoCreateResponseDTO;
+import br.com.bravvo.api.dto.agendamento.PublicAgendamentoCreateRequestDTO;
+import br.com.bravvo.api.entity.AgendamentoIdempotencia;
+import br.com.bravvo.api.exception.BusinessException;
+import br.com.bravvo.api.repository.AgendamentoIdempotenciaRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Idempotency-Key sem banco: repository mockado, criação simulada.
+ */
+class IdempotenciaServiceTest {
+
+	private static final LocalDateTime INICIO = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+	private AgendamentoIdempotenciaRepository repository;
+	private IdempotenciaService service;
+
+	private final AtomicInteger criados = new AtomicInteger();
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(AgendamentoIdempotenciaRepository.class);
+		when(repository.findByChave(anyString())).thenReturn(Optional.empty());
+		service = new IdempotenciaService(repository, new ObjectMapper(), 1_000, 24);
+	}
+
+	@Test
+	void retryDevolveOOriginal() {
+		var req = requisicao("09:00");
+
+		var primeiro = service.executar("publico", "abc", req, this::criar);
+		var retry = service.executar("publico", "abc", req, this::criar);
+
+		assertSame(primeiro, retry);
+		assertEquals(1, criados.get());
+		verify(repository, times(1)).save(any());
+	}
+
+	@Test
+	void mesmaKeyOutroCorpo() {
+		service.executar("publico", "abc", requisicao("09:00"), this::criar);
+
+		assertThrows(BusinessException.class,
+				() -> service.executar("publico", "abc", requisicao("10:00"), this::criar));
+		assertEquals(1, criados.get());
+	}
+
+	@Test
+	void escoposNaoSeMisturam() {
+		var req = requisicao("09:00");
+
+		service.executar("cliente:1", "abc", req, this::criar);
+		service.executar("cliente:2", "abc", req, this::criar);
+
+		assertEquals(2, criados.get());
+	}
+
+	@Test
+	void semHeaderNaoRegistra() {
+		var req = requisicao("09:00");
+
+		service.executar("publico", null, req, this::criar);
+		service.executar("publico", " ", req, this::criar);
+
+		assertEquals(2, criados.get());
+		verify(repository, never()).save(any());
+	}
+
+	@Test
+	void falhaNaoFicaGravada() {
+		var req = requisicao("09:00");
+
+		assertThrows(BusinessException.class, () -> service.executar("publico", "abc", req, chave -> {
+			throw new BusinessException("Horário indisponível. Escolha outro horário.");
+		}));
+
+		// nada gravado: o retry tenta de novo
+		service.executar("publico", "abc", req, this::criar);
+		assertEquals(1, criados.get());
+	}
+
+	@Test
+	void buscaNoBancoQuandoNaoEstaEmMemoria() {
+		var req = requisicao("09:00");
+
+		// outro nó (ou antes de um restart) gravou a key
+		IdempotenciaService outroNo = new IdempotenciaService(repository, new ObjectMapper(), 1_000, 24);
+		var original = outroNo.executar("publico", "abc", req, this::criar);
+
+		var gravado = capturarGravado();
+		when(repository.findByChave(gravado.getChave())).thenReturn(Optional.of(gravado));
+
+		var retry = service.executar("publico", "abc", req, this::criar);
+
+		assertEquals(original.getId(), retry.getId());
+		assertEquals(original.getProtocolo(), retry.getProtocolo());
+		assertEquals(1, criados.get());
+	}
+
+	@Test
+	void corridaEntreNosDevolveOVencedor() {
+		var req = requisicao("09:00");
+
+		IdempotenciaService outroNo = new IdempotenciaService(repository, new ObjectMapper(), 1_000, 24);
+		var vencedor = outroNo.executar("publico", "abc", req, this::criar);
+		var gravado = capturarGravado();
+
+		// este nó não viu a key antes de criar; o insert bate na constraint única
+		var resposta = service.executar("publico", "abc", req, chave -> {
+			when(repository.findByChave(gravado.getChave())).thenReturn(Optional.of(gravado));
+			throw new DataIntegrityViolationException("uk_idem_chave");
+		});
+
+		assertEquals(vencedor.getId(), resposta.getId());
+	}
+
+	@Test
+	void retriesSimultaneosCriamUmaVez() throws Exception {
+		var req = requisicao("09:00");
+		int threads = 50;
+
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		List<Future<AgendamentoCreateResponseDTO>> futuros = new ArrayList<>();
+
+		for (int i = 0; i < threads; i++) {
+			futuros.add(pool.submit(() -> {
+				largada.await();
+				return service.executar("publico", "abc", req, chave -> {
+					try {
+						Thread.sleep(50);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+					return criar(chave);
+				});
+			}));
+		}
+		largada.countDown();
+
+		AgendamentoCreateResponseDTO primeiro = futuros.get(0).get(10, TimeUnit.SECONDS);
+		for (Future<AgendamentoCreateResponseDTO> f : futuros) {
+			assertEquals(primeiro.getId(), f.get(10, TimeUnit.SECONDS).getId());
+		}
+		pool.shutdownNow();
+
+		assertEquals(1, criados.get());
+	}
+
+	@Test
+	void limpezaApagaVencidasEFalhaNaoPropaga() {
+		when(repository.deleteExpiradas(any())).thenReturn(3);
+		LocalDateTime antes = LocalDateTime.now();
+
+		service.limparExpiradas();
+
+		ArgumentCaptor<LocalDateTime> agora = ArgumentCaptor.forClass(LocalDateTime.class);
+		verify(repository).deleteExpiradas(agora.capture());
+		assertFalse(agora.getValue().isBefore(antes));
+
+		// banco fora: próxima rodada tenta de novo
+		when(repository.deleteExpiradas(any())).thenThrow(new DataAccessResourceFailureException("fora"));
+		assertDoesNotThrow(service::limparExpiradas);
+	}
+
+	// ==========================================================
+	// Auxiliares
+	// ==========================================================
+
+	/**
+	 * Simula o createCore: cria e registra a key na "transação".
+	 */
+	private AgendamentoCreateResponseDTO criar(IdempotenciaService.Chave chave) {
+		long id = criados.incrementAndGet();
+		var resposta = new AgendamentoCreateResponseDTO(id, "BRV-20260310-00000" + id, INICIO, INICIO.plusMinutes(30),
+				"pendente");
+		if (chave != null) {
+			service.registrar(chave, resposta);
+		}
+		return resposta;
+	}
+
+	private AgendamentoIdempotencia capturarGravado() {
+		var captor = ArgumentCaptor.forClass(AgendamentoIdempotencia.class);
+		verify(repository, atLeastOnce()).save(captor.capture());
+		return captor.getValue();
+	}
+
+	private static PublicAgendamentoCreateRequestDTO requisicao(String hora) {
+		var req = new PublicAgendamentoCreateRequestDTO();
+		req.setServicoId(1L);
+		req.setFuncionarioId(2L);
+		req.setData("2026-03-10");
+		req.setHora(hora);
+		req.setClienteNome("Maria");
+		req.setClienteTelefone("11999999999");
+		return req;
+	}
+}
@@ -0,0 +1,184 @@
+package br.com.bravvo.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unicidade do {@link ProtocoloGenerator}: várias threads, vários nós, relógio
+ * parado (força estouro de sequência) e relógio voltando. E imprevisibilidade:
+ * sem a chave, códigos vizinhos não saem uns dos outros.
+ */
+class ProtocoloGeneratorTest {
+
+	private static final Pattern FORMATO = Pattern.compile("BRV-\\d{8}-[0-9A-Z]{6}");
+
+	private static final String CHAVE = "chave-de-teste-protocolo";
+
+	private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+	private static final Instant DEZ_HORAS = LocalDateTime.of(2026, 3, 10, 10, 0).atZone(ZONA).toInstant();
+
+	@Test
+	void threadsENosNaoRepetem() throws Exception {
+		int nos = 4;
+		int threadsPorNo = 4;
+		int porThread = 25_000;
+
+		// relógio parado: 100k códigos por nó no mesmo "segundo" (sequência estoura
+		// e adianta segundos)
+		Clock parado = Clock.fixed(DEZ_HORAS, ZONA);
+
+		ExecutorService pool = Executors.newFixedThreadPool(nos * threadsPorNo);
+		List<Future<List<String>>> futuros = new ArrayList<>();
+
+		long t0 = System.nanoTime();
+		for (int n = 0; n < nos; n++) {
+			ProtocoloGenerator gerador = new ProtocoloGenerator(n, CHAVE, parado);
+			for (int t = 0; t < threadsPorNo; t++) {
+				futuros.add(pool.submit(() -> {
+					List<String> codigos = new ArrayList<>(porThread);
+					for (int i = 0; i < porThread; i++) {
+						codigos.add(gerador.next());
+					}
+					return codigos;
+				}));
+			}
+		}
+
+		Set<String> todos = new HashSet<>();
+		for (Future<List<String>> f : futuros) {
+			for (String c : f.get(60, TimeUnit.SECONDS)) {
+				assertTrue(FORMATO.matcher(c).matches(), c);
+				assertTrue(c.startsWith("BRV-20260310-"), c);
+				assertTrue(todos.add(c), "repetido: " + c);
+			}
+		}
+		long ms = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - t0);
+		pool.shutdownNow();
+
+		assertEquals(nos * threadsPorNo * porThread, todos.size());
+		// referência grosseira: centenas de milhares por segundo, sem I/O
+		assertTrue(ms < 30_000, "geração lenta: " + ms + " ms");
+	}
+
+	@Test
+	void relogioVoltandoNaoRepete() {
+		MutableClock clock = new MutableClock(DEZ_HORAS);
+		ProtocoloGenerator gerador = new ProtocoloGenerator(3, CHAVE, clock);
+
+		Set<String> codigos = new HashSet<>();
+		for (int i = 0; i < 2_000; i++) {
+			assertTrue(codigos.add(gerador.next()));
+		}
+
+		clock.agora = DEZ_HORAS.minusSeconds(30); // NTP ajustou para trás
+		for (int i = 0; i < 2_000; i++) {
+			assertTrue(codigos.add(gerador.next()));
+		}
+
+		clock.agora = DEZ_HORAS.plusSeconds(3_600);
+		for (int i = 0; i < 2_000; i++) {
+			assertTrue(codigos.add(gerador.next()));
+		}
+	}
+
+	@Test
+	void embaralharEhBijetor() {
+		ProtocoloGenerator gerador = new ProtocoloGenerator(0, CHAVE, Clock.fixed(DEZ_HORAS, ZONA));
+		long dia = LocalDate.of(2026, 3, 10).toEpochDay();
+
+		// amostra: 2^16 entradas espalhadas pelos 31 bits não colidem
+		Set<Integer> saidas = new HashSet<>();
+		for (int i = 0; i < (1 << 16); i++) {
+			int x = i * 32_749;
+			int y = gerador.embaralhar(x & 0x7FFF_FFFF, dia);
+			assertTrue(y >= 0);
+			assertTrue(saidas.add(y));
+		}
+	}
+
+	@Test
+	void semAChaveOsCodigosNaoSaoDerivaveis() {
+		Clock parado = Clock.fixed(DEZ_HORAS, ZONA);
+		ProtocoloGenerator nossa = new ProtocoloGenerator(0, CHAVE, parado);
+		ProtocoloGenerator outra = new ProtocoloGenerator(0, "outra-chave-qualquer-123", parado);
+
+		int n = 5_000;
+		List<Integer> sufixos = new ArrayList<>(n);
+		int iguais = 0;
+		for (int i = 0; i < n; i++) {
+			String c = nossa.next();
+			// mesmo segundo, nó e sequência; só a chave muda
+			if (c.equals(outra.next())) {
+				iguais++;
+			}
+			sufixos.add(Integer.parseInt(sufixo(c), 36));
+		}
+		assertTrue(iguais <= 1, "chaves diferentes geram os mesmos códigos: " + iguais);
+
+		// vizinhos: diferença entre consecutivos não se repete e metade dos bits muda
+		Set<Integer> deltas = new HashSet<>();
+		long bitsDiferentes = 0;
+		for (int i = 1; i < n; i++) {
+			deltas.add(sufixos.get(i) - sufixos.get(i - 1));
+			bitsDiferentes += Integer.bitCount(sufixos.get(i) ^ sufixos.get(i - 1));
+		}
+		assertTrue(deltas.size() > n - 10, "diferenças repetidas: " + (n - 1 - deltas.size()));
+		double media = (double) bitsDiferentes / (n - 1);
+		assertTrue(media > 14 && media < 17, "bits diferentes em média: " + media);
+
+		// o mesmo (segundo, nó, sequência) em outro dia também muda
+		ProtocoloGenerator amanha = new ProtocoloGenerator(0, CHAVE,
+				Clock.fixed(DEZ_HORAS.plus(Duration.ofDays(1)), ZONA));
+		String hoje = new ProtocoloGenerator(0, CHAVE, parado).next();
+		assertNotEquals(sufixo(hoje), sufixo(amanha.next()));
+	}
+
+	@Test
+	void nodeIdForaDaFaixa() {
+		assertThrows(IllegalArgumentException.class, () -> new ProtocoloGenerator(ProtocoloGenerator.MAX_NOS, CHAVE));
+		assertThrows(IllegalArgumentException.class, () -> new ProtocoloGenerator(-1, CHAVE));
+	}
+
+	@Test
+	void chaveCurtaOuAusente() {
+		assertThrows(IllegalArgumentException.class, () -> new ProtocoloGenerator(0, "curta"));
+		assertThrows(IllegalArgumentException.class, () -> new ProtocoloGenerator(0, null));
+	}
+
+	private static String sufixo(String protocolo) {
+		return protocolo.substring(protocolo.lastIndexOf('-') + 1);
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile Instant agora;
+
+		private MutableClock(Instant agora) {
+			this.agora = agora;
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONA;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return agora;
+		}
+	}
+}
@@ -0,0 +1,87 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.repository.ProtocoloOutboxRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+/**
+ * {@link ProtocoloOutbox}: JSON válido com qualquer texto do cliente e
+ * descarga em lotes até a outbox esvaziar.
+ */
+class ProtocoloOutboxTest {
+
+	private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules()
+			.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+
+	private ProtocoloOutboxRepository repository;
+	private ProtocoloOutbox outbox;
+
+	@BeforeEach
+	void setUp() {
+		repository = mock(ProtocoloOutboxRepository.class);
+		outbox = new ProtocoloOutbox(repository, objectMapper, 3);
+	}
+
+	@Test
+	void serializaTextoComAspasBarrasEControle() throws Exception {
+		String nome = "Ana \"Bia\" \\ Souza\n\t\u0001";
+		var dados = new AgendamentoService.ProtocoloDados(1L, 2L, null, nome, "11999999999", null,
+				LocalDateTime.of(2026, 3, 10, 10, 0), LocalDateTime.of(2026, 3, 10, 10, 30));
+
+		outbox.registrar("20260310-ABC", "agendamento", dados);
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<ProtocoloOutboxRepository.Registro>> captor = ArgumentCaptor.forClass(List.class);
+		verify(repository).gravar(captor.capture());
+
+		ProtocoloOutboxRepository.Registro registro = captor.getValue().get(0);
+		assertEquals("20260310-ABC", registro.codigo());
+		assertEquals("agendamento", registro.tipo());
+
+		JsonNode json = objectMapper.readTree(registro.dadosJson());
+		assertEquals(nome, json.get("clienteNome").asText());
+		assertTrue(json.get("clienteId").isNull());
+		assertEquals("2026-03-10T10:00:00", json.get("inicio").asText());
+	}
+
+	@Test
+	void registraLoteEmUmaGravacao() {
+		outbox.registrar("agendamento",
+				List.of(new ProtocoloOutbox.Entrada("A", 1), new ProtocoloOutbox.Entrada("B", 2)));
+
+		@SuppressWarnings("unchecked")
+		ArgumentCaptor<List<ProtocoloOutboxRepository.Registro>> captor = ArgumentCaptor.forClass(List.class);
+		verify(repository, times(1)).gravar(captor.capture());
+		assertEquals(List.of("A", "B"),
+				captor.getValue().stream().map(ProtocoloOutboxRepository.Registro::codigo).toList());
+	}
+
+	@Test
+	void descarregaAteLoteIncompleto() {
+		// 3 + 3 + 1: para no lote incompleto
+		when(repository.descarregarLote(anyInt())).thenReturn(3, 3, 1);
+
+		outbox.descarregar();
+
+		verify(repository, times(3)).descarregarLote(3);
+	}
+
+	@Test
+	void outboxVaziaUmaConsulta() {
+		outbox.descarregar();
+
+		verify(repository, times(1)).descarregarLote(3);
+	}
+}
@@ -0,0 +1,246 @@
+package br.com.bravvo.api.service;
+
+import br.com.bravvo.api.event.DisponibilidadeAlteradaEvent;
+import br.com.bravvo.api.exception.BusinessException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.*;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Reservas temporárias: disputa pelo mesmo horário, dono do token, expiração e
+ * eventos de ocupação.
+ */
+class ReservasTemporariasTest {
+
+	private static final ZoneId ZONA = ZoneId.of("America/Sao_Paulo");
+	private static final LocalDateTime NOVE = LocalDateTime.of(2026, 3, 10, 9, 0);
+
+	private final List<DisponibilidadeAlteradaEvent> eventos = Collections.synchronizedList(new ArrayList<>());
+	private final ApplicationEventPublisher publisher = e -> eventos.add((DisponibilidadeAlteradaEvent) e);
+
+	private MutableClock clock;
+	private ReservasTemporarias reservas;
+
+	@BeforeEach
+	void setUp() {
+		clock = new MutableClock(NOVE.minusDays(1).atZone(ZONA).toInstant());
+		reservas = new ReservasTemporarias(publisher, clock, Duration.ofMinutes(5), 100, 1, 100);
+	}
+
+	@Test
+	void mesmoHorarioSoUmaReserva() throws Exception {
+		int threads = 100;
+		CountDownLatch largada = new CountDownLatch(1);
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		AtomicInteger sucesso = new AtomicInteger();
+		AtomicInteger recusadas = new AtomicInteger();
+
+		List<Future<?>> futuros = new ArrayList<>();
+		for (int i = 0; i < threads; i++) {
+			// intervalos diferentes, mas todos sobrepostos a 9:00-9:30
+			int deslocamento = i % 20;
+			String ip = "10.0.0." + i;
+			futuros.add(pool.submit(() -> {
+				largada.await();
+				try {
+					reservas.reservar(1L, 2L, NOVE.plusMinutes(deslocamento), NOVE.plusMinutes(deslocamento + 30), ip);
+					sucesso.incrementAndGet();
+				} catch (BusinessException e) {
+					recusadas.incrementAndGet();
+				}
+				return null;
+			}));
+		}
+		largada.countDown();
+		for (Future<?> f : futuros) {
+			f.get(10, TimeUnit.SECONDS);
+		}
+		pool.shutdownNow();
+
+		assertEquals(1, sucesso.get());
+		assertEquals(threads - 1, recusadas.get());
+		assertEquals(1, reservas.getTotal());
+		assertEquals(1, eventos.size());
+	}
+
+	@Test
+	void horariosVizinhosEOutroFuncionarioNaoConflitam() {
+		reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+		reservas.reservar(1L, 2L, NOVE.plusMinutes(30), NOVE.plusMinutes(60), "b");
+		reservas.reservar(1L, 3L, NOVE, NOVE.plusMinutes(30), "c");
+
+		assertEquals(3, reservas.getTotal());
+		assertEquals(2, reservas.ativas(2L, NOVE.toLocalDate()).size());
+	}
+
+	@Test
+	void donoDoTokenNaoConflita() {
+		var r = reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+
+		assertTrue(reservas.conflita(2L, NOVE, NOVE.plusMinutes(30), null));
+		assertTrue(reservas.conflita(2L, NOVE.plusMinutes(15), NOVE.plusMinutes(45), "outro"));
+		assertFalse(reservas.conflita(2L, NOVE, NOVE.plusMinutes(30), r.getToken()));
+		assertFalse(reservas.conflita(3L, NOVE, NOVE.plusMinutes(30), null));
+	}
+
+	@Test
+	void expiraELiberaOHorario() {
+		var r = reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+		assertEquals(DisponibilidadeAlteradaEvent.Tipo.OCUPADO, eventos.get(0).getTipo());
+
+		clock.avancar(Duration.ofMinutes(5));
+
+		// vencida: não conta mais, mesmo antes da varredura
+		assertNull(reservas.buscar(r.getToken()));
+		assertFalse(reservas.conflita(2L, NOVE, NOVE.plusMinutes(30), null));
+		assertTrue(reservas.ativas(2L, NOVE.toLocalDate()).isEmpty());
+
+		reservas.expirar();
+
+		assertEquals(0, reservas.getTotal());
+		assertEquals(2, eventos.size());
+		assertEquals(DisponibilidadeAlteradaEvent.Tipo.LIBERADO, eventos.get(1).getTipo());
+		assertEquals(2L, eventos.get(1).getFuncionarioId());
+
+		// horário volta a ser reservável
+		assertNotNull(reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a"));
+	}
+
+	@Test
+	void liberarDevolveUmaVez() {
+		var r = reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+
+		assertTrue(reservas.liberar(r.getToken()));
+		assertFalse(reservas.liberar(r.getToken()));
+		assertEquals(0, reservas.getTotal());
+		assertEquals(2, eventos.size());
+	}
+
+	@Test
+	void semTransacaoConsomeNaHora() {
+		var r = reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+
+		reservas.consumirAposCommit(r.getToken());
+
+		assertNull(reservas.buscar(r.getToken()));
+		assertEquals(0, reservas.getTotal());
+	}
+
+	@Test
+	void limiteDeReservas() {
+		ReservasTemporarias pequenas = new ReservasTemporarias(publisher, clock, Duration.ofMinutes(5), 2, 1, 100);
+		pequenas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+		pequenas.reservar(1L, 3L, NOVE, NOVE.plusMinutes(30), "b");
+
+		assertThrows(BusinessException.class, () -> pequenas.reservar(1L, 4L, NOVE, NOVE.plusMinutes(30), "c"));
+		assertEquals(2, pequenas.getTotal());
+	}
+
+	@Test
+	void segundaReservaDoMesmoChamadorRecusada() {
+		var r = reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "10.0.0.1");
+
+		// outro horário, outro funcionário: continua recusada
+		assertThrows(BusinessException.class,
+				() -> reservas.reservar(1L, 3L, NOVE.plusHours(2), NOVE.plusHours(2).plusMinutes(30), "10.0.0.1"));
+		assertEquals(1, reservas.getTotal());
+		assertEquals(1, eventos.size());
+
+		// outro chamador passa
+		assertNotNull(reservas.reservar(1L, 3L, NOVE.plusHours(2), NOVE.plusHours(2).plusMinutes(30), "10.0.0.2"));
+
+		// liberou (ou expirou): o chamador pode reservar de novo
+		reservas.liberar(r.getToken());
+		assertNotNull(reservas.reservar(1L, 2L, NOVE.plusHours(4), NOVE.plusHours(4).plusMinutes(30), "10.0.0.1"));
+	}
+
+	@Test
+	void recusaNoHorarioDevolveAVagaDoChamador() {
+		reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+
+		assertThrows(BusinessException.class, () -> reservas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "b"));
+		assertNotNull(reservas.reservar(1L, 2L, NOVE.plusHours(1), NOVE.plusHours(1).plusMinutes(30), "b"));
+	}
+
+	@Test
+	void limitePorFuncionarioDia() {
+		ReservasTemporarias limitadas = new ReservasTemporarias(publisher, clock, Duration.ofMinutes(5), 100, 1, 2);
+		limitadas.reservar(1L, 2L, NOVE, NOVE.plusMinutes(30), "a");
+		limitadas.reservar(1L, 2L, NOVE.plusHours(1), NOVE.plusHours(1).plusMinutes(30), "b");
+
+		// terceiro chamador no mesmo dia do mesmo funcionário
+		assertThrows(BusinessException.class,
+				() -> limitadas.reservar(1L, 2L, NOVE.plusHours(2), NOVE.plusHours(2).plusMinutes(30), "c"));
+
+		// outro dia e outro funcionário seguem livres
+		assertNotNull(limitadas.reservar(1L, 2L, NOVE.plusDays(1), NOVE.plusDays(1).plusMinutes(30), "c"));
+		assertNotNull(limitadas.reservar(1L, 3L, NOVE.plusHours(2), NOVE.plusHours(2).plusMinutes(30), "d"));
+	}
+
+	@Test
+	void reservaQueAtravessaAMeiaNoiteConflitaNosDoisDias() {
+		LocalDateTime tarde = NOVE.toLocalDate().atTime(23, 30);
+		LocalDateTime madrugada = tarde.plusMinutes(30);
+		var r = reservas.reservar(1L, 2L, tarde, tarde.plusHours(1), "a");
+
+		// consultada a partir do dia seguinte
+		assertTrue(reservas.conflita(2L, madrugada, madrugada.plusMinutes(30), null));
+		assertEquals(1, reservas.ativas(2L, madrugada.toLocalDate()).size());
+		assertThrows(BusinessException.class,
+				() -> reservas.reservar(1L, 2L, madrugada, madrugada.plusMinutes(30), "b"));
+
+		reservas.liberar(r.getToken());
+		assertTrue(reservas.ativas(2L, tarde.toLocalDate()).isEmpty());
+		assertTrue(reservas.ativas(2L, madrugada.toLocalDate()).isEmpty());
+		assertNotNull(reservas.reservar(1L, 2L, madrugada, madrugada.plusMinutes(30), "b"));
+	}
+
+	@Test
+	void recusaNoSegundoDiaDesfazOPrimeiro() {
+		LocalDateTime madrugada = NOVE.toLocalDate().plusDays(1).atStartOfDay();
+		reservas.reservar(1L, 2L, madrugada, madrugada.plusMinutes(30), "a");
+
+		assertThrows(BusinessException.class,
+				() -> reservas.reservar(1L, 2L, madrugada.minusMinutes(30), madrugada.plusMinutes(30), "b"));
+
+		assertTrue(reservas.ativas(2L, NOVE.toLocalDate()).isEmpty());
+		assertEquals(1, reservas.getTotal());
+	}
+
+	private static final class MutableClock extends Clock {
+
+		private volatile Instant agora;
+
+		private MutableClock(Instant agora) {
+			this.agora = agora;
+		}
+
+		private void avancar(Duration d) {
+			agora = agora.plus(d);
+		}
+
+		@Override
+		public ZoneId getZone() {
+			return ZONA;
+		}
+
+		@Override
+		public Clock withZone(ZoneId zone) {
+			return this;
+		}
+
+		@Override
+		public Instant instant() {
+			return agora;
+		}
+	}
+}
@@ -0,0 +1,174 @@
+package br.com.bravvo.api.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Testes de propriedade: para dias aleatórios (janelas, bloqueios/agendamentos
+ * sobrepostos, com segundos, atravessando a meia-noite), o {@link DiaOcupacao}
+ * (montado pelo {@link SlotSweep}) deve gerar exatamente os mesmos horários que
+ * o algoritmo anterior (laço slots x intervalos com LocalDateTime), e o
+ * conflito do sweep deve bater com o laço de comparação.
+ *
+ * Seed fixa: falhas são reproduzíveis.
+ */
+class SlotSweepTest {
+
+	private static final DateTimeFormatter HHMM = DateTimeFormatter.ofPattern("HH:mm");
+
+	private static final int CASOS = 5_000;
+
+	@Test
+	void slotsIguaisAoAlgoritmoAnterior() {
+		Random random = new Random(20260105L);
+		LocalDate data = LocalDate.of(2026, 1, 5);
+
+		for (int caso = 0; caso < CASOS; caso++) {
+			List<LocalTime[]> janelas = janelasAleatorias(random);
+			List<LocalDateTime[]> ocupados = ocupadosAleatorios(random, data);
+			int duracaoMin = 5 + random.nextInt(116);
+
+			List<String> esperado = algoritmoAnterior(data, janelas, ocupados, duracaoMin);
+
+			assertEquals(esperado, viaBitmap(data, janelas, ocupados, duracaoMin), "bitmap, caso " + caso);
+		}
+	}
+
+	@Test
+	void conflitoIgualAoLacoAnterior() {
+		Random random = new Random(42L);
+		LocalDate data = LocalDate.of(2026, 1, 5);
+
+		for (int caso = 0; caso < CASOS; caso++) {
+			List<LocalDateTime[]> ocupados = ocupadosAleatorios(random, data);
+
+			SlotSweep.Builder builder = SlotSweep.builder();
+			ocupados.forEach(o -> builder.add(o[0], o[1]));
+			SlotSweep sweep = builder.build();
+
+			LocalDateTime inicio = data.atTime(random.nextInt(24), random.nextInt(60));
+			LocalDateTime fim = inicio.plusMinutes(1 + random.nextInt(180));
+
+			boolean esperado = ocupados.stream().anyMatch(o -> o[0].isBefore(fim) && o[1].isAfter(inicio));
+
+			assertEquals(esperado,
+					sweep.conflita(SlotSweep.epochMinuto(inicio), SlotSweep.epochMinutoTeto(fim)),
+					"caso " + caso);
+		}
+	}
+
+	@Test
+	void fundeIntervalosSobrepostosEEncostados() {
+		SlotSweep sweep = SlotSweep.builder().add(30, 40).add(10, 20).add(15, 25).add(25, 28).add(50, 50).build();
+
+		assertEquals(2, sweep.size());
+		assertEquals(10, sweep.inicio(0));
+		assertEquals(28, sweep.fim(0));
+		assertEquals(30, sweep.inicio(1));
+		assertEquals(40, sweep.fim(1));
+	}
+
+	// ==========================================================
+	// Implementações comparadas
+	// ==========================================================
+
+	/**
+	 * Cópia do laço original de PublicDisponibilidadeService (antes do índice).
+	 */
+	private static List<String> algoritmoAnterior(LocalDate data, List<LocalTime[]> janelas,
+			List<LocalDateTime[]> ocupados, int duracaoMin) {
+
+		Duration duracao = Duration.ofMinutes(duracaoMin);
+		List<String> horarios = new ArrayList<>();
+
+		for (LocalTime[] j : janelas) {
+			LocalDateTime slotStart = LocalDateTime.of(data, j[0]);
+			LocalDateTime lastStart = LocalDateTime.of(data, j[1]).minus(duracao);
+
+			while (!slotStart.isAfter(lastStart)) {
+				LocalDateTime slotEnd = slotStart.plus(duracao);
+
+				boolean conflita = false;
+				for (LocalDateTime[] o : ocupados) {
+					if (o[0].isBefore(slotEnd) && o[1].isAfter(slotStart)) {
+						conflita = true;
+						break;
+					}
+				}
+				if (!conflita) {
+					horarios.add(slotStart.toLocalTime().format(HHMM));
+				}
+
+				slotStart = slotStart.plusMinutes(duracaoMin);
+			}
+		}
+		return horarios;
+	}
+
+	private static List<String> viaBitmap(LocalDate data, List<LocalTime[]> janelas, List<LocalDateTime[]> ocupados,
+			int duracaoMin) {
+
+		DiaOcupacao.Builder builder = DiaOcupacao.builder(data);
+		janelas.forEach(j -> builder.janela(j[0], j[1]));
+		ocupados.forEach(o -> builder.ocupado(o[0], o[1]));
+		return builder.build().horarios(duracaoMin);
+	}
+
+	// ==========================================================
+	// Geradores
+	// ==========================================================
+
+	/**
+	 * Até 2 janelas sem sobreposição (como a agenda valida), em minutos cheios.
+	 */
+	private static List<LocalTime[]> janelasAleatorias(Random random) {
+		List<LocalTime[]> janelas = new ArrayList<>();
+
+		int inicio1 = random.nextInt(12 * 60);
+		int fim1 = inicio1 + 30 + random.nextInt(6 * 60);
+		janelas.add(new LocalTime[] { minuto(inicio1), minuto(fim1) });
+
+		if (random.nextBoolean() && fim1 < 23 * 60) {
+			int inicio2 = fim1 + random.nextInt(23 * 60 - fim1);
+			int fim2 = Math.min(24 * 60 - 1, inicio2 + 30 + random.nextInt(5 * 60));
+			if (fim2 > inicio2) {
+				janelas.add(new LocalTime[] { minuto(inicio2), minuto(fim2) });
+			}
+		}
+		return janelas;
+	}
+
+	/**
+	 * Intervalos ocupados com segundos, sobrepostos, às vezes vindos do dia
+	 * anterior ou indo para o seguinte.
+	 */
+	private static List<LocalDateTime[]> ocupadosAleatorios(Random random, LocalDate data) {
+		int quantidade = random.nextInt(40);
+		List<LocalDateTime[]> ocupados = new ArrayList<>(quantidade);
+
+		LocalDateTime base = data.atStartOfDay().minusHours(2);
+		for (int i = 0; i < quantidade; i++) {
+			LocalDateTime inicio = base.plusSeconds(random.nextInt(28 * 3600));
+			if (random.nextInt(4) > 0) {
+				inicio = inicio.withSecond(0);
+			}
+			LocalDateTime fim = inicio.plusSeconds(60 + random.nextInt(3 * 3600));
+			ocupados.add(new LocalDateTime[] { inicio, fim });
+		}
+		return ocupados;
+	}
+
+	private static LocalTime minuto(int minutoDoDia) {
+		return LocalTime.of(minutoDoDia / 60, minutoDoDia % 60);
+	}
+}